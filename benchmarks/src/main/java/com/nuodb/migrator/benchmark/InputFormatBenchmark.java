@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.FormatFactory;
+import com.nuodb.migrator.backup.format.InputFormat;
+import com.nuodb.migrator.backup.format.OutputFormat;
+import com.nuodb.migrator.backup.format.SimpleFormatFactory;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.sql.ResultSet;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Measures rows per second read by input formats from an in-memory chunk, which is written by the matching output
+ * format on setup. Every row is bound to an in-memory prepared statement through value formats exactly as load
+ * does. Run with {@code -prof gc} to get bytes allocated per row.
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class InputFormatBenchmark {
+
+    public static final int ROWS = 1000;
+
+    @Param({"csv", "xml", "bson", "columnar"})
+    public String format;
+
+    @Param({RowSetFixture.COLUMNS_MIXED, RowSetFixture.COLUMNS_NUMERIC, RowSetFixture.COLUMNS_STRING,
+            RowSetFixture.COLUMNS_TEMPORAL, RowSetFixture.COLUMNS_LOB})
+    public String columns;
+
+    @Param({RowSetFixture.DIALECT_NUODB})
+    public String dialect;
+
+    private FormatFactory formatFactory;
+    private Map<String, Object> formatAttributes;
+    private RowSet rowSet;
+    private ValueHandleList valueHandleList;
+    private byte[] chunk;
+
+    @Setup
+    public void setUp() throws Exception {
+        RowSetFixture fixture = new RowSetFixture(dialect, columns, ROWS);
+        formatFactory = new SimpleFormatFactory();
+        formatAttributes = newHashMap();
+        chunk = write(fixture);
+        valueHandleList = fixture.newValueHandleList(fixture.newPreparedStatement());
+        rowSet = fixture.newRowSet(valueHandleList);
+    }
+
+    protected byte[] write(RowSetFixture fixture) throws Exception {
+        ResultSet resultSet = fixture.newResultSet();
+        ValueHandleList valueHandleList = fixture.newValueHandleList(resultSet);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        OutputFormat outputFormat = formatFactory.createOutputFormat(format, formatAttributes);
+        outputFormat.setRowSet(fixture.newRowSet(valueHandleList));
+        outputFormat.setValueHandleList(valueHandleList);
+        outputFormat.setOutputStream(outputStream);
+        outputFormat.init();
+        outputFormat.writeStart();
+        for (int row = 0; row < ROWS; row++) {
+            resultSet.next();
+            outputFormat.write();
+        }
+        outputFormat.writeEnd();
+        outputFormat.close();
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long read() throws Exception {
+        InputFormat inputFormat = formatFactory.createInputFormat(format, formatAttributes);
+        inputFormat.setRowSet(rowSet);
+        inputFormat.setValueHandleList(valueHandleList);
+        inputFormat.setInputStream(new ByteArrayInputStream(chunk));
+        inputFormat.init();
+        inputFormat.readStart();
+        long rows = 0;
+        while (inputFormat.read()) {
+            rows++;
+        }
+        inputFormat.readEnd();
+        inputFormat.close();
+        return rows;
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+/**
+ * Factories of in-memory JDBC stubs used to drive value formats without a database. Stubs are plain classes rather
+ * than dynamic proxies, so that reflective dispatch doesn't add to the measured time.
+ *
+ * @author Sergey Bushik
+ */
+public class JdbcStubs {
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private JdbcStubs() {
+    }
+
+    public static Connection newConnection() {
+        return new ConnectionStub();
+    }
+
+    /**
+     * Creates result set cycling through the rows, {@link ResultSet#next()} always returns true.
+     *
+     * @param rows of column values, values are converted to the type requested by getter.
+     * @return result set stub.
+     */
+    public static ResultSet newResultSet(Object[][] rows) {
+        return new ResultSetStub(rows);
+    }
+
+    /**
+     * Creates prepared statement which accepts and drops bound parameters.
+     *
+     * @return prepared statement stub.
+     */
+    public static PreparedStatement newPreparedStatement() {
+        return new PreparedStatementStub();
+    }
+
+    public static Blob newBlob(byte[] bytes) {
+        return new BlobStub(bytes);
+    }
+
+    public static Clob newClob(String string) {
+        return new ClobStub(string);
+    }
+
+    public static NClob newNClob(String string) {
+        return new NClobStub(string);
+    }
+
+    protected static Object convert(Object value, Class<?> type) {
+        if (type.isInstance(value)) {
+            return value;
+        } else if (type == String.class) {
+            return value instanceof byte[] ? new String((byte[]) value, UTF_8) : value.toString();
+        } else if (type == boolean.class) {
+            return value instanceof Boolean ? value : ((Number) value).intValue() != 0;
+        } else if (type == byte.class) {
+            return ((Number) value).byteValue();
+        } else if (type == short.class) {
+            return ((Number) value).shortValue();
+        } else if (type == int.class) {
+            return ((Number) value).intValue();
+        } else if (type == long.class) {
+            return ((Number) value).longValue();
+        } else if (type == float.class) {
+            return ((Number) value).floatValue();
+        } else if (type == double.class) {
+            return ((Number) value).doubleValue();
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(value.toString());
+        } else if (type == Date.class) {
+            return new Date(((java.util.Date) value).getTime());
+        } else if (type == Time.class) {
+            return new Time(((java.util.Date) value).getTime());
+        } else if (type == Timestamp.class) {
+            return new Timestamp(((java.util.Date) value).getTime());
+        } else if (type == byte[].class) {
+            return value.toString().getBytes(UTF_8);
+        } else if (type == InputStream.class) {
+            return new ByteArrayInputStream(value instanceof byte[] ? (byte[]) value :
+                    value.toString().getBytes(UTF_8));
+        } else if (type == Reader.class) {
+            return new StringReader(value.toString());
+        } else if (type == Blob.class) {
+            return newBlob(value instanceof byte[] ? (byte[]) value : value.toString().getBytes(UTF_8));
+        } else if (type == Clob.class) {
+            return newClob(value.toString());
+        } else if (type == NClob.class) {
+            return newNClob(value.toString());
+        }
+        throw new IllegalArgumentException(
+                String.format("Can't convert %s to %s", value.getClass().getName(), type.getName()));
+    }
+}
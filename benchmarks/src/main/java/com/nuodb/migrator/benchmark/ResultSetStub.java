@@ -0,0 +1,940 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+import static com.nuodb.migrator.benchmark.JdbcStubs.convert;
+
+/**
+ * Result set cycling through the rows endlessly, {@link #next()} always returns true. Values of the current row are
+ * converted to the type requested by a getter, getters by column label and updaters are no-ops.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class ResultSetStub implements ResultSet {
+
+    private final Object[][] rows;
+    private int row = -1;
+    private boolean wasNull;
+
+    public ResultSetStub(Object[][] rows) {
+        this.rows = rows;
+    }
+
+    protected Object getValue(int columnIndex, Class<?> type) {
+        Object value = rows[row][columnIndex - 1];
+        wasNull = value == null;
+        return value != null ? convert(value, type) : null;
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        row = row + 1 < rows.length ? row + 1 : 0;
+        return true;
+    }
+
+    @Override
+    public void close() throws SQLException {
+    }
+
+    @Override
+    public boolean wasNull() throws SQLException {
+        return wasNull;
+    }
+
+    @Override
+    public String getString(int columnIndex) throws SQLException {
+        return (String) getValue(columnIndex, String.class);
+    }
+
+    @Override
+    public boolean getBoolean(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex, boolean.class);
+        return value != null ? (Boolean) value : false;
+    }
+
+    @Override
+    public byte getByte(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex, byte.class);
+        return value != null ? (Byte) value : 0;
+    }
+
+    @Override
+    public short getShort(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex, short.class);
+        return value != null ? (Short) value : 0;
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex, int.class);
+        return value != null ? (Integer) value : 0;
+    }
+
+    @Override
+    public long getLong(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex, long.class);
+        return value != null ? (Long) value : 0;
+    }
+
+    @Override
+    public float getFloat(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex, float.class);
+        return value != null ? (Float) value : 0;
+    }
+
+    @Override
+    public double getDouble(int columnIndex) throws SQLException {
+        Object value = getValue(columnIndex, double.class);
+        return value != null ? (Double) value : 0;
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+        return (BigDecimal) getValue(columnIndex, BigDecimal.class);
+    }
+
+    @Override
+    public byte[] getBytes(int columnIndex) throws SQLException {
+        return (byte[]) getValue(columnIndex, byte[].class);
+    }
+
+    @Override
+    public Date getDate(int columnIndex) throws SQLException {
+        return (Date) getValue(columnIndex, Date.class);
+    }
+
+    @Override
+    public Time getTime(int columnIndex) throws SQLException {
+        return (Time) getValue(columnIndex, Time.class);
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        return (Timestamp) getValue(columnIndex, Timestamp.class);
+    }
+
+    @Override
+    public InputStream getAsciiStream(int columnIndex) throws SQLException {
+        return (InputStream) getValue(columnIndex, InputStream.class);
+    }
+
+    @Override
+    public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+        return (InputStream) getValue(columnIndex, InputStream.class);
+    }
+
+    @Override
+    public InputStream getBinaryStream(int columnIndex) throws SQLException {
+        return (InputStream) getValue(columnIndex, InputStream.class);
+    }
+
+    @Override
+    public String getString(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public boolean getBoolean(String columnLabel) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public byte getByte(String columnLabel) throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public short getShort(String columnLabel) throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getInt(String columnLabel) throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public long getLong(String columnLabel) throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public float getFloat(String columnLabel) throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public double getDouble(String columnLabel) throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public byte[] getBytes(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Date getDate(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Time getTime(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public InputStream getAsciiStream(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public InputStream getBinaryStream(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+    }
+
+    @Override
+    public String getCursorName() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Object getObject(int columnIndex) throws SQLException {
+        return getValue(columnIndex, Object.class);
+    }
+
+    @Override
+    public Object getObject(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public int findColumn(String columnLabel) throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public Reader getCharacterStream(int columnIndex) throws SQLException {
+        return (Reader) getValue(columnIndex, Reader.class);
+    }
+
+    @Override
+    public Reader getCharacterStream(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        return (BigDecimal) getValue(columnIndex, BigDecimal.class);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public void beforeFirst() throws SQLException {
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public boolean absolute(int row) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean relative(int rows) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getType() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getConcurrency() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public boolean rowUpdated() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean rowInserted() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean rowDeleted() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public void updateNull(int columnIndex) throws SQLException {
+    }
+
+    @Override
+    public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+    }
+
+    @Override
+    public void updateByte(int columnIndex, byte x) throws SQLException {
+    }
+
+    @Override
+    public void updateShort(int columnIndex, short x) throws SQLException {
+    }
+
+    @Override
+    public void updateInt(int columnIndex, int x) throws SQLException {
+    }
+
+    @Override
+    public void updateLong(int columnIndex, long x) throws SQLException {
+    }
+
+    @Override
+    public void updateFloat(int columnIndex, float x) throws SQLException {
+    }
+
+    @Override
+    public void updateDouble(int columnIndex, double x) throws SQLException {
+    }
+
+    @Override
+    public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+    }
+
+    @Override
+    public void updateString(int columnIndex, String x) throws SQLException {
+    }
+
+    @Override
+    public void updateBytes(int columnIndex, byte[] x) throws SQLException {
+    }
+
+    @Override
+    public void updateDate(int columnIndex, Date x) throws SQLException {
+    }
+
+    @Override
+    public void updateTime(int columnIndex, Time x) throws SQLException {
+    }
+
+    @Override
+    public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x, int length) throws SQLException {
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x, int length) throws SQLException {
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x, int length) throws SQLException {
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x) throws SQLException {
+    }
+
+    @Override
+    public void updateNull(String columnLabel) throws SQLException {
+    }
+
+    @Override
+    public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+    }
+
+    @Override
+    public void updateByte(String columnLabel, byte x) throws SQLException {
+    }
+
+    @Override
+    public void updateShort(String columnLabel, short x) throws SQLException {
+    }
+
+    @Override
+    public void updateInt(String columnLabel, int x) throws SQLException {
+    }
+
+    @Override
+    public void updateLong(String columnLabel, long x) throws SQLException {
+    }
+
+    @Override
+    public void updateFloat(String columnLabel, float x) throws SQLException {
+    }
+
+    @Override
+    public void updateDouble(String columnLabel, double x) throws SQLException {
+    }
+
+    @Override
+    public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+    }
+
+    @Override
+    public void updateString(String columnLabel, String x) throws SQLException {
+    }
+
+    @Override
+    public void updateBytes(String columnLabel, byte[] x) throws SQLException {
+    }
+
+    @Override
+    public void updateDate(String columnLabel, Date x) throws SQLException {
+    }
+
+    @Override
+    public void updateTime(String columnLabel, Time x) throws SQLException {
+    }
+
+    @Override
+    public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x, int length) throws SQLException {
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x, int length) throws SQLException {
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader, int length) throws SQLException {
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x) throws SQLException {
+    }
+
+    @Override
+    public void insertRow() throws SQLException {
+    }
+
+    @Override
+    public void updateRow() throws SQLException {
+    }
+
+    @Override
+    public void deleteRow() throws SQLException {
+    }
+
+    @Override
+    public void refreshRow() throws SQLException {
+    }
+
+    @Override
+    public void cancelRowUpdates() throws SQLException {
+    }
+
+    @Override
+    public void moveToInsertRow() throws SQLException {
+    }
+
+    @Override
+    public void moveToCurrentRow() throws SQLException {
+    }
+
+    @Override
+    public Statement getStatement() throws SQLException {
+        return null;
+    }
+
+    public Object getObject(int columnIndex, Map<String,Class<?>> map) throws SQLException {
+        return getValue(columnIndex, Object.class);
+    }
+
+    @Override
+    public Ref getRef(int columnIndex) throws SQLException {
+        return (Ref) getValue(columnIndex, Ref.class);
+    }
+
+    @Override
+    public Blob getBlob(int columnIndex) throws SQLException {
+        return (Blob) getValue(columnIndex, Blob.class);
+    }
+
+    @Override
+    public Clob getClob(int columnIndex) throws SQLException {
+        return (Clob) getValue(columnIndex, Clob.class);
+    }
+
+    @Override
+    public Array getArray(int columnIndex) throws SQLException {
+        return (Array) getValue(columnIndex, Array.class);
+    }
+
+    public Object getObject(String columnLabel, Map<String,Class<?>> map) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Ref getRef(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Blob getBlob(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Clob getClob(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Array getArray(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+        return (Date) getValue(columnIndex, Date.class);
+    }
+
+    @Override
+    public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+        return (Time) getValue(columnIndex, Time.class);
+    }
+
+    @Override
+    public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+        return (Timestamp) getValue(columnIndex, Timestamp.class);
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public URL getURL(int columnIndex) throws SQLException {
+        return (URL) getValue(columnIndex, URL.class);
+    }
+
+    @Override
+    public URL getURL(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void updateRef(int columnIndex, Ref x) throws SQLException {
+    }
+
+    @Override
+    public void updateRef(String columnLabel, Ref x) throws SQLException {
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, Blob x) throws SQLException {
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, Blob x) throws SQLException {
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Clob x) throws SQLException {
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Clob x) throws SQLException {
+    }
+
+    @Override
+    public void updateArray(int columnIndex, Array x) throws SQLException {
+    }
+
+    @Override
+    public void updateArray(String columnLabel, Array x) throws SQLException {
+    }
+
+    @Override
+    public RowId getRowId(int columnIndex) throws SQLException {
+        return (RowId) getValue(columnIndex, RowId.class);
+    }
+
+    @Override
+    public RowId getRowId(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void updateRowId(int columnIndex, RowId x) throws SQLException {
+    }
+
+    @Override
+    public void updateRowId(String columnLabel, RowId x) throws SQLException {
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public void updateNString(int columnIndex, String nString) throws SQLException {
+    }
+
+    @Override
+    public void updateNString(String columnLabel, String nString) throws SQLException {
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, NClob nClob) throws SQLException {
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, NClob nClob) throws SQLException {
+    }
+
+    @Override
+    public NClob getNClob(int columnIndex) throws SQLException {
+        return (NClob) getValue(columnIndex, NClob.class);
+    }
+
+    @Override
+    public NClob getNClob(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public SQLXML getSQLXML(int columnIndex) throws SQLException {
+        return (SQLXML) getValue(columnIndex, SQLXML.class);
+    }
+
+    @Override
+    public SQLXML getSQLXML(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void updateSQLXML(int columnIndex, SQLXML xmlObject) throws SQLException {
+    }
+
+    @Override
+    public void updateSQLXML(String columnLabel, SQLXML xmlObject) throws SQLException {
+    }
+
+    @Override
+    public String getNString(int columnIndex) throws SQLException {
+        return (String) getValue(columnIndex, String.class);
+    }
+
+    @Override
+    public String getNString(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Reader getNCharacterStream(int columnIndex) throws SQLException {
+        return (Reader) getValue(columnIndex, Reader.class);
+    }
+
+    @Override
+    public Reader getNCharacterStream(String columnLabel) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream inputStream, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream inputStream, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader reader, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader reader, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader reader, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader reader, long length) throws SQLException {
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader x) throws SQLException {
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader reader) throws SQLException {
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader reader) throws SQLException {
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream inputStream) throws SQLException {
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream inputStream) throws SQLException {
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader reader) throws SQLException {
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader reader) throws SQLException {
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader reader) throws SQLException {
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader reader) throws SQLException {
+    }
+
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        return (T) getValue(columnIndex, Object.class);
+    }
+
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return null;
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return false;
+    }
+}
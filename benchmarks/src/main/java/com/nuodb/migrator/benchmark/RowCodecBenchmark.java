@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import com.nuodb.migrator.backup.format.value.RowCodec;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.ResultSet;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Measures rows per second read from a result set into values by the compiled row codec against reading them through
+ * the value handle list iterator into a new array per row. Run with {@code -prof gc}, gc.alloc.rate.norm is then
+ * the number of bytes allocated per row, which includes allocations of the reflective result set stub, so compare
+ * the two benchmarks rather than the absolute numbers.
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RowCodecBenchmark {
+
+    public static final int ROWS = 1000;
+
+    @Param({RowSetFixture.COLUMNS_MIXED, RowSetFixture.COLUMNS_NUMERIC, RowSetFixture.COLUMNS_STRING,
+            RowSetFixture.COLUMNS_TEMPORAL})
+    public String columns;
+
+    @Param({RowSetFixture.DIALECT_SIMPLE, RowSetFixture.DIALECT_NUODB})
+    public String dialect;
+
+    private ResultSet resultSet;
+    private ValueHandleList valueHandleList;
+    private RowCodec rowCodec;
+
+    @Setup
+    public void setUp() throws Exception {
+        RowSetFixture fixture = new RowSetFixture(dialect, columns, ROWS);
+        resultSet = fixture.newResultSet();
+        valueHandleList = fixture.newValueHandleList(resultSet);
+        rowCodec = new RowCodec(valueHandleList);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void iterator(Blackhole blackhole) throws Exception {
+        for (int row = 0; row < ROWS; row++) {
+            resultSet.next();
+            int index = 0;
+            Value[] values = new Value[valueHandleList.size()];
+            for (ValueHandle valueHandle : valueHandleList) {
+                values[index++] = valueHandle.getValueFormat().getValue(
+                        valueHandle.getJdbcValueAccess(), valueHandle.getJdbcValueAccessOptions());
+            }
+            blackhole.consume(values);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void codec(Blackhole blackhole) throws Exception {
+        for (int row = 0; row < ROWS; row++) {
+            resultSet.next();
+            blackhole.consume(rowCodec.getValues());
+        }
+    }
+}
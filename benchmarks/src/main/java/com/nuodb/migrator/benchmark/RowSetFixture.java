@@ -0,0 +1,277 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.TableRowSet;
+import com.nuodb.migrator.backup.format.value.NuoDBValueFormatRegistry;
+import com.nuodb.migrator.backup.format.value.SimpleValueFormatRegistry;
+import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import com.nuodb.migrator.backup.format.value.ValueHandleListBuilder;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.dialect.SimpleDialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.DatabaseInfo;
+import com.nuodb.migrator.jdbc.metadata.Table;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static com.nuodb.migrator.backup.format.value.ValueType.toAlias;
+import static java.lang.String.format;
+
+/**
+ * Synthetic table with randomly generated rows, which are served by an in-memory result set and bound to an
+ * in-memory prepared statement. Columns are given either by the name of a predefined column set or by a comma
+ * separated list of {@link Types} constant names.
+ *
+ * @author Sergey Bushik
+ */
+public class RowSetFixture {
+
+    public static final String DIALECT_SIMPLE = "simple";
+    public static final String DIALECT_NUODB = "nuodb";
+
+    public static final String COLUMNS_NUMERIC = "numeric";
+    public static final String COLUMNS_STRING = "string";
+    public static final String COLUMNS_TEMPORAL = "temporal";
+    public static final String COLUMNS_LOB = "lob";
+    public static final String COLUMNS_MIXED = "mixed";
+
+    private static final Map<String, String> COLUMNS = newHashMap();
+
+    static {
+        COLUMNS.put(COLUMNS_NUMERIC, "BIGINT,INTEGER,SMALLINT,DOUBLE,DECIMAL,BOOLEAN");
+        COLUMNS.put(COLUMNS_STRING, "CHAR,VARCHAR,LONGVARCHAR");
+        COLUMNS.put(COLUMNS_TEMPORAL, "DATE,TIME,TIMESTAMP");
+        COLUMNS.put(COLUMNS_LOB, "VARBINARY,BLOB,CLOB");
+        COLUMNS.put(COLUMNS_MIXED, "BIGINT,INTEGER,DECIMAL,VARCHAR,VARCHAR,TIMESTAMP,DATE,BOOLEAN,DOUBLE,VARBINARY");
+    }
+
+    private static final long SEED = 20130301L;
+    private static final double NULLS = 0.05;
+    private static final int LOB_LENGTH = 4096;
+    private static final String CHARACTERS =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ,;'\"<>&\n";
+
+    private final Dialect dialect;
+    private final ValueFormatRegistry valueFormatRegistry;
+    private final TimeZone timeZone = TimeZone.getDefault();
+    private final Table table;
+    private final Object[][] rows;
+    private final Connection connection = JdbcStubs.newConnection();
+
+    public RowSetFixture(String dialect, String columns, int rows) {
+        if (DIALECT_NUODB.equals(dialect)) {
+            this.dialect = new NuoDBDialect(new DatabaseInfo("NuoDB"));
+            this.valueFormatRegistry = new NuoDBValueFormatRegistry();
+        } else if (DIALECT_SIMPLE.equals(dialect)) {
+            this.dialect = new SimpleDialect(new DatabaseInfo());
+            this.valueFormatRegistry = new SimpleValueFormatRegistry();
+        } else {
+            throw new IllegalArgumentException(format("Unknown dialect %s", dialect));
+        }
+        this.table = createTable(this.dialect, COLUMNS.containsKey(columns) ? COLUMNS.get(columns) : columns);
+        this.rows = createRows(table, rows, new Random(SEED));
+    }
+
+    protected static Table createTable(Dialect dialect, String columns) {
+        Database database = new Database();
+        database.setDialect(dialect);
+        Table table = database.addCatalog("").addSchema("benchmark").addTable("benchmark");
+        int index = 0;
+        for (String typeName : columns.split(",")) {
+            typeName = typeName.trim();
+            Column column = table.addColumn("c" + index++ + "_" + typeName.toLowerCase());
+            column.setTypeCode(getTypeCode(typeName));
+            column.setTypeName(typeName);
+            column.setNullable(true);
+            switch (column.getTypeCode()) {
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                    column.setPrecision(18);
+                    column.setScale(2);
+                    break;
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.VARBINARY:
+                    column.setSize(255);
+                    break;
+                default:
+            }
+        }
+        return table;
+    }
+
+    protected static int getTypeCode(String typeName) {
+        try {
+            return Types.class.getField(typeName).getInt(null);
+        } catch (Exception exception) {
+            throw new IllegalArgumentException(format("Unknown JDBC type %s", typeName), exception);
+        }
+    }
+
+    protected static Object[][] createRows(Table table, int count, Random random) {
+        List<Column> columns = newArrayList(table.getColumns());
+        Object[][] rows = new Object[count][columns.size()];
+        for (int row = 0; row < count; row++) {
+            for (int index = 0; index < columns.size(); index++) {
+                rows[row][index] = random.nextDouble() < NULLS ? null :
+                        createValue(columns.get(index).getTypeCode(), random);
+            }
+        }
+        return rows;
+    }
+
+    protected static Object createValue(int typeCode, Random random) {
+        long time = 946684800000L + (long) (random.nextDouble() * 30L * 365L * 24L * 3600L * 1000L);
+        switch (typeCode) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return random.nextBoolean();
+            case Types.TINYINT:
+                return (short) random.nextInt(Byte.MAX_VALUE);
+            case Types.SMALLINT:
+                return (short) random.nextInt(Short.MAX_VALUE);
+            case Types.INTEGER:
+                return random.nextInt();
+            case Types.BIGINT:
+                return random.nextLong();
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return random.nextDouble() * random.nextInt();
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return BigDecimal.valueOf(random.nextInt(), 2);
+            case Types.DATE:
+                return new Date(time);
+            case Types.TIME:
+                return new Time(time);
+            case Types.TIMESTAMP:
+                return new Timestamp(time);
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                return createBytes(8 + random.nextInt(56), random);
+            case Types.BLOB:
+                return createBytes(LOB_LENGTH, random);
+            case Types.CLOB:
+            case Types.NCLOB:
+                return createString(LOB_LENGTH, random);
+            default:
+                return createString(8 + random.nextInt(56), random);
+        }
+    }
+
+    protected static byte[] createBytes(int length, Random random) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    protected static String createString(int length, Random random) {
+        StringBuilder string = new StringBuilder(length);
+        for (int index = 0; index < length; index++) {
+            string.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+        }
+        return string.toString();
+    }
+
+    public ResultSet newResultSet() {
+        return JdbcStubs.newResultSet(rows);
+    }
+
+    public PreparedStatement newPreparedStatement() {
+        return JdbcStubs.newPreparedStatement();
+    }
+
+    /**
+     * Creates value handles reading columns of the result set, as it's done by dump.
+     */
+    public ValueHandleList newValueHandleList(ResultSet resultSet) {
+        return build(newBuilder(connection, resultSet));
+    }
+
+    /**
+     * Creates value handles binding parameters of the prepared statement, as it's done by load.
+     */
+    public ValueHandleList newValueHandleList(PreparedStatement statement) {
+        return build(newBuilder(connection, statement));
+    }
+
+    protected ValueHandleList build(ValueHandleListBuilder builder) {
+        return builder.withDialect(dialect).withFields(table.getColumns()).withTimeZone(timeZone).
+                withValueFormatRegistry(valueFormatRegistry).build();
+    }
+
+    /**
+     * Creates row set with columns typed after the value handles, which is required by input formats.
+     */
+    public RowSet newRowSet(ValueHandleList valueHandleList) {
+        RowSet rowSet = new TableRowSet(table);
+        rowSet.setName(table.getName());
+        for (ValueHandle valueHandle : valueHandleList) {
+            rowSet.addColumn(valueHandle.getName(), toAlias(valueHandle.getValueType()));
+        }
+        return rowSet;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    public ValueFormatRegistry getValueFormatRegistry() {
+        return valueFormatRegistry;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public Object[][] getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Random;
+
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.formatDate;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.formatTime;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.formatTimestamp;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.parseDate;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.parseTime;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.parseTimestamp;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.parseYear;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Measures temporal values per second parsed and formatted by the hand written JDBC date time parsers and formatters
+ * against valueOf and toString methods of JDBC types. Timestamp column values are parsed the way timestamp value
+ * format did before, trying timestamp, date and year in turn and catching the exception of each mismatch, so date and
+ * year shapes show the cost of exception driven detection.
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TemporalValueBenchmark {
+
+    public static final int ROWS = 1000;
+
+    public static final String SHAPE_TIMESTAMP = "timestamp";
+    public static final String SHAPE_DATE = "date";
+    public static final String SHAPE_TIME = "time";
+    public static final String SHAPE_YEAR = "year";
+
+    @Param({SHAPE_TIMESTAMP, SHAPE_DATE, SHAPE_TIME, SHAPE_YEAR})
+    public String shape;
+
+    private final DateFormat yearFormat = new SimpleDateFormat("yyyy");
+    private String[] strings;
+    private Timestamp[] timestamps;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(ROWS);
+        strings = new String[ROWS];
+        timestamps = new Timestamp[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            Timestamp timestamp = new Timestamp(random.nextInt(Integer.MAX_VALUE) * 1000L);
+            timestamp.setNanos(random.nextInt(1000) * 1000000);
+            timestamps[row] = timestamp;
+            String value = timestamp.toString();
+            if (SHAPE_DATE.equals(shape)) {
+                value = value.substring(0, 10);
+            } else if (SHAPE_TIME.equals(shape)) {
+                value = value.substring(11, 19);
+            } else if (SHAPE_YEAR.equals(shape)) {
+                value = value.substring(0, 4);
+            }
+            strings[row] = value;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void valueOf(Blackhole blackhole) throws Exception {
+        for (int row = 0; row < ROWS; row++) {
+            String value = strings[row];
+            if (SHAPE_TIME.equals(shape)) {
+                blackhole.consume(Time.valueOf(value));
+            } else {
+                blackhole.consume(valueOfTimestamp(value));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void parse(Blackhole blackhole) throws Exception {
+        for (int row = 0; row < ROWS; row++) {
+            String value = strings[row];
+            if (SHAPE_TIME.equals(shape)) {
+                blackhole.consume(parseTime(value));
+            } else {
+                blackhole.consume(parseAnyTimestamp(value));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void valueToString(Blackhole blackhole) {
+        for (int row = 0; row < ROWS; row++) {
+            Timestamp timestamp = timestamps[row];
+            if (SHAPE_TIMESTAMP.equals(shape)) {
+                blackhole.consume(timestamp.toString());
+            } else if (SHAPE_TIME.equals(shape)) {
+                blackhole.consume(new Time(timestamp.getTime()).toString());
+            } else {
+                blackhole.consume(new Date(timestamp.getTime()).toString());
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void format(Blackhole blackhole) {
+        for (int row = 0; row < ROWS; row++) {
+            Timestamp timestamp = timestamps[row];
+            if (SHAPE_TIMESTAMP.equals(shape)) {
+                blackhole.consume(formatTimestamp(timestamp));
+            } else if (SHAPE_TIME.equals(shape)) {
+                blackhole.consume(formatTime(new Time(timestamp.getTime())));
+            } else {
+                blackhole.consume(formatDate(new Date(timestamp.getTime())));
+            }
+        }
+    }
+
+    private java.util.Date valueOfTimestamp(String value) throws ParseException {
+        try {
+            return Timestamp.valueOf(value);
+        } catch (IllegalArgumentException timestampException) {
+            try {
+                return Date.valueOf(value);
+            } catch (IllegalArgumentException dateException) {
+                return yearFormat.parse(value);
+            }
+        }
+    }
+
+    private java.util.Date parseAnyTimestamp(String value) {
+        java.util.Date date = parseTimestamp(value);
+        if (date == null) {
+            date = parseDate(value);
+        }
+        if (date == null) {
+            date = parseYear(value);
+        }
+        return date;
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueFormat;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.ResultSet;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Measures values per second converted by a value format of a single column type in both directions: from a result
+ * set to a value on dump and from a value to a prepared statement parameter on load. Value formats are resolved by
+ * the value format registry of the dialect, so the simple dialect covers JDBC value formats and the NuoDB dialect
+ * covers NuoDB specific value formats.
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@SuppressWarnings("unchecked")
+public class ValueFormatBenchmark {
+
+    public static final int ROWS = 1000;
+
+    @Param({"BOOLEAN", "SMALLINT", "INTEGER", "BIGINT", "DOUBLE", "DECIMAL", "CHAR", "VARCHAR", "DATE", "TIME",
+            "TIMESTAMP", "VARBINARY", "BLOB", "CLOB"})
+    public String type;
+
+    @Param({RowSetFixture.DIALECT_SIMPLE, RowSetFixture.DIALECT_NUODB})
+    public String dialect;
+
+    private ResultSet resultSet;
+    private ValueHandle getter;
+    private ValueFormat getterFormat;
+    private ValueHandle setter;
+    private ValueFormat setterFormat;
+    private Value[] values;
+
+    @Setup
+    public void setUp() throws Exception {
+        RowSetFixture fixture = new RowSetFixture(dialect, type, ROWS);
+        resultSet = fixture.newResultSet();
+        getter = fixture.newValueHandleList(resultSet).get(0);
+        getterFormat = getter.getValueFormat();
+        setter = fixture.newValueHandleList(fixture.newPreparedStatement()).get(0);
+        setterFormat = setter.getValueFormat();
+        values = new Value[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            resultSet.next();
+            values[row] = getterFormat.getValue(getter.getJdbcValueAccess(), getter.getJdbcValueAccessOptions());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void getValue(Blackhole blackhole) throws Exception {
+        for (int row = 0; row < ROWS; row++) {
+            resultSet.next();
+            blackhole.consume(getterFormat.getValue(getter.getJdbcValueAccess(),
+                    getter.getJdbcValueAccessOptions()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void setValue() throws Exception {
+        for (int row = 0; row < ROWS; row++) {
+            setterFormat.setValue(values[row], setter.getJdbcValueAccess(), setter.getJdbcValueAccessOptions());
+        }
+    }
+}
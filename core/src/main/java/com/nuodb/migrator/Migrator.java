@@ -35,11 +35,14 @@ import com.nuodb.migrator.jdbc.dialect.DialectResolver;
 import com.nuodb.migrator.jdbc.metadata.inspector.InspectionManager;
 import com.nuodb.migrator.job.Job;
 import com.nuodb.migrator.job.JobExecutor;
+import com.nuodb.migrator.job.MetricsJobExecutionListener;
 import com.nuodb.migrator.job.TraceJobExecutionListener;
 import com.nuodb.migrator.load.LoadJob;
+import com.nuodb.migrator.migrate.MigrateJob;
 import com.nuodb.migrator.schema.SchemaJob;
 import com.nuodb.migrator.spec.DumpJobSpec;
 import com.nuodb.migrator.spec.LoadJobSpec;
+import com.nuodb.migrator.spec.MigrateJobSpec;
 import com.nuodb.migrator.spec.SchemaJobSpec;
 import org.slf4j.Logger;
 
@@ -97,6 +100,10 @@ public class Migrator {
         execute(new LoadJob(jobSpec), context);
     }
 
+    public void execute(MigrateJobSpec jobSpec, Map<Object, Object> context) {
+        execute(new MigrateJob(jobSpec), context);
+    }
+
     public void execute(SchemaJobSpec jobSpec, Map<Object, Object> context) {
         execute(new SchemaJob(jobSpec), context);
     }
@@ -104,6 +111,7 @@ public class Migrator {
     public void execute(Job job, Map<Object, Object> context) {
         JobExecutor jobExecutor = createJobExecutor(job);
         jobExecutor.addJobExecutionListener(new TraceJobExecutionListener());
+        jobExecutor.addJobExecutionListener(new MetricsJobExecutionListener());
         jobExecutor.execute(context);
         Throwable failure = jobExecutor.getJobStatus().getFailure();
         if (failure != null) {
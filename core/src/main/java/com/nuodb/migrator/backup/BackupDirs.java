@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.FormatAttributes.ATTRIBUTE_DIRS;
+import static com.nuodb.migrator.backup.format.FormatAttributes.ATTRIBUTE_DIRS_PLACEMENT;
+import static java.lang.String.format;
+import static java.lang.String.valueOf;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.split;
+import static org.apache.commons.lang3.StringUtils.trim;
+
+/**
+ * @author Sergey Bushik
+ */
+public class BackupDirs {
+
+    /**
+     * Separator of the chunk directories in the dirs attribute
+     */
+    public static final String DIRS_SEPARATOR = ",";
+
+    /**
+     * Sets directories chunks are spread across and their placement from the format attributes.
+     *
+     * @param backupManager to set chunk directories on.
+     * @param attributes    format attributes with optional dirs and dirs.placement.
+     */
+    public static void setDirs(BackupManager backupManager, Map<String, Object> attributes) {
+        Object dirs = attributes != null ? attributes.get(ATTRIBUTE_DIRS) : null;
+        if (dirs != null) {
+            backupManager.setDirs(getDirs(valueOf(dirs)));
+        }
+        Object placement = attributes != null ? attributes.get(ATTRIBUTE_DIRS_PLACEMENT) : null;
+        if (placement != null) {
+            backupManager.setChunkPlacement(getChunkPlacement(valueOf(placement)));
+        }
+    }
+
+    public static Collection<String> getDirs(String dirs) {
+        Collection<String> values = newArrayList();
+        for (String dir : split(dirs, DIRS_SEPARATOR)) {
+            dir = trim(dir);
+            if (!isEmpty(dir)) {
+                values.add(dir);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Resolves placement by its name, round.robin or free.space.
+     */
+    public static ChunkPlacement getChunkPlacement(String name) {
+        for (ChunkPlacement chunkPlacement : ChunkPlacement.values()) {
+            if (chunkPlacement.name().replace('_', '.').equalsIgnoreCase(trim(name)) ||
+                    chunkPlacement.name().equalsIgnoreCase(trim(name))) {
+                return chunkPlacement;
+            }
+        }
+        throw new BackupException(format("Chunk placement %s is not supported", name));
+    }
+}
@@ -0,0 +1,302 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup;
+
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
+import static java.lang.String.format;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+import static org.apache.commons.lang3.StringEscapeUtils.escapeJava;
+import static org.apache.commons.lang3.StringEscapeUtils.unescapeJava;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.splitPreserveAllTokens;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Append only checkpoint journal stored next to the backup catalog. The dump records every completed query split
+ * together with the columns and the chunks it produced, the load records committed chunks, row offsets reached in
+ * partially committed chunks and completed schema steps. A run started with resume reads the journal back and skips
+ * the recorded work, a run without resume truncates it. Journal without a file keeps the records of the current run
+ * in memory only, it's used when checkpoints aren't requested.
+ * <p/>
+ * Each record is a line of tab separated fields, a record of a query split is only taken into account once its
+ * closing split line is written, so a line torn by a crash is ignored.
+ *
+ * @author Sergey Bushik
+ */
+public class BackupJournal implements Closeable {
+
+    private static final String SPLIT = "split";
+    private static final String SPLIT_COLUMN = "split.column";
+    private static final String SPLIT_CHUNK = "split.chunk";
+    private static final String CHUNK = "chunk";
+    private static final String CHUNK_OFFSET = "chunk.offset";
+    private static final String STEP = "step";
+    private static final String SEPARATOR = "\t";
+    private static final String ENCODING = "UTF-8";
+
+    private final transient Logger logger = getLogger(getClass());
+
+    private final File file;
+    private final Map<String, Split> splits = newHashMap();
+    private final Map<String, Split> pendingSplits = newHashMap();
+    private final Map<String, Long> chunkOffsets = newHashMap();
+    private final Set<String> chunks = newHashSet();
+    private final Set<String> steps = newHashSet();
+    private Writer writer;
+
+    /**
+     * @param file to store the records to, null to keep them in memory only.
+     */
+    public BackupJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the journal for appending.
+     *
+     * @param resume whether records of the previous run should be read back, otherwise the journal is truncated.
+     */
+    public synchronized void open(boolean resume) {
+        if (file == null) {
+            return;
+        }
+        try {
+            if (resume && file.exists()) {
+                read();
+            }
+            writer = new OutputStreamWriter(new FileOutputStream(file, resume), ENCODING);
+        } catch (IOException exception) {
+            throw new BackupException(format("Can't open journal %s", file), exception);
+        }
+    }
+
+    protected void read() throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), ENCODING));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    read(splitPreserveAllTokens(line, SEPARATOR));
+                } catch (RuntimeException exception) {
+                    if (logger.isWarnEnabled()) {
+                        logger.warn(format("Skipping malformed journal record %s", line));
+                    }
+                }
+            }
+        } finally {
+            closeQuietly(reader);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Resuming from journal %s with %d split(s), %d chunk(s) and %d step(s) completed",
+                    file, splits.size(), chunks.size(), steps.size()));
+        }
+    }
+
+    protected void read(String[] fields) {
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = unescapeJava(fields[i]);
+        }
+        String record = fields[0];
+        if (SPLIT_COLUMN.equals(record)) {
+            Column column = new Column(fields[3], fields[4]);
+            column.setLob(fields.length > 5 && parseBoolean(fields[5]));
+            getPendingSplit(fields[1], parseInt(fields[2])).columns.add(column);
+        } else if (SPLIT_CHUNK.equals(record)) {
+            Chunk chunk = new Chunk();
+            chunk.setName(fields[3]);
+            chunk.setRowCount(parseLong(fields[4]));
+            chunk.setCodec(fields.length > 5 && !isEmpty(fields[5]) ? fields[5] : null);
+            chunk.setDir(fields.length > 6 && !isEmpty(fields[6]) ? fields[6] : null);
+            getPendingSplit(fields[1], parseInt(fields[2])).chunks.add(chunk);
+        } else if (SPLIT.equals(record)) {
+            String key = getSplitKey(fields[1], parseInt(fields[2]));
+            Split split = pendingSplits.remove(key);
+            splits.put(key, split != null ? split : new Split());
+        } else if (CHUNK_OFFSET.equals(record)) {
+            chunkOffsets.put(getChunkKey(fields[1], fields[2]), parseLong(fields[3]));
+        } else if (CHUNK.equals(record)) {
+            chunks.add(getChunkKey(fields[1], fields[2]));
+        } else if (STEP.equals(record)) {
+            steps.add(fields[1]);
+        }
+    }
+
+    protected Split getPendingSplit(String rowSet, int splitIndex) {
+        String key = getSplitKey(rowSet, splitIndex);
+        Split split = pendingSplits.get(key);
+        if (split == null) {
+            pendingSplits.put(key, split = new Split());
+        }
+        return split;
+    }
+
+    public synchronized boolean isSplitDone(String rowSet, int splitIndex) {
+        return splits.containsKey(getSplitKey(rowSet, splitIndex));
+    }
+
+    public synchronized Collection<Column> getSplitColumns(String rowSet, int splitIndex) {
+        Split split = splits.get(getSplitKey(rowSet, splitIndex));
+        return split != null ? newArrayList(split.columns) : null;
+    }
+
+    public synchronized Collection<Chunk> getSplitChunks(String rowSet, int splitIndex) {
+        Split split = splits.get(getSplitKey(rowSet, splitIndex));
+        return split != null ? newArrayList(split.chunks) : null;
+    }
+
+    /**
+     * Records query split as completed along with the columns and the chunks it was written to.
+     */
+    public synchronized void writeSplit(String rowSet, int splitIndex, Collection<Column> columns,
+                                        Collection<Chunk> chunks) {
+        Split split = new Split();
+        for (Column column : columns) {
+            write(SPLIT_COLUMN, rowSet, splitIndex, column.getName(), column.getValueType(), column.isLob());
+            Column copy = new Column(column.getName(), column.getValueType());
+            copy.setLob(column.isLob());
+            split.columns.add(copy);
+        }
+        for (Chunk chunk : chunks) {
+            write(SPLIT_CHUNK, rowSet, splitIndex, chunk.getName(), chunk.getRowCount(), chunk.getCodec(),
+                    chunk.getDir());
+            split.chunks.add(chunk);
+        }
+        write(SPLIT, rowSet, splitIndex);
+        splits.put(getSplitKey(rowSet, splitIndex), split);
+    }
+
+    public synchronized boolean isChunkDone(String rowSet, String chunk) {
+        return chunks.contains(getChunkKey(rowSet, chunk));
+    }
+
+    /**
+     * Returns number of leading rows of the chunk which are committed to the target.
+     */
+    public synchronized long getChunkOffset(String rowSet, String chunk) {
+        Long offset = chunkOffsets.get(getChunkKey(rowSet, chunk));
+        return offset != null ? offset : 0;
+    }
+
+    public synchronized void writeChunkOffset(String rowSet, String chunk, long offset) {
+        write(CHUNK_OFFSET, rowSet, chunk, offset);
+        chunkOffsets.put(getChunkKey(rowSet, chunk), offset);
+    }
+
+    public synchronized void writeChunkDone(String rowSet, String chunk) {
+        write(CHUNK, rowSet, chunk);
+        chunks.add(getChunkKey(rowSet, chunk));
+    }
+
+    public synchronized boolean isStepDone(String step) {
+        return steps.contains(step);
+    }
+
+    public synchronized void writeStep(String step) {
+        write(STEP, step);
+        steps.add(step);
+    }
+
+    protected void write(Object... fields) {
+        if (file == null) {
+            return;
+        }
+        if (writer == null) {
+            throw new BackupException(format("Journal %s is not open", file));
+        }
+        StringBuilder record = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                record.append(SEPARATOR);
+            }
+            record.append(fields[i] != null ? escapeJava(String.valueOf(fields[i])) : "");
+        }
+        record.append('\n');
+        try {
+            writer.write(record.toString());
+            writer.flush();
+        } catch (IOException exception) {
+            throw new BackupException(format("Can't write to journal %s", file), exception);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeQuietly(writer);
+        writer = null;
+    }
+
+    /**
+     * Closes and removes the journal once the job completed successfully.
+     */
+    public synchronized void delete() {
+        close();
+        if (file != null && file.exists() && !file.delete()) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Can't delete journal %s", file));
+            }
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    private static String getSplitKey(String rowSet, int splitIndex) {
+        return rowSet + SEPARATOR + splitIndex;
+    }
+
+    private static String getChunkKey(String rowSet, String chunk) {
+        return rowSet + SEPARATOR + chunk;
+    }
+
+    private static class Split {
+
+        private final Collection<Column> columns = newArrayList();
+        private final Collection<Chunk> chunks = newArrayList();
+    }
+}
@@ -29,6 +29,7 @@ package com.nuodb.migrator.backup;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -38,14 +39,76 @@ public interface BackupManager {
 
     final String BACKUP = "backup.cat";
 
+    final String JOURNAL_EXTENSION = "journal";
+
     String getDir();
 
+    /**
+     * Returns directories chunks are spread across, chunks are written to the backup directory if there are none.
+     */
+    Collection<String> getDirs();
+
+    void setDirs(Collection<String> dirs);
+
+    ChunkPlacement getChunkPlacement();
+
+    void setChunkPlacement(ChunkPlacement chunkPlacement);
+
+    /**
+     * Chooses directory for the next chunk.
+     *
+     * @return directory or null if the chunk is written to the backup directory.
+     */
+    String nextDir();
+
     String getBackup();
 
+    /**
+     * Returns name of the checkpoint journal kept next to the backup catalog.
+     */
+    String getJournal();
+
+    BackupJournal openJournal(boolean resume);
+
+    /**
+     * Opens checkpoint journal at the given location.
+     *
+     * @param journal path to the journal file or null for the journal next to the backup catalog.
+     * @param resume  whether records of the previous run should be read back, otherwise the journal is truncated.
+     * @return opened journal.
+     */
+    BackupJournal openJournal(String journal, boolean resume);
+
     InputStream openInput(String name);
 
     OutputStream openOutput(String name);
 
+    /**
+     * Opens file in the directory, which is looked up in the backup directory and in the chunk directories if it
+     * isn't found.
+     *
+     * @param dir  directory recorded for the file or null for the backup directory.
+     * @param name of the file.
+     */
+    InputStream openInput(String dir, String name);
+
+    /**
+     * Opens file in the directory for reading through memory mapped regions of the file, which binary formats read
+     * without intermediate heap buffers.
+     *
+     * @param dir  directory recorded for the file or null for the backup directory.
+     * @param name of the file.
+     */
+    MappedInputStream openMappedInput(String dir, String name);
+
+    /**
+     * Opens file in the directory for writing.
+     *
+     * @param dir  directory chosen for the file or null for the backup directory.
+     * @param name of the file.
+     */
+    OutputStream openOutput(String dir, String name);
+
     Backup readBackup();
 
     Backup readBackup(Map context);
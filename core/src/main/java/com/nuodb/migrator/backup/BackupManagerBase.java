@@ -34,11 +34,21 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.ChunkPlacement.FREE_SPACE;
+import static com.nuodb.migrator.backup.ChunkPlacement.ROUND_ROBIN;
 import static com.nuodb.migrator.match.AntRegexCompiler.INSTANCE;
 import static java.lang.String.format;
+import static java.util.Arrays.fill;
 import static org.apache.commons.io.FileUtils.*;
+import static org.apache.commons.io.FilenameUtils.EXTENSION_SEPARATOR;
+import static org.apache.commons.io.FilenameUtils.removeExtension;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -54,6 +64,10 @@ public abstract class BackupManagerBase implements BackupManager {
 
     private final String dir;
     private final String backup;
+    private final AtomicInteger nextDir = new AtomicInteger();
+    private volatile List<String> dirs = newArrayList();
+    private long[] dirWeights = new long[0];
+    private ChunkPlacement chunkPlacement = ROUND_ROBIN;
 
     /**
      * Constructs desc manager from a full path to desc file.
@@ -90,15 +104,122 @@ public abstract class BackupManagerBase implements BackupManager {
         return dir;
     }
 
+    @Override
+    public Collection<String> getDirs() {
+        return dirs;
+    }
+
+    @Override
+    public void setDirs(Collection<String> dirs) {
+        this.dirs = dirs != null ? newArrayList(dirs) : newArrayList();
+        if (logger.isTraceEnabled() && !this.dirs.isEmpty()) {
+            logger.trace(format("Using %s directories for chunks", this.dirs));
+        }
+    }
+
+    @Override
+    public ChunkPlacement getChunkPlacement() {
+        return chunkPlacement;
+    }
+
+    @Override
+    public void setChunkPlacement(ChunkPlacement chunkPlacement) {
+        this.chunkPlacement = chunkPlacement;
+    }
+
+    @Override
+    public String nextDir() {
+        List<String> dirs = this.dirs;
+        if (dirs.isEmpty()) {
+            return null;
+        }
+        if (chunkPlacement == FREE_SPACE) {
+            return nextFreeSpaceDir(dirs);
+        } else {
+            return dirs.get((nextDir.getAndIncrement() & Integer.MAX_VALUE) % dirs.size());
+        }
+    }
+
+    /**
+     * Smooth weighted round robin over the directories weighted by their usable space, so that chunks written
+     * concurrently are spread in proportion to the free space instead of all going to the directory which had the
+     * most space before any of them were written.
+     *
+     * @param dirs directories to choose from
+     * @return directory for the next chunk
+     */
+    protected synchronized String nextFreeSpaceDir(List<String> dirs) {
+        if (dirWeights.length != dirs.size()) {
+            dirWeights = new long[dirs.size()];
+        }
+        long[] spaces = new long[dirs.size()];
+        long totalSpace = 0;
+        for (int i = 0; i < spaces.length; i++) {
+            spaces[i] = getUsableSpace(dirs.get(i));
+            totalSpace += spaces[i];
+        }
+        if (totalSpace == 0) {
+            fill(spaces, 1);
+            totalSpace = spaces.length;
+        }
+        int next = 0;
+        for (int i = 0; i < spaces.length; i++) {
+            dirWeights[i] += spaces[i];
+            if (dirWeights[i] > dirWeights[next]) {
+                next = i;
+            }
+        }
+        dirWeights[next] -= totalSpace;
+        return dirs.get(next);
+    }
+
+    protected long getUsableSpace(String dir) {
+        return getFile(dir).getUsableSpace();
+    }
+
     @Override
     public String getBackup() {
         return backup;
     }
 
+    @Override
+    public String getJournal() {
+        return removeExtension(getBackup()) + EXTENSION_SEPARATOR + JOURNAL_EXTENSION;
+    }
+
+    @Override
+    public BackupJournal openJournal(boolean resume) {
+        return openJournal(null, resume);
+    }
+
+    @Override
+    public BackupJournal openJournal(String journal, boolean resume) {
+        File file = journal != null ? getFile(journal) : getFile(getDir(), getJournal());
+        File dir = file.getAbsoluteFile().getParentFile();
+        try {
+            if (dir != null) {
+                forceMkdir(dir);
+            }
+        } catch (IOException exception) {
+            throw new BackupException(format("Can't open journal directory %s", dir), exception);
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Opening journal %s", file.getPath()));
+        }
+        BackupJournal backupJournal = new BackupJournal(file);
+        backupJournal.open(resume);
+        return backupJournal;
+    }
+
     @Override
     public InputStream openInput(String name) {
+        return openInput(null, name);
+    }
+
+    @Override
+    public InputStream openInput(String dir, String name) {
         try {
-            File file = getFile(getDir(), name);
+            File file = getInputFile(dir, name);
             if (logger.isTraceEnabled()) {
                 logger.trace(format("Opening file for reading %s", file.getPath()));
             }
@@ -108,10 +229,50 @@ public abstract class BackupManagerBase implements BackupManager {
         }
     }
 
+    @Override
+    public MappedInputStream openMappedInput(String dir, String name) {
+        RandomAccessFile file = null;
+        try {
+            File input = getInputFile(dir, name);
+            if (logger.isTraceEnabled()) {
+                logger.trace(format("Mapping file for reading %s", input.getPath()));
+            }
+            file = new RandomAccessFile(input, "r");
+            return new MappedInputStream(file.getChannel());
+        } catch (IOException exception) {
+            closeQuietly(file);
+            throw new BackupException("Error mapping file for reading", exception);
+        }
+    }
+
+    /**
+     * Finds file in the directory it was written to, falls back to the backup directory and to the chunk directories
+     * if the backup was moved or the directories are mounted elsewhere.
+     */
+    protected File getInputFile(String dir, String name) {
+        File file = getFile(dir != null ? dir : getDir(), name);
+        if (!file.exists()) {
+            Collection<String> dirs = newArrayList(getDir());
+            dirs.addAll(getDirs());
+            for (String candidate : dirs) {
+                File candidateFile = getFile(candidate, name);
+                if (candidateFile.exists()) {
+                    return candidateFile;
+                }
+            }
+        }
+        return file;
+    }
+
     @Override
     public OutputStream openOutput(String name) {
+        return openOutput(null, name);
+    }
+
+    @Override
+    public OutputStream openOutput(String dir, String name) {
         try {
-            File file = getFile(getDir(), name);
+            File file = getFile(dir != null ? dir : getDir(), name);
             if (logger.isTraceEnabled()) {
                 logger.trace(format("Opening file for writing %s", file.getPath()));
             }
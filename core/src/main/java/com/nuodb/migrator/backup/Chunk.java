@@ -34,8 +34,15 @@ import com.nuodb.migrator.utils.ObjectUtils;
  */
 public class Chunk {
 
+    /**
+     * Suffix of the side file holding large object values of the chunk
+     */
+    public static final String LOB_SUFFIX = ".lob";
+
     private String name;
     private long rowCount;
+    private String codec;
+    private String dir;
     private transient RowSet rowSet;
 
     public String getName() {
@@ -58,6 +65,29 @@ public class Chunk {
         rowCount++;
     }
 
+    public String getLobName() {
+        return name + LOB_SUFFIX;
+    }
+
+    public String getCodec() {
+        return codec;
+    }
+
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Returns directory the chunk is written to, null if the chunk is in the backup directory.
+     */
+    public String getDir() {
+        return dir;
+    }
+
+    public void setDir(String dir) {
+        this.dir = dir;
+    }
+
     public RowSet getRowSet() {
         return rowSet;
     }
@@ -75,6 +105,8 @@ public class Chunk {
 
         if (rowCount != that.rowCount) return false;
         if (name != null ? !name.equals(that.name) : that.name != null) return false;
+        if (codec != null ? !codec.equals(that.codec) : that.codec != null) return false;
+        if (dir != null ? !dir.equals(that.dir) : that.dir != null) return false;
 
         return true;
     }
@@ -83,6 +115,8 @@ public class Chunk {
     public int hashCode() {
         int result = name != null ? name.hashCode() : 0;
         result = 31 * result + (int) (rowCount ^ (rowCount >>> 32));
+        result = 31 * result + (codec != null ? codec.hashCode() : 0);
+        result = 31 * result + (dir != null ? dir.hashCode() : 0);
         return result;
     }
 
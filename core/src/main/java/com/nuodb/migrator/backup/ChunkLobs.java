@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup;
+
+import com.google.common.io.ByteStreams;
+import com.nuodb.migrator.backup.format.value.LobValue;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.apache.commons.io.input.BoundedInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+
+import static com.nuodb.migrator.backup.format.value.LobValue.CHARSET;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static java.lang.Long.parseLong;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+/**
+ * Resolves lengths of large objects read from the chunk into values streamed from the regions of the chunk side
+ * file. Large objects are written to the side file one after another in the row order, so the offset of each value
+ * is the sum of the lengths of the values preceding it, and every row of the chunk has to be passed through the
+ * {@link #resolve(Value[])} including the skipped ones.
+ *
+ * @author Sergey Bushik
+ */
+public class ChunkLobs {
+
+    private final BackupManager backupManager;
+    private final String dir;
+    private final String name;
+    private final boolean[] lobs;
+    private long offset;
+
+    public ChunkLobs(BackupManager backupManager, String name, boolean[] lobs) {
+        this(backupManager, null, name, lobs);
+    }
+
+    public ChunkLobs(BackupManager backupManager, String dir, String name, boolean[] lobs) {
+        this.backupManager = backupManager;
+        this.dir = dir;
+        this.name = name;
+        this.lobs = lobs;
+    }
+
+    /**
+     * Creates resolver for the chunk if the row set has large object columns.
+     *
+     * @return resolver or null if the row set has no large object columns
+     */
+    public static ChunkLobs create(BackupManager backupManager, RowSet rowSet, Chunk chunk) {
+        Collection<Column> columns = rowSet.getColumns();
+        boolean[] lobs = new boolean[columns.size()];
+        boolean hasLobs = false;
+        int index = 0;
+        for (Column column : columns) {
+            hasLobs |= lobs[index++] = column.isLob();
+        }
+        return hasLobs ? new ChunkLobs(backupManager, chunk.getDir(), chunk.getLobName(), lobs) : null;
+    }
+
+    /**
+     * Replaces lengths of large objects in the row with the values pointing to the side file.
+     *
+     * @param values row read from the chunk, can be null
+     * @return the same row
+     */
+    public Value[] resolve(Value[] values) {
+        if (values == null) {
+            return null;
+        }
+        for (int index = 0; index < lobs.length; index++) {
+            Value value = values[index];
+            if (lobs[index] && !value.isNull()) {
+                String reference = value.getValueType() == BINARY ?
+                        new String(value.asBytes(), CHARSET) : value.asString();
+                long length = parseLong(reference);
+                values[index] = new LobValue(value.getValueType(), length, newInput(offset, length));
+                offset += length;
+            }
+        }
+        return values;
+    }
+
+    protected LobValue.Input newInput(final long offset, final long length) {
+        return new LobValue.Input() {
+            @Override
+            public InputStream open() throws IOException {
+                InputStream input = backupManager.openInput(dir, name);
+                try {
+                    ByteStreams.skipFully(input, offset);
+                } catch (IOException exception) {
+                    closeQuietly(input);
+                    throw exception;
+                }
+                return new BoundedInputStream(input, length);
+            }
+        };
+    }
+
+    public String getDir() {
+        return dir;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -36,6 +36,7 @@ public class Column {
 
     private String name;
     private String valueType;
+    private boolean lob;
     private transient RowSet rowSet;
 
     public Column() {
@@ -62,6 +63,17 @@ public class Column {
         this.valueType = valueType;
     }
 
+    /**
+     * Returns true if column values are stored in the chunk side files, while the chunks hold their lengths.
+     */
+    public boolean isLob() {
+        return lob;
+    }
+
+    public void setLob(boolean lob) {
+        this.lob = lob;
+    }
+
     public RowSet getRowSet() {
         return rowSet;
     }
@@ -79,6 +91,7 @@ public class Column {
 
         if (name != null ? !name.equals(column.name) : column.name != null) return false;
         if (valueType != column.valueType) return false;
+        if (lob != column.lob) return false;
 
         return true;
     }
@@ -87,6 +100,7 @@ public class Column {
     public int hashCode() {
         int result = name != null ? name.hashCode() : 0;
         result = 31 * result + (valueType != null ? valueType.hashCode() : 0);
+        result = 31 * result + (lob ? 1 : 0);
         return result;
     }
 
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static java.lang.Math.min;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+/**
+ * Reads file through a sequence of read only memory mapped regions of the file channel, so that bytes are copied
+ * straight from the page cache to the arrays of the reader without intermediate heap buffers and read system calls.
+ * Regions are mapped one at a time as the stream advances, which keeps files larger than 2 GB readable.
+ *
+ * @author Sergey Bushik
+ */
+public class MappedInputStream extends InputStream {
+
+    public static final int REGION_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int regionSize;
+    private MappedByteBuffer region;
+    private long regionOffset;
+    private long mark;
+
+    public MappedInputStream(FileChannel channel) throws IOException {
+        this(channel, REGION_SIZE);
+    }
+
+    public MappedInputStream(FileChannel channel, int regionSize) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Ensures the current region has bytes left, maps the next region once the current one is exhausted.
+     *
+     * @return false if end of the file is reached.
+     */
+    protected boolean ensureRegion() throws IOException {
+        if (region != null && region.hasRemaining()) {
+            return true;
+        }
+        long position = getPosition();
+        if (position >= size) {
+            return false;
+        }
+        regionOffset = position;
+        region = channel.map(READ_ONLY, position, min(regionSize, size - position));
+        return true;
+    }
+
+    /**
+     * Returns offset of the next byte to read from the beginning of the file.
+     */
+    public long getPosition() {
+        return region != null ? regionOffset + region.position() : regionOffset;
+    }
+
+    protected void setPosition(long position) {
+        if (region != null && position >= regionOffset && position <= regionOffset + region.limit()) {
+            region.position((int) (position - regionOffset));
+        } else {
+            region = null;
+            regionOffset = position;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        return ensureRegion() ? region.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        int read = 0;
+        while (read < length && ensureRegion()) {
+            int count = min(length - read, region.remaining());
+            region.get(bytes, offset + read, count);
+            read += count;
+        }
+        return read > 0 ? read : -1;
+    }
+
+    @Override
+    public long skip(long count) throws IOException {
+        long position = getPosition();
+        long skipped = count > 0 ? min(count, size - position) : 0;
+        setPosition(position + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) min(size - getPosition(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int limit) {
+        mark = getPosition();
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        setPosition(mark);
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        channel.close();
+    }
+}
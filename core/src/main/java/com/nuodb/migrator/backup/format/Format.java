@@ -43,6 +43,15 @@ public interface Format {
 
     String getFormat();
 
+    /**
+     * Name of the chunk compression codec, defaults to the codec attribute.
+     *
+     * @return codec name or null if chunks are not compressed.
+     */
+    String getCodec();
+
+    void setCodec(String codec);
+
     boolean isBuffering();
 
     void setBuffering(boolean buffering);
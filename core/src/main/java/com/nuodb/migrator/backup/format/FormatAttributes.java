@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format;
+
+/**
+ * Attributes common to all formats.
+ *
+ * @author Sergey Bushik
+ */
+public interface FormatAttributes {
+    /**
+     * Chunk compression codec, gzip, lz or none.
+     */
+    final String ATTRIBUTE_CODEC = "codec";
+    /**
+     * Compression level for the codecs supporting it, gzip levels are from 1 to 9.
+     */
+    final String ATTRIBUTE_CODEC_LEVEL = "codec.level";
+    /**
+     * Maximum size of a chunk in bytes, when reached the rest of the rows are written to the next chunk.
+     */
+    final String ATTRIBUTE_MAX_SIZE = "max.size";
+    /**
+     * If true maximum chunk size is checked against the compressed size, otherwise against the uncompressed one.
+     */
+    final String ATTRIBUTE_MAX_SIZE_COMPRESSED = "max.size.compressed";
+    /**
+     * If true BLOB and CLOB column values are streamed to a side file next to each chunk, otherwise they are written
+     * inline, which is the default for csv, xml and sql so that chunks stay self-contained. Bson and columnar formats
+     * default to side files, as they can't write a large object inline without reading it into memory.
+     */
+    final String ATTRIBUTE_LOB_FILES = "lob.files";
+    /**
+     * Comma separated directories chunks are spread across, such as mount points of several devices. The backup
+     * catalog stays in the backup directory and records the directory of every chunk.
+     */
+    final String ATTRIBUTE_DIRS = "dirs";
+    /**
+     * How chunks are assigned to the directories, round.robin or free.space.
+     */
+    final String ATTRIBUTE_DIRS_PLACEMENT = "dirs.placement";
+    /**
+     * If true chunks are read through memory mapped regions of the chunk files instead of buffered file streams.
+     */
+    final String ATTRIBUTE_MAPPED = "mapped";
+}
@@ -28,17 +28,21 @@
 package com.nuodb.migrator.backup.format;
 
 import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.codec.ChunkCodec;
+import com.nuodb.migrator.backup.format.codec.ChunkCodecs;
 import com.nuodb.migrator.backup.format.value.ValueHandleList;
 import org.slf4j.Logger;
 
 import java.util.Map;
 
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.String.valueOf;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * @author Sergey Bushik
  */
-public abstract class FormatBase implements Format {
+public abstract class FormatBase implements Format, FormatAttributes {
 
     public static final boolean BUFFERING = true;
     public static final int BUFFER_SIZE = 8 * 1024;
@@ -48,6 +52,7 @@ public abstract class FormatBase implements Format {
     private Map<String, Object> attributes;
     private boolean buffering = BUFFERING;
     private int bufferSize = BUFFER_SIZE;
+    private String codec;
     private RowSet rowSet;
     private ValueHandleList valueHandleList;
 
@@ -75,6 +80,27 @@ public abstract class FormatBase implements Format {
         return attributes;
     }
 
+    @Override
+    public String getCodec() {
+        return codec != null ? codec : (String) getAttribute(ATTRIBUTE_CODEC);
+    }
+
+    @Override
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    protected ChunkCodec getChunkCodec() {
+        return ChunkCodecs.getChunkCodec(getCodec(), getAttributes());
+    }
+
+    /**
+     * Returns true if the chunk is read from or written to memory mapped regions of the file.
+     */
+    public boolean isMapped() {
+        return parseBoolean(valueOf(getAttribute(ATTRIBUTE_MAPPED, false)));
+    }
+
     @Override
     public boolean isBuffering() {
         return buffering;
@@ -28,18 +28,24 @@
 package com.nuodb.migrator.backup.format;
 
 import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.format.codec.ChunkCodec;
+import com.nuodb.migrator.backup.format.value.RowCodec;
 import com.nuodb.migrator.backup.format.value.Value;
-import com.nuodb.migrator.backup.format.value.ValueHandle;
 import com.nuodb.migrator.backup.format.value.ValueType;
+import org.apache.commons.io.IOUtils;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.value.RowCodec.getRowCodec;
 import static com.google.common.io.Closeables.closeQuietly;
+import static java.lang.String.format;
 
 /**
  * @author Sergey Bushik
@@ -49,7 +55,9 @@ public abstract class InputFormatBase extends FormatBase implements InputFormat
 
     private Reader reader;
     private InputStream inputStream;
+    private Closeable input;
     private List<ValueType> valueTypes;
+    private RowCodec rowCodec;
 
     public Reader getReader() {
         return reader;
@@ -101,8 +109,17 @@ public abstract class InputFormatBase extends FormatBase implements InputFormat
         return reader != null;
     }
 
+    /**
+     * Chunk codecs decompress bytes, so a format reading from a reader rejects the codec instead of reading compressed
+     * content as text.
+     */
     protected Reader openReader() {
-        return wrapReader(reader);
+        if (getChunkCodec() != null) {
+            throw new InputFormatException(format("Codec %s requires input stream", getCodec()));
+        }
+        Reader reader = wrapReader(this.reader);
+        input = reader;
+        return reader;
     }
 
     protected Reader wrapReader(Reader reader) {
@@ -114,29 +131,46 @@ public abstract class InputFormatBase extends FormatBase implements InputFormat
     }
 
     protected InputStream openInputStream() {
-        return wrapInputStream(inputStream);
+        InputStream inputStream = wrapInputStream(this.inputStream);
+        input = inputStream;
+        return inputStream;
     }
 
+    /**
+     * Decompresses and buffers the stream. Memory mapped chunks are already in memory, so only the decompressed
+     * stream of a mapped chunk is buffered.
+     */
     protected InputStream wrapInputStream(InputStream inputStream) {
-        return isBuffering() ? new BufferedInputStream(inputStream, getBufferSize()) : inputStream;
+        boolean mapped = isMapped();
+        ChunkCodec chunkCodec = getChunkCodec();
+        if (chunkCodec != null) {
+            try {
+                inputStream = chunkCodec.wrapInputStream(
+                        mapped ? inputStream : new BufferedInputStream(inputStream, getBufferSize()));
+            } catch (IOException exception) {
+                throw new InputFormatException(exception);
+            }
+        }
+        return isBuffering() && (!mapped || chunkCodec != null) ?
+                new BufferedInputStream(inputStream, getBufferSize()) : inputStream;
     }
 
     @Override
     public boolean read() {
         Value[] values = readValues();
         if (values != null) {
-            int index = 0;
-            for (ValueHandle valueHandle : getValueHandleList()) {
-                valueHandle.getValueFormat().setValue(values[index++],
-                        valueHandle.getJdbcValueAccess(), valueHandle.getJdbcValueAccessOptions());
-            }
+            rowCodec = getRowCodec(rowCodec, getValueHandleList());
+            rowCodec.setValues(values);
         }
         return values != null;
     }
 
     @Override
     public void close() {
-        if (hasReader()) {
+        if (input != null) {
+            IOUtils.closeQuietly(input);
+            input = null;
+        } else if (hasReader()) {
             close(getReader());
         } else if (hasInputStream()) {
             close(getInputStream());
@@ -47,6 +47,11 @@ public interface OutputFormat extends Format {
 
     void writeEnd();
 
+    /**
+     * Returns true if large object values are expected to be written to the chunk side files rather than inline.
+     */
+    boolean isLobFiles();
+
     Writer getWriter();
 
     void setWriter(Writer writer);
@@ -27,9 +27,10 @@
  */
 package com.nuodb.migrator.backup.format;
 
+import com.nuodb.migrator.backup.format.codec.ChunkCodec;
+import com.nuodb.migrator.backup.format.value.RowCodec;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueHandle;
-import com.nuodb.migrator.backup.format.value.ValueHandleList;
 import com.nuodb.migrator.backup.format.value.ValueType;
 import com.nuodb.migrator.utils.Counting;
 import com.nuodb.migrator.utils.CountingOutputStream;
@@ -37,11 +38,17 @@ import com.nuodb.migrator.utils.CountingWriter;
 
 import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.util.List;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.value.RowCodec.getRowCodec;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Long.parseLong;
+import static java.lang.String.format;
+import static java.lang.String.valueOf;
 
 /**
  * @author Sergey Bushik
@@ -54,6 +61,7 @@ public abstract class OutputFormatBase extends FormatBase implements OutputForma
     private Long maxSize;
     private Counting counting;
     private List<ValueType> valueTypes;
+    private RowCodec rowCodec;
 
     protected OutputFormatBase() {
     }
@@ -84,6 +92,11 @@ public abstract class OutputFormatBase extends FormatBase implements OutputForma
 
     @Override
     public void init() {
+        Object maxSize = getAttribute(ATTRIBUTE_MAX_SIZE);
+        if (maxSize != null) {
+            this.maxSize = parseLong(valueOf(maxSize));
+        }
+        counting = null;
         if (hasWriter()) {
             init(openWriter());
         } else if (hasOutputStream()) {
@@ -114,12 +127,19 @@ public abstract class OutputFormatBase extends FormatBase implements OutputForma
         return writer != null;
     }
 
+    /**
+     * Chunk codecs compress bytes, so a format writing to a writer rejects the codec instead of silently writing the
+     * chunk uncompressed.
+     */
     protected Writer openWriter() {
+        if (getChunkCodec() != null) {
+            throw new OutputFormatException(format("Codec %s requires output stream", getCodec()));
+        }
         return wrapWriter(writer);
     }
 
     protected Writer wrapWriter(Writer writer) {
-        writer = isCounting() ? (Writer) (counting = new CountingWriter(writer)) : writer;
+        writer = isCounting() && counting == null ? (Writer) (counting = new CountingWriter(writer)) : writer;
         writer = isBuffering() ? new BufferedWriter(writer, getBufferSize()) : writer;
         return writer;
     }
@@ -132,35 +152,74 @@ public abstract class OutputFormatBase extends FormatBase implements OutputForma
         return wrapOutputStream(outputStream);
     }
 
+    /**
+     * Wraps stream with optional compression codec, counting and buffering. Counting is done either before or after
+     * compression depending on {@link #ATTRIBUTE_MAX_SIZE_COMPRESSED} attribute.
+     *
+     * @param outputStream to wrap.
+     * @return wrapped output stream.
+     */
     protected OutputStream wrapOutputStream(OutputStream outputStream) {
-        outputStream = isCounting() ? (OutputStream) (counting = new CountingOutputStream(outputStream)) : outputStream;
+        ChunkCodec chunkCodec = getChunkCodec();
+        boolean compressedSize = chunkCodec != null && isMaxSizeCompressed();
+        if (isCounting() && (chunkCodec == null || compressedSize)) {
+            outputStream = (OutputStream) (counting = new CountingOutputStream(outputStream));
+        }
+        if (chunkCodec != null) {
+            try {
+                outputStream = chunkCodec.wrapOutputStream(outputStream);
+            } catch (IOException exception) {
+                throw new OutputFormatException(exception);
+            }
+            if (isCounting() && !compressedSize) {
+                outputStream = (OutputStream) (counting = new CountingOutputStream(outputStream));
+            }
+        }
         outputStream = isBuffering() ? new BufferedOutputStream(outputStream, getBufferSize()) : outputStream;
         return outputStream;
     }
 
+    protected boolean isMaxSizeCompressed() {
+        Object maxSizeCompressed = getAttribute(ATTRIBUTE_MAX_SIZE_COMPRESSED);
+        return maxSizeCompressed != null && parseBoolean(valueOf(maxSizeCompressed));
+    }
+
     @Override
     public boolean canWrite() {
         return fitMaxSize();
     }
 
     protected boolean fitMaxSize() {
-        return !(getMaxSize() != null && counting != null) || counting.getCount() < getMaxSize();
+        return fitMaxSize(0);
     }
 
+    /**
+     * Checks whether the written bytes together with the bytes buffered by the format and not yet written fit the max
+     * size of the chunk.
+     *
+     * @param bufferedSize number of bytes buffered by the format.
+     * @return true if the chunk is below its max size.
+     */
+    protected boolean fitMaxSize(long bufferedSize) {
+        return !(getMaxSize() != null && counting != null) || counting.getCount() + bufferedSize < getMaxSize();
+    }
+
+    /**
+     * Reads the current row into the row buffer of the codec compiled for the value handle list and writes it.
+     */
     @Override
     public void write() {
-        int index = 0;
-        ValueHandleList valueHandleList = getValueHandleList();
-        Value[] values = new Value[valueHandleList.size()];
-        for (ValueHandle valueHandle : valueHandleList) {
-            values[index++] = valueHandle.getValueFormat().getValue(
-                    valueHandle.getJdbcValueAccess(), valueHandle.getJdbcValueAccessOptions());
-        }
-        writeValues(values);
+        rowCodec = getRowCodec(rowCodec, getValueHandleList());
+        writeValues(rowCodec.getValues());
     }
 
     public abstract void writeValues(Value[] values);
 
+    @Override
+    public boolean isLobFiles() {
+        return parseBoolean(valueOf(getAttribute(ATTRIBUTE_LOB_FILES, false)));
+    }
+
     public boolean isCounting() {
         return getMaxSize() != null;
     }
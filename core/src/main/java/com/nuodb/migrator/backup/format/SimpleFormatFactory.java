@@ -30,6 +30,9 @@ package com.nuodb.migrator.backup.format;
 import com.nuodb.migrator.backup.format.bson.BsonAttributes;
 import com.nuodb.migrator.backup.format.bson.BsonInputFormat;
 import com.nuodb.migrator.backup.format.bson.BsonOutputFormat;
+import com.nuodb.migrator.backup.format.columnar.ColumnarAttributes;
+import com.nuodb.migrator.backup.format.columnar.ColumnarInputFormat;
+import com.nuodb.migrator.backup.format.columnar.ColumnarOutputFormat;
 import com.nuodb.migrator.backup.format.csv.CsvAttributes;
 import com.nuodb.migrator.backup.format.csv.CsvInputFormat;
 import com.nuodb.migrator.backup.format.csv.CsvOutputFormat;
@@ -67,11 +70,13 @@ public class SimpleFormatFactory implements FormatFactory {
         addFormat(CsvAttributes.FORMAT, CsvInputFormat.class);
         addFormat(XmlAttributes.FORMAT, XmlInputFormat.class);
         addFormat(BsonAttributes.FORMAT, BsonInputFormat.class);
+        addFormat(ColumnarAttributes.FORMAT, ColumnarInputFormat.class);
         // addFormat(SqlAttributes.FORMAT, SqlInputFormat.class);
 
         addFormat(CsvAttributes.FORMAT, CsvOutputFormat.class);
         addFormat(XmlAttributes.FORMAT, XmlOutputFormat.class);
         addFormat(BsonAttributes.FORMAT, BsonOutputFormat.class);
+        addFormat(ColumnarAttributes.FORMAT, ColumnarOutputFormat.class);
         addFormat(SqlAttributes.FORMAT, SqlOutputFormat.class);
     }
 
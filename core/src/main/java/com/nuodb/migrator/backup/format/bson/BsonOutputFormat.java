@@ -40,6 +40,8 @@ import java.util.BitSet;
 
 import static com.nuodb.migrator.backup.format.utils.BitSetUtils.toByteArray;
 import static de.undercouch.bson4jackson.BsonGenerator.Feature.ENABLE_STREAMING;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.String.valueOf;
 
 /**
  * @author Sergey Bushik
@@ -123,6 +125,15 @@ public class BsonOutputFormat extends OutputFormatBase implements BsonAttributes
         }
     }
 
+    /**
+     * The generator takes binary values as byte arrays only, so inline large objects would be read into memory as a
+     * whole, that's why they are streamed to the side file unless requested otherwise.
+     */
+    @Override
+    public boolean isLobFiles() {
+        return parseBoolean(valueOf(getAttribute(ATTRIBUTE_LOB_FILES, true)));
+    }
+
     @Override
     public void writeEnd() {
         try {
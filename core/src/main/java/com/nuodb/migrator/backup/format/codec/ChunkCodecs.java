@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.codec;
+
+import com.nuodb.migrator.backup.BackupException;
+
+import java.util.Map;
+
+import static com.nuodb.migrator.backup.format.FormatAttributes.ATTRIBUTE_CODEC_LEVEL;
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+import static java.lang.String.valueOf;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ChunkCodecs {
+
+    public static final String NONE = "none";
+
+    /**
+     * Resolves codec by its name.
+     *
+     * @param name       of the codec, gzip, lz or none.
+     * @param attributes format attributes with optional codec settings.
+     * @return codec or null if name is empty or none, meaning chunk is not compressed.
+     */
+    public static ChunkCodec getChunkCodec(String name, Map<String, Object> attributes) {
+        ChunkCodec chunkCodec;
+        if (isEmpty(name) || NONE.equalsIgnoreCase(name)) {
+            chunkCodec = null;
+        } else if (GzipChunkCodec.NAME.equalsIgnoreCase(name)) {
+            Object level = attributes != null ? attributes.get(ATTRIBUTE_CODEC_LEVEL) : null;
+            chunkCodec = level != null ? new GzipChunkCodec(parseInt(valueOf(level))) : new GzipChunkCodec();
+        } else if (LzChunkCodec.NAME.equalsIgnoreCase(name)) {
+            chunkCodec = new LzChunkCodec();
+        } else {
+            throw new BackupException(format("Codec %s is not supported", name));
+        }
+        return chunkCodec;
+    }
+}
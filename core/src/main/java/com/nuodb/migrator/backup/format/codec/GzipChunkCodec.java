@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * High ratio codec producing standard gzip files, which can be inspected with command line tools.
+ *
+ * @author Sergey Bushik
+ */
+public class GzipChunkCodec implements ChunkCodec {
+
+    public static final String NAME = "gzip";
+    public static final String EXTENSION = "gz";
+    public static final int LEVEL = Deflater.DEFAULT_COMPRESSION;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int level;
+
+    public GzipChunkCodec() {
+        this(LEVEL);
+    }
+
+    public GzipChunkCodec(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getExtension() {
+        return EXTENSION;
+    }
+
+    @Override
+    public OutputStream wrapOutputStream(OutputStream outputStream) throws IOException {
+        return new GZIPOutputStream(outputStream, BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+    @Override
+    public InputStream wrapInputStream(InputStream inputStream) throws IOException {
+        return new GZIPInputStream(inputStream, BUFFER_SIZE);
+    }
+
+    public int getLevel() {
+        return level;
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.codec;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.nuodb.migrator.backup.format.codec.LzOutputStream.BLOCK_SIZE;
+import static com.nuodb.migrator.backup.format.codec.LzOutputStream.MIN_MATCH;
+
+/**
+ * Decompresses blocks written by {@link LzOutputStream}.
+ *
+ * @author Sergey Bushik
+ */
+public class LzInputStream extends FilterInputStream {
+
+    private final byte[] block = new byte[BLOCK_SIZE];
+    private final byte[] compressed = new byte[BLOCK_SIZE];
+    private int position;
+    private int length;
+
+    public LzInputStream(InputStream inputStream) {
+        super(inputStream);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == length && !readBlock()) {
+            return -1;
+        }
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (position == this.length && !readBlock()) {
+            return -1;
+        }
+        int count = Math.min(length, this.length - position);
+        System.arraycopy(block, position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public long skip(long count) throws IOException {
+        long skipped = 0;
+        while (skipped < count && (position < length || readBlock())) {
+            int step = (int) Math.min(count - skipped, length - position);
+            position += step;
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return length - position;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    protected boolean readBlock() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return false;
+        }
+        int raw = readInt(first);
+        int stored = readInt(in.read());
+        if (raw < 0 || raw > BLOCK_SIZE || stored < 0 || stored > raw) {
+            throw new IOException("Corrupted block header");
+        }
+        if (stored == raw) {
+            readFully(block, stored);
+        } else {
+            readFully(compressed, stored);
+            if (decompress(compressed, stored, block) != raw) {
+                throw new IOException("Corrupted block");
+            }
+        }
+        position = 0;
+        length = raw;
+        return true;
+    }
+
+    protected void readFully(byte[] bytes, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int count = in.read(bytes, offset, length - offset);
+            if (count < 0) {
+                throw new EOFException("Unexpected end of compressed stream");
+            }
+            offset += count;
+        }
+    }
+
+    /**
+     * Reads big endian int which first byte is already read.
+     *
+     * @param b1 first byte of the int or -1 at the end of stream
+     */
+    protected int readInt(int b1) throws IOException {
+        int b2 = in.read();
+        int b3 = in.read();
+        int b4 = in.read();
+        if ((b1 | b2 | b3 | b4) < 0) {
+            throw new EOFException("Unexpected end of compressed stream");
+        }
+        return (b1 << 24) | (b2 << 16) | (b3 << 8) | b4;
+    }
+
+    /**
+     * Decompresses block validating every sequence against the bounds of the source and the target, so that corrupted
+     * input fails with {@link IOException} rather than with an index out of bounds or garbage output.
+     *
+     * @param source compressed block
+     * @param length number of compressed bytes
+     * @param target array to decompress to
+     * @return number of decompressed bytes
+     * @throws IOException if the block is corrupted
+     */
+    protected static int decompress(byte[] source, int length, byte[] target) throws IOException {
+        int input = 0;
+        int output = 0;
+        while (input < length) {
+            int token = source[input++] & 0xFF;
+            int literals = token >>> 4;
+            if (literals == 15) {
+                int b;
+                do {
+                    if (input >= length) {
+                        throw new IOException("Corrupted block, literal length is truncated");
+                    }
+                    b = source[input++] & 0xFF;
+                    literals += b;
+                } while (b == 255);
+            }
+            if (literals > length - input || literals > target.length - output) {
+                throw new IOException("Corrupted block, literals are out of bounds");
+            }
+            System.arraycopy(source, input, target, output, literals);
+            input += literals;
+            output += literals;
+            if (input >= length) {
+                break;
+            }
+            if (length - input < 2) {
+                throw new IOException("Corrupted block, match offset is truncated");
+            }
+            int offset = (source[input++] & 0xFF) | (source[input++] & 0xFF) << 8;
+            int match = token & 0x0F;
+            if (match == 15) {
+                int b;
+                do {
+                    if (input >= length) {
+                        throw new IOException("Corrupted block, match length is truncated");
+                    }
+                    b = source[input++] & 0xFF;
+                    match += b;
+                } while (b == 255);
+            }
+            match += MIN_MATCH;
+            int reference = output - offset;
+            if (offset == 0 || reference < 0) {
+                throw new IOException("Corrupted block, match offset is out of bounds");
+            }
+            if (match > target.length - output) {
+                throw new IOException("Corrupted block, match length is out of bounds");
+            }
+            for (int i = 0; i < match; i++) {
+                target[output++] = target[reference + i];
+            }
+        }
+        return output;
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.codec;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Compresses stream into independent blocks of up to 64 KB with LZ77 family algorithm modelled after LZ4: a block
+ * is a sequence of tokens, each token holds a run of literals followed by a back reference of at least 4 bytes
+ * within the last 64 KB. Block is stored as is if it does not compress. Block layout is
+ * <pre>
+ * [raw length: int][stored length: int][stored bytes]
+ * </pre>
+ * where stored length equal to raw length denotes uncompressed block.
+ *
+ * @author Sergey Bushik
+ */
+public class LzOutputStream extends FilterOutputStream {
+
+    static final int BLOCK_SIZE = 64 * 1024;
+    static final int MIN_MATCH = 4;
+    static final int MAX_OFFSET = 65535;
+
+    private static final int HASH_BITS = 14;
+    private static final int LAST_LITERALS = 5;
+
+    private final byte[] block = new byte[BLOCK_SIZE];
+    private final byte[] compressed = new byte[BLOCK_SIZE + BLOCK_SIZE / 255 + 16];
+    private final int[] hashTable = new int[1 << HASH_BITS];
+    private int length;
+
+    public LzOutputStream(OutputStream outputStream) {
+        super(outputStream);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (length == BLOCK_SIZE) {
+            writeBlock();
+        }
+        block[length++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (this.length == BLOCK_SIZE) {
+                writeBlock();
+            }
+            int count = Math.min(length, BLOCK_SIZE - this.length);
+            System.arraycopy(bytes, offset, block, this.length, count);
+            this.length += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeBlock();
+        } finally {
+            out.close();
+        }
+    }
+
+    protected void writeBlock() throws IOException {
+        if (length > 0) {
+            int stored = compress(block, length, compressed);
+            writeInt(length);
+            if (stored < length) {
+                writeInt(stored);
+                out.write(compressed, 0, stored);
+            } else {
+                writeInt(length);
+                out.write(block, 0, length);
+            }
+            length = 0;
+        }
+    }
+
+    protected void writeInt(int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    protected int compress(byte[] source, int length, byte[] target) {
+        Arrays.fill(hashTable, -1);
+        int position = 0;
+        int anchor = 0;
+        int output = 0;
+        int limit = length - LAST_LITERALS;
+        while (position < limit - MIN_MATCH) {
+            int sequence = readInt(source, position);
+            int hash = (sequence * -1640531535) >>> (32 - HASH_BITS);
+            int reference = hashTable[hash];
+            hashTable[hash] = position;
+            if (reference >= 0 && position - reference <= MAX_OFFSET && readInt(source, reference) == sequence) {
+                int match = MIN_MATCH;
+                while (position + match < limit && source[reference + match] == source[position + match]) {
+                    match++;
+                }
+                output = writeSequence(source, anchor, position - anchor, position - reference, match, target,
+                        output);
+                position += match;
+                anchor = position;
+            } else {
+                position++;
+            }
+        }
+        return writeLiterals(source, anchor, length - anchor, 0, target, output);
+    }
+
+    private static int writeSequence(byte[] source, int anchor, int literals, int offset, int match, byte[] target,
+                                     int output) {
+        output = writeLiterals(source, anchor, literals, Math.min(match - MIN_MATCH, 15), target, output);
+        target[output++] = (byte) offset;
+        target[output++] = (byte) (offset >>> 8);
+        if (match - MIN_MATCH >= 15) {
+            output = writeLength(match - MIN_MATCH - 15, target, output);
+        }
+        return output;
+    }
+
+    private static int writeLiterals(byte[] source, int anchor, int literals, int token, byte[] target, int output) {
+        target[output++] = (byte) ((Math.min(literals, 15) << 4) | token);
+        if (literals >= 15) {
+            output = writeLength(literals - 15, target, output);
+        }
+        System.arraycopy(source, anchor, target, output, literals);
+        return output + literals;
+    }
+
+    private static int writeLength(int length, byte[] target, int output) {
+        while (length >= 255) {
+            target[output++] = (byte) 255;
+            length -= 255;
+        }
+        target[output++] = (byte) length;
+        return output;
+    }
+
+    private static int readInt(byte[] source, int position) {
+        return (source[position] & 0xFF) | (source[position + 1] & 0xFF) << 8 |
+                (source[position + 2] & 0xFF) << 16 | (source[position + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import static java.lang.System.arraycopy;
+
+/**
+ * Growable byte buffer holding encoded values of a single column within a row group. Longs are written as
+ * variable length zigzag encoded integers, floating point numbers as their IEEE 754 bits, so that no intermediate
+ * strings are produced.
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnBuffer {
+
+    public static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int CAPACITY = 1024;
+
+    private byte[] buffer;
+    private int position;
+    private int limit;
+
+    public ColumnBuffer() {
+        this(CAPACITY);
+    }
+
+    public ColumnBuffer(int capacity) {
+        this.buffer = new byte[capacity];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[limit++] = (byte) value;
+    }
+
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[limit++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[limit++] = (byte) value;
+    }
+
+    public void writeZigZag(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeFixed32(int value) {
+        ensureCapacity(4);
+        buffer[limit++] = (byte) (value >>> 24);
+        buffer[limit++] = (byte) (value >>> 16);
+        buffer[limit++] = (byte) (value >>> 8);
+        buffer[limit++] = (byte) value;
+    }
+
+    public void writeFixed64(long value) {
+        writeFixed32((int) (value >>> 32));
+        writeFixed32((int) value);
+    }
+
+    public void writeBytes(byte[] bytes) {
+        writeVarLong(bytes.length);
+        ensureCapacity(bytes.length);
+        arraycopy(bytes, 0, buffer, limit, bytes.length);
+        limit += bytes.length;
+    }
+
+    public void writeString(String value) {
+        writeBytes(value.getBytes(UTF8));
+    }
+
+    public int readByte() {
+        return buffer[position++];
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = buffer[position++];
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+
+    public long readZigZag() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public int readFixed32() {
+        return ((buffer[position++] & 0xFF) << 24) | ((buffer[position++] & 0xFF) << 16) |
+                ((buffer[position++] & 0xFF) << 8) | (buffer[position++] & 0xFF);
+    }
+
+    public long readFixed64() {
+        return ((long) readFixed32() << 32) | (readFixed32() & 0xFFFFFFFFL);
+    }
+
+    public byte[] readBytes() {
+        int length = (int) readVarLong();
+        byte[] bytes = new byte[length];
+        arraycopy(buffer, position, bytes, 0, length);
+        position += length;
+        return bytes;
+    }
+
+    public String readString() {
+        int length = (int) readVarLong();
+        String value = new String(buffer, position, length, UTF8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Writes buffered bytes prefixed with their length.
+     *
+     * @param output to write to.
+     * @throws IOException if write failed.
+     */
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeInt(limit);
+        output.write(buffer, 0, limit);
+    }
+
+    /**
+     * Replaces buffer content with the length prefixed bytes read from the input.
+     *
+     * @param input to read from.
+     * @throws IOException if read failed.
+     */
+    public void readFrom(DataInput input) throws IOException {
+        clear();
+        int length = input.readInt();
+        ensureCapacity(length);
+        input.readFully(buffer, 0, length);
+        limit = length;
+    }
+
+    public void clear() {
+        position = 0;
+        limit = 0;
+    }
+
+    public int size() {
+        return limit;
+    }
+
+    protected void ensureCapacity(int length) {
+        if (limit + length > buffer.length) {
+            byte[] target = new byte[Math.max(buffer.length << 1, limit + length)];
+            arraycopy(buffer, 0, target, 0, limit);
+            buffer = target;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+/**
+ * @author Sergey Bushik
+ */
+public interface ColumnarAttributes {
+    /**
+     * Number of rows buffered and written column by column as a single row group.
+     */
+    final String ATTRIBUTE_ROW_GROUP_SIZE = "columnar.row.group.size";
+
+    final String FORMAT = "columnar";
+
+    final int ROW_GROUP_SIZE = 1024;
+    /**
+     * Chunk is closed after it reaches 1 GB, so that large tables can be loaded by several threads.
+     */
+    final long MAX_SIZE = 1073741824L;
+
+    final byte[] MAGIC = {'N', 'C', 'O', 'L'};
+    final byte VERSION = 1;
+
+    final byte NULL = 0;
+    final byte FALSE = 1;
+    final byte TRUE = 2;
+    final byte LONG = 3;
+    final byte FLOAT = 4;
+    final byte DOUBLE = 5;
+    final byte DECIMAL = 6;
+    final byte DATE = 7;
+    final byte TIME = 8;
+    /**
+     * Timestamp as a single zigzag varint of epoch nanos.
+     */
+    final byte TIMESTAMP = 9;
+    /**
+     * Timestamp outside of the range representable by epoch nanos (years before 1677 or after 2262) written as epoch
+     * seconds followed by nanos of the second.
+     */
+    final byte TIMESTAMP_SECONDS = 10;
+    final byte STRING = 11;
+    final byte BINARY = 12;
+}
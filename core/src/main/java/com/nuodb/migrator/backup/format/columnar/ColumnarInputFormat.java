@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.format.InputFormatBase;
+import com.nuodb.migrator.backup.format.InputFormatException;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
+import static java.lang.Double.longBitsToDouble;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.String.format;
+
+/**
+ * Reads row groups written by {@link ColumnarOutputFormat}, numbers, booleans and temporal values are returned as
+ * primitive values and are bound to the statement without conversion to strings.
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnarInputFormat extends InputFormatBase implements ColumnarAttributes {
+
+    private static final long NANOS = 1000000000L;
+
+    private DataInputStream input;
+    private ColumnBuffer[] columns;
+    private Value[] values;
+    private int rows;
+    private int row;
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    protected void init(InputStream inputStream) {
+        input = new DataInputStream(inputStream);
+    }
+
+    @Override
+    protected void init(Reader reader) {
+        throw new InputFormatException("Columnar format requires input stream");
+    }
+
+    @Override
+    public void readStart() {
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            input.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new InputFormatException("Input is not in columnar format");
+            }
+            byte version = input.readByte();
+            if (version != VERSION) {
+                throw new InputFormatException(format("Columnar format version %d is not supported", version));
+            }
+            int length = input.readInt();
+            if (length != getValueTypes().size()) {
+                throw new InputFormatException(format("Columnar input has %d columns, expected %d columns",
+                        length, getValueTypes().size()));
+            }
+            columns = new ColumnBuffer[length];
+            for (int i = 0; i < length; i++) {
+                columns[i] = new ColumnBuffer();
+            }
+            values = new Value[length];
+            rows = 0;
+            row = 0;
+        } catch (IOException exception) {
+            throw new InputFormatException(exception);
+        }
+    }
+
+    /**
+     * Reads the next row into the array owned by the format, the array is overwritten by the next row.
+     *
+     * @return reusable row or null if there are no more rows.
+     */
+    @Override
+    public Value[] readValues() {
+        if (row == rows && !readRowGroup()) {
+            return null;
+        }
+        List<ValueType> valueTypes = getValueTypes();
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = readValue(columns[i], valueTypes.get(i));
+        }
+        row++;
+        return values;
+    }
+
+    protected boolean readRowGroup() {
+        try {
+            rows = input.readInt();
+            row = 0;
+            for (int i = 0; rows > 0 && i < columns.length; i++) {
+                columns[i].readFrom(input);
+            }
+        } catch (IOException exception) {
+            throw new InputFormatException(exception);
+        }
+        return rows > 0;
+    }
+
+    protected Value readValue(ColumnBuffer column, ValueType valueType) {
+        Value value;
+        int tag = column.readByte();
+        switch (tag) {
+            case NULL:
+                value = valueType == ValueType.BINARY ? BINARY_NULL : STRING_NULL;
+                break;
+            case FALSE:
+                value = bool(false);
+                break;
+            case TRUE:
+                value = bool(true);
+                break;
+            case LONG:
+                value = int64(column.readZigZag());
+                break;
+            case FLOAT:
+                value = float32(intBitsToFloat(column.readFixed32()));
+                break;
+            case DOUBLE:
+                value = float64(longBitsToDouble(column.readFixed64()));
+                break;
+            case DECIMAL:
+                int scale = (int) column.readZigZag();
+                value = decimal(new BigDecimal(new BigInteger(column.readBytes()), scale));
+                break;
+            case DATE:
+                value = date(column.readZigZag());
+                break;
+            case TIME:
+                value = time(column.readZigZag());
+                break;
+            case TIMESTAMP:
+                long nanos = column.readZigZag();
+                long seconds = nanos / NANOS;
+                int fraction = (int) (nanos % NANOS);
+                if (fraction < 0) {
+                    seconds--;
+                    fraction += NANOS;
+                }
+                value = timestamp(seconds, fraction);
+                break;
+            case TIMESTAMP_SECONDS:
+                value = timestamp(column.readZigZag(), (int) column.readVarLong());
+                break;
+            case STRING:
+                value = string(column.readString());
+                break;
+            case BINARY:
+                value = binary(column.readBytes());
+                break;
+            default:
+                throw new InputFormatException(format("Unknown columnar value tag %d", tag));
+        }
+        return value;
+    }
+
+    @Override
+    public void readEnd() {
+    }
+}
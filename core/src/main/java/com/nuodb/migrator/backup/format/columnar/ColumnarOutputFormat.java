@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.format.OutputFormatBase;
+import com.nuodb.migrator.backup.format.OutputFormatException;
+import com.nuodb.migrator.backup.format.value.PrimitiveValue;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Double.doubleToLongBits;
+import static java.lang.Float.floatToIntBits;
+import static java.lang.Integer.parseInt;
+import static java.lang.String.valueOf;
+
+/**
+ * Writes rows in groups of {@link #ATTRIBUTE_ROW_GROUP_SIZE} rows, values of each column in a group are stored
+ * contiguously and prefixed with a type tag. Primitive values are written in their binary form: longs as zigzag
+ * varints, floats and doubles as IEEE 754 bits, decimals as scale and unscaled two's complement bytes, timestamps as
+ * epoch nanos.
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnarOutputFormat extends OutputFormatBase implements ColumnarAttributes {
+
+    private static final long MAX_EPOCH_SECONDS = Long.MAX_VALUE / 1000000000L - 1;
+    private static final long MIN_EPOCH_SECONDS = Long.MIN_VALUE / 1000000000L + 1;
+
+    private DataOutputStream output;
+    private ColumnBuffer[] columns;
+    private int rowGroupSize;
+    private int rows;
+
+    public ColumnarOutputFormat() {
+        super(MAX_SIZE);
+    }
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    protected void init(OutputStream outputStream) {
+        output = new DataOutputStream(outputStream);
+        Object rowGroupSize = getAttribute(ATTRIBUTE_ROW_GROUP_SIZE);
+        this.rowGroupSize = rowGroupSize != null ? parseInt(valueOf(rowGroupSize)) : ROW_GROUP_SIZE;
+        this.rows = 0;
+    }
+
+    @Override
+    protected void init(Writer writer) {
+        throw new OutputFormatException("Columnar format requires output stream");
+    }
+
+    @Override
+    public void writeStart() {
+        List<ValueType> valueTypes = getValueTypes();
+        columns = new ColumnBuffer[valueTypes.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ColumnBuffer();
+        }
+        try {
+            output.write(MAGIC);
+            output.writeByte(VERSION);
+            output.writeInt(columns.length);
+        } catch (IOException exception) {
+            throw new OutputFormatException(exception);
+        }
+    }
+
+    @Override
+    public void writeValues(Value[] values) {
+        List<ValueType> valueTypes = getValueTypes();
+        for (int i = 0; i < values.length; i++) {
+            writeValue(columns[i], values[i], valueTypes.get(i));
+        }
+        if (++rows >= rowGroupSize) {
+            writeRowGroup();
+        }
+    }
+
+    /**
+     * Includes the size of the buffered row group, so that a chunk is closed before the row group, which is written
+     * at once, overshoots the max size.
+     *
+     * @return true if more rows can be written to the chunk.
+     */
+    @Override
+    public boolean canWrite() {
+        return fitMaxSize(getRowGroupBytes());
+    }
+
+    /**
+     * Returns the number of bytes the buffered row group takes once written: the number of rows followed by length
+     * prefixed column buffers.
+     *
+     * @return size of the buffered row group in bytes, zero if there are no buffered rows.
+     */
+    protected long getRowGroupBytes() {
+        long bytes = 0;
+        if (rows > 0) {
+            bytes += 4;
+            for (ColumnBuffer column : columns) {
+                bytes += 4 + column.size();
+            }
+        }
+        return bytes;
+    }
+
+    protected void writeValue(ColumnBuffer column, Value value, ValueType valueType) {
+        if (value.isNull()) {
+            column.writeByte(NULL);
+        } else if (value instanceof PrimitiveValue) {
+            writePrimitiveValue(column, (PrimitiveValue) value);
+        } else if (valueType == ValueType.BINARY) {
+            column.writeByte(BINARY);
+            column.writeBytes(value.asBytes());
+        } else {
+            column.writeByte(STRING);
+            column.writeString(value.asString());
+        }
+    }
+
+    protected void writePrimitiveValue(ColumnBuffer column, PrimitiveValue value) {
+        switch (value.getPrimitiveType()) {
+            case BOOLEAN:
+                column.writeByte(value.asBoolean() ? TRUE : FALSE);
+                break;
+            case LONG:
+                column.writeByte(LONG);
+                column.writeZigZag(value.asLong());
+                break;
+            case FLOAT:
+                column.writeByte(FLOAT);
+                column.writeFixed32(floatToIntBits((float) value.asDouble()));
+                break;
+            case DOUBLE:
+                column.writeByte(DOUBLE);
+                column.writeFixed64(doubleToLongBits(value.asDouble()));
+                break;
+            case DECIMAL:
+                BigDecimal decimal = value.asBigDecimal();
+                column.writeByte(DECIMAL);
+                column.writeZigZag(decimal.scale());
+                column.writeBytes(decimal.unscaledValue().toByteArray());
+                break;
+            case DATE:
+                column.writeByte(DATE);
+                column.writeZigZag(value.asLong());
+                break;
+            case TIME:
+                column.writeByte(TIME);
+                column.writeZigZag(value.asLong());
+                break;
+            case TIMESTAMP:
+                long seconds = value.asLong();
+                if (seconds > MIN_EPOCH_SECONDS && seconds < MAX_EPOCH_SECONDS) {
+                    column.writeByte(TIMESTAMP);
+                    column.writeZigZag(seconds * 1000000000L + value.getNanos());
+                } else {
+                    column.writeByte(TIMESTAMP_SECONDS);
+                    column.writeZigZag(seconds);
+                    column.writeVarLong(value.getNanos());
+                }
+                break;
+        }
+    }
+
+    protected void writeRowGroup() {
+        if (rows > 0) {
+            try {
+                output.writeInt(rows);
+                for (ColumnBuffer column : columns) {
+                    column.writeTo(output);
+                    column.clear();
+                }
+            } catch (IOException exception) {
+                throw new OutputFormatException(exception);
+            }
+            rows = 0;
+        }
+    }
+
+    /**
+     * Columns of a row group are buffered in memory before they are written, so large objects are streamed to the side
+     * file unless requested otherwise.
+     */
+    @Override
+    public boolean isLobFiles() {
+        return parseBoolean(valueOf(getAttribute(ATTRIBUTE_LOB_FILES, true)));
+    }
+
+    @Override
+    public void writeEnd() {
+        writeRowGroup();
+        try {
+            output.writeInt(0);
+            output.flush();
+        } catch (IOException exception) {
+            throw new OutputFormatException(exception);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (output != null) {
+                output.close();
+            }
+        } catch (IOException exception) {
+            throw new OutputFormatException(exception);
+        }
+    }
+}
@@ -29,17 +29,21 @@ package com.nuodb.migrator.backup.format.csv;
 
 import com.nuodb.migrator.backup.format.OutputFormatBase;
 import com.nuodb.migrator.backup.format.OutputFormatException;
+import com.nuodb.migrator.backup.format.value.LobValue;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueHandle;
+import com.nuodb.migrator.backup.format.value.ValueType;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 
+import java.io.FilterWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 
 import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
 import static java.lang.String.valueOf;
 import static java.nio.charset.Charset.forName;
 
@@ -50,7 +54,12 @@ import static java.nio.charset.Charset.forName;
 public class CsvOutputFormat extends OutputFormatBase implements CsvAttributes {
 
     private String doubleQuote;
+    private Writer writer;
     private CSVPrinter csvPrinter;
+    private Writer fieldWriter;
+    private Character delimiter;
+    private Character quote;
+    private String lineSeparator;
 
     @Override
     public String getFormat() {
@@ -67,7 +76,13 @@ public class CsvOutputFormat extends OutputFormatBase implements CsvAttributes {
         CsvFormatBuilder builder = new CsvFormatBuilder(this);
         CSVFormat format = builder.build();
         doubleQuote = valueOf(builder.getQuote()) + valueOf(builder.getQuote());
-        csvPrinter = new CSVPrinter(wrapWriter(writer), format);
+        this.writer = wrapWriter(writer);
+        csvPrinter = new CSVPrinter(this.writer, format);
+        delimiter = builder.getDelimiter();
+        quote = builder.isQuoting() ? builder.getQuote() : null;
+        lineSeparator = builder.getLineSeparator();
+        fieldWriter = quote != null ? new QuotingWriter(this.writer, quote) :
+                new EscapingWriter(this.writer, builder.getEscape(), delimiter);
     }
 
     @Override
@@ -85,28 +100,173 @@ public class CsvOutputFormat extends OutputFormatBase implements CsvAttributes {
     @Override
     public void writeValues(Value[] values) {
         try {
-            String[] record = new String[values.length];
-            for (int i = 0; i < values.length; i++) {
-                String value = null;
-                switch (getValueTypes().get(i)) {
-                    case BINARY:
-                        value = BASE64.encode(values[i].asBytes());
-                        break;
-                    case STRING:
-                        value = values[i].asString();
-                        break;
+            if (hasLobValues(values)) {
+                writeLobValues(values);
+            } else {
+                String[] record = new String[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    record[i] = getString(values[i], getValueTypes().get(i));
                 }
-                if (value != null && value.length() == 0) {
-                    value = doubleQuote;
-                }
-                record[i] = value;
+                csvPrinter.printRecord(record);
             }
-            csvPrinter.printRecord(record);
         } catch (IOException exception) {
             throw new OutputFormatException(exception);
         }
     }
 
+    protected String getString(Value value, ValueType valueType) {
+        String string = null;
+        switch (valueType) {
+            case BINARY:
+                string = BASE64.encode(value.asBytes());
+                break;
+            case STRING:
+                string = value.asString();
+                break;
+        }
+        if (string != null && string.length() == 0) {
+            string = doubleQuote;
+        }
+        return string;
+    }
+
+    protected boolean hasLobValues(Value[] values) {
+        for (Value value : values) {
+            if (value instanceof LobValue) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the record field by field bypassing the printer, so that large objects spilled to temporary files are
+     * streamed to the writer in chunks instead of being read into memory. Fields of the record are quoted, or escaped
+     * if quoting is disabled, which reads back the same as the minimal quoting of the printer.
+     *
+     * @param values row with large object values
+     */
+    protected void writeLobValues(Value[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(delimiter);
+            }
+            Value value = values[i];
+            ValueType valueType = getValueTypes().get(i);
+            if (value instanceof LobValue) {
+                writeQuote();
+                if (valueType == BINARY) {
+                    ((LobValue) value).encodeTo(fieldWriter);
+                } else {
+                    ((LobValue) value).copyTo(fieldWriter);
+                }
+                writeQuote();
+            } else {
+                String string = getString(value, valueType);
+                if (string != null) {
+                    writeQuote();
+                    fieldWriter.write(string);
+                    writeQuote();
+                }
+            }
+        }
+        writer.write(lineSeparator);
+    }
+
+    private void writeQuote() throws IOException {
+        if (quote != null) {
+            writer.write(quote);
+        }
+    }
+
+    /**
+     * Doubles quote characters of the quoted field content.
+     */
+    static class QuotingWriter extends FilterWriter {
+
+        private final char quote;
+
+        public QuotingWriter(Writer writer, char quote) {
+            super(writer);
+            this.quote = quote;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (c == quote) {
+                out.write(c);
+            }
+            out.write(c);
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            for (int index = offset; index < offset + length; index++) {
+                write(buffer[index]);
+            }
+        }
+
+        @Override
+        public void write(String string, int offset, int length) throws IOException {
+            for (int index = offset; index < offset + length; index++) {
+                write(string.charAt(index));
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Escapes delimiters, line breaks and escape characters of the unquoted field content.
+     */
+    static class EscapingWriter extends FilterWriter {
+
+        private final char escape;
+        private final char delimiter;
+
+        public EscapingWriter(Writer writer, char escape, char delimiter) {
+            super(writer);
+            this.escape = escape;
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (c == '\r') {
+                out.write(escape);
+                out.write('r');
+            } else if (c == '\n') {
+                out.write(escape);
+                out.write('n');
+            } else {
+                if (c == escape || c == delimiter) {
+                    out.write(escape);
+                }
+                out.write(c);
+            }
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            for (int index = offset; index < offset + length; index++) {
+                write(buffer[index]);
+            }
+        }
+
+        @Override
+        public void write(String string, int offset, int length) throws IOException {
+            for (int index = offset; index < offset + length; index++) {
+                write(string.charAt(index));
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
     @Override
     public void writeEnd() {
         try {
@@ -31,5 +31,11 @@ package com.nuodb.migrator.backup.format.sql;
  * @author Sergey Bushik
  */
 public interface SqlAttributes {
+    /**
+     * Number of rows grouped into a single multi row INSERT statement.
+     */
+    final String ATTRIBUTE_INSERT_ROWS = "sql.insert.rows";
+
     final String FORMAT = "sql";
+    final int INSERT_ROWS = 1;
 }
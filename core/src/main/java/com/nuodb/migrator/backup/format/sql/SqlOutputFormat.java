@@ -29,14 +29,15 @@ package com.nuodb.migrator.backup.format.sql;
 
 import com.nuodb.migrator.backup.format.OutputFormatBase;
 import com.nuodb.migrator.backup.format.OutputFormatException;
+import com.nuodb.migrator.backup.format.value.LobValue;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueHandle;
 import com.nuodb.migrator.backup.format.value.ValueHandleList;
 import com.nuodb.migrator.jdbc.dialect.Dialect;
 import com.nuodb.migrator.jdbc.dialect.DialectResolver;
 import com.nuodb.migrator.jdbc.metadata.Column;
-import com.nuodb.migrator.jdbc.query.InsertQuery;
 
+import java.io.FilterWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
@@ -44,10 +45,17 @@ import java.io.Writer;
 
 import static com.nuodb.migrator.context.ContextUtils.createService;
 import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.NUODB;
+import static java.lang.Integer.parseInt;
+import static java.lang.Math.max;
+import static java.lang.String.valueOf;
 import static java.lang.System.getProperty;
 import static java.sql.Types.*;
 
 /**
+ * Writes rows as INSERT statements, the statement prefix with the table and column names is rendered once per chunk
+ * and values of the rows are streamed to the writer after it. Up to {@link #ATTRIBUTE_INSERT_ROWS} rows are grouped
+ * into a single multi row INSERT statement.
+ *
  * @author Sergey Bushik
  */
 public class SqlOutputFormat extends OutputFormatBase implements SqlAttributes {
@@ -58,6 +66,10 @@ public class SqlOutputFormat extends OutputFormatBase implements SqlAttributes {
     private String lineSeparator = getProperty("line.separator");
     private Dialect dialect = createService(DialectResolver.class).resolve(NUODB);
     private Writer output;
+    private int insertRows;
+    private String insertPrefix;
+    private boolean[] quoted;
+    private int rows;
 
     @Override
     public String getFormat() {
@@ -76,61 +88,144 @@ public class SqlOutputFormat extends OutputFormatBase implements SqlAttributes {
 
     @Override
     public void writeStart() {
+        ValueHandleList valueHandleList = getValueHandleList();
+        insertRows = getInsertRows();
+        insertPrefix = createInsertPrefix(valueHandleList);
+        quoted = new boolean[valueHandleList.size()];
+        for (int index = 0; index < quoted.length; index++) {
+            quoted[index] = isQuoted(valueHandleList.get(index));
+        }
+        rows = 0;
     }
 
     @Override
     public void writeValues(Value[] values) {
-        InsertQuery insertQuery = new InsertQuery();
-        insertQuery.setQualifyNames(false);
-        insertQuery.setDialect(dialect);
-        ValueHandleList valueHandleList = getValueHandleList();
-        for (int index = 0; index < values.length; index++) {
-            Value value = values[index];
-            ValueHandle valueHandle = valueHandleList.get(index);
-            Column column = getColumn(valueHandle);
-            if (index == 0) {
-                insertQuery.setInto(column.getTable());
-            }
-            insertQuery.addColumn(column, asString(value, valueHandle));
-        }
         try {
-            String script = insertQuery.toString();
-            output.write(script);
-            if (!script.endsWith(lineEnding)) {
-                output.write(lineEnding);
+            if (rows == 0) {
+                output.write(insertPrefix);
+            } else {
+                output.write(',');
+                output.write(lineSeparator);
+            }
+            output.write('(');
+            for (int index = 0; index < values.length; index++) {
+                if (index > 0) {
+                    output.write(", ");
+                }
+                writeValue(values[index], quoted[index]);
+            }
+            output.write(')');
+            if (++rows >= insertRows) {
+                writeLineEnding();
             }
-            output.write(lineSeparator);
         } catch (IOException exception) {
             throw new OutputFormatException(exception);
         }
     }
 
-    protected Column getColumn(ValueHandle valueHandle) {
-        return (Column) valueHandle.asField();
+    protected int getInsertRows() {
+        Object insertRows = getAttribute(ATTRIBUTE_INSERT_ROWS);
+        return insertRows != null ? max(1, parseInt(valueOf(insertRows))) : INSERT_ROWS;
     }
 
-    protected String asString(Value value, ValueHandle valueHandle) {
-        String string;
-        if (!value.isNull()) {
-            switch (valueHandle.getTypeCode()) {
-                case SMALLINT:
-                case TINYINT:
-                case INTEGER:
-                case BIGINT:
-                case FLOAT:
-                case REAL:
-                case DOUBLE:
-                case NUMERIC:
-                case DECIMAL:
-                    string = value.asString();
-                    break;
-                default:
-                    string = "'" + value.asString() + "'";
+    /**
+     * Renders INSERT INTO table (column1, column2) VALUES prefix shared by all statements of the chunk.
+     */
+    protected String createInsertPrefix(ValueHandleList valueHandleList) {
+        StringBuilder prefix = new StringBuilder("INSERT INTO ");
+        for (int index = 0; index < valueHandleList.size(); index++) {
+            Column column = getColumn(valueHandleList.get(index));
+            if (index == 0) {
+                prefix.append(column.getTable().getName(dialect)).append(" (");
+            } else {
+                prefix.append(", ");
             }
+            prefix.append(column.getName(dialect));
+        }
+        return prefix.append(") VALUES ").toString();
+    }
+
+    protected void writeValue(Value value, boolean quoted) throws IOException {
+        if (value.isNull()) {
+            output.write("NULL");
+        } else if (quoted && value instanceof LobValue) {
+            output.write('\'');
+            ((LobValue) value).copyTo(new QuotingWriter(output));
+            output.write('\'');
+        } else if (quoted) {
+            String string = value.asString();
+            output.write('\'');
+            output.write(string.indexOf('\'') < 0 ? string : string.replace("'", "''"));
+            output.write('\'');
         } else {
-            string = "NULL";
+            output.write(value.asString());
+        }
+    }
+
+    /**
+     * Doubles single quotes of the large object content streamed into a string literal.
+     */
+    static class QuotingWriter extends FilterWriter {
+
+        public QuotingWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (c == '\'') {
+                out.write(c);
+            }
+            out.write(c);
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            for (int index = offset; index < offset + length; index++) {
+                write(buffer[index]);
+            }
+        }
+
+        @Override
+        public void write(String string, int offset, int length) throws IOException {
+            for (int index = offset; index < offset + length; index++) {
+                write(string.charAt(index));
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    protected void writeLineEnding() throws IOException {
+        output.write(lineEnding);
+        output.write(lineSeparator);
+        rows = 0;
+    }
+
+    protected Column getColumn(ValueHandle valueHandle) {
+        return (Column) valueHandle.asField();
+    }
+
+    /**
+     * Numeric values are written as is, values of other types are written as quoted string literals.
+     */
+    protected boolean isQuoted(ValueHandle valueHandle) {
+        switch (valueHandle.getTypeCode()) {
+            case SMALLINT:
+            case TINYINT:
+            case INTEGER:
+            case BIGINT:
+            case FLOAT:
+            case REAL:
+            case DOUBLE:
+            case NUMERIC:
+            case DECIMAL:
+                return false;
+            default:
+                return true;
         }
-        return string;
     }
 
     @Override
@@ -138,8 +233,18 @@ public class SqlOutputFormat extends OutputFormatBase implements SqlAttributes {
         return true;
     }
 
+    /**
+     * Terminates the multi row statement left open by the last rows of the chunk.
+     */
     @Override
     public void writeEnd() {
+        if (rows > 0) {
+            try {
+                writeLineEnding();
+            } catch (IOException exception) {
+                throw new OutputFormatException(exception);
+            }
+        }
     }
 
     public String getLineEnding() {
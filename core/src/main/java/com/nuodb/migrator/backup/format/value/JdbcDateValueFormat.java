@@ -33,13 +33,14 @@ import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
 
 import java.sql.Date;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Map;
 
 import static com.nuodb.migrator.backup.format.value.ValueUtils.STRING_NULL;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.primitiveOrString;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.formatYear;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.parseDate;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.parseYear;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
@@ -50,48 +51,40 @@ public class JdbcDateValueFormat extends ValueFormatBase<Date> {
 
     private static final String YEAR_TYPE = "YEAR";
 
-    private static final DateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy");
-
     @Override
     protected Value doGetValue(JdbcValueAccess<Date> access, Map<String, Object> options) throws SQLException {
         Date date = access.getValue(options);
         if (date == null) {
             return STRING_NULL;
         } else if (JdbcTypeDesc.equals(access.getField().getTypeName(), YEAR_TYPE)) {
-            return string(YEAR_FORMAT.format(date));
+            return string(formatYear(date));
         } else {
-            return string(date.toString());
+            return primitiveOrString(date);
         }
     }
 
     @Override
     protected void doSetValue(Value value, JdbcValueAccess<Date> access, Map<String, Object> options) throws SQLException {
-        if (!(doSetValueAsDate(access, value, options) ||
-                doSetValueAsYear(access, value, options))) {
-            throw new ValueFormatException(format("Value %s is not a date nor year", value));
+        if (value instanceof PrimitiveValue) {
+            access.setValue(((PrimitiveValue) value).asDate(), options);
+        } else {
+            String string = value.asString();
+            access.setValue(!isEmpty(string) ? parseValue(string) : null, options);
         }
     }
 
-    protected boolean doSetValueAsDate(JdbcValueAccess<Date> jdbcValueAccess, Value variant,
-                                       Map<String, Object> valueAccessOptions) throws SQLException {
-        try {
-            final String value = variant.asString();
-            jdbcValueAccess.setValue(!isEmpty(value) ? Date.valueOf(value) : null, valueAccessOptions);
-            return true;
-        } catch (IllegalArgumentException exception) {
-            return false;
+    /**
+     * Detects whether the value is a date or a year by its shape without throwing on a mismatch.
+     */
+    protected Date parseValue(String value) {
+        Date date = parseDate(value);
+        if (date == null) {
+            date = parseYear(value);
         }
-    }
-
-    protected boolean doSetValueAsYear(JdbcValueAccess<Date> jdbcValueAccess, Value variant,
-                                       Map<String, Object> valueAccessOptions) throws SQLException {
-        try {
-            final String value = variant.asString();
-            jdbcValueAccess.setValue(YEAR_FORMAT.parse(value), valueAccessOptions);
-            return true;
-        } catch (ParseException e) {
-            return false;
+        if (date == null) {
+            throw new ValueFormatException(format("Value %s is not a date nor year", value));
         }
+        return date;
     }
 
     @Override
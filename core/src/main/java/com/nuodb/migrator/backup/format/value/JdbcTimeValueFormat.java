@@ -34,7 +34,8 @@ import java.sql.SQLException;
 import java.sql.Time;
 import java.util.Map;
 
-import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.primitiveOrString;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.parseTime;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
@@ -45,18 +46,21 @@ public class JdbcTimeValueFormat extends ValueFormatBase<Time> {
 
     @Override
     protected Value doGetValue(JdbcValueAccess<Time> access, Map<String, Object> options) throws SQLException {
-        Time time = access.getValue(options);
-        return string(time != null ? time.toString() : null);
+        return primitiveOrString(access.getValue(options));
     }
 
     @Override
     protected void doSetValue(Value variant, JdbcValueAccess<Time> access, Map<String, Object> options) throws SQLException {
+        if (variant instanceof PrimitiveValue) {
+            access.setValue(((PrimitiveValue) variant).asTime(), options);
+            return;
+        }
         final String value = variant.asString();
-        try {
-            access.setValue(!isEmpty(value) ? value : null, options);
-        } catch (IllegalArgumentException exception) {
+        Time time = null;
+        if (!isEmpty(value) && (time = parseTime(value)) == null) {
             throw new ValueFormatException(format("Value %s is not in the hh:mm:ss format", value));
         }
+        access.setValue(time, options);
     }
 
     @Override
@@ -33,12 +33,12 @@ import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
 import java.sql.Date;
 import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Map;
 
-import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.primitiveOrString;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.parseDate;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.parseTimestamp;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.parseYear;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
@@ -47,56 +47,40 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  */
 public class JdbcTimestampValueFormat extends ValueFormatBase<Timestamp> {
 
-    private static final DateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy");
-
     @Override
     protected Value doGetValue(JdbcValueAccess<Timestamp> access,
                                Map<String, Object> options) throws SQLException {
-        Timestamp timestamp = access.getValue(options);
-        return string(timestamp != null ? timestamp.toString() : null);
+        return primitiveOrString(access.getValue(options));
     }
 
     @Override
     protected void doSetValue(Value value, JdbcValueAccess<Timestamp> access,
                               Map<String, Object> options) throws SQLException {
-        if (!(doSetValueAsTimestamp(value, access, options) || doSetValueAsDate(value,
-                access, options) ||
-                doSetValueAsYear(value, access, options))) {
-            throw new ValueFormatException(format("Value %s is not a timestamp, date nor year", value));
-        }
-    }
-
-    protected boolean doSetValueAsTimestamp(Value variant, JdbcValueAccess<Timestamp> access,
-                                            Map<String, Object> options) throws SQLException {
-        try {
-            String value = variant.asString();
-            access.setValue(!isEmpty(value) ? Timestamp.valueOf(value) : null, options);
-            return true;
-        } catch (IllegalArgumentException exception) {
-            return false;
-        }
-    }
-
-    protected boolean doSetValueAsDate(Value variant, JdbcValueAccess<Timestamp> access,
-                                       Map<String, Object> options) throws SQLException {
-        try {
-            String value = variant.asString();
-            access.setValue(!isEmpty(value) ? Date.valueOf(value) : null, options);
-            return true;
-        } catch (IllegalArgumentException exception) {
-            return false;
+        if (value instanceof PrimitiveValue) {
+            access.setValue(((PrimitiveValue) value).asTimestamp(), options);
+        } else {
+            String string = value.asString();
+            access.setValue(!isEmpty(string) ? parseValue(string) : null, options);
         }
     }
 
-    protected boolean doSetValueAsYear(Value variant, JdbcValueAccess<Timestamp> access,
-                                       Map<String, Object> options) throws SQLException {
-        try {
-            String value = variant.asString();
-            access.setValue(YEAR_FORMAT.parse(value), options);
-            return true;
-        } catch (ParseException e) {
-            return false;
+    /**
+     * Detects whether the value is a timestamp, a date or a year by its shape, each parser returns null for a value of
+     * a different shape instead of throwing.
+     */
+    protected Timestamp parseValue(String value) {
+        Timestamp timestamp = parseTimestamp(value);
+        if (timestamp == null) {
+            Date date = parseDate(value);
+            if (date == null) {
+                date = parseYear(value);
+            }
+            if (date == null) {
+                throw new ValueFormatException(format("Value %s is not a timestamp, date nor year", value));
+            }
+            timestamp = new Timestamp(date.getTime());
         }
+        return timestamp;
     }
 
     @Override
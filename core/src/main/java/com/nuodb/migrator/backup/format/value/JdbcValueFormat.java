@@ -39,9 +39,11 @@ import java.sql.RowId;
 import java.sql.Types;
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.value.PrimitiveType.LONG;
 import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
 import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.primitiveOrString;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
 import static java.lang.String.format;
 import static org.apache.commons.io.IOUtils.closeQuietly;
@@ -52,6 +54,15 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  */
 public class JdbcValueFormat extends ValueFormatBase<Object> {
 
+    /**
+     * Large objects longer than the threshold are spilled to temporary files rather than held in memory
+     */
+    public static final int LOB_THRESHOLD = 1 << 20;
+
+    private static final int TINYINT_UNSIGNED_MAX_VALUE = 255;
+
+    private int lobThreshold = LOB_THRESHOLD;
+
     @Override
     protected Value doGetValue(JdbcValueAccess<Object> access, Map<String, Object> options) throws Exception {
         Object result;
@@ -68,8 +79,7 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
             case Types.DOUBLE:
             case Types.NUMERIC:
             case Types.DECIMAL:
-                result = access.getValue(options);
-                value = string(result != null ? result.toString() : null);
+                value = primitiveOrString(access.getValue(options));
                 break;
             case Types.CHAR:
             case Types.VARCHAR:
@@ -82,9 +92,12 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
             case Types.BINARY:
             case Types.VARBINARY:
             case Types.LONGVARBINARY:
-            case Types.BLOB:
                 value = binary(access.getValue(byte[].class, options));
                 break;
+            case Types.BLOB:
+                InputStream stream = access.getValue(InputStream.class, options);
+                value = stream != null ? LobValue.spill(stream, lobThreshold) : binary(null);
+                break;
             case Types.OTHER:
             case Types.JAVA_OBJECT:
             case Types.STRUCT:
@@ -93,7 +106,8 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
                 break;
             case Types.CLOB:
             case Types.NCLOB:
-                value = string(access.getValue(String.class, options));
+                Reader reader = access.getValue(Reader.class, options);
+                value = reader != null ? LobValue.spill(reader, lobThreshold) : string(null);
                 break;
             case Types.REF:
                 result = access.getValue(options);
@@ -104,8 +118,7 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
                 value = string(result != null ? result.toString() : null);
                 break;
             case Types.BOOLEAN:
-                result = access.getValue(options);
-                value = string(result != null ? result.toString() : null);
+                value = primitiveOrString(access.getValue(options));
                 break;
             case Types.ROWID:
                 result = access.getValue(options);
@@ -123,6 +136,12 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
 
     @Override
     protected void doSetValue(Value value, JdbcValueAccess<Object> access, Map<String, Object> options) throws Exception {
+        if (value instanceof PrimitiveValue && doSetPrimitiveValue((PrimitiveValue) value, access, options)) {
+            return;
+        }
+        if (value instanceof LobValue && doSetLobValue((LobValue) value, access, options)) {
+            return;
+        }
         Field field = access.getField();
         final String result = value.asString();
         switch (field.getTypeCode()) {
@@ -164,7 +183,7 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
             case Types.BINARY:
             case Types.VARBINARY:
             case Types.LONGVARBINARY:
-                access.setValue(!isEmpty(result) ? result : null, options);
+                access.setValue(!isEmpty(result) ? value.asBytes() : null, options);
                 break;
             case Types.OTHER:
             case Types.JAVA_OBJECT:
@@ -196,6 +215,106 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
         }
     }
 
+    /**
+     * Binds primitive value to numeric and boolean columns directly, without parsing its string representation.
+     *
+     * @return true if value was bound, false if column type requires conversion from string.
+     */
+    protected boolean doSetPrimitiveValue(PrimitiveValue value, JdbcValueAccess<Object> access,
+                                          Map<String, Object> options) throws Exception {
+        boolean integral = value.getPrimitiveType() == LONG;
+        switch (access.getField().getTypeCode()) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                access.setValue(value.asBoolean(), options);
+                break;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return integral && setIntegralValue(value.asLong(), access, options);
+            case Types.FLOAT:
+            case Types.REAL:
+                access.setValue((float) value.asDouble(), options);
+                break;
+            case Types.DOUBLE:
+                access.setValue(value.asDouble(), options);
+                break;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                access.setValue(value.asBigDecimal(), options);
+                break;
+            default:
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Streams large object value to BLOB and CLOB columns, so that its content is never held in memory.
+     *
+     * @return true if value was bound, false if column type requires conversion from string or bytes.
+     */
+    protected boolean doSetLobValue(LobValue value, JdbcValueAccess<Object> access,
+                                    Map<String, Object> options) throws Exception {
+        switch (access.getField().getTypeCode()) {
+            case Types.BLOB:
+                setLobValue(value.getInputStream(), access, options);
+                break;
+            case Types.CLOB:
+            case Types.NCLOB:
+                setLobValue(value.getReader(), access, options);
+                break;
+            default:
+                return false;
+        }
+        return true;
+    }
+
+    protected void setLobValue(Closeable stream, JdbcValueAccess<Object> access,
+                               Map<String, Object> options) throws Exception {
+        try {
+            access.setValue(stream, options);
+        } finally {
+            closeQuietly(stream);
+        }
+    }
+
+    /**
+     * Binds integral value if it fits the column type. TINYINT column takes signed and unsigned byte values and is
+     * bound as a short, which is the value class of the TINYINT type value.
+     *
+     * @return false if the value is out of range of the column type, so that it's rejected the same way as its string
+     *         representation.
+     */
+    protected boolean setIntegralValue(long value, JdbcValueAccess<Object> access,
+                                       Map<String, Object> options) throws Exception {
+        switch (access.getField().getTypeCode()) {
+            case Types.TINYINT:
+                if (value < Byte.MIN_VALUE || value > TINYINT_UNSIGNED_MAX_VALUE) {
+                    return false;
+                }
+                access.setValue((short) value, options);
+                break;
+            case Types.SMALLINT:
+                if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                    return false;
+                }
+                access.setValue((short) value, options);
+                break;
+            case Types.INTEGER:
+                if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                    return false;
+                }
+                access.setValue((int) value, options);
+                break;
+            default:
+                access.setValue(value, options);
+                break;
+        }
+        return true;
+    }
+
     protected byte[] write(Object object) throws IOException {
         if (object == null) {
             return null;
@@ -227,6 +346,14 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
         }
     }
 
+    public int getLobThreshold() {
+        return lobThreshold;
+    }
+
+    public void setLobThreshold(int lobThreshold) {
+        this.lobThreshold = lobThreshold;
+    }
+
     @Override
     public ValueType getValueType(Field field) {
         ValueType valueType;
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.jdbc.model.Field;
+import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
+import org.apache.commons.io.input.ReaderInputStream;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Types;
+import java.util.Map;
+
+import static com.nuodb.migrator.backup.format.value.LobValue.CHARSET;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+
+/**
+ * Reads BLOB and CLOB columns as streams of the current row, which are copied by the dump straight to the chunk side
+ * file, so that large objects are neither held in memory nor spilled to temporary files. Character content is
+ * encoded in UTF-8.
+ *
+ * @author Sergey Bushik
+ */
+public class LobStreamValueFormat extends ValueFormatBase<Object> {
+
+    @Override
+    protected Value doGetValue(JdbcValueAccess<Object> access, Map<String, Object> options) throws Exception {
+        Value value;
+        if (getValueType(access.getField()) == BINARY) {
+            InputStream stream = access.getValue(InputStream.class, options);
+            value = stream != null ? LobValue.stream(BINARY, stream) : binary(null);
+        } else {
+            Reader reader = access.getValue(Reader.class, options);
+            value = reader != null ? LobValue.stream(STRING, new ReaderInputStream(reader, CHARSET)) : string(null);
+        }
+        return value;
+    }
+
+    @Override
+    protected void doSetValue(Value value, JdbcValueAccess<Object> access, Map<String, Object> options) {
+        throw new ValueFormatException("Large object streams are read only");
+    }
+
+    @Override
+    public ValueType getValueType(Field field) {
+        return field.getTypeCode() == Types.BLOB ? BINARY : STRING;
+    }
+}
@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static java.util.Arrays.copyOf;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+/**
+ * Large object value, which content is not held in memory but read from the stream supplier on demand. String content
+ * is always encoded in UTF-8, and so is binary content returned as a string. The value is spilled to a temporary file
+ * when it's fetched from the result set and points to a region of the chunk side file when it's read from the backup.
+ *
+ * @author Sergey Bushik
+ */
+public class LobValue implements Value {
+
+    public static final Charset CHARSET = Charset.forName("UTF-8");
+
+    private static final String PREFIX = "lob";
+    private static final int BUFFER_SIZE = 8192;
+    private static final int ENCODE_BUFFER_SIZE = 3 * 2730;
+
+    /**
+     * Opens a new stream over the content of the value on every call.
+     */
+    public interface Input {
+
+        InputStream open() throws IOException;
+    }
+
+    private final ValueType valueType;
+    private final long length;
+    private final transient Input input;
+    private final transient File file;
+
+    public LobValue(ValueType valueType, long length, Input input) {
+        this(valueType, length, input, null);
+    }
+
+    protected LobValue(ValueType valueType, long length, Input input, File file) {
+        this.valueType = valueType;
+        this.length = length;
+        this.input = input;
+        this.file = file;
+    }
+
+    /**
+     * Reads binary stream into memory if it's not longer than the threshold or spills the stream to a temporary file
+     * otherwise. The stream is closed by the method.
+     *
+     * @param stream    binary stream to read
+     * @param threshold maximum number of bytes held in memory
+     * @return binary value or lob value backed by a temporary file
+     */
+    public static Value spill(InputStream stream, int threshold) throws IOException {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while (bytes.size() <= threshold && (read = stream.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            if (bytes.size() <= threshold) {
+                return ValueUtils.binary(bytes.toByteArray());
+            }
+            File file = File.createTempFile(PREFIX, null);
+            OutputStream output = null;
+            boolean spilled = false;
+            try {
+                output = new FileOutputStream(file);
+                bytes.writeTo(output);
+                long length = bytes.size() + ByteStreams.copy(stream, output);
+                output.close();
+                spilled = true;
+                return new LobValue(BINARY, length, newInput(file), file);
+            } finally {
+                if (!spilled) {
+                    closeQuietly(output);
+                    file.delete();
+                }
+            }
+        } finally {
+            closeQuietly(stream);
+        }
+    }
+
+    /**
+     * Reads character stream into memory if it's not longer than the threshold or spills the stream to a temporary
+     * file in UTF-8 otherwise. The reader is closed by the method.
+     *
+     * @param reader    character stream to read
+     * @param threshold maximum number of characters held in memory
+     * @return string value or lob value backed by a temporary file
+     */
+    public static Value spill(Reader reader, int threshold) throws IOException {
+        try {
+            CharArrayWriter chars = new CharArrayWriter();
+            char[] buffer = new char[BUFFER_SIZE];
+            int read;
+            while (chars.size() <= threshold && (read = reader.read(buffer)) != -1) {
+                chars.write(buffer, 0, read);
+            }
+            if (chars.size() <= threshold) {
+                return ValueUtils.string(chars.toString());
+            }
+            File file = File.createTempFile(PREFIX, null);
+            Writer writer = null;
+            boolean spilled = false;
+            try {
+                writer = new OutputStreamWriter(new FileOutputStream(file), CHARSET);
+                chars.writeTo(writer);
+                while ((read = reader.read(buffer)) != -1) {
+                    writer.write(buffer, 0, read);
+                }
+                writer.close();
+                spilled = true;
+                return new LobValue(ValueType.STRING, file.length(), newInput(file), file);
+            } finally {
+                if (!spilled) {
+                    closeQuietly(writer);
+                    file.delete();
+                }
+            }
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Wraps the stream of the current result set row without reading it, the content can be read once and only
+     * until the result set is moved to the next row.
+     *
+     * @param valueType binary or string value type, string content is expected in UTF-8
+     * @param stream    stream of the value content
+     * @return lob value of unknown length
+     */
+    public static LobValue stream(ValueType valueType, final InputStream stream) {
+        return new LobValue(valueType, -1, new Input() {
+            private boolean opened;
+
+            @Override
+            public InputStream open() throws IOException {
+                if (opened) {
+                    throw new IOException("Large object stream is already read");
+                }
+                opened = true;
+                return stream;
+            }
+        });
+    }
+
+    private static Input newInput(final File file) {
+        return new Input() {
+            @Override
+            public InputStream open() throws IOException {
+                return new FileInputStream(file);
+            }
+        };
+    }
+
+    /**
+     * Removes temporary files backing large object values of the row.
+     *
+     * @param values row values
+     */
+    public static void release(Value[] values) {
+        for (Value value : values) {
+            if (value instanceof LobValue) {
+                ((LobValue) value).release();
+            }
+        }
+    }
+
+    /**
+     * Length of the content in bytes or -1 if the value is a stream of unknown length.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    public InputStream getInputStream() throws IOException {
+        return input.open();
+    }
+
+    public Reader getReader() throws IOException {
+        return new InputStreamReader(getInputStream(), CHARSET);
+    }
+
+    /**
+     * Copies the content to the output stream without closing it.
+     *
+     * @param output stream to write the content to
+     * @return number of bytes copied
+     */
+    public long copyTo(OutputStream output) throws IOException {
+        InputStream stream = getInputStream();
+        try {
+            return ByteStreams.copy(stream, output);
+        } finally {
+            closeQuietly(stream);
+        }
+    }
+
+    /**
+     * Copies the content decoded from UTF-8 to the writer without closing it, so that inline formats can write the
+     * value in chunks instead of reading it into memory.
+     *
+     * @param writer writer to copy the content to
+     * @return number of characters copied
+     */
+    public long copyTo(Writer writer) throws IOException {
+        Reader reader = getReader();
+        try {
+            return CharStreams.copy(reader, writer);
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Writes the content encoded in base64 to the writer without closing it. The content is encoded in chunks of a
+     * size divisible by 3, so that the encoded chunks concatenate to the encoding of the whole content.
+     *
+     * @param writer writer to write the encoded content to
+     */
+    public void encodeTo(Writer writer) throws IOException {
+        InputStream stream = getInputStream();
+        try {
+            byte[] buffer = new byte[ENCODE_BUFFER_SIZE];
+            int read;
+            while ((read = ByteStreams.read(stream, buffer, 0, buffer.length)) > 0) {
+                writer.write(BASE64.encode(read < buffer.length ? copyOf(buffer, read) : buffer));
+            }
+        } finally {
+            closeQuietly(stream);
+        }
+    }
+
+    /**
+     * Removes temporary file backing this value if there is one.
+     */
+    public void release() {
+        if (file != null) {
+            file.delete();
+        }
+    }
+
+    @Override
+    public boolean isNull() {
+        return false;
+    }
+
+    @Override
+    public String asString() {
+        return new String(asBytes(), CHARSET);
+    }
+
+    @Override
+    public byte[] asBytes() {
+        InputStream stream = null;
+        try {
+            stream = getInputStream();
+            return ByteStreams.toByteArray(stream);
+        } catch (IOException exception) {
+            throw new ValueFormatException("Can't read large object value", exception);
+        } finally {
+            closeQuietly(stream);
+        }
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return valueType;
+    }
+
+    @Override
+    public String toString() {
+        return "Lob{" + valueType + " " + length + " byte(s)}";
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+/**
+ * Value which carries number, boolean or temporal value in its primitive representation, so that binary formats can
+ * write it as is and value formats can bind it without a round trip through {@link String}. Textual representation
+ * returned by {@link #asString()} is computed on demand and matches {@link Object#toString()} of the corresponding
+ * JDBC object, so text formats see no difference.
+ *
+ * @author Sergey Bushik
+ */
+public interface PrimitiveValue extends Value {
+
+    PrimitiveType getPrimitiveType();
+
+    boolean asBoolean();
+
+    /**
+     * Returns integral value, epoch millis for {@link PrimitiveType#DATE} and {@link PrimitiveType#TIME} or epoch
+     * seconds for {@link PrimitiveType#TIMESTAMP}.
+     *
+     * @return long representation of the value.
+     */
+    long asLong();
+
+    double asDouble();
+
+    BigDecimal asBigDecimal();
+
+    /**
+     * Fractional seconds of {@link PrimitiveType#TIMESTAMP} value in nanos, zero for other types.
+     *
+     * @return nanos of the second.
+     */
+    int getNanos();
+
+    Date asDate();
+
+    Time asTime();
+
+    Timestamp asTimestamp();
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring of preallocated rows handed from a single producer to a single consumer. The producer claims the free
+ * slot at the tail, fills its values and publishes it, the consumer takes the slot at the head and releases it back
+ * once the values are written, so row arrays are reused rather than allocated per row and rows are consumed exactly in
+ * the order they were produced.
+ * <p/>
+ * Producer and consumer stalls are counted every time a side has to wait for the other one: a growing number of
+ * producer stalls means the buffer is full and the consumer is the bottleneck, a growing number of consumer stalls
+ * means the buffer is empty and the producer is.
+ * <p/>
+ * The producer may also publish an {@link #END} marker to split the stream of rows into segments, such as chunks,
+ * which the consumer takes and releases like a regular row.
+ *
+ * @author Sergey Bushik
+ */
+public class RowBuffer {
+
+    /**
+     * Returned by {@link #take()} for a segment end published with {@link #publishEnd()}
+     */
+    public static final Value[] END = new Value[0];
+
+    private final Value[][] rows;
+    private final boolean[] ends;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+
+    private int head;
+    private int tail;
+    private int count;
+    private boolean closed;
+    private boolean aborted;
+    private long producerStalls;
+    private long consumerStalls;
+
+    public RowBuffer(int depth, int width) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Row buffer depth should be positive");
+        }
+        rows = new Value[depth][width];
+        ends = new boolean[depth];
+    }
+
+    /**
+     * Waits for a free slot and returns its row for the producer to fill.
+     *
+     * @return row to fill or null if the consumer aborted the buffer
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Value[] claim() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (count == rows.length && !aborted) {
+                producerStalls++;
+                do {
+                    notFull.await();
+                } while (count == rows.length && !aborted);
+            }
+            return aborted ? null : rows[tail];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes previously claimed row available to the consumer.
+     */
+    public void publish() {
+        lock.lock();
+        try {
+            tail = (tail + 1) % rows.length;
+            count++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a free slot and publishes a segment end marker to the consumer.
+     *
+     * @return false if the consumer aborted the buffer
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean publishEnd() throws InterruptedException {
+        if (claim() == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            ends[tail] = true;
+        } finally {
+            lock.unlock();
+        }
+        publish();
+        return true;
+    }
+
+    /**
+     * Waits for a published row and returns it, the row stays owned by the consumer until {@link #release()} is
+     * called.
+     *
+     * @return next row, {@link #END} for a segment end or null if the producer closed the buffer and all rows were
+     *         consumed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Value[] take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (count == 0 && !closed) {
+                consumerStalls++;
+                do {
+                    notEmpty.await();
+                } while (count == 0 && !closed);
+            }
+            return count == 0 ? null : ends[head] ? END : rows[head];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the row obtained by {@link #take()} to the producer.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            ends[head] = false;
+            head = (head + 1) % rows.length;
+            count--;
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called by the producer when there are no more rows.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called by the consumer to stop the producer, pending rows are discarded.
+     */
+    public void abort() {
+        lock.lock();
+        try {
+            aborted = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called by the consumer once the producer has stopped, pending rows are discarded and temporary files backing
+     * their large objects are removed.
+     */
+    public void discard() {
+        lock.lock();
+        try {
+            for (; count > 0; count--) {
+                if (!ends[head]) {
+                    LobValue.release(rows[head]);
+                }
+                ends[head] = false;
+                head = (head + 1) % rows.length;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getDepth() {
+        return rows.length;
+    }
+
+    public long getProducerStalls() {
+        lock.lock();
+        try {
+            return producerStalls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getConsumerStalls() {
+        lock.lock();
+        try {
+            return consumerStalls;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
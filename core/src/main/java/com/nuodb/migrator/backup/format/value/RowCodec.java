@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
+
+import java.util.Map;
+
+/**
+ * Row codec compiled once per {@link ValueHandleList}. Value formats, value accessors and their options of all the
+ * columns are resolved up front into arrays, so that rows are read from the result set and bound to the statement
+ * with plain indexed loops and no per row lookups, iterators or arrays.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class RowCodec {
+
+    private final ValueHandleList valueHandleList;
+    private final ValueFormat[] valueFormats;
+    private final JdbcValueAccess[] jdbcValueAccesses;
+    private final Map<String, Object>[] jdbcValueAccessOptions;
+    private final Value[] row;
+
+    public RowCodec(ValueHandleList valueHandleList) {
+        int width = valueHandleList.size();
+        this.valueHandleList = valueHandleList;
+        this.valueFormats = new ValueFormat[width];
+        this.jdbcValueAccesses = new JdbcValueAccess[width];
+        this.jdbcValueAccessOptions = new Map[width];
+        this.row = new Value[width];
+        int index = 0;
+        for (ValueHandle valueHandle : valueHandleList) {
+            valueFormats[index] = valueHandle.getValueFormat();
+            jdbcValueAccesses[index] = valueHandle.getJdbcValueAccess();
+            jdbcValueAccessOptions[index] = valueHandle.getJdbcValueAccessOptions();
+            index++;
+        }
+    }
+
+    /**
+     * Returns codec of the value handle list, compiling a new one if the codec is null or was compiled for another
+     * list.
+     */
+    public static RowCodec getRowCodec(RowCodec rowCodec, ValueHandleList valueHandleList) {
+        return rowCodec != null && rowCodec.getValueHandleList() == valueHandleList ?
+                rowCodec : new RowCodec(valueHandleList);
+    }
+
+    /**
+     * Reads values of the current row into the row buffer owned by the codec, the buffer is overwritten by the next
+     * row.
+     *
+     * @return reusable row buffer.
+     */
+    public Value[] getValues() {
+        return getValues(row);
+    }
+
+    /**
+     * Reads values of the current row into the array.
+     *
+     * @param values array to fill, at least as long as the number of columns.
+     * @return the same array.
+     */
+    public Value[] getValues(Value[] values) {
+        for (int index = 0; index < valueFormats.length; index++) {
+            values[index] = valueFormats[index].getValue(jdbcValueAccesses[index], jdbcValueAccessOptions[index]);
+        }
+        return values;
+    }
+
+    /**
+     * Binds values of the row to the columns.
+     *
+     * @param values row to bind.
+     */
+    public void setValues(Value[] values) {
+        for (int index = 0; index < valueFormats.length; index++) {
+            valueFormats[index].setValue(values[index], jdbcValueAccesses[index], jdbcValueAccessOptions[index]);
+        }
+    }
+
+    public ValueHandleList getValueHandleList() {
+        return valueHandleList;
+    }
+
+    public int getWidth() {
+        return valueFormats.length;
+    }
+}
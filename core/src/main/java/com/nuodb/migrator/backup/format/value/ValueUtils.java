@@ -27,11 +27,20 @@
  */
 package com.nuodb.migrator.backup.format.value;
 
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.List;
 
+import static com.nuodb.migrator.backup.format.value.PrimitiveType.*;
 import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
 import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.formatDate;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.formatTime;
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.formatTimestamp;
 
 /**
  * @author Sergey Bushik
@@ -41,6 +50,24 @@ public class ValueUtils {
     public static final Value BINARY_NULL = new BinaryValue(null);
     public static final Value STRING_NULL = new StringValue(null);
 
+    /**
+     * Primitive values are rendered with digits, signs, separators and literals only
+     */
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+    private static final PrimitiveValue TRUE = new SimplePrimitiveValue(BOOLEAN, 1, 0, 0, null);
+    private static final PrimitiveValue FALSE = new SimplePrimitiveValue(BOOLEAN, 0, 0, 0, null);
+    /**
+     * Immutable values of small integers shared between rows
+     */
+    private static final PrimitiveValue[] INT64_CACHE = new PrimitiveValue[1024 + 128];
+    private static final int INT64_CACHE_LOW = -128;
+
+    static {
+        for (int index = 0; index < INT64_CACHE.length; index++) {
+            INT64_CACHE[index] = new SimplePrimitiveValue(LONG, INT64_CACHE_LOW + index, 0, 0, null);
+        }
+    }
+
     public static void fill(Value[] values, List<ValueType> valueTypes, int offset) {
         for (; offset < values.length; offset++) {
             ValueType valueType = valueTypes.get(offset);
@@ -64,6 +91,285 @@ public class ValueUtils {
         return value == null ? STRING_NULL : new StringValue(value);
     }
 
+    public static PrimitiveValue bool(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    public static PrimitiveValue int64(long value) {
+        if (value >= INT64_CACHE_LOW && value < INT64_CACHE_LOW + INT64_CACHE.length) {
+            return INT64_CACHE[(int) value - INT64_CACHE_LOW];
+        }
+        return new SimplePrimitiveValue(LONG, value, 0, 0, null);
+    }
+
+    public static PrimitiveValue float32(float value) {
+        return new SimplePrimitiveValue(FLOAT, 0, 0, value, null);
+    }
+
+    public static PrimitiveValue float64(double value) {
+        return new SimplePrimitiveValue(DOUBLE, 0, 0, value, null);
+    }
+
+    public static PrimitiveValue decimal(BigDecimal value) {
+        return new SimplePrimitiveValue(DECIMAL, 0, 0, 0, value);
+    }
+
+    public static PrimitiveValue date(long millis) {
+        return new SimplePrimitiveValue(DATE, millis, 0, 0, null);
+    }
+
+    public static PrimitiveValue time(long millis) {
+        return new SimplePrimitiveValue(TIME, millis, 0, 0, null);
+    }
+
+    public static PrimitiveValue timestamp(long seconds, int nanos) {
+        return new SimplePrimitiveValue(TIMESTAMP, seconds, nanos, 0, null);
+    }
+
+    /**
+     * Converts object returned by JDBC driver to a primitive value.
+     *
+     * @param value number, boolean, date, time or timestamp.
+     * @return primitive value or null if the value is null or has no primitive representation.
+     */
+    public static PrimitiveValue primitive(Object value) {
+        PrimitiveValue primitive = null;
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            primitive = int64(((Number) value).longValue());
+        } else if (value instanceof BigDecimal) {
+            primitive = decimal((BigDecimal) value);
+        } else if (value instanceof Double) {
+            primitive = float64((Double) value);
+        } else if (value instanceof Float) {
+            primitive = float32((Float) value);
+        } else if (value instanceof Boolean) {
+            primitive = bool((Boolean) value);
+        } else if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) value;
+            primitive = new SimplePrimitiveValue(TIMESTAMP, floorDiv(timestamp.getTime(), 1000),
+                    timestamp.getNanos(), 0, null, timestamp);
+        } else if (value instanceof Date) {
+            primitive = new SimplePrimitiveValue(DATE, ((Date) value).getTime(), 0, 0, null, value);
+        } else if (value instanceof Time) {
+            primitive = new SimplePrimitiveValue(TIME, ((Time) value).getTime(), 0, 0, null, value);
+        }
+        return primitive;
+    }
+
+    /**
+     * Converts object returned by JDBC driver to a primitive value if possible or to a string value otherwise.
+     *
+     * @param value to convert.
+     * @return primitive or string value.
+     */
+    public static Value primitiveOrString(Object value) {
+        Value primitive = primitive(value);
+        return primitive != null ? primitive : string(value != null ? value.toString() : null);
+    }
+
+    private static long floorDiv(long value, long divisor) {
+        long result = value / divisor;
+        return (value % divisor) < 0 ? result - 1 : result;
+    }
+
+    static class SimplePrimitiveValue implements PrimitiveValue {
+
+        private final PrimitiveType primitiveType;
+        private final long longValue;
+        private final int nanos;
+        private final double doubleValue;
+        private final BigDecimal decimalValue;
+        /**
+         * JDBC object the value is converted from, rendered as is by {@link #asString()}
+         */
+        private final Object object;
+        private String string;
+
+        public SimplePrimitiveValue(PrimitiveType primitiveType, long longValue, int nanos, double doubleValue,
+                                    BigDecimal decimalValue) {
+            this(primitiveType, longValue, nanos, doubleValue, decimalValue, null);
+        }
+
+        public SimplePrimitiveValue(PrimitiveType primitiveType, long longValue, int nanos, double doubleValue,
+                                    BigDecimal decimalValue, Object object) {
+            this.primitiveType = primitiveType;
+            this.longValue = longValue;
+            this.nanos = nanos;
+            this.doubleValue = doubleValue;
+            this.decimalValue = decimalValue;
+            this.object = object;
+        }
+
+        @Override
+        public PrimitiveType getPrimitiveType() {
+            return primitiveType;
+        }
+
+        @Override
+        public boolean asBoolean() {
+            switch (primitiveType) {
+                case FLOAT:
+                case DOUBLE:
+                    return doubleValue != 0;
+                case DECIMAL:
+                    return decimalValue.signum() != 0;
+                default:
+                    return longValue != 0;
+            }
+        }
+
+        @Override
+        public long asLong() {
+            switch (primitiveType) {
+                case FLOAT:
+                case DOUBLE:
+                    return (long) doubleValue;
+                case DECIMAL:
+                    return decimalValue.longValue();
+                default:
+                    return longValue;
+            }
+        }
+
+        @Override
+        public double asDouble() {
+            switch (primitiveType) {
+                case FLOAT:
+                case DOUBLE:
+                    return doubleValue;
+                case DECIMAL:
+                    return decimalValue.doubleValue();
+                default:
+                    return longValue;
+            }
+        }
+
+        @Override
+        public BigDecimal asBigDecimal() {
+            switch (primitiveType) {
+                case FLOAT:
+                    return new BigDecimal(Float.toString((float) doubleValue));
+                case DOUBLE:
+                    return new BigDecimal(Double.toString(doubleValue));
+                case DECIMAL:
+                    return decimalValue;
+                default:
+                    return BigDecimal.valueOf(longValue);
+            }
+        }
+
+        @Override
+        public int getNanos() {
+            return nanos;
+        }
+
+        protected long getMillis() {
+            return primitiveType == TIMESTAMP ? longValue * 1000 + nanos / 1000000 : longValue;
+        }
+
+        @Override
+        public Date asDate() {
+            return new Date(getMillis());
+        }
+
+        @Override
+        public Time asTime() {
+            return new Time(getMillis());
+        }
+
+        @Override
+        public Timestamp asTimestamp() {
+            Timestamp timestamp;
+            if (primitiveType == TIMESTAMP) {
+                timestamp = new Timestamp(longValue * 1000);
+                timestamp.setNanos(nanos);
+            } else {
+                timestamp = new Timestamp(longValue);
+            }
+            return timestamp;
+        }
+
+        /**
+         * Renders the value once, text formats may ask for the string more than once per value.
+         */
+        @Override
+        public String asString() {
+            if (string == null) {
+                string = object != null ? object.toString() : render();
+            }
+            return string;
+        }
+
+        protected String render() {
+            switch (primitiveType) {
+                case BOOLEAN:
+                    return Boolean.toString(longValue != 0);
+                case FLOAT:
+                    return Float.toString((float) doubleValue);
+                case DOUBLE:
+                    return Double.toString(doubleValue);
+                case DECIMAL:
+                    return decimalValue.toString();
+                case DATE:
+                    return formatDate(asDate());
+                case TIME:
+                    return formatTime(asTime());
+                case TIMESTAMP:
+                    return formatTimestamp(asTimestamp());
+                default:
+                    return Long.toString(longValue);
+            }
+        }
+
+        @Override
+        public byte[] asBytes() {
+            return asString().getBytes(ASCII);
+        }
+
+        @Override
+        public boolean isNull() {
+            return false;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return STRING;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            SimplePrimitiveValue that = (SimplePrimitiveValue) o;
+
+            if (Double.compare(that.doubleValue, doubleValue) != 0) return false;
+            if (longValue != that.longValue) return false;
+            if (nanos != that.nanos) return false;
+            if (decimalValue != null ? !decimalValue.equals(that.decimalValue) : that.decimalValue != null)
+                return false;
+            if (primitiveType != that.primitiveType) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = primitiveType.hashCode();
+            long temp = Double.doubleToLongBits(doubleValue);
+            result = 31 * result + (int) (longValue ^ (longValue >>> 32));
+            result = 31 * result + nanos;
+            result = 31 * result + (int) (temp ^ (temp >>> 32));
+            result = 31 * result + (decimalValue != null ? decimalValue.hashCode() : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Primitive{" + primitiveType + " '" + asString() + "'}";
+        }
+    }
+
     static class BinaryValue implements Value {
 
         private final byte[] value;
@@ -167,6 +167,8 @@ public class XmlInputFormat extends InputFormatBase implements XmlAttributes {
             xmlReader.close();
         } catch (XMLStreamException exception) {
             throw new InputFormatException(exception);
+        } finally {
+            super.close();
         }
     }
 }
@@ -29,13 +29,17 @@ package com.nuodb.migrator.backup.format.xml;
 
 import com.nuodb.migrator.backup.format.OutputFormatBase;
 import com.nuodb.migrator.backup.format.OutputFormatException;
+import com.nuodb.migrator.backup.format.value.LobValue;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueType;
 
 import javax.xml.XMLConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.io.Writer;
 import java.util.BitSet;
 
@@ -44,13 +48,17 @@ import static com.nuodb.migrator.backup.format.utils.BitSetUtils.toHexString;
 import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
 import static com.nuodb.migrator.backup.format.xml.XmlUtils.isValid;
 import static javax.xml.stream.XMLOutputFactory.newInstance;
+import static org.apache.commons.io.IOUtils.closeQuietly;
 
 /**
  * @author Sergey Bushik
  */
 public class XmlOutputFormat extends OutputFormatBase implements XmlAttributes {
 
+    private static final int BUFFER_SIZE = 8192;
+
     private XMLStreamWriter xmlWriter;
+    private Closeable output;
 
     @Override
     public String getFormat() {
@@ -59,6 +67,7 @@ public class XmlOutputFormat extends OutputFormatBase implements XmlAttributes {
 
     @Override
     protected void init(OutputStream outputStream) {
+        output = outputStream;
         try {
             xmlWriter = newInstance().createXMLStreamWriter(outputStream, getEncoding());
         } catch (XMLStreamException exception) {
@@ -68,6 +77,7 @@ public class XmlOutputFormat extends OutputFormatBase implements XmlAttributes {
 
     @Override
     protected void init(Writer writer) {
+        output = writer;
         try {
             xmlWriter = newInstance().createXMLStreamWriter(writer);
         } catch (XMLStreamException exception) {
@@ -102,16 +112,20 @@ public class XmlOutputFormat extends OutputFormatBase implements XmlAttributes {
                 if (!value.isNull()) {
                     ValueType valueType = getValueTypes().get(i);
                     xmlWriter.writeStartElement(ELEMENT_COLUMN);
-                    String content;
-                    if (valueType == BINARY) {
-                        content = BASE64.encode(value.asBytes());
-                    } else if (!isValid(value.asString())) {
-                        xmlWriter.writeAttribute(ATTRIBUTE_VALUE_TYPE, VALUE_TYPES.toAlias(BINARY));
-                        content = BASE64.encode(value.asBytes());
+                    if (value instanceof LobValue) {
+                        writeLobValue((LobValue) value, valueType);
                     } else {
-                        content = value.asString();
+                        String content;
+                        if (valueType == BINARY) {
+                            content = BASE64.encode(value.asBytes());
+                        } else if (!isValid(value.asString())) {
+                            xmlWriter.writeAttribute(ATTRIBUTE_VALUE_TYPE, VALUE_TYPES.toAlias(BINARY));
+                            content = BASE64.encode(value.asBytes());
+                        } else {
+                            content = value.asString();
+                        }
+                        xmlWriter.writeCharacters(content);
                     }
-                    xmlWriter.writeCharacters(content);
                     xmlWriter.writeEndElement();
                 }
                 i++;
@@ -119,6 +133,45 @@ public class XmlOutputFormat extends OutputFormatBase implements XmlAttributes {
             xmlWriter.writeEndElement();
         } catch (XMLStreamException e) {
             throw new OutputFormatException(e);
+        } catch (IOException exception) {
+            throw new OutputFormatException(exception);
+        }
+    }
+
+    /**
+     * Streams large object spilled to a temporary file into the column element in chunks, so that the value is never
+     * read into memory as a whole.
+     *
+     * @param value     large object value
+     * @param valueType type of the column
+     */
+    protected void writeLobValue(LobValue value, ValueType valueType) throws XMLStreamException, IOException {
+        Writer writer = new XmlCharactersWriter(xmlWriter);
+        if (valueType == BINARY) {
+            value.encodeTo(writer);
+        } else if (!isValidContent(value)) {
+            xmlWriter.writeAttribute(ATTRIBUTE_VALUE_TYPE, VALUE_TYPES.toAlias(BINARY));
+            value.encodeTo(writer);
+        } else {
+            value.copyTo(writer);
+        }
+    }
+
+    protected boolean isValidContent(LobValue value) throws IOException {
+        Reader reader = value.getReader();
+        try {
+            char[] buffer = new char[BUFFER_SIZE];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                for (int index = 0; index < read; index++) {
+                    if (!isValid(buffer[index])) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } finally {
+            closeQuietly(reader);
         }
     }
 
@@ -139,8 +192,51 @@ public class XmlOutputFormat extends OutputFormatBase implements XmlAttributes {
             if (xmlWriter != null) {
                 xmlWriter.close();
             }
+            if (output != null) {
+                output.close();
+            }
         } catch (XMLStreamException exception) {
             throw new OutputFormatException(exception);
+        } catch (IOException exception) {
+            throw new OutputFormatException(exception);
+        }
+    }
+
+    /**
+     * Writes characters to the column element.
+     */
+    static class XmlCharactersWriter extends Writer {
+
+        private final XMLStreamWriter xmlWriter;
+
+        public XmlCharactersWriter(XMLStreamWriter xmlWriter) {
+            this.xmlWriter = xmlWriter;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            try {
+                xmlWriter.writeCharacters(buffer, offset, length);
+            } catch (XMLStreamException exception) {
+                throw new IOException(exception);
+            }
+        }
+
+        @Override
+        public void write(String string) throws IOException {
+            try {
+                xmlWriter.writeCharacters(string);
+            } catch (XMLStreamException exception) {
+                throw new IOException(exception);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
         }
     }
 
@@ -57,6 +57,7 @@ public interface CliOptions {
     final String DUMP_COMMAND = "dump";
     final String LOAD_COMMAND = "load";
     final String SCHEMA_COMMAND = "schema";
+    final String MIGRATE_COMMAND = "migrate";
 
     final String SOURCE_DRIVER_OPTION = "source.driver";
     final String SOURCE_URL_OPTION = "source.url";
@@ -82,11 +83,20 @@ public interface CliOptions {
     final String TABLE_FILTER_OPTION = "table.*.filter";
     final String TABLE_INSERT_OPTION = "table.*.insert";
     final String TABLE_REPLACE_OPTION = "table.*.replace";
+    final String TABLE_INSERT_STRATEGY_OPTION = "table.*.strategy";
+
+    final String INSERT_STRATEGY_OPTION = "insert.strategy";
+    final String INSERT_ROWS_OPTION = "insert.rows";
 
     final String THREADS_OPTION = "threads";
     final String THREADS_SHORT_OPTION = "t";
 
     final String QUERY_LIMIT_OPTION = "query.limit";
+    final String QUERY_PARTITION_OPTION = "query.partition";
+    final String QUERY_ROW_COUNT_OPTION = "query.row.count";
+    final String PIPELINE_DEPTH_OPTION = "pipeline.depth";
+    final String RESUME_OPTION = "resume";
+    final String JOURNAL_OPTION = "journal";
 
     final String QUERY_OPTION = "query";
 
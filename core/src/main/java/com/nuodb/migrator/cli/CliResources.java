@@ -100,8 +100,23 @@ public interface CliResources {
 
     final String THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.threads.option.description";
     final String THREADS_ARGUMENT_NAME = "com.nuodb.migrator.threads.argument.name";
+    final String LOAD_THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.load.threads.option.description";
     final String QUERY_LIMIT_OPTION_DESCRIPTION = "com.nuodb.migrator.query.limit.option.description";
     final String QUERY_LIMIT_ARGUMENT_NAME = "com.nuodb.migrator.query.limit.argument.name";
+    final String QUERY_PARTITION_OPTION_DESCRIPTION = "com.nuodb.migrator.query.partition.option.description";
+    final String QUERY_PARTITION_ARGUMENT_NAME = "com.nuodb.migrator.query.partition.argument.name";
+    final String QUERY_ROW_COUNT_OPTION_DESCRIPTION = "com.nuodb.migrator.query.row.count.option.description";
+    final String QUERY_ROW_COUNT_ARGUMENT_NAME = "com.nuodb.migrator.query.row.count.argument.name";
+    final String PIPELINE_DEPTH_OPTION_DESCRIPTION = "com.nuodb.migrator.pipeline.depth.option.description";
+    final String PIPELINE_DEPTH_ARGUMENT_NAME = "com.nuodb.migrator.pipeline.depth.argument.name";
+    final String LOAD_PIPELINE_DEPTH_OPTION_DESCRIPTION = "com.nuodb.migrator.load.pipeline.depth.option.description";
+    final String RESUME_OPTION_DESCRIPTION = "com.nuodb.migrator.resume.option.description";
+    final String RESUME_ARGUMENT_NAME = "com.nuodb.migrator.resume.argument.name";
+    final String LOAD_RESUME_OPTION_DESCRIPTION = "com.nuodb.migrator.load.resume.option.description";
+    final String LOAD_JOURNAL_OPTION_DESCRIPTION = "com.nuodb.migrator.load.journal.option.description";
+    final String LOAD_JOURNAL_ARGUMENT_NAME = "com.nuodb.migrator.load.journal.argument.name";
+    final String MIGRATE_THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.migrate.threads.option.description";
+    final String MIGRATE_PIPELINE_DEPTH_OPTION_DESCRIPTION = "com.nuodb.migrator.migrate.pipeline.depth.option.description";
 
     final String LOAD_GROUP_NAME = "com.nuodb.migrator.load.group.name";
     final String TARGET_GROUP_NAME = "com.nuodb.migrator.target.group.name";
@@ -132,6 +147,8 @@ public interface CliResources {
     final String COMMIT_STRATEGY_ATTRIBUTES_OPTION_DESCRIPTION = "com.nuodb.migrator.commit.strategy.attributes.option.description";
     final String COMMIT_STRATEGY_ATTRIBUTES_ARGUMENT_NAME = "com.nuodb.migrator.commit.strategy.attributes.argument.name";
 
+    final String MIGRATE_GROUP_NAME = "com.nuodb.migrator.migrate.group.name";
+
     final String SCHEMA_GROUP_NAME = "com.nuodb.migrator.schema.group.name";
     final String SCHEMA_OUTPUT_GROUP_NAME = "com.nuodb.migrator.schema.output.group.name";
     final String META_DATA_OPTION_DESCRIPTION = "com.nuodb.migrator.meta.data.option.description";
@@ -167,4 +184,12 @@ public interface CliResources {
     final String INSERT_TYPE_GROUP_NAME = "com.nuodb.migrator.insert.type.group.name";
     final String TABLE_REPLACE_OPTION_DESCRIPTION = "com.nuodb.migrator.table.replace.option.description";
     final String TABLE_INSERT_OPTION_DESCRIPTION = "com.nuodb.migrator.table.insert.option.description";
+
+    final String INSERT_STRATEGY_GROUP_NAME = "com.nuodb.migrator.insert.strategy.group.name";
+    final String INSERT_STRATEGY_OPTION_DESCRIPTION = "com.nuodb.migrator.insert.strategy.option.description";
+    final String INSERT_STRATEGY_ARGUMENT_NAME = "com.nuodb.migrator.insert.strategy.argument.name";
+    final String INSERT_ROWS_OPTION_DESCRIPTION = "com.nuodb.migrator.insert.rows.option.description";
+    final String INSERT_ROWS_ARGUMENT_NAME = "com.nuodb.migrator.insert.rows.argument.name";
+    final String TABLE_INSERT_STRATEGY_OPTION_DESCRIPTION =
+            "com.nuodb.migrator.table.insert.strategy.option.description";
 }
@@ -33,25 +33,18 @@ import com.nuodb.migrator.cli.parse.OptionSet;
 import com.nuodb.migrator.cli.parse.option.GroupBuilder;
 import com.nuodb.migrator.cli.parse.option.OptionFormat;
 import com.nuodb.migrator.jdbc.metadata.Table;
-import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.spec.DumpJobSpec;
 import com.nuodb.migrator.spec.QuerySpec;
-import com.nuodb.migrator.spec.TableSpec;
 
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
 import static com.nuodb.migrator.utils.Priority.LOW;
 import static java.lang.Integer.MAX_VALUE;
-import static java.lang.Integer.parseInt;
-import static java.lang.Long.parseLong;
-import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 /**
  * An implementation of {@link CliRunAdapter} which assembles dump spec from provided command line after the validation
@@ -100,57 +93,13 @@ public class CliDumpJob extends CliJob<DumpJobSpec> {
         group.withOption(createTimeZoneOption());
         group.withOption(createThreadsOption());
         group.withOption(createQueryLimitOption());
+        group.withOption(createQueryPartitionOption());
+        group.withOption(createQueryRowCountOption());
+        group.withOption(createPipelineDepthOption());
+        group.withOption(createResumeOption());
         return group.build();
     }
 
-    /**
-     * Table option handles -table=users, -table=roles and stores it items the option in the  command line.
-     */
-    protected Group createTableGroup() {
-        GroupBuilder group = newGroupBuilder().withName(getMessage(TABLE_GROUP_NAME)).withMaximum(MAX_VALUE);
-
-        Option table = newBasicOptionBuilder().
-                withName(TABLE_OPTION).
-                withDescription(getMessage(TABLE_OPTION_DESCRIPTION)).
-                withArgument(
-                        newArgumentBuilder().
-                                withName(getMessage(TABLE_ARGUMENT_NAME)).
-                                withMinimum(1).
-                                withMaximum(Integer.MAX_VALUE).
-                                withRequired(true).build()
-                ).build();
-        group.withOption(table);
-
-        OptionFormat optionFormat = new OptionFormat(getOptionFormat());
-        optionFormat.setValuesSeparator(null);
-
-        Option tableFilter = newRegexOptionBuilder().
-                withName(TABLE_FILTER_OPTION).
-                withDescription(getMessage(TABLE_FILTER_OPTION_DESCRIPTION)).
-                withRegex(TABLE_FILTER_OPTION, 1, LOW).
-                withArgument(
-                        newArgumentBuilder().
-                                withName(getMessage(TABLE_FILTER_ARGUMENT_NAME)).
-                                withOptionFormat(optionFormat).
-                                withMinimum(1).
-                                withRequired(true).build()
-                ).build();
-
-        group.withOption(tableFilter);
-        return group.build();
-    }
-
-    protected Option createThreadsOption() {
-        return newBasicOptionBuilder().
-                withName(THREADS_OPTION).
-                withAlias(THREADS_SHORT_OPTION, OptionFormat.SHORT).
-                withDescription(getMessage(THREADS_OPTION_DESCRIPTION)).
-                withArgument(
-                        newArgumentBuilder().
-                                withName(getMessage(THREADS_ARGUMENT_NAME)).build()
-                ).build();
-    }
-
     protected Option createQueryGroup() {
         GroupBuilder group = newGroupBuilder().withName(getMessage(QUERY_GROUP_NAME)).withMaximum(MAX_VALUE);
 
@@ -173,39 +122,20 @@ public class CliDumpJob extends CliJob<DumpJobSpec> {
         return group.build();
     }
 
-    protected Option createQueryLimitOption() {
-        return newBasicOptionBuilder().
-                withName(QUERY_LIMIT_OPTION).
-                withDescription(getMessage(QUERY_LIMIT_OPTION_DESCRIPTION)).
-                withArgument(
-                        newArgumentBuilder().
-                                withName(getMessage(QUERY_LIMIT_ARGUMENT_NAME)).build()
-                ).build();
-    }
-
     protected void parseDataMigrationGroup(OptionSet optionSet, DumpJobSpec jobSpec) {
         parseTableGroup(optionSet, jobSpec);
         jobSpec.setQuerySpecs(parseQueryGroup(optionSet));
         jobSpec.setTimeZone(parseTimeZoneOption(optionSet, this));
         jobSpec.setThreads(parseThreadsOption(optionSet, this));
         jobSpec.setQueryLimit(parseQueryLimitOption(optionSet, this));
+        jobSpec.setQueryPartition(parseQueryPartitionOption(optionSet, this));
+        jobSpec.setRowCountType(parseQueryRowCountOption(optionSet, this));
+        jobSpec.setPipelineDepth(parsePipelineDepthOption(optionSet, this));
+        jobSpec.setResume(parseResumeOption(optionSet, this));
     }
 
     protected void parseTableGroup(OptionSet optionSet, DumpJobSpec jobSpec) {
-        Map<String, TableSpec> tableQueryMapping = newHashMap();
-        for (String table : optionSet.<String>getValues(TABLE_OPTION)) {
-            tableQueryMapping.put(table, new TableSpec(table));
-        }
-        for (Iterator<String> iterator = optionSet.<String>getValues(
-                TABLE_FILTER_OPTION).iterator(); iterator.hasNext(); ) {
-            String name = iterator.next();
-            TableSpec tableSpec = tableQueryMapping.get(name);
-            if (tableSpec == null) {
-                tableQueryMapping.put(name, tableSpec = new TableSpec(name));
-            }
-            tableSpec.setFilter(iterator.next());
-        }
-        jobSpec.setTableSpecs(newArrayList(tableQueryMapping.values()));
+        jobSpec.setTableSpecs(parseTableGroup(optionSet));
     }
 
     protected Collection<QuerySpec> parseQueryGroup(OptionSet optionSet) {
@@ -216,16 +146,6 @@ public class CliDumpJob extends CliJob<DumpJobSpec> {
         return querySpecs;
     }
 
-    protected Integer parseThreadsOption(OptionSet optionSet, Option option) {
-        String threadsValue = (String) optionSet.getValue(THREADS_OPTION);
-        return !isEmpty(threadsValue) ? parseInt(threadsValue) : null;
-    }
-
-    protected QueryLimit parseQueryLimitOption(OptionSet optionSet, Option option) {
-        String queryLimitValue = (String) optionSet.getValue(QUERY_LIMIT_OPTION);
-        return !isEmpty(queryLimitValue) ? new QueryLimit(parseLong(queryLimitValue)) : null;
-    }
-
     @Override
     protected Group createSchemaMigrationGroup() {
         GroupBuilder group = newGroupBuilder().withName(getMessage(SCHEMA_MIGRATION_GROUP_NAME));
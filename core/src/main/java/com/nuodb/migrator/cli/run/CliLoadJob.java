@@ -27,18 +27,14 @@
  */
 package com.nuodb.migrator.cli.run;
 
-import com.google.common.collect.Maps;
 import com.nuodb.migrator.cli.parse.Option;
 import com.nuodb.migrator.cli.parse.OptionSet;
 import com.nuodb.migrator.cli.parse.option.GroupBuilder;
-import com.nuodb.migrator.cli.parse.option.OptionFormat;
-import com.nuodb.migrator.jdbc.query.InsertType;
 import com.nuodb.migrator.spec.LoadJobSpec;
 
 import java.util.Map;
 
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
-import static com.nuodb.migrator.utils.Priority.LOW;
 
 /**
  * @author Sergey Bushik
@@ -80,49 +76,42 @@ public class CliLoadJob extends CliJob<LoadJobSpec> {
         GroupBuilder group = newGroupBuilder().withName(getMessage(DATA_MIGRATION_GROUP_NAME));
         group.withOption(createCommitGroup());
         group.withOption(createInsertTypeGroup());
+        group.withOption(createInsertStrategyGroup());
         group.withOption(createTimeZoneOption());
+        group.withOption(createThreadsOption(getMessage(LOAD_THREADS_OPTION_DESCRIPTION)));
+        group.withOption(createPipelineDepthOption(getMessage(LOAD_PIPELINE_DEPTH_OPTION_DESCRIPTION)));
+        group.withOption(createResumeOption(getMessage(LOAD_RESUME_OPTION_DESCRIPTION)));
+        group.withOption(createJournalOption());
         return group.build();
     }
 
-    protected Option createInsertTypeGroup() {
-        GroupBuilder group = newGroupBuilder().withName(getMessage(INSERT_TYPE_GROUP_NAME));
-
-        Option replace = newBasicOptionBuilder().
-                withName(REPLACE_OPTION).
-                withAlias(REPLACE_SHORT_OPTION, OptionFormat.SHORT).
-                withDescription(getMessage(REPLACE_OPTION_DESCRIPTION)).build();
-        group.withOption(replace);
-
-        Option replaceType = newRegexOptionBuilder().
-                withName(TABLE_REPLACE_OPTION).
-                withDescription(getMessage(TABLE_REPLACE_OPTION_DESCRIPTION)).
-                withRegex(TABLE_REPLACE_OPTION, 1, LOW).build();
-        group.withOption(replaceType);
-
-        Option insertType = newRegexOptionBuilder().
-                withName(TABLE_INSERT_OPTION).
-                withDescription(getMessage(TABLE_INSERT_OPTION_DESCRIPTION)).
-                withRegex(TABLE_INSERT_OPTION, 1, LOW).build();
-        group.withOption(insertType);
-
-        return group.build();
+    protected Option createJournalOption() {
+        return newBasicOptionBuilder().
+                withName(JOURNAL_OPTION).
+                withDescription(getMessage(LOAD_JOURNAL_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(LOAD_JOURNAL_ARGUMENT_NAME)).
+                                withMinimum(1).
+                                withRequired(true).build()
+                ).build();
     }
 
     protected void parseDataMigrationGroup(OptionSet optionSet, Option option, LoadJobSpec jobSpec) {
         jobSpec.setCommitStrategy(parseCommitGroup(optionSet, this));
         jobSpec.setTimeZone(parseTimeZoneOption(optionSet, this));
+        jobSpec.setThreads(parseThreadsOption(optionSet, this));
+        jobSpec.setPipelineDepth(parsePipelineDepthOption(optionSet, this));
+        jobSpec.setResume(parseResumeOption(optionSet, this));
+        jobSpec.setJournal((String) optionSet.getValue(JOURNAL_OPTION));
         parseInsertTypeGroup(optionSet, jobSpec);
     }
 
     protected void parseInsertTypeGroup(OptionSet optionSet, LoadJobSpec loadJobSpec) {
-        loadJobSpec.setInsertType(optionSet.hasOption(REPLACE_OPTION) ? InsertType.REPLACE : InsertType.INSERT);
-        Map<String, InsertType> tableInsertTypes = Maps.newHashMap();
-        for (String table : optionSet.<String>getValues(TABLE_INSERT_OPTION)) {
-            tableInsertTypes.put(table, InsertType.INSERT);
-        }
-        for (String table : optionSet.<String>getValues(TABLE_REPLACE_OPTION)) {
-            tableInsertTypes.put(table, InsertType.REPLACE);
-        }
-        loadJobSpec.setTableInsertTypes(tableInsertTypes);
+        loadJobSpec.setInsertType(parseInsertTypeOption(optionSet));
+        loadJobSpec.setTableInsertTypes(parseTableInsertTypes(optionSet));
+        loadJobSpec.setInsertStrategy(parseInsertStrategyOption(optionSet, this));
+        loadJobSpec.setInsertRows(parseInsertRowsOption(optionSet, this));
+        loadJobSpec.setTableInsertStrategies(parseTableInsertStrategies(optionSet, this));
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.cli.run;
+
+import com.nuodb.migrator.cli.parse.Option;
+import com.nuodb.migrator.cli.parse.OptionSet;
+import com.nuodb.migrator.cli.parse.option.GroupBuilder;
+import com.nuodb.migrator.spec.MigrateJobSpec;
+
+import java.util.Map;
+
+import static com.nuodb.migrator.context.ContextUtils.getMessage;
+
+/**
+ * An implementation of {@link CliRunAdapter} which assembles migrate spec streaming data from the source database to
+ * the target database without intermediate backup files.
+ *
+ * @author Sergey Bushik
+ */
+public class CliMigrateJob extends CliJob<MigrateJobSpec> {
+
+    public CliMigrateJob() {
+        super(MIGRATE_COMMAND);
+    }
+
+    @Override
+    protected Option createOption() {
+        GroupBuilder group = newGroupBuilder().withName(getMessage(MIGRATE_GROUP_NAME)).withRequired(true);
+        group.withOption(createSourceGroup());
+        group.withOption(createTargetGroup());
+        group.withOption(createMigrationModeGroup());
+        group.withOption(createDataMigrationGroup());
+        group.withOption(createSchemaMigrationGroup());
+        return group.build();
+    }
+
+    @Override
+    protected void bind(OptionSet optionSet) {
+        MigrateJobSpec jobSpec = new MigrateJobSpec();
+        jobSpec.setSourceSpec(parseSourceGroup(optionSet, this));
+        jobSpec.setTargetSpec(parseTargetGroup(optionSet, this));
+        jobSpec.setMigrationModes(parseMigrationModeGroup(optionSet, this));
+        parseSchemaMigrationGroup(jobSpec, optionSet, this);
+        parseDataMigrationGroup(optionSet, jobSpec);
+        setJobSpec(jobSpec);
+    }
+
+    @Override
+    public void execute(Map<Object, Object> context) {
+        getMigrator().execute(getJobSpec(), context);
+    }
+
+    protected Option createDataMigrationGroup() {
+        GroupBuilder group = newGroupBuilder().withName(getMessage(DATA_MIGRATION_GROUP_NAME));
+        group.withOption(createTableGroup());
+        group.withOption(createCommitGroup());
+        group.withOption(createInsertTypeGroup());
+        group.withOption(createTimeZoneOption());
+        group.withOption(createThreadsOption(getMessage(MIGRATE_THREADS_OPTION_DESCRIPTION)));
+        group.withOption(createQueryLimitOption());
+        group.withOption(createQueryPartitionOption());
+        group.withOption(createQueryRowCountOption());
+        group.withOption(createPipelineDepthOption(getMessage(MIGRATE_PIPELINE_DEPTH_OPTION_DESCRIPTION)));
+        return group.build();
+    }
+
+    protected void parseDataMigrationGroup(OptionSet optionSet, MigrateJobSpec jobSpec) {
+        jobSpec.setTableSpecs(parseTableGroup(optionSet));
+        jobSpec.setCommitStrategy(parseCommitGroup(optionSet, this));
+        jobSpec.setInsertType(parseInsertTypeOption(optionSet));
+        jobSpec.setTableInsertTypes(parseTableInsertTypes(optionSet));
+        jobSpec.setTimeZone(parseTimeZoneOption(optionSet, this));
+        jobSpec.setThreads(parseThreadsOption(optionSet, this));
+        jobSpec.setQueryLimit(parseQueryLimitOption(optionSet, this));
+        jobSpec.setQueryPartition(parseQueryPartitionOption(optionSet, this));
+        jobSpec.setRowCountType(parseQueryRowCountOption(optionSet, this));
+        jobSpec.setPipelineDepth(parsePipelineDepthOption(optionSet, this));
+    }
+}
@@ -41,15 +41,20 @@ import com.nuodb.migrator.cli.processor.JdbcTypeOptionProcessor;
 import com.nuodb.migrator.cli.processor.NuoDBTypesOptionProcessor;
 import com.nuodb.migrator.cli.validation.ConnectionGroupInfo;
 import com.nuodb.migrator.jdbc.JdbcConstants;
+import com.nuodb.migrator.jdbc.commit.AdaptiveBatchCommitStrategy;
 import com.nuodb.migrator.jdbc.commit.BatchCommitStrategy;
 import com.nuodb.migrator.jdbc.commit.CommitStrategy;
 import com.nuodb.migrator.jdbc.commit.SingleCommitStrategy;
 import com.nuodb.migrator.jdbc.dialect.IdentifierNormalizer;
 import com.nuodb.migrator.jdbc.dialect.IdentifierQuoting;
+import com.nuodb.migrator.jdbc.dialect.RowCountType;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.metadata.generator.GroupScriptsBy;
 import com.nuodb.migrator.jdbc.metadata.generator.ScriptType;
+import com.nuodb.migrator.jdbc.query.InsertStrategy;
+import com.nuodb.migrator.jdbc.query.InsertType;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.type.JdbcTypeCodes;
 import com.nuodb.migrator.spec.*;
 import com.nuodb.migrator.spec.ScriptGeneratorJobSpecBase;
@@ -75,6 +80,7 @@ import static com.nuodb.migrator.jdbc.dialect.IdentifierNormalizers.*;
 import static com.nuodb.migrator.jdbc.dialect.IdentifierQuotings.ALWAYS;
 import static com.nuodb.migrator.jdbc.dialect.IdentifierQuotings.MINIMAL;
 import static com.nuodb.migrator.jdbc.dialect.ImplicitDefaultsTranslator.USE_EXPLICIT_DEFAULTS;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
 import static com.nuodb.migrator.jdbc.metadata.generator.ScriptType.valueOf;
 import static com.nuodb.migrator.spec.MigrationMode.DATA;
 import static com.nuodb.migrator.spec.MigrationMode.SCHEMA;
@@ -83,6 +89,7 @@ import static com.nuodb.migrator.utils.ReflectionUtils.newInstance;
 import static java.lang.Boolean.parseBoolean;
 import static java.lang.Integer.MAX_VALUE;
 import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
 import static java.lang.String.CASE_INSENSITIVE_ORDER;
 import static java.lang.String.format;
 import static java.sql.Connection.*;
@@ -116,6 +123,7 @@ public class CliRunSupport extends CliSupport {
 
     public static final String COMMIT_STRATEGY_SINGLE = "single";
     public static final String COMMIT_STRATEGY_BATCH = "batch";
+    public static final String COMMIT_STRATEGY_ADAPTIVE = "adaptive";
     private JdbcTypeOptionProcessor jdbcTypeOptionProcessor = new JdbcTypeOptionProcessor();
 
     /**
@@ -318,6 +326,7 @@ public class CliRunSupport extends CliSupport {
         Map<String, CommitStrategy> commitStrategyMapping = new TreeMap<String, CommitStrategy>(CASE_INSENSITIVE_ORDER);
         commitStrategyMapping.put(COMMIT_STRATEGY_SINGLE, SingleCommitStrategy.INSTANCE);
         commitStrategyMapping.put(COMMIT_STRATEGY_BATCH, new BatchCommitStrategy());
+        commitStrategyMapping.put(COMMIT_STRATEGY_ADAPTIVE, new AdaptiveBatchCommitStrategy());
         return commitStrategyMapping;
     }
 
@@ -334,6 +343,185 @@ public class CliRunSupport extends CliSupport {
                 ).build();
     }
 
+    protected Option createThreadsOption() {
+        return createThreadsOption(getMessage(THREADS_OPTION_DESCRIPTION));
+    }
+
+    protected Option createThreadsOption(String description) {
+        return newBasicOptionBuilder().
+                withName(THREADS_OPTION).
+                withAlias(THREADS_SHORT_OPTION, OptionFormat.SHORT).
+                withDescription(description).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(THREADS_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+    protected Option createPipelineDepthOption() {
+        return createPipelineDepthOption(getMessage(PIPELINE_DEPTH_OPTION_DESCRIPTION));
+    }
+
+    protected Option createPipelineDepthOption(String description) {
+        return newBasicOptionBuilder().
+                withName(PIPELINE_DEPTH_OPTION).
+                withDescription(description).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(PIPELINE_DEPTH_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+    protected Option createResumeOption() {
+        return createResumeOption(getMessage(RESUME_OPTION_DESCRIPTION));
+    }
+
+    protected Option createResumeOption(String description) {
+        return newBasicOptionBuilder().
+                withName(RESUME_OPTION).
+                withDescription(description).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(RESUME_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+
+    /**
+     * Table option handles -table=users, -table=roles and stores it items the option in the  command line.
+     */
+    protected Group createTableGroup() {
+        GroupBuilder group = newGroupBuilder().withName(getMessage(TABLE_GROUP_NAME)).withMaximum(MAX_VALUE);
+
+        Option table = newBasicOptionBuilder().
+                withName(TABLE_OPTION).
+                withDescription(getMessage(TABLE_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(TABLE_ARGUMENT_NAME)).
+                                withMinimum(1).
+                                withMaximum(Integer.MAX_VALUE).
+                                withRequired(true).build()
+                ).build();
+        group.withOption(table);
+
+        OptionFormat optionFormat = new OptionFormat(getOptionFormat());
+        optionFormat.setValuesSeparator(null);
+
+        Option tableFilter = newRegexOptionBuilder().
+                withName(TABLE_FILTER_OPTION).
+                withDescription(getMessage(TABLE_FILTER_OPTION_DESCRIPTION)).
+                withRegex(TABLE_FILTER_OPTION, 1, LOW).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(TABLE_FILTER_ARGUMENT_NAME)).
+                                withOptionFormat(optionFormat).
+                                withMinimum(1).
+                                withRequired(true).build()
+                ).build();
+
+        group.withOption(tableFilter);
+        return group.build();
+    }
+
+
+    protected Option createQueryLimitOption() {
+        return newBasicOptionBuilder().
+                withName(QUERY_LIMIT_OPTION).
+                withDescription(getMessage(QUERY_LIMIT_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(QUERY_LIMIT_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+
+    protected Option createQueryPartitionOption() {
+        return newBasicOptionBuilder().
+                withName(QUERY_PARTITION_OPTION).
+                withDescription(getMessage(QUERY_PARTITION_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(QUERY_PARTITION_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+
+    protected Option createQueryRowCountOption() {
+        return newBasicOptionBuilder().
+                withName(QUERY_ROW_COUNT_OPTION).
+                withDescription(getMessage(QUERY_ROW_COUNT_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(QUERY_ROW_COUNT_ARGUMENT_NAME)).build()
+                ).build();
+    }
+
+
+    protected Option createInsertTypeGroup() {
+        GroupBuilder group = newGroupBuilder().withName(getMessage(INSERT_TYPE_GROUP_NAME));
+
+        Option replace = newBasicOptionBuilder().
+                withName(REPLACE_OPTION).
+                withAlias(REPLACE_SHORT_OPTION, OptionFormat.SHORT).
+                withDescription(getMessage(REPLACE_OPTION_DESCRIPTION)).build();
+        group.withOption(replace);
+
+        Option replaceType = newRegexOptionBuilder().
+                withName(TABLE_REPLACE_OPTION).
+                withDescription(getMessage(TABLE_REPLACE_OPTION_DESCRIPTION)).
+                withRegex(TABLE_REPLACE_OPTION, 1, LOW).build();
+        group.withOption(replaceType);
+
+        Option insertType = newRegexOptionBuilder().
+                withName(TABLE_INSERT_OPTION).
+                withDescription(getMessage(TABLE_INSERT_OPTION_DESCRIPTION)).
+                withRegex(TABLE_INSERT_OPTION, 1, LOW).build();
+        group.withOption(insertType);
+
+        return group.build();
+    }
+
+    protected Option createInsertStrategyGroup() {
+        GroupBuilder group = newGroupBuilder().withName(getMessage(INSERT_STRATEGY_GROUP_NAME));
+
+        Option insertStrategy = newBasicOptionBuilder().
+                withName(INSERT_STRATEGY_OPTION).
+                withDescription(getMessage(INSERT_STRATEGY_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(INSERT_STRATEGY_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(insertStrategy);
+
+        Option insertRows = newBasicOptionBuilder().
+                withName(INSERT_ROWS_OPTION).
+                withDescription(getMessage(INSERT_ROWS_OPTION_DESCRIPTION)).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(INSERT_ROWS_ARGUMENT_NAME)).build()
+                ).build();
+        group.withOption(insertRows);
+
+        OptionFormat optionFormat = new OptionFormat(getOptionFormat());
+        optionFormat.setValuesSeparator(null);
+
+        Option tableInsertStrategy = newRegexOptionBuilder().
+                withName(TABLE_INSERT_STRATEGY_OPTION).
+                withDescription(getMessage(TABLE_INSERT_STRATEGY_OPTION_DESCRIPTION)).
+                withRegex(TABLE_INSERT_STRATEGY_OPTION, 1, LOW).
+                withArgument(
+                        newArgumentBuilder().
+                                withName(getMessage(INSERT_STRATEGY_ARGUMENT_NAME)).
+                                withOptionFormat(optionFormat).
+                                withMinimum(1).
+                                withRequired(true).build()
+                ).build();
+        group.withOption(tableInsertStrategy);
+
+        return group.build();
+    }
+
     protected Group createTargetGroup() {
         GroupBuilder group = newGroupBuilder().
                 withName(getMessage(TARGET_GROUP_NAME));
@@ -683,6 +871,109 @@ public class CliRunSupport extends CliSupport {
         return commitStrategy;
     }
 
+    protected Integer parseThreadsOption(OptionSet optionSet, Option option) {
+        String threadsValue = (String) optionSet.getValue(THREADS_OPTION);
+        return !isEmpty(threadsValue) ? parseInt(threadsValue) : null;
+    }
+
+    protected Integer parsePipelineDepthOption(OptionSet optionSet, Option option) {
+        String pipelineDepthValue = (String) optionSet.getValue(PIPELINE_DEPTH_OPTION);
+        return !isEmpty(pipelineDepthValue) ? parseInt(pipelineDepthValue) : null;
+    }
+
+    protected boolean parseResumeOption(OptionSet optionSet, Option option) {
+        Object resume = optionSet.getValue(RESUME_OPTION);
+        return resume != null ? parseBoolean(String.valueOf(resume)) : optionSet.hasOption(RESUME_OPTION);
+    }
+
+    protected Collection<TableSpec> parseTableGroup(OptionSet optionSet) {
+        Map<String, TableSpec> tableQueryMapping = newHashMap();
+        for (String table : optionSet.<String>getValues(TABLE_OPTION)) {
+            tableQueryMapping.put(table, new TableSpec(table));
+        }
+        for (Iterator<String> iterator = optionSet.<String>getValues(
+                TABLE_FILTER_OPTION).iterator(); iterator.hasNext(); ) {
+            String name = iterator.next();
+            TableSpec tableSpec = tableQueryMapping.get(name);
+            if (tableSpec == null) {
+                tableQueryMapping.put(name, tableSpec = new TableSpec(name));
+            }
+            tableSpec.setFilter(iterator.next());
+        }
+        return newArrayList(tableQueryMapping.values());
+    }
+
+
+    protected QueryLimit parseQueryLimitOption(OptionSet optionSet, Option option) {
+        String queryLimitValue = (String) optionSet.getValue(QUERY_LIMIT_OPTION);
+        return !isEmpty(queryLimitValue) ? new QueryLimit(parseLong(queryLimitValue)) : null;
+    }
+
+
+    protected boolean parseQueryPartitionOption(OptionSet optionSet, Option option) {
+        Object queryPartition = optionSet.getValue(QUERY_PARTITION_OPTION);
+        return queryPartition != null ? parseBoolean(String.valueOf(queryPartition)) :
+                optionSet.hasOption(QUERY_PARTITION_OPTION);
+    }
+
+    protected RowCountType parseQueryRowCountOption(OptionSet optionSet, Option option) {
+        String rowCountType = (String) optionSet.getValue(QUERY_ROW_COUNT_OPTION);
+        if (isEmpty(rowCountType)) {
+            return EXACT;
+        }
+        for (RowCountType value : RowCountType.values()) {
+            if (value.name().equalsIgnoreCase(rowCountType)) {
+                return value;
+            }
+        }
+        throw new OptionException(format("Unexpected value for %s option, valid values are %s",
+                QUERY_ROW_COUNT_OPTION, asList("exact", "approx")), option);
+    }
+
+    protected InsertType parseInsertTypeOption(OptionSet optionSet) {
+        return optionSet.hasOption(REPLACE_OPTION) ? InsertType.REPLACE : InsertType.INSERT;
+    }
+
+    protected Map<String, InsertType> parseTableInsertTypes(OptionSet optionSet) {
+        Map<String, InsertType> tableInsertTypes = newHashMap();
+        for (String table : optionSet.<String>getValues(TABLE_INSERT_OPTION)) {
+            tableInsertTypes.put(table, InsertType.INSERT);
+        }
+        for (String table : optionSet.<String>getValues(TABLE_REPLACE_OPTION)) {
+            tableInsertTypes.put(table, InsertType.REPLACE);
+        }
+        return tableInsertTypes;
+    }
+
+    protected InsertStrategy parseInsertStrategyOption(OptionSet optionSet, Option option) {
+        String insertStrategy = (String) optionSet.getValue(INSERT_STRATEGY_OPTION);
+        return !isEmpty(insertStrategy) ? parseInsertStrategy(insertStrategy, option) : null;
+    }
+
+    protected Integer parseInsertRowsOption(OptionSet optionSet, Option option) {
+        String insertRowsValue = (String) optionSet.getValue(INSERT_ROWS_OPTION);
+        return !isEmpty(insertRowsValue) ? parseInt(insertRowsValue) : null;
+    }
+
+    protected Map<String, InsertStrategy> parseTableInsertStrategies(OptionSet optionSet, Option option) {
+        Map<String, InsertStrategy> tableInsertStrategies = newHashMap();
+        for (Iterator<String> iterator = optionSet.<String>getValues(
+                TABLE_INSERT_STRATEGY_OPTION).iterator(); iterator.hasNext(); ) {
+            String table = iterator.next();
+            tableInsertStrategies.put(table, parseInsertStrategy(iterator.next(), option));
+        }
+        return tableInsertStrategies;
+    }
+
+    protected InsertStrategy parseInsertStrategy(String value, Option option) {
+        InsertStrategy insertStrategy = InsertStrategy.fromAlias(value);
+        if (insertStrategy == null) {
+            throw new OptionException(format("Unexpected value for %s option, valid values are %s",
+                    INSERT_STRATEGY_OPTION, asList("batch", "multi.row", "bulk")), option);
+        }
+        return insertStrategy;
+    }
+
     /**
      * Parses URL encoded properties name1=value1&name2=value2
      *
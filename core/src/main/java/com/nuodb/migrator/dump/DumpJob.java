@@ -28,8 +28,10 @@
 package com.nuodb.migrator.dump;
 
 import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupJournal;
 import com.nuodb.migrator.backup.BackupManager;
 import com.nuodb.migrator.backup.XmlBackupManager;
+import com.nuodb.migrator.jdbc.dialect.RowCountType;
 import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
@@ -50,7 +52,9 @@ import java.util.TimeZone;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.BackupDirs.setDirs;
 import static com.nuodb.migrator.backup.XmlMetaDataHandlerBase.META_DATA_SPEC;
+import static com.nuodb.migrator.dump.DumpWriter.PIPELINE_DEPTH;
 import static com.nuodb.migrator.dump.DumpWriter.THREADS;
 import static com.nuodb.migrator.jdbc.JdbcUtils.close;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.DATABASE;
@@ -97,8 +101,12 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
         if (contains(migrationModes, DATA)) {
             dumpWriter = new DumpWriter();
             dumpWriter.setQueryLimit(getQueryLimit());
+            dumpWriter.setQueryPartition(isQueryPartition());
+            dumpWriter.setRowCountType(getRowCountType());
             dumpWriter.setThreads(getThreads() != null ? getThreads() : THREADS);
+            dumpWriter.setPipelineDepth(getPipelineDepth() != null ? getPipelineDepth() : PIPELINE_DEPTH);
             dumpWriter.setTimeZone(getTimeZone());
+            dumpWriter.setJobMetrics(getJobMetrics());
 
             dumpWriter.setBackupManager(getBackupManager());
             dumpWriter.setFormat(getFormat());
@@ -113,7 +121,9 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
     }
 
     protected BackupManager createBackupManager() {
-        return new XmlBackupManager(getPath());
+        BackupManager backupManager = new XmlBackupManager(getPath());
+        setDirs(backupManager, getFormatAttributes());
+        return backupManager;
     }
 
     protected SessionFactory createSessionFactory() {
@@ -134,6 +144,7 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
         Database database = inspect();
         Backup backup = new Backup(getOutputSpec().getType());
         Collection<MigrationMode> migrationModes = getMigrationModes();
+        BackupJournal backupJournal = null;
         if (contains(migrationModes, DATA)) {
             DumpWriter dumpWriter = getDumpWriter();
             dumpWriter.setDatabase(database);
@@ -169,7 +180,15 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
             for (QuerySpec querySpec : getQuerySpecs()) {
                 dumpWriter.addQuery(querySpec.getQuery());
             }
-            dumpWriter.write(backup);
+            if (isResume()) {
+                dumpWriter.checkResume();
+            }
+            dumpWriter.setBackupJournal(backupJournal = getBackupManager().openJournal(isResume()));
+            try {
+                dumpWriter.write(backup);
+            } finally {
+                backupJournal.close();
+            }
         }
         if (contains(migrationModes, SCHEMA)) {
             backup.setDatabase(database);
@@ -177,6 +196,10 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
         Map context = newHashMap();
         context.put(META_DATA_SPEC, getMetaDataSpec());
         getBackupManager().writeBackup(backup, context);
+        // backup catalog is written, the journal is no longer needed to resume
+        if (backupJournal != null) {
+            backupJournal.delete();
+        }
     }
 
     @Override
@@ -270,4 +293,20 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
     public QueryLimit getQueryLimit() {
         return getJobSpec().getQueryLimit();
     }
+
+    public boolean isQueryPartition() {
+        return getJobSpec().isQueryPartition();
+    }
+
+    public RowCountType getRowCountType() {
+        return getJobSpec().getRowCountType();
+    }
+
+    public Integer getPipelineDepth() {
+        return getJobSpec().getPipelineDepth();
+    }
+
+    public boolean isResume() {
+        return getJobSpec().isResume();
+    }
 }
@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.dump;
 
+import com.nuodb.migrator.backup.BackupJournal;
 import com.nuodb.migrator.backup.BackupManager;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.csv.CsvAttributes;
@@ -34,10 +35,12 @@ import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.metrics.JobMetrics;
 
 import java.util.Map;
 import java.util.TimeZone;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static java.lang.Runtime.getRuntime;
 
@@ -50,10 +53,19 @@ public interface DumpQueryContext {
 
     final int THREADS = getRuntime().availableProcessors();
 
+    /**
+     * Pipelining is disabled by default, rows are fetched and written on the same thread
+     */
+    final int PIPELINE_DEPTH = 0;
+
     int getThreads();
 
     void setThreads(int threads);
 
+    int getPipelineDepth();
+
+    void setPipelineDepth(int pipelineDepth);
+
     Database getDatabase();
 
     void setDatabase(Database database);
@@ -62,6 +74,14 @@ public interface DumpQueryContext {
 
     void setExecutor(Executor executor);
 
+    /**
+     * Executor running row fetchers of pipelined dump query works, a pipelined work keeps at most one fetcher running
+     * at a time, so the executor is sized to the number of threads and a fetcher never waits for a free thread
+     */
+    ExecutorService getFetchExecutor();
+
+    void setFetchExecutor(ExecutorService fetchExecutor);
+
     TimeZone getTimeZone();
 
     void setTimeZone(TimeZone timeZone);
@@ -78,6 +98,10 @@ public interface DumpQueryContext {
 
     void setBackupManager(BackupManager backupManager);
 
+    BackupJournal getBackupJournal();
+
+    void setBackupJournal(BackupJournal backupJournal);
+
     String getFormat();
 
     void setFormat(String format);
@@ -93,4 +117,8 @@ public interface DumpQueryContext {
     ValueFormatRegistry getValueFormatRegistry();
 
     void setValueFormatRegistry(ValueFormatRegistry valueFormatRegistry);
+
+    JobMetrics getJobMetrics();
+
+    void setJobMetrics(JobMetrics jobMetrics);
 }
@@ -27,10 +27,18 @@
  */
 package com.nuodb.migrator.dump;
 
+import com.nuodb.migrator.backup.BackupJournal;
 import com.nuodb.migrator.backup.Chunk;
 import com.nuodb.migrator.backup.QueryRowSet;
 import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.backup.format.OutputFormat;
+import com.nuodb.migrator.backup.format.codec.ChunkCodec;
+import com.nuodb.migrator.backup.format.value.LobStreamValueFormat;
+import com.nuodb.migrator.backup.format.value.LobValue;
+import com.nuodb.migrator.backup.format.value.RowBuffer;
+import com.nuodb.migrator.backup.format.value.RowCodec;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
 import com.nuodb.migrator.backup.format.value.ValueHandleList;
 import com.nuodb.migrator.jdbc.JdbcUtils;
 import com.nuodb.migrator.jdbc.dialect.Dialect;
@@ -39,22 +47,43 @@ import com.nuodb.migrator.jdbc.model.FieldFactory;
 import com.nuodb.migrator.jdbc.query.StatementCallback;
 import com.nuodb.migrator.jdbc.session.WorkBase;
 import com.nuodb.migrator.jdbc.split.QuerySplit;
+import com.nuodb.migrator.metrics.MetricsRecorder;
+import com.nuodb.migrator.utils.CountingOutputStream;
 import com.nuodb.migrator.utils.ObjectUtils;
+import org.slf4j.Logger;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.indexOf;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.codec.ChunkCodecs.getChunkCodec;
+import static com.nuodb.migrator.backup.format.value.LobValue.CHARSET;
+import static com.nuodb.migrator.backup.format.value.RowCodec.getRowCodec;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
 import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static com.nuodb.migrator.utils.Collections.isEmpty;
 import static com.nuodb.migrator.utils.Predicates.equalTo;
 import static com.nuodb.migrator.utils.Predicates.instanceOf;
+import static java.lang.String.format;
+import static java.lang.String.valueOf;
+import static java.lang.System.nanoTime;
 import static java.util.Arrays.asList;
+import static org.apache.commons.io.IOUtils.closeQuietly;
 import static org.apache.commons.lang3.StringUtils.join;
 import static org.apache.commons.lang3.StringUtils.lowerCase;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * @author Sergey Bushik
@@ -64,6 +93,8 @@ public class DumpQueryWork extends WorkBase {
 
     private static final String QUERY = "query";
 
+    private final transient Logger logger = getLogger(getClass());
+
     private final DumpQueryContext dumpQueryContext;
     private final DumpQueryManager dumpQueryManager;
     private final DumpQuery dumpQuery;
@@ -72,8 +103,15 @@ public class DumpQueryWork extends WorkBase {
 
     private ResultSet resultSet;
     private ValueHandleList valueHandleList;
+    private RowCodec rowCodec;
     private OutputFormat outputFormat;
     private Collection<Chunk> chunks;
+    private boolean resumed;
+    private boolean[] lobs;
+    private OutputStream lobOutput;
+    private CountingOutputStream output;
+    private CountingOutputStream lobCountingOutput;
+    private MetricsRecorder metricsRecorder;
 
     public DumpQueryWork(DumpQueryContext dumpQueryContext, DumpQueryManager dumpQueryManager, DumpQuery dumpQuery,
                          QuerySplit querySplit, boolean hasNextQuerySplit) {
@@ -86,6 +124,17 @@ public class DumpQueryWork extends WorkBase {
 
     @Override
     public void init() throws Exception {
+        RowSet rowSet = dumpQuery.getRowSet();
+        if (rowSet.getName() == null) {
+            rowSet.setName(getRowSetName());
+        }
+        metricsRecorder = new MetricsRecorder(dumpQueryContext.getJobMetrics(), rowSet.getName());
+        BackupJournal backupJournal = dumpQueryContext.getBackupJournal();
+        if (backupJournal != null && backupJournal.isSplitDone(rowSet.getName(), querySplit.getSplitIndex())) {
+            chunks = backupJournal.getSplitChunks(rowSet.getName(), querySplit.getSplitIndex());
+            resumed = true;
+            return;
+        }
         final Dialect dialect = getSession().getDialect();
         resultSet = querySplit.getResultSet(getSession().getConnection(), new StatementCallback() {
             @Override
@@ -101,54 +150,292 @@ public class DumpQueryWork extends WorkBase {
                 withTimeZone(dumpQueryContext.getTimeZone()).
                 withValueFormatRegistry(dumpQueryContext.getValueFormatRegistry()).build();
 
-        RowSet rowSet = dumpQuery.getRowSet();
         outputFormat = dumpQueryContext.getFormatFactory().createOutputFormat(
                 dumpQueryContext.getFormat(), dumpQueryContext.getFormatAttributes());
         outputFormat.setRowSet(rowSet);
         outputFormat.setValueHandleList(valueHandleList);
 
-        chunks = newArrayList();
-        if (rowSet.getName() == null) {
-            rowSet.setName(getRowSetName());
+        lobs = new boolean[valueHandleList.size()];
+        if (outputFormat.isLobFiles()) {
+            int index = 0;
+            for (ValueHandle valueHandle : valueHandleList) {
+                if (lobs[index++] = isLob(valueHandle)) {
+                    valueHandle.setValueFormat(new LobStreamValueFormat());
+                }
+            }
         }
+        chunks = newArrayList();
     }
 
     @Override
     public void execute() throws Exception {
         DumpQueryManager dumpQueryManager = getDumpQueryManager();
         DumpQuery dumpQuery = getDumpQuery();
+        if (isResumed()) {
+            resume();
+            return;
+        }
         dumpQueryManager.writeStart(dumpQuery, this);
 
+        // large object streams are valid only until the cursor moves, so they are copied on the fetching thread
+        int pipelineDepth = dumpQueryContext.getPipelineDepth();
+        if (pipelineDepth > 0 && !hasLobs()) {
+            executePipelined(pipelineDepth);
+        } else {
+            executeSequential();
+        }
+        dumpQueryManager.writeEnd(dumpQuery, this);
+        // the loop stops early only when the dump is failed, which is never reverted
+        BackupJournal backupJournal = dumpQueryContext.getBackupJournal();
+        if (backupJournal != null && dumpQueryManager.canWrite(dumpQuery, this)) {
+            RowSet rowSet = dumpQuery.getRowSet();
+            backupJournal.writeSplit(rowSet.getName(), querySplit.getSplitIndex(), rowSet.getColumns(), chunks);
+        }
+    }
+
+    /**
+     * Reports chunks recorded in the journal by the previous run for this split as if they were written again.
+     */
+    protected void resume() throws Exception {
+        RowSet rowSet = dumpQuery.getRowSet();
+        synchronized (rowSet) {
+            if (isEmpty(rowSet.getColumns())) {
+                rowSet.setColumns(dumpQueryContext.getBackupJournal().getSplitColumns(
+                        rowSet.getName(), querySplit.getSplitIndex()));
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Split %d of %s is completed by the previous run, skipping it",
+                    querySplit.getSplitIndex() + 1, rowSet.getName()));
+        }
+        for (Chunk chunk : chunks) {
+            dumpQueryManager.writeEnd(dumpQuery, this, chunk);
+        }
+        dumpQueryManager.writeEnd(dumpQuery, this);
+    }
+
+    /**
+     * Fetches, formats and writes rows one by one on the current thread.
+     */
+    protected void executeSequential() throws Exception {
         ResultSet resultSet = getResultSet();
         OutputFormat outputFormat = getOutputFormat();
 
+        MetricsRecorder metricsRecorder = getMetricsRecorder();
+        Value[] values = new Value[getValueHandleList().size()];
         Chunk chunk = null;
+        long time = nanoTime();
         while (dumpQueryManager.canWrite(dumpQuery, this) && resultSet.next()) {
-            if (chunk == null) {
-                writeStart(chunk = addChunk());
+            getValues(values);
+            long fetched = nanoTime();
+            metricsRecorder.fetchTime(fetched - time);
+            chunk = nextChunk(chunk);
+            writeValues(values);
+            time = nanoTime();
+            metricsRecorder.encodeTime(time - fetched);
+            dumpQueryManager.write(dumpQuery, this, chunk);
+        }
+        if (chunk != null) {
+            writeEnd(chunk);
+        }
+    }
+
+    /**
+     * Fetches rows on the fetch executor of the dump into a bounded row buffer, while the current thread drains the
+     * buffer into the chunks. There is exactly one encoder per split, so rows and chunks are written in the fetch order
+     * and chunk names stay the same as for the sequential execution.
+     *
+     * @param pipelineDepth number of rows the fetcher can run ahead of the encoder
+     */
+    protected void executePipelined(int pipelineDepth) throws Exception {
+        final RowBuffer rowBuffer = new RowBuffer(pipelineDepth, getValueHandleList().size());
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Future<?> fetcher = dumpQueryContext.getFetchExecutor().submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    fetch(rowBuffer);
+                } catch (Throwable throwable) {
+                    failure.set(throwable);
+                } finally {
+                    rowBuffer.close();
+                }
             }
-            if (!outputFormat.canWrite()) {
-                writeEnd(chunk);
-                writeStart(chunk = addChunk());
+        });
+
+        MetricsRecorder metricsRecorder = getMetricsRecorder();
+        Chunk chunk = null;
+        try {
+            Value[] values;
+            while ((values = rowBuffer.take()) != null) {
+                chunk = nextChunk(chunk);
+                long time = nanoTime();
+                writeValues(values);
+                metricsRecorder.encodeTime(nanoTime() - time);
+                rowBuffer.release();
+                dumpQueryManager.write(dumpQuery, this, chunk);
             }
-            outputFormat.write();
-            dumpQueryManager.write(dumpQuery, this, chunk);
+        } finally {
+            rowBuffer.abort();
+            fetcher.get();
+            rowBuffer.discard();
+        }
+        Throwable throwable = failure.get();
+        if (throwable instanceof Exception) {
+            throw (Exception) throwable;
+        } else if (throwable instanceof Error) {
+            throw (Error) throwable;
         }
         if (chunk != null) {
             writeEnd(chunk);
         }
-        dumpQueryManager.writeEnd(dumpQuery, this);
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Split %s pipeline depth %d, fetcher stalls %d, encoder stalls %d",
+                    getChunkName(0), rowBuffer.getDepth(), rowBuffer.getProducerStalls(),
+                    rowBuffer.getConsumerStalls()));
+        }
+    }
+
+    /**
+     * Reads rows from the result set into the row buffer until the result set is exhausted, the dump is failed or the
+     * encoder aborts the buffer. Time spent waiting for a free slot in the buffer isn't counted as fetch time.
+     *
+     * @param rowBuffer buffer to fill
+     */
+    protected void fetch(RowBuffer rowBuffer) throws Exception {
+        ResultSet resultSet = getResultSet();
+        MetricsRecorder metricsRecorder = new MetricsRecorder(dumpQueryContext.getJobMetrics(),
+                dumpQuery.getRowSet().getName());
+        try {
+            long time = nanoTime();
+            while (dumpQueryManager.canWrite(dumpQuery, this) && resultSet.next()) {
+                long fetchTime = nanoTime() - time;
+                Value[] values = rowBuffer.claim();
+                if (values == null) {
+                    break;
+                }
+                time = nanoTime();
+                getValues(values);
+                rowBuffer.publish();
+                metricsRecorder.fetchTime(fetchTime + nanoTime() - time);
+                time = nanoTime();
+            }
+        } finally {
+            metricsRecorder.flush();
+        }
+    }
+
+    /**
+     * Reads values of the current result set row, temporary files of the large objects spilled before a failure are
+     * removed.
+     *
+     * @param values array to fill
+     */
+    protected void getValues(Value[] values) {
+        rowCodec = getRowCodec(rowCodec, getValueHandleList());
+        try {
+            rowCodec.getValues(values);
+        } catch (RuntimeException exception) {
+            LobValue.release(values);
+            throw exception;
+        }
+    }
+
+    /**
+     * Writes row to the current chunk. Streams of large object columns are copied to the chunk side file and
+     * replaced with their lengths, temporary files backing large objects are removed once the row is written.
+     *
+     * @param values row to write
+     */
+    protected void writeValues(Value[] values) throws IOException {
+        try {
+            for (int index = 0; index < values.length; index++) {
+                if (lobs[index] && !values[index].isNull()) {
+                    values[index] = writeLob(values[index]);
+                }
+            }
+            getOutputFormat().writeValues(values);
+        } finally {
+            LobValue.release(values);
+        }
+    }
+
+    protected Value writeLob(Value value) throws IOException {
+        long length;
+        if (value instanceof LobValue) {
+            length = ((LobValue) value).copyTo(lobOutput);
+            ((LobValue) value).release();
+        } else {
+            byte[] bytes = value.getValueType() == BINARY ? value.asBytes() : value.asString().getBytes(CHARSET);
+            lobOutput.write(bytes);
+            length = bytes.length;
+        }
+        String reference = valueOf(length);
+        return value.getValueType() == BINARY ? binary(reference.getBytes(CHARSET)) : string(reference);
+    }
+
+    /**
+     * Large objects are streamed to the side files whatever their type is mapped to by the dialect, as long as their
+     * content is fetched as a large object.
+     */
+    public boolean isLob(ValueHandle valueHandle) {
+        switch (valueHandle.getTypeCode()) {
+            case Types.BLOB:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public boolean isLob(int index) {
+        return lobs != null && lobs[index];
+    }
+
+    protected boolean hasLobs() {
+        for (boolean lob : lobs) {
+            if (lob) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns chunk the next row should be written to, starts the first chunk and rolls over to a new chunk when the
+     * output format can't accept more rows.
+     *
+     * @param chunk current chunk or null if no rows were written yet
+     * @return chunk to write the next row to
+     */
+    protected Chunk nextChunk(Chunk chunk) throws Exception {
+        if (chunk == null) {
+            writeStart(chunk = addChunk());
+        }
+        if (!outputFormat.canWrite()) {
+            writeEnd(chunk);
+            writeStart(chunk = addChunk());
+        }
+        return chunk;
     }
 
     @Override
     public void close() throws Exception {
+        closeQuietly(lobOutput);
         JdbcUtils.close(resultSet);
     }
 
     protected void writeStart(Chunk chunk) throws Exception {
-        outputFormat.setOutputStream(dumpQueryContext.getBackupManager().openOutput(chunk.getName()));
+        output = new CountingOutputStream(dumpQueryContext.getBackupManager().openOutput(chunk.getDir(), chunk.getName()));
+        outputFormat.setOutputStream(output);
         outputFormat.init();
         outputFormat.writeStart();
+        if (hasLobs()) {
+            lobCountingOutput = new CountingOutputStream(
+                    dumpQueryContext.getBackupManager().openOutput(chunk.getDir(), chunk.getLobName()));
+            lobOutput = new BufferedOutputStream(lobCountingOutput);
+        }
 
         dumpQueryManager.writeStart(dumpQuery, this, chunk);
     }
@@ -156,6 +443,12 @@ public class DumpQueryWork extends WorkBase {
     protected void writeEnd(Chunk chunk) throws Exception {
         outputFormat.writeEnd();
         outputFormat.close();
+        metricsRecorder.bytes(output.getCount());
+        if (lobOutput != null) {
+            lobOutput.close();
+            lobOutput = null;
+            metricsRecorder.bytes(lobCountingOutput.getCount());
+        }
         dumpQueryManager.writeEnd(dumpQuery, this, chunk);
     }
 
@@ -166,12 +459,19 @@ public class DumpQueryWork extends WorkBase {
     }
 
     protected Chunk createChunk(int chunkIndex) {
+        ChunkCodec chunkCodec = getChunkCodec(outputFormat.getCodec(), outputFormat.getAttributes());
         Chunk chunk = new Chunk();
-        chunk.setName(getChunkName(chunkIndex));
+        chunk.setName(getChunkName(chunkIndex, chunkCodec));
+        chunk.setCodec(chunkCodec != null ? chunkCodec.getName() : null);
+        chunk.setDir(dumpQueryContext.getBackupManager().nextDir());
         return chunk;
     }
 
     protected String getChunkName(int chunkIndex) {
+        return getChunkName(chunkIndex, null);
+    }
+
+    protected String getChunkName(int chunkIndex, ChunkCodec chunkCodec) {
         Collection parts = newArrayList(getRowSetName());
         int splitIndex = getQuerySplit().getSplitIndex();
         if (splitIndex != 0 || isHasNextQuerySplit()) {
@@ -181,6 +481,9 @@ public class DumpQueryWork extends WorkBase {
             parts.add(chunkIndex + 1);
         }
         parts.add(dumpQueryContext.getFormat());
+        if (chunkCodec != null) {
+            parts.add(chunkCodec.getExtension());
+        }
         return lowerCase(join(parts, "."));
     }
 
@@ -214,6 +517,14 @@ public class DumpQueryWork extends WorkBase {
         return hasNextQuerySplit;
     }
 
+    public MetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+
+    public boolean isResumed() {
+        return resumed;
+    }
+
     public ResultSet getResultSet() {
         return resultSet;
     }
@@ -29,41 +29,58 @@ package com.nuodb.migrator.dump;
 
 import com.nuodb.migrator.MigratorException;
 import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupJournal;
 import com.nuodb.migrator.backup.BackupManager;
 import com.nuodb.migrator.backup.QueryRowSet;
 import com.nuodb.migrator.backup.TableRowSet;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
 import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.RowCountHandler;
+import com.nuodb.migrator.jdbc.dialect.RowCountType;
+import com.nuodb.migrator.jdbc.dialect.SimpleRowCountHandler;
 import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.metadata.Table;
-import com.nuodb.migrator.jdbc.query.Query;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
 import com.nuodb.migrator.jdbc.session.Work;
 import com.nuodb.migrator.jdbc.session.WorkManager;
+import com.nuodb.migrator.jdbc.split.LimitQuerySplitter;
+import com.nuodb.migrator.jdbc.split.QuerySplit;
 import com.nuodb.migrator.jdbc.split.QuerySplitter;
+import com.nuodb.migrator.jdbc.split.RangeQuerySplitter;
+import com.nuodb.migrator.metrics.JobMetrics;
 import org.slf4j.Logger;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static com.google.common.collect.Iterables.get;
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 import static com.nuodb.migrator.jdbc.JdbcUtils.close;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
 import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
 import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
 import static com.nuodb.migrator.jdbc.split.QuerySplitters.*;
-import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newCachingStrategy;
-import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newHandlerStrategy;
 import static com.nuodb.migrator.utils.Collections.isEmpty;
 import static java.lang.Long.MAX_VALUE;
+import static java.lang.String.format;
+import static java.util.Collections.sort;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -75,6 +92,9 @@ public class DumpWriter implements DumpQueryContext {
 
     protected final transient Logger logger = getLogger(getClass());
     private QueryLimit queryLimit;
+    private boolean queryPartition;
+    private RowCountType rowCountType = EXACT;
+    private int planThreads;
     private Collection<DumpQuery> dumpQueries = newLinkedHashSet();
     private DumpQueryContext dumpQueryContext = new SimpleDumpQueryContext();
 
@@ -111,6 +131,33 @@ public class DumpWriter implements DumpQueryContext {
         dumpQueries.add(dumpQuery);
     }
 
+    /**
+     * Checks that the dump can be resumed. Completed query splits are recorded to the journal by their indexes, so the
+     * splits have to be the same as in the previous run, which isn't the case for key ranges derived from column
+     * statistics and for limit splits counted with approximate row counts.
+     *
+     * @throws DumpException if splits of a query may differ from the previous run.
+     */
+    public void checkResume() {
+        for (DumpQuery dumpQuery : getDumpQueries()) {
+            if (!(dumpQuery instanceof DumpTable)) {
+                continue;
+            }
+            QuerySplitter querySplitter = dumpQuery.getQuerySplitter();
+            String reason = null;
+            if (querySplitter instanceof RangeQuerySplitter) {
+                reason = "query partitioning";
+            } else if (querySplitter instanceof LimitQuerySplitter &&
+                    ((LimitQuerySplitter) querySplitter).getRowCountType() == APPROX) {
+                reason = "approximate row count";
+            }
+            if (reason != null) {
+                throw new DumpException(format("Can't resume dump of %s split with %s, its splits may differ " +
+                        "from the previous run", ((DumpTable) dumpQuery).getTable().getQualifiedName(null), reason));
+            }
+        }
+    }
+
     public Backup write() throws Exception {
         return write(createBackup());
     }
@@ -121,24 +168,216 @@ public class DumpWriter implements DumpQueryContext {
 
     public Backup write(Backup backup, DumpQueryManager dumpQueryManager) throws Exception {
         boolean awaitTermination = true;
+        ExecutorService planExecutor = null;
         try {
             backup.setFormat(getFormat());
-            Connection connection = getSession().getConnection();
-            for (DumpQuery dumpQuery : getDumpQueries()) {
+            Collection<DumpQuery> dumpQueries = getDumpQueries();
+            for (DumpQuery dumpQuery : dumpQueries) {
                 backup.addRowSet(dumpQuery.getRowSet());
-                while (dumpQuery.getQuerySplitter().hasNextQuerySplit(connection)) {
-                    executeWork(dumpQueryManager, createWork(dumpQueryManager, dumpQuery));
-                }
             }
+            planExecutor = createPlanExecutor();
+            executeDumpPlans(dumpQueryManager, dumpQueries, planExecutor);
         } catch (Throwable failure) {
             awaitTermination = false;
             throw failure instanceof MigratorException ? (MigratorException) failure : new DumpException(failure);
         } finally {
+            if (planExecutor != null) {
+                planExecutor.shutdownNow();
+            }
             closeDumpQueryManager(dumpQueryManager, awaitTermination);
         }
         return backup;
     }
 
+    /**
+     * Plans query splits of every dump query concurrently on the plan executor and submits splits of each plan to the
+     * dump executor as soon as the plan and the plans ahead of it complete, so that dumping of planned tables overlaps
+     * with planning of upcoming ones. Queries are planned and dumped largest first by their approximate row counts,
+     * which are read from the database statistics on the plan executor, so that the biggest row sets are dumped first.
+     *
+     * @param dumpQueryManager to execute dump works with.
+     * @param dumpQueries      to plan and dump.
+     * @param planExecutor     to submit estimating and planning tasks to.
+     * @throws Exception the failure of a planning task.
+     */
+    protected void executeDumpPlans(DumpQueryManager dumpQueryManager, Collection<DumpQuery> dumpQueries,
+                                    ExecutorService planExecutor) throws Exception {
+        List<Future<DumpPlan>> dumpPlans = newArrayList();
+        for (final DumpQuery dumpQuery : orderDumpQueries(dumpQueries, planExecutor)) {
+            dumpPlans.add(planExecutor.submit(new Callable<DumpPlan>() {
+                @Override
+                public DumpPlan call() throws Exception {
+                    return planDumpQuery(dumpQuery);
+                }
+            }));
+        }
+        for (Future<DumpPlan> dumpPlan : dumpPlans) {
+            executeDumpPlan(dumpQueryManager, getDumpPlan(dumpPlan));
+        }
+    }
+
+    /**
+     * Orders dump queries largest first by their weights estimated concurrently on the plan executor, queries of equal
+     * weights retain their order.
+     *
+     * @param dumpQueries  to order.
+     * @param planExecutor to submit estimating tasks to.
+     * @return dump queries in the order of planning.
+     * @throws Exception the failure of an estimating task.
+     */
+    protected List<DumpQuery> orderDumpQueries(Collection<DumpQuery> dumpQueries,
+                                               ExecutorService planExecutor) throws Exception {
+        Map<DumpQuery, Future<Long>> estimates = new IdentityHashMap<DumpQuery, Future<Long>>();
+        for (final DumpQuery dumpQuery : dumpQueries) {
+            estimates.put(dumpQuery, planExecutor.submit(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    return estimateWeight(dumpQuery);
+                }
+            }));
+        }
+        final Map<DumpQuery, Long> weights = new IdentityHashMap<DumpQuery, Long>();
+        for (Map.Entry<DumpQuery, Future<Long>> estimate : estimates.entrySet()) {
+            weights.put(estimate.getKey(), getResult(estimate.getValue()));
+        }
+        List<DumpQuery> orderedDumpQueries = newArrayList(dumpQueries);
+        sort(orderedDumpQueries, new Comparator<DumpQuery>() {
+            @Override
+            public int compare(DumpQuery dumpQuery1, DumpQuery dumpQuery2) {
+                long weight1 = weights.get(dumpQuery1);
+                long weight2 = weights.get(dumpQuery2);
+                return weight1 > weight2 ? -1 : (weight1 == weight2 ? 0 : 1);
+            }
+        });
+        return orderedDumpQueries;
+    }
+
+    /**
+     * Plans query splits of the dump query on a separate session.
+     *
+     * @param dumpQuery to plan.
+     * @return dump plan.
+     */
+    protected DumpPlan planDumpQuery(DumpQuery dumpQuery) throws Exception {
+        Session session = getSessionFactory().openSession();
+        try {
+            return createDumpPlan(dumpQuery, session.getConnection());
+        } finally {
+            close(session);
+        }
+    }
+
+    protected DumpPlan getDumpPlan(Future<DumpPlan> dumpPlan) throws Exception {
+        return getResult(dumpPlan);
+    }
+
+    protected <T> T getResult(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            throw cause instanceof Exception ? (Exception) cause : exception;
+        }
+    }
+
+    protected void executeDumpPlan(DumpQueryManager dumpQueryManager, DumpPlan dumpPlan) throws Exception {
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Row set %s is planned with %d split(s) of %d row(s) weight",
+                    dumpPlan.getDumpQuery().getRowSet().getName(), dumpPlan.getQuerySplits().size(),
+                    dumpPlan.getWeight()));
+        }
+        getJobMetrics().getTotal().addExpectedRows(dumpPlan.getWeight());
+        List<QuerySplit> querySplits = dumpPlan.getQuerySplits();
+        for (int index = 0, size = querySplits.size(); index < size; index++) {
+            executeWork(dumpQueryManager, createWork(dumpQueryManager, dumpPlan.getDumpQuery(),
+                    querySplits.get(index), index < size - 1));
+        }
+    }
+
+    protected DumpPlan createDumpPlan(DumpQuery dumpQuery, Connection connection) throws Exception {
+        QuerySplitter querySplitter = dumpQuery.getQuerySplitter();
+        List<QuerySplit> querySplits = newArrayList();
+        while (querySplitter.hasNextQuerySplit(connection)) {
+            querySplits.add(querySplitter.getNextQuerySplit(connection));
+        }
+        return new DumpPlan(dumpQuery, querySplits, getWeight(dumpQuery, querySplits, connection));
+    }
+
+    /**
+     * Estimates number of rows returned by the dump query. If the query is split into pages of a limited size the
+     * weight is the total size of the pages, otherwise approximate row count is taken from the database statistics
+     * if the dialect supports it. Queries which size can't be estimated are weighted with zero.
+     *
+     * @param dumpQuery   to estimate.
+     * @param querySplits planned query splits.
+     * @param connection  to query statistics with.
+     * @return estimated number of rows.
+     */
+    protected long getWeight(DumpQuery dumpQuery, List<QuerySplit> querySplits, Connection connection) {
+        QueryLimit queryLimit = dumpQuery.getQuerySplitter().getQueryLimit();
+        if (queryLimit != null && queryLimit.getCount() != null) {
+            return queryLimit.getCount() * querySplits.size();
+        }
+        return estimateWeight(dumpQuery, connection);
+    }
+
+    /**
+     * Estimates number of rows returned by the dump query from the database statistics on a separate session.
+     *
+     * @param dumpQuery to estimate.
+     * @return approximate number of rows or zero if it can't be estimated.
+     */
+    protected long estimateWeight(DumpQuery dumpQuery) throws Exception {
+        if (!(dumpQuery instanceof DumpTable)) {
+            return 0;
+        }
+        Session session = getSessionFactory().openSession();
+        try {
+            return estimateWeight(dumpQuery, session.getConnection());
+        } finally {
+            close(session);
+        }
+    }
+
+    /**
+     * Reads approximate row count of the dumped table from the statistics already collected by the database, neither
+     * statistics are updated nor rows are counted to estimate the weight.
+     *
+     * @param dumpQuery  to estimate.
+     * @param connection to query statistics with.
+     * @return approximate number of rows or zero if it can't be estimated.
+     */
+    protected long estimateWeight(DumpQuery dumpQuery, Connection connection) {
+        if (dumpQuery instanceof DumpTable) {
+            DumpTable dumpTable = (DumpTable) dumpQuery;
+            Dialect dialect = getSession().getDialect();
+            if (dialect.supportsRowCount(dumpTable.getTable(), null, dumpTable.getFilter(), APPROX)) {
+                try {
+                    RowCountHandler rowCountHandler = dialect.createRowCountHandler(dumpTable.getTable(), null,
+                            dumpTable.getFilter(), APPROX);
+                    if (rowCountHandler instanceof SimpleRowCountHandler) {
+                        ((SimpleRowCountHandler) rowCountHandler).setStatisticsOnly(true);
+                    }
+                    return rowCountHandler.getRowCount(connection);
+                } catch (SQLException exception) {
+                    if (logger.isWarnEnabled()) {
+                        logger.warn(format("Can't estimate row count of %s",
+                                dumpTable.getTable().getQualifiedName(null)), exception);
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    protected ExecutorService createPlanExecutor() {
+        int planThreads = getPlanThreads() > 0 ? getPlanThreads() : getThreads();
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Using thread pool with %d thread(s) for planning", planThreads));
+        }
+        return newFixedThreadPool(planThreads);
+    }
+
     protected Backup createBackup() {
         return new Backup();
     }
@@ -147,12 +386,9 @@ public class DumpWriter implements DumpQueryContext {
         return new SimpleDumpQueryManager();
     }
 
-    protected Work createWork(DumpQueryManager dumpQueryManager, DumpQuery dumpQuery) throws Exception {
-        DumpQueryContext dumpQueryContext = getDumpQueryContext();
-        Connection connection = dumpQueryContext.getSession().getConnection();
-        QuerySplitter querySplitter = dumpQuery.getQuerySplitter();
-        return new DumpQueryWork(dumpQueryContext, dumpQueryManager, dumpQuery,
-                querySplitter.getNextQuerySplit(connection), querySplitter.hasNextQuerySplit(connection));
+    protected Work createWork(DumpQueryManager dumpQueryManager, DumpQuery dumpQuery, QuerySplit querySplit,
+                              boolean hasNextQuerySplit) throws Exception {
+        return new DumpQueryWork(getDumpQueryContext(), dumpQueryManager, dumpQuery, querySplit, hasNextQuerySplit);
     }
 
     protected void executeWork(final WorkManager workManager, final Work work) {
@@ -188,6 +424,7 @@ public class DumpWriter implements DumpQueryContext {
                 }
             }
         }
+        getFetchExecutor().shutdown();
         Map<Work, Throwable> failures = dumpQueryManager.getFailures();
         if (!isEmpty(failures)) {
             final Throwable failure = get(failures.values(), 0);
@@ -210,16 +447,8 @@ public class DumpWriter implements DumpQueryContext {
 
     protected QuerySplitter createQuerySplitter(Table table, Collection<Column> columns, String filter,
                                                 QueryLimit queryLimit) {
-        QuerySplitter querySplitter;
-        Query query = newQuery(table, columns, filter);
-        Dialect dialect = getSession().getDialect();
-        if (queryLimit != null && supportsLimitSplitter(dialect, table, filter)) {
-            querySplitter = newLimitSplitter(dialect, newCachingStrategy(newHandlerStrategy(
-                    dialect.createRowCountHandler(table, null, filter, EXACT))), query, queryLimit);
-        } else {
-            querySplitter = newNoLimitSplitter(query);
-        }
-        return querySplitter;
+        return newQuerySplitter(getSession().getDialect(), table, columns, filter, queryLimit, getRowCountType(),
+                isQueryPartition(), getThreads());
     }
 
     public QueryLimit getQueryLimit() {
@@ -230,6 +459,38 @@ public class DumpWriter implements DumpQueryContext {
         this.queryLimit = queryLimit;
     }
 
+    public boolean isQueryPartition() {
+        return queryPartition;
+    }
+
+    public void setQueryPartition(boolean queryPartition) {
+        this.queryPartition = queryPartition;
+    }
+
+    /**
+     * Row count type used to plan limit splits, approximate row count is taken from database statistics where the
+     * dialect supports it.
+     */
+    public RowCountType getRowCountType() {
+        return rowCountType;
+    }
+
+    public void setRowCountType(RowCountType rowCountType) {
+        this.rowCountType = rowCountType;
+    }
+
+    /**
+     * Number of threads planning query splits of upcoming tables, each thread uses its own session, when zero the
+     * number of dump threads is used.
+     */
+    public int getPlanThreads() {
+        return planThreads;
+    }
+
+    public void setPlanThreads(int planThreads) {
+        this.planThreads = planThreads;
+    }
+
     public Collection<DumpQuery> getDumpQueries() {
         return dumpQueries;
     }
@@ -256,6 +517,16 @@ public class DumpWriter implements DumpQueryContext {
         dumpQueryContext.setThreads(threads);
     }
 
+    @Override
+    public int getPipelineDepth() {
+        return dumpQueryContext.getPipelineDepth();
+    }
+
+    @Override
+    public void setPipelineDepth(int pipelineDepth) {
+        dumpQueryContext.setPipelineDepth(pipelineDepth);
+    }
+
     @Override
     public Database getDatabase() {
         return dumpQueryContext.getDatabase();
@@ -276,6 +547,16 @@ public class DumpWriter implements DumpQueryContext {
         dumpQueryContext.setExecutor(executor);
     }
 
+    @Override
+    public ExecutorService getFetchExecutor() {
+        return dumpQueryContext.getFetchExecutor();
+    }
+
+    @Override
+    public void setFetchExecutor(ExecutorService fetchExecutor) {
+        dumpQueryContext.setFetchExecutor(fetchExecutor);
+    }
+
     @Override
     public TimeZone getTimeZone() {
         return dumpQueryContext.getTimeZone();
@@ -316,6 +597,16 @@ public class DumpWriter implements DumpQueryContext {
         dumpQueryContext.setBackupManager(backupManager);
     }
 
+    @Override
+    public BackupJournal getBackupJournal() {
+        return dumpQueryContext.getBackupJournal();
+    }
+
+    @Override
+    public void setBackupJournal(BackupJournal backupJournal) {
+        dumpQueryContext.setBackupJournal(backupJournal);
+    }
+
     @Override
     public String getFormat() {
         return dumpQueryContext.getFormat();
@@ -355,4 +646,14 @@ public class DumpWriter implements DumpQueryContext {
     public void setValueFormatRegistry(ValueFormatRegistry valueFormatRegistry) {
         dumpQueryContext.setValueFormatRegistry(valueFormatRegistry);
     }
+
+    @Override
+    public JobMetrics getJobMetrics() {
+        return dumpQueryContext.getJobMetrics();
+    }
+
+    @Override
+    public void setJobMetrics(JobMetrics jobMetrics) {
+        dumpQueryContext.setJobMetrics(jobMetrics);
+    }
 }
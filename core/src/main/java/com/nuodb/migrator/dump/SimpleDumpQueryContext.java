@@ -27,21 +27,26 @@
  */
 package com.nuodb.migrator.dump;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.nuodb.migrator.backup.BackupJournal;
 import com.nuodb.migrator.backup.BackupManager;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.metrics.JobMetrics;
 import com.nuodb.migrator.utils.BlockingThreadPoolExecutor;
 import org.slf4j.Logger;
 
 import java.util.Map;
 import java.util.TimeZone;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static com.google.common.collect.Maps.newHashMap;
 import static java.lang.String.format;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -50,19 +55,25 @@ import static org.slf4j.LoggerFactory.getLogger;
  */
 public class SimpleDumpQueryContext implements DumpQueryContext {
 
+    private static final String FETCHER = "fetcher";
+
     private final transient Logger logger = getLogger(getClass());
 
     private int threads = THREADS;
+    private int pipelineDepth = PIPELINE_DEPTH;
     private Database database;
     private Executor executor;
+    private ExecutorService fetchExecutor;
     private TimeZone timeZone;
     private Session session;
     private SessionFactory sessionFactory;
     private BackupManager backupManager;
+    private BackupJournal backupJournal;
     private String format = FORMAT;
     private Map<String, Object> formatAttributes = newHashMap();
     private FormatFactory formatFactory;
     private ValueFormatRegistry valueFormatRegistry;
+    private JobMetrics jobMetrics = new JobMetrics(DumpWriter.class.getName());
 
     @Override
     public int getThreads() {
@@ -73,6 +84,17 @@ public class SimpleDumpQueryContext implements DumpQueryContext {
     public void setThreads(int threads) {
         this.threads = threads;
         this.executor = null;
+        this.fetchExecutor = null;
+    }
+
+    @Override
+    public int getPipelineDepth() {
+        return pipelineDepth;
+    }
+
+    @Override
+    public void setPipelineDepth(int pipelineDepth) {
+        this.pipelineDepth = pipelineDepth;
     }
 
     @Override
@@ -105,6 +127,27 @@ public class SimpleDumpQueryContext implements DumpQueryContext {
         return new BlockingThreadPoolExecutor(getThreads(), 100L, MILLISECONDS);
     }
 
+    @Override
+    public ExecutorService getFetchExecutor() {
+        if (fetchExecutor == null) {
+            fetchExecutor = createFetchExecutor();
+        }
+        return fetchExecutor;
+    }
+
+    @Override
+    public void setFetchExecutor(ExecutorService fetchExecutor) {
+        this.fetchExecutor = fetchExecutor;
+    }
+
+    protected ExecutorService createFetchExecutor() {
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Using thread pool with %d thread(s) for fetching", getThreads()));
+        }
+        return newFixedThreadPool(getThreads(),
+                new ThreadFactoryBuilder().setNameFormat(FETCHER + "-%d").setDaemon(true).build());
+    }
+
     @Override
     public TimeZone getTimeZone() {
         return timeZone;
@@ -145,6 +188,16 @@ public class SimpleDumpQueryContext implements DumpQueryContext {
         this.backupManager = backupManager;
     }
 
+    @Override
+    public BackupJournal getBackupJournal() {
+        return backupJournal;
+    }
+
+    @Override
+    public void setBackupJournal(BackupJournal backupJournal) {
+        this.backupJournal = backupJournal;
+    }
+
     @Override
     public String getFormat() {
         return format;
@@ -184,4 +237,14 @@ public class SimpleDumpQueryContext implements DumpQueryContext {
     public void setValueFormatRegistry(ValueFormatRegistry valueFormatRegistry) {
         this.valueFormatRegistry = valueFormatRegistry;
     }
+
+    @Override
+    public JobMetrics getJobMetrics() {
+        return jobMetrics;
+    }
+
+    @Override
+    public void setJobMetrics(JobMetrics jobMetrics) {
+        this.jobMetrics = jobMetrics;
+    }
 }
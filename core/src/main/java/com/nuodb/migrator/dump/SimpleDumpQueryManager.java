@@ -38,6 +38,7 @@ import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.backup.format.value.ValueHandle;
 import com.nuodb.migrator.jdbc.session.SimpleWorkManager;
 import com.nuodb.migrator.jdbc.session.Work;
+import com.nuodb.migrator.metrics.MetricsRecorder;
 
 import java.util.Collection;
 import java.util.Comparator;
@@ -77,8 +78,11 @@ public class SimpleDumpQueryManager extends SimpleWorkManager implements DumpQue
         Boolean init = dumpQueryInitMap.get(dumpQuery);
         if (init == null || !init) {
             Collection<Column> columns = newArrayList();
+            int index = 0;
             for (ValueHandle valueHandle : dumpQueryWork.getValueHandleList()) {
-                columns.add(new Column(valueHandle.getName(), toAlias(valueHandle.getValueType())));
+                Column column = new Column(valueHandle.getName(), toAlias(valueHandle.getValueType()));
+                column.setLob(dumpQueryWork.isLob(index++));
+                columns.add(column);
             }
             dumpQuery.getRowSet().setColumns(columns);
             dumpQueryInitMap.put(dumpQueryWork.getDumpQuery(), true);
@@ -97,6 +101,7 @@ public class SimpleDumpQueryManager extends SimpleWorkManager implements DumpQue
     @Override
     public void write(DumpQuery dumpQuery, Work work, Chunk chunk) {
         chunk.incrementRowCount();
+        ((DumpQueryWork) work).getMetricsRecorder().row();
     }
 
     @Override
@@ -105,11 +110,18 @@ public class SimpleDumpQueryManager extends SimpleWorkManager implements DumpQue
         synchronized (rowSet) {
             rowSet.setRowCount(rowSet.getRowCount() + chunk.getRowCount());
         }
+        DumpQueryWork dumpQueryWork = (DumpQueryWork) work;
+        if (!dumpQueryWork.isResumed()) {
+            MetricsRecorder metricsRecorder = dumpQueryWork.getMetricsRecorder();
+            metricsRecorder.chunk();
+            metricsRecorder.flush();
+        }
     }
 
     @Override
     public void writeEnd(DumpQuery dumpQuery, Work work) {
         DumpQueryWork dumpQueryWork = (DumpQueryWork) work;
+        dumpQueryWork.getMetricsRecorder().flush();
         RowSet rowSet = dumpQuery.getRowSet();
         synchronized (rowSet) {
             dumpQueryWorkMap.put(dumpQuery, dumpQueryWork);
@@ -0,0 +1,342 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.query.InsertQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.utils.ObjectUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static com.google.common.collect.Maps.newTreeMap;
+import static java.lang.Long.parseLong;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Batches updates like {@link BatchCommitStrategy}, but tunes the batch size of every table while loading it. Each
+ * full batch is timed, including the commit following it, and the batch size keeps growing or shrinking by a constant
+ * factor while rows per second improve, reverses direction when they drop and settles when they stay within the
+ * tolerance. Batches taking longer than the maximum latency are always shrunk. Commits are issued once the commit
+ * interval elapses rather than after every batch, so commit frequency doesn't depend on the batch size.
+ * <p/>
+ * Batch sizes are counted in rows, statements inserting several rows at once are tuned separately from the single
+ * row statements of the same table. Copies of the strategy share tuned batch sizes, so that concurrent connections
+ * loading the same table continue from the size found so far.
+ *
+ * @author Sergey Bushik
+ */
+public class AdaptiveBatchCommitStrategy extends CommitStrategyBase {
+
+    public static final String ATTRIBUTE_BATCH_SIZE = "batch.size";
+    public static final String ATTRIBUTE_MIN_BATCH_SIZE = "batch.size.min";
+    public static final String ATTRIBUTE_MAX_BATCH_SIZE = "batch.size.max";
+    public static final String ATTRIBUTE_MAX_LATENCY = "batch.latency.max";
+    public static final String ATTRIBUTE_COMMIT_INTERVAL = "interval";
+
+    public static final long BATCH_SIZE = BatchCommitStrategy.BATCH_SIZE;
+    public static final long MIN_BATCH_SIZE = 100;
+    public static final long MAX_BATCH_SIZE = 100000;
+    /**
+     * Maximum latency of a batch in milliseconds
+     */
+    public static final long MAX_LATENCY = 2000;
+    /**
+     * Commit interval in milliseconds
+     */
+    public static final long COMMIT_INTERVAL = 1000;
+
+    private static final double FACTOR = 1.5;
+    private static final double TOLERANCE = 0.05;
+
+    private long batchSize = BATCH_SIZE;
+    private long minBatchSize = MIN_BATCH_SIZE;
+    private long maxBatchSize = MAX_BATCH_SIZE;
+    private long maxLatency = MAX_LATENCY;
+    private long commitInterval = COMMIT_INTERVAL;
+
+    private transient ConcurrentMap<String, BatchSize> batchSizes = newConcurrentMap();
+    private transient long rows;
+    private transient long commitTime;
+    private transient boolean uncommitted;
+
+    @Override
+    public void onExecute(PreparedStatement statement, Query query) throws SQLException {
+        onExecute(statement, query, 1);
+    }
+
+    @Override
+    public void onExecute(PreparedStatement statement, Query query, int rows) throws SQLException {
+        if (commitTime == 0) {
+            commitTime = nanoTime();
+        }
+        statement.addBatch();
+        this.rows += rows;
+        BatchSize batchSize = getBatchSize(query, rows);
+        if (this.rows >= batchSize.getSize()) {
+            long nanos = executeBatch(statement, query);
+            batchSize.update(this.rows, nanos);
+            this.rows = 0;
+        }
+    }
+
+    @Override
+    public void finish(PreparedStatement statement, Query query) throws SQLException {
+        if (rows > 0) {
+            executeBatch(statement, query);
+            rows = 0;
+        }
+        if (uncommitted) {
+            commit(statement, query);
+        }
+    }
+
+    /**
+     * Executes the batch and commits the transaction if the commit interval elapsed.
+     *
+     * @return nanoseconds spent executing the batch and committing
+     */
+    protected long executeBatch(PreparedStatement statement, Query query) throws SQLException {
+        long start = nanoTime();
+        statement.executeBatch();
+        uncommitted = true;
+        CommitListener commitListener = getCommitListener();
+        if (commitListener != null) {
+            commitListener.onExecuteBatch(statement, query, nanoTime() - start);
+        }
+        if (start - commitTime >= MILLISECONDS.toNanos(commitInterval)) {
+            commit(statement, query);
+        }
+        return nanoTime() - start;
+    }
+
+    protected void commit(PreparedStatement statement, Query query) throws SQLException {
+        long start = nanoTime();
+        statement.getConnection().commit();
+        uncommitted = false;
+        commitTime = nanoTime();
+        CommitListener commitListener = getCommitListener();
+        if (commitListener != null) {
+            commitListener.onCommit(statement, query, commitTime - start);
+        }
+    }
+
+    protected BatchSize getBatchSize(Query query) {
+        return getBatchSize(query, 1);
+    }
+
+    /**
+     * Returns batch size tuned for the statements of the query inserting the given number of rows each.
+     *
+     * @param query of the statement.
+     * @param rows  number of rows inserted by a single statement.
+     * @return batch size shared by the copies of this strategy.
+     */
+    protected BatchSize getBatchSize(Query query, int rows) {
+        String name = query instanceof InsertQuery && ((InsertQuery) query).getInto() != null ?
+                ((InsertQuery) query).getInto().getQualifiedName(null) : query.toString();
+        if (rows > 1) {
+            name = format("%s (%d rows)", name, rows);
+        }
+        BatchSize batchSize = batchSizes.get(name);
+        if (batchSize == null) {
+            BatchSize current = batchSizes.putIfAbsent(name, batchSize = new BatchSize(
+                    min(max(getBatchSize(), getMinBatchSize()), getMaxBatchSize())));
+            batchSize = current != null ? current : batchSize;
+        }
+        return batchSize;
+    }
+
+    /**
+     * Returns batch sizes in rows tuned so far by this strategy and its copies keyed by the qualified table name,
+     * followed by the number of rows per statement for multi row statements.
+     */
+    public Map<String, Long> getBatchSizes() {
+        Map<String, Long> batchSizes = newTreeMap();
+        for (Map.Entry<String, BatchSize> entry : this.batchSizes.entrySet()) {
+            batchSizes.put(entry.getKey(), entry.getValue().getSize());
+        }
+        return batchSizes;
+    }
+
+    @Override
+    public void setAttributes(Map<String, Object> attributes) {
+        Long batchSize = getLong(attributes, ATTRIBUTE_BATCH_SIZE);
+        if (batchSize != null) {
+            setBatchSize(batchSize);
+        }
+        Long minBatchSize = getLong(attributes, ATTRIBUTE_MIN_BATCH_SIZE);
+        if (minBatchSize != null) {
+            setMinBatchSize(minBatchSize);
+        }
+        Long maxBatchSize = getLong(attributes, ATTRIBUTE_MAX_BATCH_SIZE);
+        if (maxBatchSize != null) {
+            setMaxBatchSize(maxBatchSize);
+        }
+        Long maxLatency = getLong(attributes, ATTRIBUTE_MAX_LATENCY);
+        if (maxLatency != null) {
+            setMaxLatency(maxLatency);
+        }
+        Long commitInterval = getLong(attributes, ATTRIBUTE_COMMIT_INTERVAL);
+        if (commitInterval != null) {
+            setCommitInterval(commitInterval);
+        }
+    }
+
+    private static Long getLong(Map<String, Object> attributes, String attribute) {
+        Object value = attributes.get(attribute);
+        return value instanceof String && !isEmpty((String) value) ? parseLong((String) value) : null;
+    }
+
+    @Override
+    public CommitStrategy copy() {
+        AdaptiveBatchCommitStrategy commitStrategy = new AdaptiveBatchCommitStrategy();
+        commitStrategy.setBatchSize(getBatchSize());
+        commitStrategy.setMinBatchSize(getMinBatchSize());
+        commitStrategy.setMaxBatchSize(getMaxBatchSize());
+        commitStrategy.setMaxLatency(getMaxLatency());
+        commitStrategy.setCommitInterval(getCommitInterval());
+        commitStrategy.batchSizes = batchSizes;
+        return commitStrategy;
+    }
+
+    public long getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(long batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public void setMinBatchSize(long minBatchSize) {
+        this.minBatchSize = minBatchSize;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(long maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    public void setMaxLatency(long maxLatency) {
+        this.maxLatency = maxLatency;
+    }
+
+    public long getCommitInterval() {
+        return commitInterval;
+    }
+
+    public void setCommitInterval(long commitInterval) {
+        this.commitInterval = commitInterval;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        AdaptiveBatchCommitStrategy that = (AdaptiveBatchCommitStrategy) o;
+
+        if (batchSize != that.batchSize) return false;
+        if (commitInterval != that.commitInterval) return false;
+        if (maxBatchSize != that.maxBatchSize) return false;
+        if (maxLatency != that.maxLatency) return false;
+        if (minBatchSize != that.minBatchSize) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (batchSize ^ (batchSize >>> 32));
+        result = 31 * result + (int) (minBatchSize ^ (minBatchSize >>> 32));
+        result = 31 * result + (int) (maxBatchSize ^ (maxBatchSize >>> 32));
+        result = 31 * result + (int) (maxLatency ^ (maxLatency >>> 32));
+        result = 31 * result + (int) (commitInterval ^ (commitInterval >>> 32));
+        return result;
+    }
+
+    public String toString() {
+        return ObjectUtils.toString(this);
+    }
+
+    /**
+     * Batch size of a single table tuned by hill climbing on measured rows per second.
+     */
+    protected class BatchSize {
+
+        private long size;
+        private int direction = 1;
+        private double throughput;
+
+        public BatchSize(long size) {
+            this.size = size;
+        }
+
+        public synchronized long getSize() {
+            return size;
+        }
+
+        public synchronized void update(long rows, long nanos) {
+            double throughput = rows * 1e9 / max(nanos, 1);
+            if (nanos > MILLISECONDS.toNanos(getMaxLatency())) {
+                direction = -1;
+                size = step(direction);
+            } else if (this.throughput > 0 && throughput < this.throughput * (1 - TOLERANCE)) {
+                direction = -direction;
+                size = step(direction);
+            } else if (this.throughput == 0 || throughput > this.throughput * (1 + TOLERANCE)) {
+                size = step(direction);
+            }
+            this.throughput = throughput;
+        }
+
+        protected long step(int direction) {
+            long size = direction > 0 ? (long) Math.ceil(this.size * FACTOR) : (long) (this.size / FACTOR);
+            return min(max(size, getMinBatchSize()), getMaxBatchSize());
+        }
+    }
+}
@@ -35,37 +35,61 @@ import java.sql.PreparedStatement;
 import java.util.Map;
 
 import static java.lang.Long.parseLong;
+import static java.lang.System.nanoTime;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 /**
  * @author Sergey Bushik
  */
-public class BatchCommitStrategy implements CommitStrategy {
+public class BatchCommitStrategy extends CommitStrategyBase {
 
     public static final String ATTRIBUTE_BATCH_SIZE = "batch.size";
 
     public static final long BATCH_SIZE = 1000;
 
-    private transient long statements;
+    private transient long rows;
     private long batchSize = BATCH_SIZE;
 
     @Override
     public void onExecute(PreparedStatement statement, Query query) throws SQLException {
-        statements++;
+        onExecute(statement, query, 1);
+    }
+
+    @Override
+    public void onExecute(PreparedStatement statement, Query query, int rows) throws SQLException {
+        this.rows += rows;
         statement.addBatch();
-        if (statements > getBatchSize()) {
-            statement.executeBatch();
-            statement.getConnection().commit();
-            statements = 0;
+        if (this.rows > getBatchSize()) {
+            executeBatch(statement, query);
+            commit(statement, query);
+            this.rows = 0;
         }
     }
 
     @Override
     public void finish(PreparedStatement statement, Query query) throws SQLException {
-        if (statements > 0) {
-            statement.executeBatch();
-            statement.getConnection().commit();
-            statements = 0;
+        if (rows > 0) {
+            executeBatch(statement, query);
+            commit(statement, query);
+            rows = 0;
+        }
+    }
+
+    protected void executeBatch(PreparedStatement statement, Query query) throws SQLException {
+        long start = nanoTime();
+        statement.executeBatch();
+        CommitListener commitListener = getCommitListener();
+        if (commitListener != null) {
+            commitListener.onExecuteBatch(statement, query, nanoTime() - start);
+        }
+    }
+
+    protected void commit(PreparedStatement statement, Query query) throws SQLException {
+        long start = nanoTime();
+        statement.getConnection().commit();
+        CommitListener commitListener = getCommitListener();
+        if (commitListener != null) {
+            commitListener.onCommit(statement, query, nanoTime() - start);
         }
     }
 
@@ -77,6 +101,13 @@ public class BatchCommitStrategy implements CommitStrategy {
         }
     }
 
+    @Override
+    public CommitStrategy copy() {
+        BatchCommitStrategy commitStrategy = new BatchCommitStrategy();
+        commitStrategy.setBatchSize(getBatchSize());
+        return commitStrategy;
+    }
+
     public long getBatchSize() {
         return batchSize;
     }
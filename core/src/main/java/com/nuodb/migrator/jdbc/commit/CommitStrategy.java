@@ -41,5 +41,17 @@ public interface CommitStrategy {
     void setAttributes(Map<String, Object> attributes);
 
     void onExecute(PreparedStatement statement, Query query) throws SQLException;
+
+    /**
+     * Executes statement inserting the given number of rows at once, batch sizes are counted in rows rather than in
+     * statements.
+     *
+     * @param statement to execute.
+     * @param query     of the statement.
+     * @param rows      number of rows bound to the statement.
+     * @throws SQLException if execution fails.
+     */
+    void onExecute(PreparedStatement statement, Query query, int rows) throws SQLException;
+
     void finish(PreparedStatement statement, Query query) throws SQLException;
 }
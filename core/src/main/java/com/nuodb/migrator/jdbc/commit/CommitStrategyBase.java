@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+/**
+ * Base for the commit strategies which can be copied for every connection loading rows concurrently and notify a
+ * listener about the commits they issue. Strategies implementing {@link CommitStrategy} directly are shared by the
+ * concurrent connections, so they have to be thread safe, and rows loaded with them are recorded as committed only
+ * when the transaction of the load is committed.
+ *
+ * @author Sergey Bushik
+ */
+public abstract class CommitStrategyBase implements CommitStrategy {
+
+    private transient CommitListener commitListener;
+
+    /**
+     * Creates a strategy with the same settings and a fresh execution state, to be used on another connection
+     * concurrently with this one.
+     *
+     * @return copy of this commit strategy.
+     */
+    public abstract CommitStrategy copy();
+
+    public CommitListener getCommitListener() {
+        return commitListener;
+    }
+
+    /**
+     * Sets listener to be notified about every batch executed and every commit issued by this strategy.
+     *
+     * @param commitListener listener or null.
+     */
+    public void setCommitListener(CommitListener commitListener) {
+        this.commitListener = commitListener;
+    }
+}
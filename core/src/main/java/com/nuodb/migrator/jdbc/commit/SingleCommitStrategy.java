@@ -37,7 +37,7 @@ import java.util.Map;
 /**
  * @author Sergey Bushik
  */
-public class SingleCommitStrategy implements CommitStrategy {
+public class SingleCommitStrategy extends CommitStrategyBase {
 
     public static final CommitStrategy INSTANCE = new SingleCommitStrategy();
 
@@ -53,10 +53,27 @@ public class SingleCommitStrategy implements CommitStrategy {
         statement.execute();
     }
 
+    @Override
+    public void onExecute(PreparedStatement statement, Query query, int rows) throws SQLException {
+        onExecute(statement, query);
+    }
+
     @Override
     public void finish(PreparedStatement statement, Query query) throws SQLException {
     }
 
+    /**
+     * The strategy never commits on its own, the transaction is committed by the caller.
+     */
+    @Override
+    public void setCommitListener(CommitListener commitListener) {
+    }
+
+    @Override
+    public CommitStrategy copy() {
+        return this;
+    }
+
     public String toString() {
         return ObjectUtils.toString(this);
     }
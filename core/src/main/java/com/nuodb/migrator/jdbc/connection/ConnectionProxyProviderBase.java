@@ -28,13 +28,11 @@
 package com.nuodb.migrator.jdbc.connection;
 
 import com.nuodb.migrator.spec.ConnectionSpec;
-import com.nuodb.migrator.utils.aop.AopProxy;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
-
-import static com.nuodb.migrator.utils.aop.AopProxyUtils.createAopProxy;
-import static com.nuodb.migrator.utils.aop.MethodInterceptors.newIntroduceInterfacesInterceptor;
+import java.sql.Statement;
 
 /**
  * @author Sergey Bushik
@@ -50,31 +48,47 @@ public abstract class ConnectionProxyProviderBase<C extends ConnectionSpec> exte
 
     @Override
     protected Connection openConnection() throws SQLException {
-        final AopProxy aopProxy = createConnectionProxy(createConnection());
-        initConnectionProxy(aopProxy);
-        return (Connection) aopProxy;
-    }
-
-    protected AopProxy createConnectionProxy(Connection connection) {
-        return createAopProxy(connection, Connection.class, ConnectionProxy.class);
+        return createConnectionProxy(createConnection());
     }
 
-    protected void initConnectionProxy(final AopProxy connection) {
-        connection.addAdvice(newIntroduceInterfacesInterceptor(new ConnectionProxy<C>() {
-            @Override
-            public Connection getConnection() {
-                return ConnectionProxyProviderBase.this.getConnection((Connection) connection.getTarget());
-            }
-
-            @Override
-            public C getConnectionSpec() {
-                return ConnectionProxyProviderBase.this.getConnectionSpec();
-            }
-        }, ConnectionProxy.class));
+    protected Connection createConnectionProxy(Connection connection) {
+        return new ConnectionProxyWrapper(connection);
     }
 
     @SuppressWarnings("unchecked")
     protected Connection getConnection(Connection connection) {
         return connection;
     }
+
+    /**
+     * Hand written delegating connection, statements created by the connection return it from
+     * {@link java.sql.Statement#getConnection()}.
+     */
+    protected class ConnectionProxyWrapper extends ConnectionWrapper implements ConnectionProxy<C> {
+
+        public ConnectionProxyWrapper(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        public Connection getConnection() {
+            return ConnectionProxyProviderBase.this.getConnection(getTarget());
+        }
+
+        @Override
+        public C getConnectionSpec() {
+            return ConnectionProxyProviderBase.this.getConnectionSpec();
+        }
+
+        @Override
+        protected Statement wrapStatement(Statement statement) throws SQLException {
+            return new StatementWrapper(statement, this);
+        }
+
+        @Override
+        protected PreparedStatement wrapPreparedStatement(PreparedStatement statement,
+                                                          String sql) throws SQLException {
+            return new PreparedStatementWrapper(statement, this, sql);
+        }
+    }
 }
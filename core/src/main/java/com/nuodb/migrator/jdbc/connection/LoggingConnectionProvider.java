@@ -28,49 +28,42 @@
 package com.nuodb.migrator.jdbc.connection;
 
 import com.nuodb.migrator.spec.ConnectionSpec;
-import com.nuodb.migrator.utils.aop.AopProxy;
-import com.nuodb.migrator.utils.aop.MethodMatcher;
-import org.aopalliance.intercept.MethodInterceptor;
-import org.aopalliance.intercept.MethodInvocation;
 
-import java.lang.reflect.Method;
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.collect.Lists.newArrayList;
-import static com.nuodb.migrator.utils.aop.AopProxyUtils.createAopProxy;
-import static com.nuodb.migrator.utils.aop.MethodAdvisors.newMethodAdvisor;
-import static com.nuodb.migrator.utils.aop.MethodMatchers.newMethodMatcher;
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
+ * Instruments connections with hand written delegating wrappers. Statements are timed and bound parameters are counted
+ * when debug level is enabled, executed queries are logged on trace level, while on debug level each
+ * {@link #getSampleRate()} row of a query is logged. Per query statistics are reported on debug level once the
+ * provider is closed. With debug level disabled statements are plain delegates adding no measurable overhead.
+ *
  * @author Sergey Bushik
  */
 @SuppressWarnings("unchecked")
 public class LoggingConnectionProvider extends ConnectionProxyProviderBase {
 
-    private static final String GET_META_DATA_METHOD = "getMetaData";
-    private static final String GET_CONNECTION_METHOD = "getConnection";
-    private static final String CREATE_STATEMENT_METHOD = "createStatement";
-    private static final String PREPARE_STATEMENT_METHOD = "prepareStatement";
-    private static final Collection<String> EXECUTE_METHODS = newArrayList(
-            "execute", "executeQuery", "executeUpdate");
-    private static final String SET_NULL_METHOD = "setNull";
-    private static final Collection<String> SET_METHODS = newArrayList(
-            "setNull", "setBoolean", "setByte", "setShort", "setInt", "setLong", "setFloat", "setDouble",
-            "setBigDecimal", "setString", "setBytes", "setDate", "setTime", "setTimestamp", "setAsciiStream",
-            "setUnicodeStream", "setBinaryStream", "setObject", "setCharacterStream", "setRef", "setBlob",
-            "setClob", "setArray", "setURL", "setRowId", "setNString", "setNCharacterStream", "setNClob",
-            "setSQLXML"
-    );
+    public static final int SAMPLE_RATE = 1000;
+    public static final int MAX_QUERY_STATISTICS = 1000;
 
     private final ConnectionProvider connectionProvider;
     private final QueryLogger queryLogger;
     private final QueryFormatFactory queryFormatFactory;
+    private final ConcurrentMap<String, QueryStatistics> queryStatistics =
+            new ConcurrentHashMap<String, QueryStatistics>();
+    private int sampleRate = SAMPLE_RATE;
 
     public LoggingConnectionProvider(ConnectionProvider connectionProvider) {
         this(connectionProvider, new SimpleQueryFormatFactory());
@@ -102,146 +95,75 @@ public class LoggingConnectionProvider extends ConnectionProxyProviderBase {
     }
 
     @Override
-    protected void initConnectionProxy(final AopProxy connection) {
-        super.initConnectionProxy(connection);
+    protected Connection createConnectionProxy(Connection connection) {
+        return isInstrumented() ? new LoggingConnection(connection) : super.createConnectionProxy(connection);
+    }
 
-        connection.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
-            @Override
-            public Object invoke(MethodInvocation invocation) throws Throwable {
-                AopProxy metaData = createAopProxy(invocation.proceed(), DatabaseMetaData.class);
-                initMetaDataProxy(connection, metaData);
-                return metaData;
-            }
-        }, newMethodMatcher(Connection.class, GET_META_DATA_METHOD)));
-
-        // statement advices
-        connection.addAdvisor(newMethodAdvisor(
-                new MethodInterceptor() {
-                    @Override
-                    public Object invoke(MethodInvocation invocation) throws Throwable {
-                        final AopProxy statement = createAopProxy(invocation.proceed(), Statement.class);
-                        initStatementProxy(connection, statement);
-                        return statement;
-                    }
-                }, new MethodMatcher() {
-                    @Override
-                    public boolean matches(Method method, Class<?> targetClass, Object[] arguments) {
-                        return method.getName().startsWith(CREATE_STATEMENT_METHOD);
-                    }
-                }
-        ));
-
-        // prepared statement advices
-        connection.addAdvisor(newMethodAdvisor(
-                new MethodInterceptor() {
-                    @Override
-                    public Object invoke(MethodInvocation invocation) throws Throwable {
-                        final AopProxy statement = createAopProxy(invocation.proceed(), PreparedStatement.class);
-                        initPreparedStatementProxy(connection, statement, (String) invocation.getArguments()[0]);
-                        return statement;
-                    }
-                }, new MethodMatcher() {
-                    @Override
-                    public boolean matches(Method method, Class<?> targetClass, Object[] arguments) {
-                        return method.getName().startsWith(PREPARE_STATEMENT_METHOD);
-                    }
-                }
-        ));
+    /**
+     * Instrumentation is decided once per connection, so that disabled logging costs a single delegation per call
+     *
+     * @return true if statements created by the connection should be timed and logged
+     */
+    protected boolean isInstrumented() {
+        return logger.isDebugEnabled();
     }
 
-    protected void initMetaDataProxy(final AopProxy connection, final AopProxy metaData) {
-        // metaData.getConnection() returns proxy
-        metaData.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
-            @Override
-            public Object invoke(MethodInvocation invocation) throws Throwable {
-                return connection;
-            }
-        }, newMethodMatcher(DatabaseMetaData.class, GET_CONNECTION_METHOD)));
+    protected QueryFormat createQueryFormat(Statement statement, String query) {
+        return queryFormatFactory.createQueryFormat(statement, query);
     }
 
-    protected void initStatementProxy(final AopProxy connection, final AopProxy statement) {
-        // statement.getConnection() returns proxy connection
-        statement.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
-            @Override
-            public Object invoke(MethodInvocation invocation) throws Throwable {
-                return connection;
+    protected QueryStatistics getQueryStatistics(String query) {
+        QueryStatistics statistics = queryStatistics.get(query);
+        if (statistics == null && queryStatistics.size() < MAX_QUERY_STATISTICS) {
+            QueryStatistics existing = queryStatistics.putIfAbsent(query, statistics = new QueryStatistics(query));
+            if (existing != null) {
+                statistics = existing;
             }
-        }, newMethodMatcher(Statement.class, GET_CONNECTION_METHOD)));
-
-        // statement.execute(query), statement.executeQuery(query), statement.executeUpdate(query) logs query string
-        statement.addAdvisor(newMethodAdvisor(
-                new MethodInterceptor() {
-                    @Override
-                    public Object invoke(MethodInvocation invocation) throws Throwable {
-                        log((Statement) statement, (String) invocation.getArguments()[0]);
-                        return invocation.proceed();
-                    }
-                },
-                new MethodMatcher() {
-                    @Override
-                    public boolean matches(Method method, Class<?> targetClass, Object[] arguments) {
-                        return method.getDeclaringClass() == Statement.class &&
-                                EXECUTE_METHODS.contains(method.getName());
-                    }
-                }
-        ));
+        }
+        return statistics;
     }
 
-    protected void initPreparedStatementProxy(final AopProxy connection, final AopProxy statement, final String query) {
-        initStatementProxy(connection, statement);
-
-        final QueryFormat queryFormat = createQueryFormat((Statement) statement, query);
-        // statement.setXXX() capture parameters
-        statement.addAdvisor(newMethodAdvisor(
-                new MethodInterceptor() {
-                    @Override
-                    public Object invoke(MethodInvocation invocation) throws Throwable {
-                        Object[] arguments = invocation.getArguments();
-                        Object parameter = arguments[0];
-                        if (parameter instanceof Integer) {
-                            Object value = SET_NULL_METHOD.equals(invocation.getMethod().getName()) ? null : arguments[1];
-                            queryFormat.setParameter(((Integer) parameter) - 1, value);
-                        }
-                        return invocation.proceed();
-                    }
-                }, new MethodMatcher() {
-                    @Override
-                    public boolean matches(Method method, Class<?> targetClass,
-                                           Object[] arguments) {
-                        return method.getDeclaringClass() == PreparedStatement.class &&
-                                SET_METHODS.contains(method.getName());
-                    }
-                }
-        ));
-        // statement.execute(), statement.executeQuery(), statement.executeUpdate() logs query string
-        statement.addAdvisor(newMethodAdvisor(
-                new MethodInterceptor() {
-                    @Override
-                    public Object invoke(MethodInvocation invocation) throws Throwable {
-                        log((Statement) statement, queryFormat.format());
-                        return invocation.proceed();
-                    }
-                },
-                new MethodMatcher() {
-                    @Override
-                    public boolean matches(Method method, Class<?> targetClass, Object[] arguments) {
-                        return method.getDeclaringClass() == PreparedStatement.class &&
-                                EXECUTE_METHODS.contains(method.getName());
-                    }
-                }
-        ));
+    /**
+     * Every query is logged on trace level, otherwise queries are sampled
+     *
+     * @param statistics statistics of the query or null if the query is not tracked
+     * @return true if the query should be logged
+     */
+    protected boolean isLogged(QueryStatistics statistics) {
+        return logger.isTraceEnabled() || (statistics != null && statistics.sample(sampleRate));
     }
 
-    protected QueryFormat createQueryFormat(Statement statement, String query) {
-        return queryFormatFactory.createQueryFormat(statement, query);
+    protected void log(String query) {
+        if (logger.isTraceEnabled()) {
+            queryLogger.log(query);
+        } else if (logger.isDebugEnabled()) {
+            logger.debug(query);
+        }
+    }
+
+    protected void logQueryStatistics() {
+        List<QueryStatistics> statistics = newArrayList(queryStatistics.values());
+        Collections.sort(statistics, new Comparator<QueryStatistics>() {
+            @Override
+            public int compare(QueryStatistics statistics1, QueryStatistics statistics2) {
+                long time1 = statistics1.getTotalTime();
+                long time2 = statistics2.getTotalTime();
+                return time1 > time2 ? -1 : (time1 == time2 ? 0 : 1);
+            }
+        });
+        for (QueryStatistics query : statistics) {
+            if (query.getExecutions() > 0) {
+                logger.debug(query.toString());
+            }
+        }
     }
 
-    protected void log(Statement statement, String query) {
-        log(createQueryFormat(statement, query).format());
+    public int getSampleRate() {
+        return sampleRate;
     }
 
-    protected void log(String statement) {
-        queryLogger.log(statement);
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
     }
 
     @Override
@@ -269,6 +191,10 @@ public class LoggingConnectionProvider extends ConnectionProxyProviderBase {
 
     @Override
     public void close() throws SQLException {
+        if (logger.isDebugEnabled()) {
+            logQueryStatistics();
+        }
+        queryStatistics.clear();
         connectionProvider.close();
     }
 
@@ -276,4 +202,101 @@ public class LoggingConnectionProvider extends ConnectionProxyProviderBase {
     public String toString() {
         return connectionProvider.toString();
     }
+
+    protected class LoggingConnection extends ConnectionProxyWrapper {
+
+        public LoggingConnection(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        protected Statement wrapStatement(Statement statement) throws SQLException {
+            return new LoggingStatement(statement, this);
+        }
+
+        @Override
+        protected PreparedStatement wrapPreparedStatement(PreparedStatement statement,
+                                                          String sql) throws SQLException {
+            return new LoggingPreparedStatement(statement, this, sql);
+        }
+    }
+
+    protected class LoggingStatement extends StatementWrapper {
+
+        public LoggingStatement(Statement statement, Connection connection) {
+            super(statement, connection);
+        }
+
+        @Override
+        protected long beforeExecute(String sql) throws SQLException {
+            if (sql != null && isLogged(getQueryStatistics(sql))) {
+                log(createQueryFormat(this, sql).format());
+            }
+            return nanoTime();
+        }
+
+        @Override
+        protected void afterExecute(String sql, long start) throws SQLException {
+            QueryStatistics statistics = sql != null ? getQueryStatistics(sql) : null;
+            if (statistics != null) {
+                statistics.execute(nanoTime() - start, 1, 0);
+            }
+        }
+    }
+
+    /**
+     * Captures bound parameters for logging and counts them, rows added to a batch are logged as they are added.
+     */
+    protected class LoggingPreparedStatement extends PreparedStatementWrapper {
+
+        private final QueryFormat queryFormat;
+        private final QueryStatistics statistics;
+        private int binds;
+        private int rows;
+
+        public LoggingPreparedStatement(PreparedStatement statement, Connection connection, String sql) {
+            super(statement, connection, sql);
+            this.queryFormat = createQueryFormat(this, sql);
+            this.statistics = getQueryStatistics(sql);
+        }
+
+        @Override
+        protected void setParameter(int parameterIndex, Object value) throws SQLException {
+            queryFormat.setParameter(parameterIndex - 1, value);
+            binds++;
+        }
+
+        @Override
+        public void addBatch() throws SQLException {
+            super.addBatch();
+            rows++;
+            if (isLogged(statistics)) {
+                log(queryFormat.format());
+            }
+        }
+
+        @Override
+        public void clearBatch() throws SQLException {
+            super.clearBatch();
+            rows = 0;
+            binds = 0;
+        }
+
+        @Override
+        protected long beforeExecute(String sql) throws SQLException {
+            if (rows == 0 && isLogged(statistics)) {
+                log(queryFormat.format());
+            }
+            return nanoTime();
+        }
+
+        @Override
+        protected void afterExecute(String sql, long start) throws SQLException {
+            if (statistics != null) {
+                statistics.execute(nanoTime() - start, max(rows, 1), binds);
+            }
+            rows = 0;
+            binds = 0;
+        }
+    }
 }
@@ -0,0 +1,425 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.connection;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * Prepared statement delegating every call to the target statement, each bound parameter is passed to
+ * {@link #setParameter(int, Object)} hook after it is set on the target statement.
+ *
+ * @author Sergey Bushik
+ */
+public class PreparedStatementWrapper extends StatementWrapper implements PreparedStatement {
+
+    private final PreparedStatement statement;
+    private final String sql;
+
+    public PreparedStatementWrapper(PreparedStatement statement, Connection connection, String sql) {
+        super(statement, connection);
+        this.statement = statement;
+        this.sql = sql;
+    }
+
+    @Override
+    public PreparedStatement getTarget() {
+        return statement;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Called when parameter value is bound to the statement
+     *
+     * @param parameterIndex index of the parameter starting with 1
+     * @param value          bound value, primitives are boxed
+     */
+    protected void setParameter(int parameterIndex, Object value) throws SQLException {
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        long start = beforeExecute(null);
+        try {
+            return statement.executeQuery();
+        } finally {
+            afterExecute(null, start);
+        }
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        long start = beforeExecute(null);
+        try {
+            return statement.executeUpdate();
+        } finally {
+            afterExecute(null, start);
+        }
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        long start = beforeExecute(null);
+        try {
+            return statement.execute();
+        } finally {
+            afterExecute(null, start);
+        }
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        statement.addBatch();
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        statement.clearParameters();
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return statement.getMetaData();
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return statement.getParameterMetaData();
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        statement.setNull(parameterIndex, sqlType);
+        setParameter(parameterIndex, null);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        statement.setNull(parameterIndex, sqlType, typeName);
+        setParameter(parameterIndex, null);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        statement.setBoolean(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        statement.setByte(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        statement.setShort(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        statement.setInt(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        statement.setLong(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        statement.setFloat(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        statement.setDouble(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        statement.setBigDecimal(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        statement.setString(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        statement.setNString(parameterIndex, value);
+        setParameter(parameterIndex, value);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        statement.setBytes(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        statement.setDate(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar calendar) throws SQLException {
+        statement.setDate(parameterIndex, x, calendar);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        statement.setTime(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar calendar) throws SQLException {
+        statement.setTime(parameterIndex, x, calendar);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        statement.setTimestamp(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar calendar) throws SQLException {
+        statement.setTimestamp(parameterIndex, x, calendar);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        statement.setObject(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        statement.setObject(parameterIndex, x, targetSqlType);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        statement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        statement.setAsciiStream(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        statement.setAsciiStream(parameterIndex, x, length);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        statement.setAsciiStream(parameterIndex, x, length);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    @Deprecated
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        statement.setUnicodeStream(parameterIndex, x, length);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        statement.setBinaryStream(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        statement.setBinaryStream(parameterIndex, x, length);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        statement.setBinaryStream(parameterIndex, x, length);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        statement.setCharacterStream(parameterIndex, reader);
+        setParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        statement.setCharacterStream(parameterIndex, reader, length);
+        setParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        statement.setCharacterStream(parameterIndex, reader, length);
+        setParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        statement.setNCharacterStream(parameterIndex, value);
+        setParameter(parameterIndex, value);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        statement.setNCharacterStream(parameterIndex, value, length);
+        setParameter(parameterIndex, value);
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        statement.setRef(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        statement.setBlob(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        statement.setBlob(parameterIndex, inputStream);
+        setParameter(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        statement.setBlob(parameterIndex, inputStream, length);
+        setParameter(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        statement.setClob(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        statement.setClob(parameterIndex, reader);
+        setParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        statement.setClob(parameterIndex, reader, length);
+        setParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        statement.setNClob(parameterIndex, value);
+        setParameter(parameterIndex, value);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        statement.setNClob(parameterIndex, reader);
+        setParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        statement.setNClob(parameterIndex, reader, length);
+        setParameter(parameterIndex, reader);
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        statement.setArray(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        statement.setURL(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        statement.setRowId(parameterIndex, x);
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        statement.setSQLXML(parameterIndex, xmlObject);
+        setParameter(parameterIndex, xmlObject);
+    }
+}
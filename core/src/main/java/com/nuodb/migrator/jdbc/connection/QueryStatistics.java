@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.connection;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Execution statistics of a single query: number of executions, rows, bound parameters and histogram of execution
+ * times. Histogram buckets are powers of two microseconds, so recording an execution is a couple of atomic adds
+ * regardless of how many executions are recorded.
+ *
+ * @author Sergey Bushik
+ */
+public class QueryStatistics {
+
+    private static final int BUCKETS = 40;
+
+    private final String query;
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong binds = new AtomicLong();
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong totalTime = new AtomicLong();
+    private final AtomicLong maxTime = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    public QueryStatistics(String query) {
+        this.query = query;
+    }
+
+    /**
+     * Records single execution of the query
+     *
+     * @param time  execution time in nanoseconds
+     * @param rows  number of rows processed by the execution, i.e. number of batched rows
+     * @param binds number of parameters bound for the execution
+     */
+    public void execute(long time, int rows, int binds) {
+        executions.incrementAndGet();
+        this.rows.addAndGet(rows);
+        if (binds > 0) {
+            this.binds.addAndGet(binds);
+        }
+        totalTime.addAndGet(time);
+        long max;
+        while (time > (max = maxTime.get()) && !maxTime.compareAndSet(max, time)) {
+        }
+        histogram.incrementAndGet(getBucket(NANOSECONDS.toMicros(time)));
+    }
+
+    /**
+     * Tells whether the current row should be sampled, the first row and each sample rate row afterwards are sampled.
+     *
+     * @param sampleRate sample every n-th row
+     * @return true if row is sampled
+     */
+    public boolean sample(int sampleRate) {
+        return (samples.getAndIncrement() % sampleRate) == 0;
+    }
+
+    /**
+     * Calculates approximate percentile of execution time, the result is the upper bound of the histogram bucket
+     * containing requested percentile
+     *
+     * @param percentile percentile from 0 to 100
+     * @return execution time in microseconds
+     */
+    public long getPercentile(double percentile) {
+        long executions = 0;
+        long[] counts = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            executions += (counts[bucket] = histogram.get(bucket));
+        }
+        long threshold = (long) Math.ceil(executions * percentile / 100);
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            count += counts[bucket];
+            if (count > 0 && count >= threshold) {
+                return bucket == 0 ? 0 : (1L << bucket) - 1;
+            }
+        }
+        return 0;
+    }
+
+    protected static int getBucket(long micros) {
+        return Math.min(64 - numberOfLeadingZeros(micros), BUCKETS - 1);
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    public long getBinds() {
+        return binds.get();
+    }
+
+    public long getTotalTime() {
+        return totalTime.get();
+    }
+
+    public long getMaxTime() {
+        return maxTime.get();
+    }
+
+    public long getMeanTime() {
+        long executions = getExecutions();
+        return executions > 0 ? getTotalTime() / executions : 0;
+    }
+
+    @Override
+    public String toString() {
+        return format("%s: %d executions, %d rows, %d binds, total %d ms, mean %d us, p50 %d us, p99 %d us, " +
+                "max %d us", query, getExecutions(), getRows(), getBinds(), NANOSECONDS.toMillis(getTotalTime()),
+                NANOSECONDS.toMicros(getMeanTime()), getPercentile(50), getPercentile(99),
+                NANOSECONDS.toMicros(getMaxTime()));
+    }
+}
@@ -0,0 +1,345 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.connection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+import static com.nuodb.migrator.jdbc.connection.ConnectionWrapper.invoke;
+
+/**
+ * Statement delegating every call to the target statement, {@link #getConnection()} returns connection wrapper which
+ * created the statement. Execute methods are routed through {@link #beforeExecute(String)} and
+ * {@link #afterExecute(String, long)} hooks, which are no-ops by default.
+ *
+ * @author Sergey Bushik
+ */
+public class StatementWrapper implements Statement {
+
+    private final Statement statement;
+    private final Connection connection;
+
+    public StatementWrapper(Statement statement, Connection connection) {
+        this.statement = statement;
+        this.connection = connection;
+    }
+
+    public Statement getTarget() {
+        return statement;
+    }
+
+    /**
+     * Called before a query is executed, returned value is passed to {@link #afterExecute(String, long)}
+     *
+     * @param sql executed query or null for an execution of batch or prepared statement
+     * @return start time in nanoseconds or 0 if execution is not timed
+     */
+    protected long beforeExecute(String sql) throws SQLException {
+        return 0;
+    }
+
+    protected void afterExecute(String sql, long start) throws SQLException {
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        long start = beforeExecute(sql);
+        try {
+            return statement.executeQuery(sql);
+        } finally {
+            afterExecute(sql, start);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        long start = beforeExecute(sql);
+        try {
+            return statement.executeUpdate(sql);
+        } finally {
+            afterExecute(sql, start);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        long start = beforeExecute(sql);
+        try {
+            return statement.executeUpdate(sql, autoGeneratedKeys);
+        } finally {
+            afterExecute(sql, start);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        long start = beforeExecute(sql);
+        try {
+            return statement.executeUpdate(sql, columnIndexes);
+        } finally {
+            afterExecute(sql, start);
+        }
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        long start = beforeExecute(sql);
+        try {
+            return statement.executeUpdate(sql, columnNames);
+        } finally {
+            afterExecute(sql, start);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        long start = beforeExecute(sql);
+        try {
+            return statement.execute(sql);
+        } finally {
+            afterExecute(sql, start);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        long start = beforeExecute(sql);
+        try {
+            return statement.execute(sql, autoGeneratedKeys);
+        } finally {
+            afterExecute(sql, start);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        long start = beforeExecute(sql);
+        try {
+            return statement.execute(sql, columnIndexes);
+        } finally {
+            afterExecute(sql, start);
+        }
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        long start = beforeExecute(sql);
+        try {
+            return statement.execute(sql, columnNames);
+        } finally {
+            afterExecute(sql, start);
+        }
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        long start = beforeExecute(null);
+        try {
+            return statement.executeBatch();
+        } finally {
+            afterExecute(null, start);
+        }
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        statement.addBatch(sql);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        statement.clearBatch();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        statement.close();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return statement.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        statement.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return statement.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        statement.setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        statement.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return statement.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        statement.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        statement.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return statement.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        statement.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        statement.setCursorName(name);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return statement.getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return statement.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return statement.getMoreResults();
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return statement.getMoreResults(current);
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        statement.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return statement.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        statement.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return statement.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return statement.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return statement.getResultSetType();
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return statement.getResultSetHoldability();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection;
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return statement.getGeneratedKeys();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return statement.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        statement.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return statement.isPoolable();
+    }
+
+    public void closeOnCompletion() throws SQLException {
+        invoke(Statement.class, statement, "closeOnCompletion", new Class[0]);
+    }
+
+    public boolean isCloseOnCompletion() throws SQLException {
+        return (Boolean) invoke(Statement.class, statement, "isCloseOnCompletion", new Class[0]);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> type) throws SQLException {
+        return type.isInstance(this) ? (T) this : statement.unwrap(type);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) throws SQLException {
+        return type.isInstance(this) || statement.isWrapperFor(type);
+    }
+
+    @Override
+    public String toString() {
+        return statement.toString();
+    }
+}
@@ -27,11 +27,16 @@
  */
 package com.nuodb.migrator.jdbc.dialect;
 
+import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.DatabaseInfo;
+import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 
 import java.sql.Types;
 
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
+
 /**
  * @author Sergey Bushik
  */
@@ -63,6 +68,22 @@ public class DB2Dialect extends SimpleDialect {
         addJdbcTypeName(Types.LONGVARBINARY, "LONG VARCHAR FOR BIT DATA");
     }
 
+    @Override
+    public boolean supportsRowNumber() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsRowCount(Table table, Column column, String filter, RowCountType rowCountType) {
+        return (rowCountType == APPROX && column == null && filter == null) || rowCountType == EXACT;
+    }
+
+    @Override
+    public RowCountHandler createRowCountHandler(Table table, Column column, String filter,
+                                                 RowCountType rowCountType) {
+        return new DB2TableRowCountHandler(this, table, column, filter, rowCountType);
+    }
+
     @Override
     public boolean supportsLimit() {
         return true;
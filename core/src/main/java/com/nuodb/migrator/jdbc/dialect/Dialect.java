@@ -29,6 +29,7 @@ package com.nuodb.migrator.jdbc.dialect;
 
 import com.nuodb.migrator.jdbc.metadata.*;
 import com.nuodb.migrator.jdbc.metadata.resolver.ServiceResolver;
+import com.nuodb.migrator.jdbc.query.InsertStrategy;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.type.*;
@@ -96,10 +97,54 @@ public interface Dialect {
 
     RowCountHandler createRowCountHandler(Table table, Column column, String filter, RowCountType rowCountType);
 
+    HistogramHandler createHistogramHandler(Table table, Column column, String filter);
+
+    /**
+     * Supports ROW_NUMBER() OVER (ORDER BY ...) and COUNT(*) OVER () window functions, so that every n-th value of an
+     * ordered column can be selected by the database itself.
+     *
+     * @return true if row numbering window functions are supported.
+     */
+    boolean supportsRowNumber();
+
+    /**
+     * Returns remainder of the division of dividend by divisor expression.
+     *
+     * @param dividend expression.
+     * @param divisor  expression.
+     * @return modulo expression.
+     */
+    String getModulo(String dividend, String divisor);
+
     String getNullColumnString();
 
     String getNoColumnsInsert();
 
+    boolean supportsMultiRowInsert();
+
+    /**
+     * Hook for the native bulk load facility of the target, resolves the bulk insert strategy to the insert strategy
+     * the target loads rows the fastest with.
+     *
+     * @return batch or multi row insert strategy.
+     */
+    InsertStrategy getBulkInsertStrategy();
+
+    /**
+     * Returns maximum number of parameters a single statement can bind, limits the number of rows in a multi row
+     * insert together with the number of inserted columns.
+     *
+     * @return maximum number of statement parameters.
+     */
+    int getMaxParameters();
+
+    /**
+     * Returns maximum number of rows in the VALUES clause of a multi row insert.
+     *
+     * @return maximum number of inserted rows.
+     */
+    int getMaxInsertRows();
+
     String getCascadeConstraints();
 
     String getDropForeignKey();
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import static java.math.BigDecimal.valueOf;
+import static java.math.RoundingMode.FLOOR;
+
+/**
+ * @author Sergey Bushik
+ */
+public class HistogramUtils {
+
+    /**
+     * Interpolates linearly between two numeric or two date values, numbers are rounded down to the scale of the
+     * lower value and values of other types aren't interpolated.
+     *
+     * @param lower    value at the zero fraction.
+     * @param upper    value at the fraction of one.
+     * @param fraction of the distance from the lower to the upper value.
+     * @return interpolated value or the lower value if it can't be interpolated.
+     */
+    public static Object interpolate(Object lower, Object upper, double fraction) {
+        if (fraction == 0) {
+            return lower;
+        }
+        if (lower instanceof BigDecimal && upper instanceof BigDecimal) {
+            BigDecimal min = (BigDecimal) lower;
+            BigDecimal value = min.add(((BigDecimal) upper).subtract(min).multiply(valueOf(fraction)));
+            return min.scale() <= 0 ? value.setScale(0, FLOOR) : value.setScale(min.scale(), FLOOR);
+        }
+        if (lower instanceof Date && upper instanceof Date) {
+            long min = ((Date) lower).getTime();
+            long time = min + (long) ((((Date) upper).getTime() - min) * fraction);
+            return lower instanceof java.sql.Date ? new java.sql.Date(time) : new Timestamp(time);
+        }
+        return lower;
+    }
+}
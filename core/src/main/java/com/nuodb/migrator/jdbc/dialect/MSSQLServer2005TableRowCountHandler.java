@@ -31,6 +31,9 @@ import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.query.SelectQuery;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
 import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
 
 /**
@@ -44,8 +47,9 @@ public class MSSQLServer2005TableRowCountHandler extends MSSQLServerTableRowCoun
     }
 
     /**
-     * Row counts using SYS.DM_DB_PARTITION_STATS <a href="http://www.sqlservercentral
-     * .com/articles/T-SQL/67624/">dynamic management view</a>
+     * Sums row counts of the heap or clustered index partitions from SYS.PARTITIONS catalog view, which unlike
+     * SYS.DM_DB_PARTITION_STATS <a href="http://www.sqlservercentral.com/articles/T-SQL/67624/">dynamic management
+     * view</a> requires no VIEW DATABASE STATE permission.
      *
      * @return query used to estimate row count number.
      */
@@ -61,17 +65,21 @@ public class MSSQLServer2005TableRowCountHandler extends MSSQLServerTableRowCoun
         String catalog = table.getCatalog().getName() + ".";
 
         SelectQuery query = new SelectQuery();
-        query.column("DDPS.ROW_COUNT");
-        query.from(catalog + "SYS.INDEXES AS I");
-        query.innerJoin(catalog + "SYS.TABLES AS T", "I.OBJECT_ID = t.OBJECT_ID");
+        query.column("SUM(P.ROWS)");
+        query.from(catalog + "SYS.PARTITIONS AS P");
+        query.innerJoin(catalog + "SYS.TABLES AS T", "P.OBJECT_ID=T.OBJECT_ID");
         query.innerJoin(catalog + "SYS.SCHEMAS AS S", "T.SCHEMA_ID=S.SCHEMA_ID");
-        query.innerJoin(catalog + "SYS.DM_DB_PARTITION_STATS AS DDPS",
-                "I.OBJECT_ID = DDPS.OBJECT_ID AND I.INDEX_ID = DDPS.INDEX_ID");
-        query.where("I.INDEX_ID < 2");
+        query.where("P.INDEX_ID < 2");
         query.where("T.IS_MS_SHIPPED=0");
         query.where("S.NAME='" + table.getSchema().getName() + "'");
         query.where("T.NAME='" + table.getName() + "'");
 
         return new TableRowCountQuery(table, null, null, query, APPROX);
     }
+
+    @Override
+    protected Long getRowCount(ResultSet resultSet, RowCountQuery rowCountQuery) throws SQLException {
+        Long rowCount = super.getRowCount(resultSet, rowCountQuery);
+        return rowCount != null && !resultSet.wasNull() ? rowCount : null;
+    }
 }
@@ -102,6 +102,27 @@ public class MSSQLServerDialect extends SimpleDialect {
         return true;
     }
 
+    /**
+     * SQL Server accepts at most 2100 parameters per statement.
+     */
+    @Override
+    public int getMaxParameters() {
+        return 2100;
+    }
+
+    /**
+     * Table value constructor of SQL Server is limited to 1000 rows.
+     */
+    @Override
+    public int getMaxInsertRows() {
+        return 1000;
+    }
+
+    @Override
+    public String getModulo(String dividend, String divisor) {
+        return dividend + " % " + divisor;
+    }
+
     @Override
     public boolean supportsCatalogs() {
         return true;
@@ -161,6 +161,14 @@ public class MySQLDialect extends SimpleDialect {
         return true;
     }
 
+    /**
+     * MySQL prepared statements are limited to 65535 placeholders.
+     */
+    @Override
+    public int getMaxParameters() {
+        return 65535;
+    }
+
     @Override
     public boolean supportsCatalogs() {
         return true;
@@ -31,6 +31,7 @@ import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.Index;
 import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
 import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -77,9 +78,24 @@ public class MySQLTableRowCountHandler extends SimpleTableRowCountHandler {
         return new TableRowCountQuery(table, column, filter, query, EXACT);
     }
 
+    /**
+     * Reads table row count estimate maintained by the storage engine from INFORMATION_SCHEMA.TABLES, a filtered
+     * row count is estimated by the optimizer with the EXPLAIN statement.
+     *
+     * @return query used to estimate row count number.
+     */
     @Override
     protected TableRowCountQuery createApproxRowCountQuery() {
         Table table = getTable();
+        if (getColumn() == null && getFilter() == null) {
+            SelectQuery query = new SelectQuery();
+            query.setDialect(getDialect());
+            query.from("INFORMATION_SCHEMA.TABLES");
+            query.column("TABLE_ROWS");
+            query.where("TABLE_SCHEMA='" + table.getCatalog().getName() + "'");
+            query.where("TABLE_NAME='" + table.getName() + "'");
+            return new TableRowCountQuery(table, null, null, query, APPROX);
+        }
         Column column = getColumn();
         PrimaryKey primaryKey = table.getPrimaryKey();
         if (column == null && primaryKey != null && size(primaryKey.getColumns()) > 0) {
@@ -111,7 +127,12 @@ public class MySQLTableRowCountHandler extends SimpleTableRowCountHandler {
                 rowCount = resultSet.next() ? resultSet.getLong(1) : null;
                 break;
             case APPROX:
-                rowCount = resultSet.next() ? resultSet.getLong("ROWS") : null;
+                if (resultSet.next()) {
+                    rowCount = rowCountQuery.getQuery() instanceof ExplainQuery ?
+                            resultSet.getLong("ROWS") : resultSet.getLong(1);
+                    rowCount = resultSet.wasNull() ? null : rowCount;
+                }
+                break;
         }
         return rowCount;
     }
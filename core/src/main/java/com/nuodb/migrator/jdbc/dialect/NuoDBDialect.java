@@ -28,6 +28,7 @@
 package com.nuodb.migrator.jdbc.dialect;
 
 import com.nuodb.migrator.jdbc.metadata.*;
+import com.nuodb.migrator.jdbc.query.InsertStrategy;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.type.JdbcTypeDesc;
 
@@ -35,6 +36,7 @@ import java.util.regex.Pattern;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.jdbc.dialect.OracleDialect.*;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
 import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.*;
 import static com.nuodb.migrator.jdbc.type.JdbcTypeNames.createEnumTypeNameTemplate;
 import static com.nuodb.migrator.jdbc.type.JdbcTypeNames.createTypeNameTemplate;
@@ -350,6 +352,15 @@ public class NuoDBDialect extends SimpleDialect {
         return true;
     }
 
+    /**
+     * NuoDB driver ships parameter sets of a batch to the transaction engine in a single message, which is the bulk
+     * load path available through JDBC.
+     */
+    @Override
+    public InsertStrategy getBulkInsertStrategy() {
+        return InsertStrategy.BATCH;
+    }
+
     @Override
     public boolean supportsLimitParameters() {
         return true;
@@ -365,9 +376,17 @@ public class NuoDBDialect extends SimpleDialect {
         return new NuoDBLimitHandler(this, query, queryLimit);
     }
 
+    /**
+     * Exact row count is disabled for performance reasons, row count estimates are read from index statistics.
+     */
     @Override
     public boolean supportsRowCount(Table table, Column column, String filter, RowCountType rowCountType) {
-        // row count disabled temporary for performance reasons
-        return false;
+        return rowCountType == APPROX && column == null && filter == null;
+    }
+
+    @Override
+    public RowCountHandler createRowCountHandler(Table table, Column column, String filter,
+                                                 RowCountType rowCountType) {
+        return new NuoDBTableRowCountHandler(this, table, column, filter, rowCountType);
     }
 }
\ No newline at end of file
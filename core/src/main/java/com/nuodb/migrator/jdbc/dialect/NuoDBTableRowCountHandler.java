@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
+
+/**
+ * @author Sergey Bushik
+ */
+public class NuoDBTableRowCountHandler extends SimpleTableRowCountHandler {
+
+    public NuoDBTableRowCountHandler(Dialect dialect, Table table, Column column, String filter,
+                                     RowCountType rowCountType) {
+        super(dialect, table, column, filter, rowCountType);
+    }
+
+    /**
+     * Estimates row count by the largest key count of the table indexes collected by ANALYZE into
+     * SYSTEM.INDEXSTATISTICS table.
+     *
+     * @return query used to estimate row count number.
+     */
+    @Override
+    protected TableRowCountQuery createApproxRowCountQuery() {
+        if (getColumn() != null) {
+            throw new DialectException("Approx row count query with column is not supported");
+        }
+        if (getFilter() != null) {
+            throw new DialectException("Approx row count query with filter is not supported");
+        }
+        Table table = getTable();
+
+        SelectQuery query = new SelectQuery();
+        query.setDialect(getDialect());
+        query.from("SYSTEM.INDEXSTATISTICS");
+        query.column("MAX(KEYCOUNT)");
+        query.where("SCHEMA='" + table.getSchema().getName() + "'");
+        query.where("TABLENAME='" + table.getName() + "'");
+
+        return new TableRowCountQuery(table, null, null, query, APPROX);
+    }
+
+    @Override
+    protected Long getRowCount(ResultSet resultSet, RowCountQuery rowCountQuery) throws SQLException {
+        Long rowCount = super.getRowCount(resultSet, rowCountQuery);
+        return rowCount != null && !resultSet.wasNull() ? rowCount : null;
+    }
+}
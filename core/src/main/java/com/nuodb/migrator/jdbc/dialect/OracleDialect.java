@@ -194,11 +194,21 @@ public class OracleDialect extends SimpleDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return false;
+    }
+
     @Override
     public boolean supportsLimitParameters() {
         return true;
     }
 
+    @Override
+    public boolean supportsRowNumber() {
+        return true;
+    }
+
     @Override
     public boolean supportsSchemas() {
         return true;
@@ -218,4 +228,9 @@ public class OracleDialect extends SimpleDialect {
     public RowCountHandler createRowCountHandler(Table table, Column column, String filter, RowCountType rowCountType) {
         return new OracleTableRowCountHandler(this, table, column, filter, rowCountType);
     }
+
+    @Override
+    public HistogramHandler createHistogramHandler(Table table, Column column, String filter) {
+        return new OracleHistogramHandler(this, table, column, filter);
+    }
 }
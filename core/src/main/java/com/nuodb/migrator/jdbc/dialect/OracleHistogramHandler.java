@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+import com.nuodb.migrator.jdbc.query.StatementCallback;
+import com.nuodb.migrator.jdbc.query.StatementFactory;
+import com.nuodb.migrator.jdbc.query.StatementTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.dialect.HistogramUtils.interpolate;
+import static java.sql.Types.DATE;
+import static java.sql.Types.TIMESTAMP;
+import static org.apache.commons.lang3.StringUtils.replace;
+
+/**
+ * Reads histogram end points of numeric columns from SYS.ALL_TAB_HISTOGRAMS, which hold column minimum and maximum if
+ * no histogram is gathered for the column. End point numbers are cumulative row counts of frequency, top frequency and
+ * hybrid histograms and cumulative bucket numbers of height balanced histograms, so end point values are weighted by
+ * the deltas of their numbers and resampled to equi-depth bounds expected by {@link HistogramHandler}. Date end points
+ * are stored as julian days, so date columns and filtered tables fall back to column minimum and maximum values.
+ *
+ * @author Sergey Bushik
+ */
+public class OracleHistogramHandler extends SimpleHistogramHandler {
+
+    public OracleHistogramHandler(Dialect dialect, Table table, Column column, String filter) {
+        super(dialect, table, column, filter);
+    }
+
+    @Override
+    public List<Object> getHistogram(Connection connection) throws SQLException {
+        int typeCode = getColumn().getTypeCode();
+        List<Object> histogram = null;
+        if (getFilter() == null && typeCode != DATE && typeCode != TIMESTAMP) {
+            histogram = getEndpoints(connection, createHistogramQuery().toString());
+        }
+        return histogram != null && histogram.size() > 1 ? histogram : getMinMax(connection);
+    }
+
+    protected List<Object> getEndpoints(Connection connection, final String histogramQuery) throws SQLException {
+        final List<Long> numbers = newArrayList();
+        final List<Object> values = newArrayList();
+        new StatementTemplate(connection).executeStatement(
+                new StatementFactory<Statement>() {
+                    @Override
+                    public Statement createStatement(Connection connection) throws SQLException {
+                        return connection.createStatement();
+                    }
+                }, new StatementCallback<Statement>() {
+                    @Override
+                    public void executeStatement(Statement statement) throws SQLException {
+                        ResultSet resultSet = statement.executeQuery(histogramQuery);
+                        while (resultSet.next()) {
+                            long number = resultSet.getLong(1);
+                            Object value = resultSet.getObject(2);
+                            if (value != null) {
+                                numbers.add(number);
+                                values.add(value);
+                            }
+                        }
+                    }
+                }
+        );
+        return getHistogram(numbers, values);
+    }
+
+    /**
+     * Resamples end points to equi-depth bounds keeping the number of buckets. Rows counted between two end point
+     * numbers lie between the end point values and are interpolated linearly, rows counted by the first end point
+     * number all equal its value.
+     *
+     * @param numbers ascending cumulative end point numbers.
+     * @param values  end point values.
+     * @return equi-depth histogram bounds.
+     */
+    protected List<Object> getHistogram(List<Long> numbers, List<Object> values) {
+        List<Object> histogram = newArrayList();
+        if (!values.isEmpty() && numbers.get(0) > 0) {
+            numbers.add(0, 0L);
+            values.add(0, values.get(0));
+        }
+        int buckets = values.size() - 1;
+        if (buckets < 1) {
+            return histogram;
+        }
+        long first = numbers.get(0);
+        long total = numbers.get(buckets) - first;
+        int endpoint = 0;
+        for (int bucket = 0; bucket <= buckets; bucket++) {
+            double rows = first + (double) total * bucket / buckets;
+            while (endpoint < buckets && numbers.get(endpoint) < rows) {
+                endpoint++;
+            }
+            Object value = values.get(endpoint);
+            if (endpoint > 0 && value instanceof BigDecimal && values.get(endpoint - 1) instanceof BigDecimal) {
+                long lower = numbers.get(endpoint - 1);
+                value = interpolate(values.get(endpoint - 1), value, (rows - lower) / (numbers.get(endpoint) - lower));
+            }
+            histogram.add(value);
+        }
+        return histogram;
+    }
+
+    protected SelectQuery createHistogramQuery() {
+        SelectQuery query = new SelectQuery();
+        query.setDialect(getDialect());
+        query.from("SYS.ALL_TAB_HISTOGRAMS");
+        query.column("ENDPOINT_NUMBER");
+        query.column("ENDPOINT_VALUE");
+        query.where("ALL_TAB_HISTOGRAMS.OWNER='" + replace(getTable().getSchema().getName(), "'", "''") + "'");
+        query.where("ALL_TAB_HISTOGRAMS.TABLE_NAME='" + replace(getTable().getName(), "'", "''") + "'");
+        query.where("ALL_TAB_HISTOGRAMS.COLUMN_NAME='" + replace(getColumn().getName(), "'", "''") + "'");
+        query.orderBy("ENDPOINT_NUMBER");
+        return query;
+    }
+}
@@ -31,6 +31,7 @@ import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.query.SelectQuery;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -75,10 +76,25 @@ public class OracleTableRowCountHandler extends SimpleTableRowCountHandler {
         return new TableRowCountQuery(table, null, null, query, APPROX);
     }
 
+    /**
+     * Reads NUM_ROWS gathered by the last statistics collection, statistics are estimated on a sample of the table
+     * only if they were never collected and the handler isn't restricted to the statistics only.
+     */
     @Override
     protected Long getRowCount(Statement statement, RowCountQuery rowCountQuery) throws SQLException {
-        updateStatistics(statement, rowCountQuery);
-        return super.getRowCount(statement, rowCountQuery);
+        Long rowCount = super.getRowCount(statement, rowCountQuery);
+        if (rowCount == null && rowCountQuery.getRowCountType() == APPROX && isUpdateStatistics() &&
+                !isStatisticsOnly()) {
+            updateStatistics(statement, rowCountQuery);
+            rowCount = super.getRowCount(statement, rowCountQuery);
+        }
+        return rowCount;
+    }
+
+    @Override
+    protected Long getRowCount(ResultSet resultSet, RowCountQuery rowCountQuery) throws SQLException {
+        Long rowCount = super.getRowCount(resultSet, rowCountQuery);
+        return rowCount != null && !resultSet.wasNull() ? rowCount : null;
     }
 
     protected void updateStatistics(Statement statement, RowCountQuery rowCountQuery) throws SQLException {
@@ -139,6 +139,19 @@ public class PostgreSQLDialect extends SimpleDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsRowNumber() {
+        return true;
+    }
+
+    /**
+     * Number of parameters of a statement is sent by the PostgreSQL protocol as a 16-bit integer.
+     */
+    @Override
+    public int getMaxParameters() {
+        return Short.MAX_VALUE;
+    }
+
     @Override
     public boolean supportsCatalogs() {
         return true;
@@ -163,4 +176,9 @@ public class PostgreSQLDialect extends SimpleDialect {
     public RowCountHandler createRowCountHandler(Table table, Column column, String filter, RowCountType rowCountType) {
         return new PostgreSQLTableRowCountHandler(this, table, column, filter, rowCountType);
     }
+
+    @Override
+    public HistogramHandler createHistogramHandler(Table table, Column column, String filter) {
+        return new PostgreSQLHistogramHandler(this, table, column, filter);
+    }
 }
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+import org.slf4j.Logger;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.lang.String.format;
+import static java.sql.Types.DATE;
+import static java.sql.Types.TIMESTAMP;
+import static org.apache.commons.lang3.StringUtils.*;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Reads equi-depth histogram bounds of a column collected by ANALYZE from PG_STATS.HISTOGRAM_BOUNDS, falls back to
+ * column minimum and maximum values if there is a filter or histogram is not collected.
+ *
+ * @author Sergey Bushik
+ */
+public class PostgreSQLHistogramHandler extends SimpleHistogramHandler {
+
+    private final transient Logger logger = getLogger(getClass());
+
+    public PostgreSQLHistogramHandler(Dialect dialect, Table table, Column column, String filter) {
+        super(dialect, table, column, filter);
+    }
+
+    @Override
+    public List<Object> getHistogram(Connection connection) throws SQLException {
+        List<Object> histogram = null;
+        if (getFilter() == null) {
+            List<Object> bounds = getHistogram(connection, createHistogramQuery().toString(), 1);
+            if (bounds.size() == 1) {
+                histogram = parseHistogram((String) bounds.get(0));
+            }
+        }
+        if (histogram == null || histogram.size() < 2) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(format("No histogram bounds of %s column of %s table, using its minimum and maximum",
+                        getColumn().getName(), getTable().getQualifiedName(null)));
+            }
+            histogram = getMinMax(connection);
+        }
+        return histogram;
+    }
+
+    protected SelectQuery createHistogramQuery() {
+        SelectQuery query = new SelectQuery();
+        query.setDialect(getDialect());
+        query.from("PG_CATALOG.PG_STATS");
+        query.column("HISTOGRAM_BOUNDS::TEXT");
+        query.where("SCHEMANAME='" + replace(getTable().getSchema().getName(), "'", "''") + "'");
+        query.where("TABLENAME='" + replace(getTable().getName(), "'", "''") + "'");
+        query.where("ATTNAME='" + replace(getColumn().getName(), "'", "''") + "'");
+        return query;
+    }
+
+    /**
+     * Parses array literal {bound1,bound2,...,boundN} to the list of values, elements are either unquoted or double
+     * quoted with backslash escaping quotes and backslashes inside them, unquoted NULL elements are skipped. Returns
+     * null if bounds can't be converted to the column type.
+     *
+     * @param bounds array literal.
+     * @return parsed histogram bounds.
+     */
+    protected List<Object> parseHistogram(String bounds) {
+        List<Object> histogram = newArrayList();
+        try {
+            for (String bound : parseArray(bounds)) {
+                if (bound != null) {
+                    histogram.add(parseBound(bound));
+                }
+            }
+        } catch (IllegalArgumentException exception) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(format("Can't parse histogram bounds %s", bounds), exception);
+            }
+            histogram = null;
+        }
+        return histogram;
+    }
+
+    /**
+     * Splits one dimensional array literal to its elements.
+     *
+     * @param array literal.
+     * @return array elements, null for NULL elements.
+     */
+    protected List<String> parseArray(String array) {
+        String elements = trim(array);
+        if (!startsWith(elements, "{") || !endsWith(elements, "}")) {
+            throw new IllegalArgumentException(format("Array literal %s is not enclosed in braces", array));
+        }
+        List<String> values = newArrayList();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean quoting = false;
+        for (int index = 1, length = elements.length() - 1; index < length; index++) {
+            char current = elements.charAt(index);
+            if (quoting && current == '\\' && index + 1 < length) {
+                value.append(elements.charAt(++index));
+            } else if (current == '"') {
+                quoting = !quoting;
+                quoted = true;
+            } else if (!quoting && current == ',') {
+                values.add(getElement(value, quoted));
+                value.setLength(0);
+                quoted = false;
+            } else {
+                value.append(current);
+            }
+        }
+        if (quoting) {
+            throw new IllegalArgumentException(format("Array literal %s has unterminated quotes", array));
+        }
+        if (value.length() > 0 || quoted || !values.isEmpty()) {
+            values.add(getElement(value, quoted));
+        }
+        return values;
+    }
+
+    private static String getElement(StringBuilder value, boolean quoted) {
+        String element = quoted ? value.toString() : trim(value.toString());
+        return !quoted && "NULL".equalsIgnoreCase(element) ? null : element;
+    }
+
+    /**
+     * Parses histogram bound to the value of the column type. Bounds of timestamp with time zone column are printed
+     * with the offset of the server time zone and are rejected, as they can't be compared with the timestamps read
+     * from the column in the session time zone.
+     *
+     * @param bound histogram bound.
+     * @return parsed value.
+     */
+    protected Object parseBound(String bound) {
+        switch (getColumn().getTypeCode()) {
+            case DATE:
+                return Date.valueOf(bound);
+            case TIMESTAMP:
+                if (containsAny(substringAfterLast(bound, " "), '+', '-')) {
+                    throw new IllegalArgumentException(format("Timestamp bound %s has time zone offset", bound));
+                }
+                return Timestamp.valueOf(bound);
+            default:
+                return new BigDecimal(bound);
+        }
+    }
+}
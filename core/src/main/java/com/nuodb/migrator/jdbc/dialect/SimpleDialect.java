@@ -36,6 +36,7 @@ import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.metadata.Trigger;
 import com.nuodb.migrator.jdbc.metadata.TriggerEvent;
 import com.nuodb.migrator.jdbc.metadata.TriggerTime;
+import com.nuodb.migrator.jdbc.query.InsertStrategy;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.metadata.resolver.SimpleServiceResolverAware;
 import com.nuodb.migrator.jdbc.session.Session;
@@ -241,6 +242,26 @@ public class SimpleDialect extends SimpleServiceResolverAware<Dialect> implement
         return "VALUES ()";
     }
 
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
+    @Override
+    public InsertStrategy getBulkInsertStrategy() {
+        return supportsMultiRowInsert() ? InsertStrategy.MULTI_ROW : InsertStrategy.BATCH;
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int getMaxInsertRows() {
+        return Integer.MAX_VALUE;
+    }
+
     @Override
     public String getNullColumnString() {
         return "";
@@ -408,6 +429,21 @@ public class SimpleDialect extends SimpleServiceResolverAware<Dialect> implement
         return new SimpleTableRowCountHandler(this, table, column, filter, rowCountType);
     }
 
+    @Override
+    public HistogramHandler createHistogramHandler(Table table, Column column, String filter) {
+        return new SimpleHistogramHandler(this, table, column, filter);
+    }
+
+    @Override
+    public boolean supportsRowNumber() {
+        return false;
+    }
+
+    @Override
+    public String getModulo(String dividend, String divisor) {
+        return "MOD(" + dividend + ", " + divisor + ")";
+    }
+
     /**
      * Supports LIMIT {row count} syntax.
      *
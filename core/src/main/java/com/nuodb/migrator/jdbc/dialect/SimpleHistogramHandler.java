@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+import com.nuodb.migrator.jdbc.query.StatementCallback;
+import com.nuodb.migrator.jdbc.query.StatementFactory;
+import com.nuodb.migrator.jdbc.query.StatementTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Histogram built of column minimum and maximum values, selected with {@code SELECT MIN(column), MAX(column)} which
+ * is resolved with an index lookup for key columns.
+ *
+ * @author Sergey Bushik
+ */
+public class SimpleHistogramHandler implements HistogramHandler {
+
+    private Dialect dialect;
+    private Table table;
+    private Column column;
+    private String filter;
+
+    public SimpleHistogramHandler(Dialect dialect, Table table, Column column, String filter) {
+        this.dialect = dialect;
+        this.table = table;
+        this.column = column;
+        this.filter = filter;
+    }
+
+    @Override
+    public List<Object> getHistogram(Connection connection) throws SQLException {
+        return getMinMax(connection);
+    }
+
+    protected List<Object> getMinMax(Connection connection) throws SQLException {
+        String name = getColumn().getName(getDialect());
+        SelectQuery query = new SelectQuery();
+        query.setQualifyNames(true);
+        query.setDialect(getDialect());
+        query.from(getTable());
+        query.column("MIN(" + name + ")");
+        query.column("MAX(" + name + ")");
+        if (getFilter() != null) {
+            query.where(getFilter());
+        }
+        final List<Object> histogram = newArrayList();
+        final String minMaxQuery = query.toString();
+        new StatementTemplate(connection).executeStatement(
+                new StatementFactory<Statement>() {
+                    @Override
+                    public Statement createStatement(Connection connection) throws SQLException {
+                        return connection.createStatement();
+                    }
+                }, new StatementCallback<Statement>() {
+                    @Override
+                    public void executeStatement(Statement statement) throws SQLException {
+                        ResultSet resultSet = statement.executeQuery(minMaxQuery);
+                        if (resultSet.next()) {
+                            Object min = resultSet.getObject(1);
+                            Object max = resultSet.getObject(2);
+                            if (min != null && max != null) {
+                                histogram.add(min);
+                                histogram.add(max);
+                            }
+                        }
+                    }
+                }
+        );
+        return histogram;
+    }
+
+    protected List<Object> getHistogram(Connection connection, final String histogramQuery,
+                                        final int column) throws SQLException {
+        final List<Object> histogram = newArrayList();
+        new StatementTemplate(connection).executeStatement(
+                new StatementFactory<Statement>() {
+                    @Override
+                    public Statement createStatement(Connection connection) throws SQLException {
+                        return connection.createStatement();
+                    }
+                }, new StatementCallback<Statement>() {
+                    @Override
+                    public void executeStatement(Statement statement) throws SQLException {
+                        ResultSet resultSet = statement.executeQuery(histogramQuery);
+                        while (resultSet.next()) {
+                            Object bound = resultSet.getObject(column);
+                            if (bound != null) {
+                                histogram.add(bound);
+                            }
+                        }
+                    }
+                }
+        );
+        return histogram;
+    }
+
+    @Override
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    @Override
+    public Table getTable() {
+        return table;
+    }
+
+    @Override
+    public Column getColumn() {
+        return column;
+    }
+
+    @Override
+    public String getFilter() {
+        return filter;
+    }
+}
@@ -37,6 +37,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
+
 /**
  * @author Sergey Bushik
  */
@@ -44,6 +46,7 @@ public class SimpleRowCountHandler implements RowCountHandler {
 
     private Dialect dialect;
     private RowCountType rowCountType;
+    private boolean statisticsOnly;
 
     public SimpleRowCountHandler(Dialect dialect, RowCountType rowCountType) {
         this.dialect = dialect;
@@ -76,19 +79,45 @@ public class SimpleRowCountHandler implements RowCountHandler {
         return null;
     }
 
+    /**
+     * Exact row count may be disabled by the dialect, as counting every row of a large table is too slow.
+     *
+     * @return true if approx row count may fall back to the exact row count.
+     */
+    protected boolean supportsExactRowCount() {
+        return true;
+    }
+
+    /**
+     * Returns row count estimate for approx row count type, falls back to the exact row count if the database has no
+     * statistics collected and supports exact row count, otherwise the row count is unknown and zero is returned. The
+     * fallback is never made if the handler is restricted to the {@link #isStatisticsOnly() statistics only}.
+     *
+     * @param connection to run row count query on
+     * @return exact or approximate number of rows, zero if unknown
+     */
     @Override
     public long getRowCount(Connection connection) throws SQLException {
-        return getRowCount(connection, getRowCountQuery());
+        RowCountQuery rowCountQuery = getRowCountQuery();
+        Long rowCount = getRowCount(connection, rowCountQuery);
+        if (rowCount == null && rowCountQuery.getRowCountType() == APPROX && !isStatisticsOnly() &&
+                supportsExactRowCount()) {
+            RowCountQuery exactRowCountQuery = createExactRowCountQuery();
+            if (exactRowCountQuery != null) {
+                rowCount = getRowCount(connection, exactRowCountQuery);
+            }
+        }
+        return rowCount != null ? rowCount : 0;
     }
 
-    protected long getRowCount(Connection connection, final RowCountQuery rowCountQuery) throws SQLException {
+    protected Long getRowCount(Connection connection, final RowCountQuery rowCountQuery) throws SQLException {
         final MutableObject<Long> rowCount = new MutableObject<Long>();
         new StatementTemplate(connection).executeStatement(
                 new StatementFactory<Statement>() {
                     @Override
                     public Statement createStatement(Connection connection)
                             throws SQLException {
-                        return createStatement(connection);
+                        return SimpleRowCountHandler.this.createStatement(connection);
                     }
                 }, new StatementCallback<Statement>() {
                     @Override
@@ -122,4 +151,16 @@ public class SimpleRowCountHandler implements RowCountHandler {
     public RowCountType getRowCountType() {
         return rowCountType;
     }
+
+    /**
+     * Approx row count restricted to the statistics only reads the statistics already collected by the database, it
+     * neither updates the statistics nor falls back to the exact row count, so that it's cheap to run for every table.
+     */
+    public boolean isStatisticsOnly() {
+        return statisticsOnly;
+    }
+
+    public void setStatisticsOnly(boolean statisticsOnly) {
+        this.statisticsOnly = statisticsOnly;
+    }
 }
@@ -77,6 +77,11 @@ public class SimpleTableRowCountHandler extends SimpleRowCountHandler implements
         return new TableRowCountQuery(getTable(), column, getFilter(), query, EXACT);
     }
 
+    @Override
+    protected boolean supportsExactRowCount() {
+        return getDialect().supportsRowCount(getTable(), getColumn(), getFilter(), EXACT);
+    }
+
     @Override
     public Table getTable() {
         return table;
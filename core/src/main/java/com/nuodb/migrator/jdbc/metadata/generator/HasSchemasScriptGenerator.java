@@ -31,6 +31,7 @@ import com.nuodb.migrator.jdbc.dialect.Dialect;
 import com.nuodb.migrator.jdbc.metadata.HasSchemas;
 import com.nuodb.migrator.jdbc.metadata.Identifier;
 import com.nuodb.migrator.jdbc.metadata.Schema;
+import com.nuodb.migrator.jdbc.metadata.Table;
 import org.apache.commons.lang3.ObjectUtils;
 
 import java.util.Collection;
@@ -89,34 +90,69 @@ public class HasSchemasScriptGenerator extends HasTablesScriptGenerator<HasSchem
     protected Collection<String> getScripts(Map<Schema, Collection<String>> schemaScripts,
                                             ScriptGeneratorManager context) {
         Collection<String> scripts = newArrayList();
+        boolean mapSchema = schemaScripts.size() == 1;
+        for (Map.Entry<Schema, Collection<String>> schemaScript : schemaScripts.entrySet()) {
+            scripts.add(getUseSchema(schemaScript.getKey(), mapSchema, context));
+            scripts.addAll(schemaScript.getValue());
+        }
+        return scripts;
+    }
+
+    /**
+     * Returns statement switching to the schema of the table, the same as the one preceding the table when scripts of
+     * its whole database are generated.
+     *
+     * @param table   to switch to the schema of.
+     * @param context script generator manager.
+     * @return use schema or use catalog statement.
+     */
+    public String getUseSchema(Table table, ScriptGeneratorManager context) {
+        int schemas = 0;
+        for (Schema schema : getSchemas(table.getDatabase(), context)) {
+            if (!schema.getTables().isEmpty() || !schema.getSequences().isEmpty()) {
+                schemas++;
+            }
+        }
+        return getUseSchema(table.getSchema(), schemas == 1, context);
+    }
+
+    /**
+     * Returns statement switching to the schema.
+     *
+     * @param schema    to switch to.
+     * @param mapSchema whether the schema is mapped to the target schema or catalog, which is the case if scripts are
+     *                  generated for a single schema.
+     * @param context   script generator manager.
+     * @return use schema or use catalog statement.
+     */
+    protected String getUseSchema(Schema schema, boolean mapSchema, ScriptGeneratorManager context) {
         Dialect dialect = context.getTargetDialect();
-        if (schemaScripts.size() == 1) {
-            Map.Entry<Schema, Collection<String>> schemaScript = schemaScripts.entrySet().iterator().next();
-            String useSpace = null;
+        String useSchema = null;
+        if (mapSchema) {
             if (context.getTargetSchema() != null) {
-                useSpace = dialect.getUseSchema(context.getTargetSchema(), true);
+                useSchema = dialect.getUseSchema(context.getTargetSchema(), true);
             } else if (context.getTargetCatalog() != null) {
-                useSpace = dialect.getUseCatalog(context.getTargetCatalog(), true);
-            }
-            if (useSpace == null) {
-                Schema schema = schemaScript.getKey();
-                useSpace = schema.getIdentifier() != null ?
-                        dialect.getUseSchema(context.getName(schema)) :
-                        dialect.getUseCatalog(context.getName(schema.getCatalog()));
-            }
-            scripts.add(useSpace);
-            scripts.addAll(schemaScript.getValue());
-        } else {
-            for (Map.Entry<Schema, Collection<String>> schemaScript : schemaScripts.entrySet()) {
-                Schema schema = schemaScript.getKey();
-                String useSpace = schema.getIdentifier() != null ?
-                        dialect.getUseSchema(context.getName(schema)) :
-                        dialect.getUseCatalog(context.getName(schema.getCatalog()));
-                scripts.add(useSpace);
-                scripts.addAll(schemaScript.getValue());
+                useSchema = dialect.getUseCatalog(context.getTargetCatalog(), true);
             }
         }
-        return scripts;
+        if (useSchema == null) {
+            useSchema = schema.getIdentifier() != null ?
+                    dialect.getUseSchema(context.getName(schema)) :
+                    dialect.getUseCatalog(context.getName(schema.getCatalog()));
+        }
+        return useSchema;
+    }
+
+    /**
+     * Tells whether scripts of the table are generated along with its database, which is the case if the table is in
+     * the source catalog and schema and is of the generated table types.
+     *
+     * @param table   to check.
+     * @param context script generator manager.
+     * @return true if scripts of the table are generated.
+     */
+    public boolean isGenerated(Table table, ScriptGeneratorManager context) {
+        return addSchemaScripts(table.getSchema(), context) && addTableScripts(table, context);
     }
 
     protected Collection<Schema> getSchemas(HasSchemas hasSchemas, ScriptGeneratorManager context) {
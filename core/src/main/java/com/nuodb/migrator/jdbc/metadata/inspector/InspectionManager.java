@@ -47,6 +47,9 @@ import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Reads database meta data and creates meta model from it. Root meta model object is {@link Database} containing set of
  * catalogs, each catalog has a collection of schemas and schema is a wrapper of collection of a tables.
+ * <p/>
+ * Indexes, primary keys, foreign keys and columns of many tables are read by dialect specific bulk inspectors with a
+ * query per schema instead of a query per table, see {@link TableInspectorBase} and {@link TablesInspectionScope}.
  *
  * @author Sergey Bushik
  */
@@ -72,6 +75,7 @@ public class InspectionManager {
         addInspector(tableInspector);
 
         InspectorResolver indexIndex = new InspectorResolver(INDEX, new SimpleIndexInspector());
+        indexIndex.register(MSSQL_SERVER, new MSSQLServerIndexInspector());
         indexIndex.register(MYSQL, new MySQLIndexInspector());
         indexIndex.register(NUODB, new NuoDBIndexInspector());
         indexIndex.register(ORACLE, new OracleIndexInspector());
@@ -80,12 +84,19 @@ public class InspectionManager {
         addInspector(indexIndex);
 
         InspectorResolver primaryKeyInspector = new InspectorResolver(PRIMARY_KEY, new SimplePrimaryKeyInspector());
+        primaryKeyInspector.register(MSSQL_SERVER, new MSSQLServerPrimaryKeyInspector());
+        primaryKeyInspector.register(MYSQL, new MySQLPrimaryKeyInspector());
         primaryKeyInspector.register(NUODB, new NuoDBPrimaryKeyInspector());
         primaryKeyInspector.register(ORACLE, new OraclePrimaryKeyInspector());
+        primaryKeyInspector.register(POSTGRE_SQL_83, new PostgreSQLPrimaryKeyInspector());
         addInspector(primaryKeyInspector);
 
         InspectorResolver foreignKeyInspector = new InspectorResolver(FOREIGN_KEY, new SimpleForeignKeyInspector());
+        foreignKeyInspector.register(MSSQL_SERVER, new MSSQLServerForeignKeyInspector());
+        foreignKeyInspector.register(MYSQL, new MySQLForeignKeyInspector());
         foreignKeyInspector.register(NUODB, new NuoDBForeignKeyInspector());
+        foreignKeyInspector.register(ORACLE, new OracleForeignKeyInspector());
+        foreignKeyInspector.register(POSTGRE_SQL_83, new PostgreSQLForeignKeyInspector());
         addInspector(foreignKeyInspector);
 
         InspectorResolver columnInspector = new InspectorResolver(COLUMN, new SimpleColumnInspector());
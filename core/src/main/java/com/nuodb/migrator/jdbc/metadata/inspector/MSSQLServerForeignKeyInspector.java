@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Reads foreign keys of bulk inspection scope from sys.foreign_keys in a single query, single tables are inspected
+ * with database meta data. Referential actions are converted to {@link java.sql.DatabaseMetaData} codes.
+ *
+ * @author Sergey Bushik
+ */
+public class MSSQLServerForeignKeyInspector extends SimpleForeignKeyInspector {
+
+    private static final String REFERENTIAL_ACTION =
+            "case %s when 1 then 0 when 2 then 2 when 3 then 4 else 3 end as %s";
+
+    @Override
+    protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
+        if (!(tableInspectionScope instanceof TablesInspectionScope)) {
+            return super.createQuery(inspectionContext, tableInspectionScope);
+        }
+        Collection<Object> parameters = newArrayList();
+        SelectQuery query = new SelectQuery();
+        if (isEmpty(tableInspectionScope.getCatalog())) {
+            query.columns("db_name() as PKTABLE_CAT", "db_name() as FKTABLE_CAT");
+        } else {
+            query.columns("? as PKTABLE_CAT", "? as FKTABLE_CAT");
+            parameters.add(tableInspectionScope.getCatalog());
+            parameters.add(tableInspectionScope.getCatalog());
+        }
+        query.columns("ps.name as PKTABLE_SCHEM", "pt.name as PKTABLE_NAME", "pc.name as PKCOLUMN_NAME",
+                "fs.name as FKTABLE_SCHEM", "ft.name as FKTABLE_NAME", "fc.name as FKCOLUMN_NAME",
+                "fkc.constraint_column_id as KEY_SEQ",
+                format(REFERENTIAL_ACTION, "fk.update_referential_action", "UPDATE_RULE"),
+                format(REFERENTIAL_ACTION, "fk.delete_referential_action", "DELETE_RULE"),
+                "fk.name as FK_NAME", "7 as DEFERRABILITY");
+        String catalog = isEmpty(tableInspectionScope.getCatalog()) ? EMPTY : tableInspectionScope.getCatalog() + ".";
+        query.from(catalog + "sys.foreign_keys fk");
+        query.innerJoin(catalog + "sys.foreign_key_columns fkc", "fkc.constraint_object_id=fk.object_id");
+        query.innerJoin(catalog + "sys.tables ft", "ft.object_id=fk.parent_object_id");
+        query.innerJoin(catalog + "sys.schemas fs", "fs.schema_id=ft.schema_id");
+        query.innerJoin(catalog + "sys.columns fc",
+                "fc.object_id=fkc.parent_object_id and fc.column_id=fkc.parent_column_id");
+        query.innerJoin(catalog + "sys.tables pt", "pt.object_id=fk.referenced_object_id");
+        query.innerJoin(catalog + "sys.schemas ps", "ps.schema_id=pt.schema_id");
+        query.innerJoin(catalog + "sys.columns pc",
+                "pc.object_id=fkc.referenced_object_id and pc.column_id=fkc.referenced_column_id");
+        if (!isEmpty(tableInspectionScope.getSchema())) {
+            query.where("fs.name=?");
+            parameters.add(tableInspectionScope.getSchema());
+        }
+        query.where(createTableFilter("ft.name", tableInspectionScope, parameters));
+        query.orderBy("FKTABLE_NAME", "FK_NAME", "KEY_SEQ");
+        return new ParameterizedQuery(query, parameters);
+    }
+
+    @Override
+    protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
+        return super.supportsScope(tableInspectionScope) || tableInspectionScope instanceof TablesInspectionScope;
+    }
+}
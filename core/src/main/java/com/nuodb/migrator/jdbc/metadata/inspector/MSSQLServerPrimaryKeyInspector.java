@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Reads primary keys of bulk inspection scope from sys.indexes in a single query, single tables are inspected with
+ * database meta data.
+ *
+ * @author Sergey Bushik
+ */
+public class MSSQLServerPrimaryKeyInspector extends SimplePrimaryKeyInspector {
+
+    @Override
+    protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
+        if (!(tableInspectionScope instanceof TablesInspectionScope)) {
+            return super.createQuery(inspectionContext, tableInspectionScope);
+        }
+        Collection<Object> parameters = newArrayList();
+        SelectQuery query = new SelectQuery();
+        if (isEmpty(tableInspectionScope.getCatalog())) {
+            query.column("db_name() as TABLE_CAT");
+        } else {
+            query.column("? as TABLE_CAT");
+            parameters.add(tableInspectionScope.getCatalog());
+        }
+        query.columns("s.name as TABLE_SCHEM", "t.name as TABLE_NAME", "c.name as COLUMN_NAME",
+                "ic.key_ordinal as KEY_SEQ", "i.name as PK_NAME");
+        String catalog = isEmpty(tableInspectionScope.getCatalog()) ? EMPTY : tableInspectionScope.getCatalog() + ".";
+        query.from(catalog + "sys.indexes i");
+        query.innerJoin(catalog + "sys.tables t", "t.object_id=i.object_id");
+        query.innerJoin(catalog + "sys.schemas s", "s.schema_id=t.schema_id");
+        query.innerJoin(catalog + "sys.index_columns ic", "ic.object_id=i.object_id and ic.index_id=i.index_id");
+        query.innerJoin(catalog + "sys.columns c", "c.object_id=ic.object_id and c.column_id=ic.column_id");
+        query.where("i.is_primary_key=1");
+        if (!isEmpty(tableInspectionScope.getSchema())) {
+            query.where("s.name=?");
+            parameters.add(tableInspectionScope.getSchema());
+        }
+        query.where(createTableFilter("t.name", tableInspectionScope, parameters));
+        query.orderBy("TABLE_NAME", "KEY_SEQ");
+        return new ParameterizedQuery(query, parameters);
+    }
+
+    @Override
+    protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
+        return super.supportsScope(tableInspectionScope) || tableInspectionScope instanceof TablesInspectionScope;
+    }
+}
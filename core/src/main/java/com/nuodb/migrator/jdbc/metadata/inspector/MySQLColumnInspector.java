@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.jdbc.metadata.inspector;
 
+import com.google.common.base.Predicate;
 import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.query.StatementTemplate;
@@ -51,10 +52,12 @@ import static org.apache.commons.lang3.StringUtils.containsAny;
 public class MySQLColumnInspector extends SimpleColumnInspector {
 
     @Override
-    protected void processResultSet(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope,
+    protected void processResultSet(InspectionContext inspectionContext,
+                                    final TableInspectionScope tableInspectionScope,
                                     ResultSet resultSet) throws SQLException {
         super.processResultSet(inspectionContext, tableInspectionScope, resultSet);
         final InspectionResults inspectionResults = inspectionContext.getInspectionResults();
+        final Predicate<String> tableFilter = createTableFilter(tableInspectionScope);
         final StringBuilder query = new StringBuilder(
                 "SELECT TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME, COLUMN_TYPE FROM INFORMATION_SCHEMA.COLUMNS");
         final Collection<String> filters = newArrayList();
@@ -92,8 +95,10 @@ public class MySQLColumnInspector extends SimpleColumnInspector {
                             statement.setString(index++, parameter);
                         }
                         ResultSet columns = statement.executeQuery();
-
                         while (columns.next()) {
+                            if (!tableFilter.apply(columns.getString("TABLE_NAME"))) {
+                                continue;
+                            }
                             Table table = addTable(inspectionResults, columns.getString("TABLE_SCHEMA"), null,
                                     columns.getString("TABLE_NAME"));
                             Column column = table.addColumn(columns.getString("COLUMN_NAME"));
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Reads foreign keys of bulk inspection scope from INFORMATION_SCHEMA.KEY_COLUMN_USAGE joined with
+ * INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS in a single query, single tables are inspected with database meta data.
+ * Update and delete rules are converted to {@link java.sql.DatabaseMetaData} referential action codes.
+ *
+ * @author Sergey Bushik
+ */
+public class MySQLForeignKeyInspector extends SimpleForeignKeyInspector {
+
+    private static final String REFERENTIAL_ACTION =
+            "CASE %s WHEN 'CASCADE' THEN 0 WHEN 'RESTRICT' THEN 1 WHEN 'SET NULL' THEN 2 " +
+            "WHEN 'SET DEFAULT' THEN 4 ELSE 3 END AS %s";
+
+    @Override
+    protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
+        if (!(tableInspectionScope instanceof TablesInspectionScope)) {
+            return super.createQuery(inspectionContext, tableInspectionScope);
+        }
+        SelectQuery query = new SelectQuery();
+        Collection<Object> parameters = newArrayList();
+        query.columns("K.REFERENCED_TABLE_SCHEMA AS PKTABLE_CAT", "NULL AS PKTABLE_SCHEM",
+                "K.REFERENCED_TABLE_NAME AS PKTABLE_NAME", "K.REFERENCED_COLUMN_NAME AS PKCOLUMN_NAME",
+                "K.TABLE_SCHEMA AS FKTABLE_CAT", "NULL AS FKTABLE_SCHEM", "K.TABLE_NAME AS FKTABLE_NAME",
+                "K.COLUMN_NAME AS FKCOLUMN_NAME", "K.ORDINAL_POSITION AS KEY_SEQ",
+                format(REFERENTIAL_ACTION, "R.UPDATE_RULE", "UPDATE_RULE"),
+                format(REFERENTIAL_ACTION, "R.DELETE_RULE", "DELETE_RULE"),
+                "K.CONSTRAINT_NAME AS FK_NAME", "R.UNIQUE_CONSTRAINT_NAME AS PK_NAME", "7 AS DEFERRABILITY");
+        query.from("INFORMATION_SCHEMA.KEY_COLUMN_USAGE K");
+        query.innerJoin("INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS R",
+                "K.CONSTRAINT_SCHEMA=R.CONSTRAINT_SCHEMA AND K.CONSTRAINT_NAME=R.CONSTRAINT_NAME AND " +
+                "K.TABLE_NAME=R.TABLE_NAME");
+        String catalog = tableInspectionScope.getCatalog();
+        if (!isEmpty(catalog)) {
+            query.where("K.TABLE_SCHEMA=?");
+            parameters.add(catalog);
+        } else {
+            query.where("K.TABLE_SCHEMA=DATABASE()");
+        }
+        query.where(createTableFilter("K.TABLE_NAME", tableInspectionScope, parameters));
+        query.orderBy("K.TABLE_NAME", "K.CONSTRAINT_NAME", "K.ORDINAL_POSITION");
+        return new ParameterizedQuery(query, parameters);
+    }
+
+    @Override
+    protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
+        return super.supportsScope(tableInspectionScope) || tableInspectionScope instanceof TablesInspectionScope;
+    }
+}
@@ -28,10 +28,17 @@
 package com.nuodb.migrator.jdbc.metadata.inspector;
 
 import com.nuodb.migrator.jdbc.metadata.Index;
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
 import com.nuodb.migrator.utils.StringUtils;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 /**
  * @author Sergey Bushik
@@ -40,6 +47,34 @@ public class MySQLIndexInspector extends SimpleIndexInspector {
 
     private static final String PRIMARY = "PRIMARY";
 
+    /**
+     * Reads indexes of bulk inspection scope from INFORMATION_SCHEMA.STATISTICS in a single query, single tables are
+     * inspected with database meta data.
+     */
+    @Override
+    protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
+        if (!(tableInspectionScope instanceof TablesInspectionScope)) {
+            return super.createQuery(inspectionContext, tableInspectionScope);
+        }
+        SelectQuery query = new SelectQuery();
+        Collection<Object> parameters = newArrayList();
+        query.columns("TABLE_SCHEMA AS TABLE_CAT", "NULL AS TABLE_SCHEM", "TABLE_NAME", "NON_UNIQUE",
+                "NULL AS INDEX_QUALIFIER", "INDEX_NAME", "CASE INDEX_TYPE WHEN 'HASH' THEN 2 ELSE 3 END AS TYPE",
+                "SEQ_IN_INDEX AS ORDINAL_POSITION", "COLUMN_NAME", "COLLATION AS ASC_OR_DESC",
+                "NULL AS FILTER_CONDITION");
+        query.from("INFORMATION_SCHEMA.STATISTICS");
+        String catalog = tableInspectionScope.getCatalog();
+        if (!isEmpty(catalog)) {
+            query.where("TABLE_SCHEMA=?");
+            parameters.add(catalog);
+        } else {
+            query.where("TABLE_SCHEMA=DATABASE()");
+        }
+        query.where(createTableFilter("TABLE_NAME", tableInspectionScope, parameters));
+        query.orderBy("TABLE_NAME", "NON_UNIQUE", "INDEX_NAME", "SEQ_IN_INDEX");
+        return new ParameterizedQuery(query, parameters);
+    }
+
     @Override
     protected void processIndex(InspectionContext inspectionContext, ResultSet indexes,
                                 Index index) throws SQLException {
@@ -48,4 +83,9 @@ public class MySQLIndexInspector extends SimpleIndexInspector {
             index.setPrimary(true);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
+        return super.supportsScope(tableInspectionScope) || tableInspectionScope instanceof TablesInspectionScope;
+    }
+}
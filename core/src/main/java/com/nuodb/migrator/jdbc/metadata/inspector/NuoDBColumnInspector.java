@@ -46,6 +46,7 @@ import static com.nuodb.migrator.jdbc.metadata.MetaDataType.COLUMN;
 import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addTable;
 import static com.nuodb.migrator.jdbc.metadata.inspector.NuoDBColumn.getJdbcType;
 import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static java.lang.String.format;
 
 /**
  * @author Sergey Bushik
@@ -54,7 +55,7 @@ public class NuoDBColumnInspector extends TableInspectorBase<Table, TableInspect
 
     private static final String QUERY =
             "SELECT * FROM SYSTEM.FIELDS AS F INNER JOIN SYSTEM.DATATYPES AS D ON F.DATATYPE = D.ID\n" +
-                    "WHERE F.SCHEMA=? AND F.TABLENAME=? ORDER BY F.FIELDPOSITION ASC";
+                    "WHERE F.SCHEMA=? AND %s ORDER BY F.FIELDPOSITION ASC";
 
     public NuoDBColumnInspector() {
         super(COLUMN, TableInspectionScope.class);
@@ -64,8 +65,8 @@ public class NuoDBColumnInspector extends TableInspectorBase<Table, TableInspect
     protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
         Collection<Object> parameters = newArrayList();
         parameters.add(tableInspectionScope.getSchema());
-        parameters.add(tableInspectionScope.getTable());
-        return new ParameterizedQuery(newQuery(QUERY), parameters);
+        String table = createTableFilter("F.TABLENAME", tableInspectionScope, parameters);
+        return new ParameterizedQuery(newQuery(format(QUERY, table)), parameters);
     }
 
     @Override
@@ -107,6 +108,7 @@ public class NuoDBColumnInspector extends TableInspectorBase<Table, TableInspect
 
     @Override
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
-        return tableInspectionScope.getSchema() != null && tableInspectionScope.getTable() != null;
+        return tableInspectionScope.getSchema() != null && (tableInspectionScope.getTable() != null ||
+                tableInspectionScope instanceof TablesInspectionScope);
     }
 }
@@ -41,6 +41,7 @@ import java.util.Collection;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addTable;
 import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static java.lang.String.format;
 
 /**
  * @author Sergey Bushik
@@ -62,15 +63,15 @@ public class NuoDBForeignKeyInspector extends ForeignKeyInspectorBase {
             "INNER JOIN SYSTEM.FIELDS FOREIGNFIELD ON FOREIGNTABLE.SCHEMA=FOREIGNFIELD.SCHEMA\n" +
             "AND FOREIGNTABLE.TABLENAME=FOREIGNFIELD.TABLENAME\n" +
             "AND FOREIGNKEYS.FOREIGNFIELDID=FOREIGNFIELD.FIELDID\n" +
-            "WHERE FOREIGNTABLE.SCHEMA=? AND FOREIGNTABLE.TABLENAME=? ORDER BY PKTABLE_SCHEM, PKTABLE_NAME, " +
-            "KEY_SEQ ASC";
+            "WHERE FOREIGNTABLE.SCHEMA=? AND %s ORDER BY FKTABLE_SCHEM, FKTABLE_NAME, PKTABLE_SCHEM, " +
+            "PKTABLE_NAME, KEY_SEQ ASC";
 
     @Override
     protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
         Collection<Object> parameters = newArrayList();
         parameters.add(tableInspectionScope.getSchema());
-        parameters.add(tableInspectionScope.getTable());
-        return new ParameterizedQuery(newQuery(QUERY), parameters);
+        String table = createTableFilter("FOREIGNTABLE.TABLENAME", tableInspectionScope, parameters);
+        return new ParameterizedQuery(newQuery(format(QUERY, table)), parameters);
     }
 
     @Override
@@ -104,6 +105,7 @@ public class NuoDBForeignKeyInspector extends ForeignKeyInspectorBase {
 
     @Override
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
-        return tableInspectionScope.getSchema() != null && tableInspectionScope.getTable() != null;
+        return tableInspectionScope.getSchema() != null && (tableInspectionScope.getTable() != null ||
+                tableInspectionScope instanceof TablesInspectionScope);
     }
 }
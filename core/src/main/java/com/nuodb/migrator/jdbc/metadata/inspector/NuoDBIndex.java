@@ -34,6 +34,7 @@ import java.util.Collection;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.primitives.Ints.asList;
+import static com.nuodb.migrator.jdbc.metadata.inspector.TableInspectorBase.createTableFilter;
 import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
 import static com.nuodb.migrator.jdbc.query.QueryUtils.eqOrIn;
 import static com.nuodb.migrator.jdbc.query.QueryUtils.where;
@@ -53,20 +54,21 @@ public class NuoDBIndex {
     public static final int UNIQUE = 1;
     public static final int KEY = 2;
 
-    public static Query createQuery(TableInspectionScope tableInspectionScope, int... indexTypes) {
-        return createQuery(tableInspectionScope.getSchema(), tableInspectionScope.getTable(), indexTypes);
+    public static Query createQuery(String schema, String table, int... indexTypes) {
+        return createQuery(new TableInspectionScope(null, schema, isEmpty(table) ? null : table), indexTypes);
     }
 
-    public static Query createQuery(String schema, String table, int... indexTypes) {
+    public static Query createQuery(TableInspectionScope tableInspectionScope, int... indexTypes) {
         Collection<Object> parameters = newArrayList();
         Collection<String> filters = newArrayList();
+        String schema = tableInspectionScope.getSchema();
         if (!isEmpty(schema)) {
             parameters.add(schema);
             filters.add("I.SCHEMA=?");
         }
-        if (!isEmpty(table)) {
-            parameters.add(table);
-            filters.add("I.TABLENAME=?");
+        String table = createTableFilter("I.TABLENAME", tableInspectionScope, parameters);
+        if (table != null) {
+            filters.add(table);
         }
         if (indexTypes != null && indexTypes.length > 0) {
             filters.add(eqOrIn("I.INDEXTYPE", asList(indexTypes)));
@@ -74,6 +74,7 @@ public class NuoDBIndexInspector extends TableInspectorBase<Table, TableInspecti
 
     @Override
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
-        return tableInspectionScope.getSchema() != null && tableInspectionScope.getTable() != null;
+        return tableInspectionScope.getSchema() != null && (tableInspectionScope.getTable() != null ||
+                tableInspectionScope instanceof TablesInspectionScope);
     }
 }
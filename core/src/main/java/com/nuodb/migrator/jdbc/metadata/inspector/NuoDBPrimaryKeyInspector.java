@@ -73,6 +73,7 @@ public class NuoDBPrimaryKeyInspector extends TableInspectorBase<Table, TableIns
 
     @Override
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
-        return tableInspectionScope.getSchema() != null && tableInspectionScope.getTable() != null;
+        return tableInspectionScope.getSchema() != null && (tableInspectionScope.getTable() != null ||
+                tableInspectionScope instanceof TablesInspectionScope);
     }
 }
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.utils.StringUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.containsAny;
+
+/**
+ * Reads foreign keys of bulk inspection scope from ALL_CONSTRAINTS in a single query, single tables are inspected
+ * with database meta data.
+ *
+ * @author Sergey Bushik
+ */
+public class OracleForeignKeyInspector extends SimpleForeignKeyInspector {
+
+    @Override
+    protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
+        if (!(tableInspectionScope instanceof TablesInspectionScope)) {
+            return super.createQuery(inspectionContext, tableInspectionScope);
+        }
+        SelectQuery query = new SelectQuery();
+        Collection<Object> parameters = newArrayList();
+        query.columns("NULL AS PKTABLE_CAT", "P.OWNER AS PKTABLE_SCHEM", "P.TABLE_NAME AS PKTABLE_NAME",
+                "PC.COLUMN_NAME AS PKCOLUMN_NAME", "NULL AS FKTABLE_CAT", "F.OWNER AS FKTABLE_SCHEM",
+                "F.TABLE_NAME AS FKTABLE_NAME", "FC.COLUMN_NAME AS FKCOLUMN_NAME", "FC.POSITION AS KEY_SEQ",
+                "3 AS UPDATE_RULE", "DECODE(F.DELETE_RULE, 'CASCADE', 0, 'SET NULL', 2, 1) AS DELETE_RULE",
+                "F.CONSTRAINT_NAME AS FK_NAME", "P.CONSTRAINT_NAME AS PK_NAME",
+                "DECODE(F.DEFERRABLE, 'DEFERRABLE', DECODE(F.DEFERRED, 'DEFERRED', 5, 6), 7) AS DEFERRABILITY");
+        query.from("ALL_CONSTRAINTS F");
+        query.innerJoin("ALL_CONSTRAINTS P", "P.OWNER = F.R_OWNER AND P.CONSTRAINT_NAME = F.R_CONSTRAINT_NAME");
+        query.innerJoin("ALL_CONS_COLUMNS FC",
+                "FC.OWNER = F.OWNER AND FC.CONSTRAINT_NAME = F.CONSTRAINT_NAME AND FC.TABLE_NAME = F.TABLE_NAME");
+        query.innerJoin("ALL_CONS_COLUMNS PC",
+                "PC.OWNER = P.OWNER AND PC.CONSTRAINT_NAME = P.CONSTRAINT_NAME AND PC.TABLE_NAME = P.TABLE_NAME " +
+                "AND PC.POSITION = FC.POSITION");
+        query.where("F.CONSTRAINT_TYPE = 'R'");
+        String schema = tableInspectionScope.getSchema();
+        if (!isEmpty(schema)) {
+            query.where(containsAny(schema, "%") ? "F.OWNER LIKE ? ESCAPE '/'" : "F.OWNER=?");
+            parameters.add(schema);
+        }
+        query.where(createTableFilter("F.TABLE_NAME", tableInspectionScope, parameters));
+        query.orderBy("FKTABLE_NAME", "FK_NAME", "KEY_SEQ");
+        return new ParameterizedQuery(query, parameters);
+    }
+
+    @Override
+    protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
+        return super.supportsScope(tableInspectionScope) || tableInspectionScope instanceof TablesInspectionScope;
+    }
+}
@@ -43,6 +43,11 @@ import static org.apache.commons.lang3.StringUtils.containsAny;
  */
 public class OracleIndexInspector extends SimpleIndexInspector {
 
+    @Override
+    protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
+        return super.supportsScope(tableInspectionScope) || tableInspectionScope instanceof TablesInspectionScope;
+    }
+
     @Override
     protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
         SelectQuery statisticsIndex = new SelectQuery();
@@ -57,10 +62,9 @@ public class OracleIndexInspector extends SimpleIndexInspector {
             statisticsIndex.where(containsAny(schema, "%") ? "OWNER LIKE ? ESCAPE '/'" : "OWNER=?");
             parameters.add(schema);
         }
-        String table = tableInspectionScope.getTable();
-        if (!isEmpty(table)) {
-            statisticsIndex.where("TABLE_NAME=?");
-            parameters.add(table);
+        String table = createTableFilter("TABLE_NAME", tableInspectionScope, parameters);
+        if (table != null) {
+            statisticsIndex.where(table);
         }
         SelectQuery clusteredIndex = new SelectQuery();
         clusteredIndex.columns("NULL AS TABLE_CAT", "I.OWNER AS TABLE_SCHEM", "I.TABLE_NAME",
@@ -75,11 +79,11 @@ public class OracleIndexInspector extends SimpleIndexInspector {
             clusteredIndex.where(containsAny(schema, "%") ? "I.OWNER LIKE ? ESCAPE '/'" : "I.OWNER=?");
             parameters.add(schema);
         }
-        if (!isEmpty(table)) {
-            clusteredIndex.where("I.TABLE_NAME=?");
-            parameters.add(table);
+        table = createTableFilter("I.TABLE_NAME", tableInspectionScope, parameters);
+        if (table != null) {
+            clusteredIndex.where(table);
         }
-        clusteredIndex.orderBy("NON_UNIQUE", "TYPE", "INDEX_NAME", "ORDINAL_POSITION");
+        clusteredIndex.orderBy("TABLE_NAME", "NON_UNIQUE", "TYPE", "INDEX_NAME", "ORDINAL_POSITION");
         return new ParameterizedQuery(union(statisticsIndex, clusteredIndex), parameters);
     }
 }
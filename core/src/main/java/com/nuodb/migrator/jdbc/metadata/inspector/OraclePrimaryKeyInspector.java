@@ -42,6 +42,11 @@ import static org.apache.commons.lang3.StringUtils.containsAny;
  */
 public class OraclePrimaryKeyInspector extends SimplePrimaryKeyInspector {
 
+    @Override
+    protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
+        return super.supportsScope(tableInspectionScope) || tableInspectionScope instanceof TablesInspectionScope;
+    }
+
     @Override
     protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
         SelectQuery query = new SelectQuery();
@@ -57,10 +62,9 @@ public class OraclePrimaryKeyInspector extends SimplePrimaryKeyInspector {
             query.where(containsAny(schema, "%") ? "K.OWNER LIKE ? ESCAPE '/'" : "K.OWNER=?");
             parameters.add(schema);
         }
-        String table = tableInspectionScope.getTable();
-        if (!isEmpty(table)) {
-            query.where("K.TABLE_NAME=?");
-            parameters.add(table);
+        String table = createTableFilter("K.TABLE_NAME", tableInspectionScope, parameters);
+        if (table != null) {
+            query.where(table);
         }
         return new ParameterizedQuery(query, parameters);
     }
@@ -44,6 +44,11 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  */
 public class PostgreSQL83IndexInspector extends PostgreSQLIndexInspector {
 
+    @Override
+    protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
+        return super.supportsScope(tableInspectionScope) || tableInspectionScope instanceof TablesInspectionScope;
+    }
+
     @Override
     protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
         SelectQuery query = new SelectQuery();
@@ -71,12 +76,11 @@ public class PostgreSQL83IndexInspector extends PostgreSQLIndexInspector {
             query.where("N.NSPNAME=?");
             parameters.add(schema);
         }
-        String table = tableInspectionScope.getTable();
-        if (!isEmpty(table)) {
-            query.where("CT.RELNAME=?");
-            parameters.add(table);
+        String table = createTableFilter("CT.RELNAME", tableInspectionScope, parameters);
+        if (table != null) {
+            query.where(table);
         }
-        query.orderBy("NON_UNIQUE", "TYPE", "INDEX_NAME", "ORDINAL_POSITION");
+        query.orderBy("TABLE_NAME", "NON_UNIQUE", "TYPE", "INDEX_NAME", "ORDINAL_POSITION");
         return new ParameterizedQuery(query, parameters);
     }
 
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Reads foreign keys of bulk inspection scope from PG_CATALOG.PG_CONSTRAINT in a single query, single tables are
+ * inspected with database meta data. Update and delete rules as well as deferrability are converted to
+ * {@link java.sql.DatabaseMetaData} codes.
+ *
+ * @author Sergey Bushik
+ */
+public class PostgreSQLForeignKeyInspector extends SimpleForeignKeyInspector {
+
+    private static final String REFERENTIAL_ACTION =
+            "CASE %s WHEN 'c' THEN 0 WHEN 'r' THEN 1 WHEN 'n' THEN 2 WHEN 'd' THEN 4 ELSE 3 END AS %s";
+
+    @Override
+    protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
+        if (!(tableInspectionScope instanceof TablesInspectionScope)) {
+            return super.createQuery(inspectionContext, tableInspectionScope);
+        }
+        SelectQuery query = new SelectQuery();
+        Collection<Object> parameters = newArrayList();
+        query.columns("NULL AS PKTABLE_CAT", "PKN.NSPNAME AS PKTABLE_SCHEM", "PKC.RELNAME AS PKTABLE_NAME",
+                "PKA.ATTNAME AS PKCOLUMN_NAME", "NULL AS FKTABLE_CAT", "FKN.NSPNAME AS FKTABLE_SCHEM",
+                "FKC.RELNAME AS FKTABLE_NAME", "FKA.ATTNAME AS FKCOLUMN_NAME", "(CON.KEYS).N AS KEY_SEQ",
+                format(REFERENTIAL_ACTION, "CON.CONFUPDTYPE", "UPDATE_RULE"),
+                format(REFERENTIAL_ACTION, "CON.CONFDELTYPE", "DELETE_RULE"),
+                "CON.CONNAME AS FK_NAME", "NULL AS PK_NAME",
+                "CASE WHEN CON.CONDEFERRABLE AND CON.CONDEFERRED THEN 5 " +
+                "WHEN CON.CONDEFERRABLE THEN 6 ELSE 7 END AS DEFERRABILITY");
+        query.from("(SELECT C.CONNAME, C.CONRELID, C.CONFRELID, C.CONFKEY, C.CONFUPDTYPE, C.CONFDELTYPE, " +
+                "C.CONDEFERRABLE, C.CONDEFERRED, INFORMATION_SCHEMA._PG_EXPANDARRAY(C.CONKEY) AS KEYS " +
+                "FROM PG_CATALOG.PG_CONSTRAINT C WHERE C.CONTYPE = 'f') CON");
+        query.innerJoin("PG_CATALOG.PG_CLASS FKC", "FKC.OID = CON.CONRELID");
+        query.innerJoin("PG_CATALOG.PG_NAMESPACE FKN", "FKN.OID = FKC.RELNAMESPACE");
+        query.innerJoin("PG_CATALOG.PG_ATTRIBUTE FKA", "FKA.ATTRELID = CON.CONRELID AND FKA.ATTNUM = (CON.KEYS).X");
+        query.innerJoin("PG_CATALOG.PG_CLASS PKC", "PKC.OID = CON.CONFRELID");
+        query.innerJoin("PG_CATALOG.PG_NAMESPACE PKN", "PKN.OID = PKC.RELNAMESPACE");
+        query.innerJoin("PG_CATALOG.PG_ATTRIBUTE PKA",
+                "PKA.ATTRELID = CON.CONFRELID AND PKA.ATTNUM = CON.CONFKEY[(CON.KEYS).N]");
+        String schema = tableInspectionScope.getSchema();
+        if (!isEmpty(schema)) {
+            query.where("FKN.NSPNAME=?");
+            parameters.add(schema);
+        }
+        query.where(createTableFilter("FKC.RELNAME", tableInspectionScope, parameters));
+        query.orderBy("FKTABLE_NAME", "FK_NAME", "KEY_SEQ");
+        return new ParameterizedQuery(query, parameters);
+    }
+
+    @Override
+    protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
+        return super.supportsScope(tableInspectionScope) || tableInspectionScope instanceof TablesInspectionScope;
+    }
+}
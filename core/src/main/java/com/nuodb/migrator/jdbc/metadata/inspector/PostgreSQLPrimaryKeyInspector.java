@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Reads primary keys of bulk inspection scope from PG_CATALOG.PG_INDEX in a single query, single tables are inspected
+ * with database meta data.
+ *
+ * @author Sergey Bushik
+ */
+public class PostgreSQLPrimaryKeyInspector extends SimplePrimaryKeyInspector {
+
+    @Override
+    protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
+        if (!(tableInspectionScope instanceof TablesInspectionScope)) {
+            return super.createQuery(inspectionContext, tableInspectionScope);
+        }
+        SelectQuery query = new SelectQuery();
+        Collection<Object> parameters = newArrayList();
+        query.columns("NULL AS TABLE_CAT", "N.NSPNAME AS TABLE_SCHEM", "CT.RELNAME AS TABLE_NAME",
+                "A.ATTNAME AS COLUMN_NAME", "(I.KEYS).N AS KEY_SEQ", "CI.RELNAME AS PK_NAME");
+        query.from("PG_CATALOG.PG_CLASS CT");
+        query.innerJoin("PG_CATALOG.PG_NAMESPACE N", "CT.RELNAMESPACE = N.OID");
+        query.innerJoin("(SELECT I.INDEXRELID, I.INDRELID, I.INDISPRIMARY, " +
+                "INFORMATION_SCHEMA._PG_EXPANDARRAY(I.INDKEY) AS KEYS FROM PG_CATALOG.PG_INDEX I) I",
+                "CT.OID = I.INDRELID");
+        query.innerJoin("PG_CATALOG.PG_ATTRIBUTE A", "A.ATTRELID = CT.OID AND A.ATTNUM = (I.KEYS).X");
+        query.innerJoin("PG_CATALOG.PG_CLASS CI", "CI.OID = I.INDEXRELID");
+        query.where("I.INDISPRIMARY");
+        String schema = tableInspectionScope.getSchema();
+        if (!isEmpty(schema)) {
+            query.where("N.NSPNAME=?");
+            parameters.add(schema);
+        }
+        query.where(createTableFilter("CT.RELNAME", tableInspectionScope, parameters));
+        query.orderBy("TABLE_NAME", "PK_NAME", "KEY_SEQ");
+        return new ParameterizedQuery(query, parameters);
+    }
+
+    @Override
+    protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
+        return super.supportsScope(tableInspectionScope) || tableInspectionScope instanceof TablesInspectionScope;
+    }
+}
@@ -27,6 +27,8 @@
  */
 package com.nuodb.migrator.jdbc.metadata.inspector;
 
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.model.FieldFactory;
@@ -41,6 +43,7 @@ import static com.nuodb.migrator.jdbc.metadata.DefaultValue.valueOf;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.COLUMN;
 import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addTable;
 import static com.nuodb.migrator.utils.StringUtils.isEmpty;
+import static java.lang.Integer.MAX_VALUE;
 
 /**
  * @author Sergey Bushik
@@ -49,6 +52,8 @@ public class SimpleColumnInspector extends TableInspectorBase<Table, TableInspec
 
     public SimpleColumnInspector() {
         super(COLUMN, TableInspectionScope.class);
+        // bulk scope reads columns of the whole schema at once and filters out remaining tables
+        setBulkSize(MAX_VALUE);
     }
 
     @Override
@@ -59,10 +64,24 @@ public class SimpleColumnInspector extends TableInspectorBase<Table, TableInspec
                 tableInspectionScope.getTable(), null);
     }
 
+    @Override
+    protected void processResultSet(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope,
+                                    ResultSet columns) throws SQLException {
+        processResultSet(inspectionContext, columns, createTableFilter(tableInspectionScope));
+    }
+
     @Override
     protected void processResultSet(InspectionContext inspectionContext, ResultSet columns) throws SQLException {
+        processResultSet(inspectionContext, columns, Predicates.<String>alwaysTrue());
+    }
+
+    protected void processResultSet(InspectionContext inspectionContext, ResultSet columns,
+                                    Predicate<String> tableFilter) throws SQLException {
         InspectionResults inspectionResults = inspectionContext.getInspectionResults();
         while (columns.next()) {
+            if (!tableFilter.apply(columns.getString("TABLE_NAME"))) {
+                continue;
+            }
             Table table = addTable(inspectionResults, columns.getString("TABLE_CAT"),
                     columns.getString("TABLE_SCHEM"), columns.getString("TABLE_NAME"));
             Column column = table.addColumn(columns.getString("COLUMN_NAME"));
@@ -95,6 +114,6 @@ public class SimpleColumnInspector extends TableInspectorBase<Table, TableInspec
 
     @Override
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
-        return tableInspectionScope.getTable() != null;
+        return tableInspectionScope.getTable() != null || tableInspectionScope instanceof TablesInspectionScope;
     }
 }
@@ -27,17 +27,51 @@
  */
 package com.nuodb.migrator.jdbc.metadata.inspector;
 
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.nuodb.migrator.jdbc.metadata.MetaData;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
 import com.nuodb.migrator.jdbc.metadata.Table;
 
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Predicates.in;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.partition;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.nuodb.migrator.jdbc.query.QueryUtils.eqOrIn;
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.Collections.nCopies;
+
 /**
+ * Inspects table level objects. When a number of tables inspected at once reaches the bulk threshold, tables of the
+ * same catalog and schema are grouped into {@link TablesInspectionScope} of at most bulk size tables each, so that
+ * inspectors supporting this scope fetch objects of the whole group with a single query instead of a query per table.
+ * Inspectors don't support bulk scope unless they override {@link #supportsScope(TableInspectionScope)}.
+ *
  * @author Sergey Bushik
  */
 @SuppressWarnings("unchecked")
 public abstract class TableInspectorBase<M extends MetaData, T extends TableInspectionScope>
         extends ManagedInspectorBase<M, T> {
 
+    /**
+     * Minimum number of tables for which bulk inspection is preferred
+     */
+    public static final int BULK_THRESHOLD = 10;
+    /**
+     * Maximum number of tables in a single bulk inspection scope
+     */
+    public static final int BULK_SIZE = 500;
+
+    private int bulkThreshold = BULK_THRESHOLD;
+    private int bulkSize = BULK_SIZE;
+
     public TableInspectorBase(MetaDataType objectType) {
         this(objectType, (Class<? extends T>) TableInspectionScope.class);
     }
@@ -51,6 +85,63 @@ public abstract class TableInspectorBase<M extends MetaData, T extends TableInsp
         super(objectType, parentObjectType, inspectionScopeClass);
     }
 
+    @Override
+    public void inspectScopes(InspectionContext inspectionContext,
+                              Collection<? extends T> inspectionScopes) throws SQLException {
+        if (inspectionScopes.size() >= getBulkThreshold()) {
+            inspectionScopes = createBulkInspectionScopes(inspectionContext, inspectionScopes);
+        }
+        super.inspectScopes(inspectionContext, inspectionScopes);
+    }
+
+    /**
+     * Groups single table scopes by catalog and schema into bulk inspection scopes, groups for which bulk scope is not
+     * supported are kept as they are.
+     *
+     * @param inspectionContext inspection context
+     * @param inspectionScopes  scopes to group
+     * @return bulk inspection scopes
+     * @throws SQLException
+     */
+    protected Collection<? extends T> createBulkInspectionScopes(InspectionContext inspectionContext,
+                                                               Collection<? extends T> inspectionScopes)
+            throws SQLException {
+        Collection<T> bulkInspectionScopes = newArrayList();
+        Map<List<String>, List<T>> groups = newLinkedHashMap();
+        for (T inspectionScope : inspectionScopes) {
+            if (inspectionScope.getTable() == null || inspectionScope instanceof TablesInspectionScope) {
+                bulkInspectionScopes.add(inspectionScope);
+                continue;
+            }
+            List<String> group = asList(inspectionScope.getCatalog(), inspectionScope.getSchema());
+            List<T> tables = groups.get(group);
+            if (tables == null) {
+                groups.put(group, tables = newArrayList());
+            }
+            tables.add(inspectionScope);
+        }
+        for (Map.Entry<List<String>, List<T>> group : groups.entrySet()) {
+            String catalog = group.getKey().get(0);
+            String schema = group.getKey().get(1);
+            if (!supportsScope(inspectionContext, new TablesInspectionScope(catalog, schema))) {
+                bulkInspectionScopes.addAll(group.getValue());
+                continue;
+            }
+            for (List<T> tables : partition(group.getValue(), getBulkSize())) {
+                TablesInspectionScope bulkInspectionScope = new TablesInspectionScope(catalog, schema);
+                for (T table : tables) {
+                    bulkInspectionScope.addTable(table.getTable());
+                }
+                bulkInspectionScopes.add((T) bulkInspectionScope);
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Inspecting %d table(s) with %d bulk scope(s)",
+                    inspectionScopes.size(), bulkInspectionScopes.size()));
+        }
+        return bulkInspectionScopes;
+    }
+
     protected T createInspectionScope(M object) {
         return (T) createTableInspectionScope((Table) object);
     }
@@ -60,12 +151,72 @@ public abstract class TableInspectorBase<M extends MetaData, T extends TableInsp
         return inspectionScope instanceof TableInspectionScope && supportsScope((TableInspectionScope) inspectionScope);
     }
 
+    /**
+     * Bulk inspection is opt-in, inspectors which queries are limited to the tables of {@link TablesInspectionScope}
+     * override this method to accept it.
+     *
+     * @param tableInspectionScope single table or bulk inspection scope
+     * @return true unless the scope is bulk
+     */
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
-        return true;
+        return !(tableInspectionScope instanceof TablesInspectionScope);
+    }
+
+    public int getBulkThreshold() {
+        return bulkThreshold;
+    }
+
+    public void setBulkThreshold(int bulkThreshold) {
+        this.bulkThreshold = bulkThreshold;
+    }
+
+    public int getBulkSize() {
+        return bulkSize;
+    }
+
+    public void setBulkSize(int bulkSize) {
+        this.bulkSize = bulkSize;
     }
 
     public static TableInspectionScope createTableInspectionScope(Table table) {
         return new TableInspectionScope(
                 table.getCatalog().getName(), table.getSchema().getName(), table.getName());
     }
+
+    /**
+     * Creates filter matching table name column against a table or a list of tables of the scope and adds matched
+     * table names to the query parameters.
+     *
+     * @param column                table name column
+     * @param tableInspectionScope  single table or bulk inspection scope
+     * @param parameters            query parameters to add table names to
+     * @return filter or null if the scope is not limited to particular tables
+     */
+    public static String createTableFilter(String column, TableInspectionScope tableInspectionScope,
+                                           Collection<? super String> parameters) {
+        Collection<String> tables;
+        if (tableInspectionScope instanceof TablesInspectionScope) {
+            tables = ((TablesInspectionScope) tableInspectionScope).getTables();
+        } else if (tableInspectionScope.getTable() != null) {
+            tables = newArrayList(tableInspectionScope.getTable());
+        } else {
+            return null;
+        }
+        parameters.addAll(tables);
+        return eqOrIn(column, nCopies(tables.size(), "?"));
+    }
+
+    /**
+     * Creates filter accepting names of the tables of the bulk inspection scope, so that rows of tables outside of the
+     * scope are skipped while processing result set. Used where objects can't be filtered by table names in the query
+     * itself.
+     *
+     * @param tableInspectionScope single table or bulk inspection scope
+     * @return table name filter, which accepts any table unless the scope is bulk
+     */
+    public static Predicate<String> createTableFilter(TableInspectionScope tableInspectionScope) {
+        return tableInspectionScope instanceof TablesInspectionScope ?
+                in(newHashSet(((TablesInspectionScope) tableInspectionScope).getTables())) :
+                Predicates.<String>alwaysTrue();
+    }
 }
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import java.util.Collection;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Scope of a bulk inspection covering a list of tables from the same catalog and schema, inspected by a single
+ * set based query rather than by a query per table.
+ *
+ * @author Sergey Bushik
+ */
+public class TablesInspectionScope extends TableInspectionScope {
+
+    private Collection<String> tables = newArrayList();
+
+    public TablesInspectionScope() {
+    }
+
+    public TablesInspectionScope(String catalog, String schema) {
+        super(catalog, schema);
+    }
+
+    public TablesInspectionScope(String catalog, String schema, Collection<String> tables) {
+        super(catalog, schema);
+        this.tables = newArrayList(tables);
+    }
+
+    public void addTable(String table) {
+        tables.add(table);
+    }
+
+    public Collection<String> getTables() {
+        return tables;
+    }
+
+    public void setTables(Collection<String> tables) {
+        this.tables = tables;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+
+        TablesInspectionScope that = (TablesInspectionScope) o;
+
+        if (tables != null ? !tables.equals(that.tables) : that.tables != null) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (tables != null ? tables.hashCode() : 0);
+        return result;
+    }
+}
@@ -45,6 +45,7 @@ public class InsertQuery extends QueryBase {
     private InsertType insertType = INSERT;
     private Dialect dialect;
     private Table into;
+    private int rows = 1;
     private Map<Column, String> columns = Maps.newLinkedHashMap();
 
     public InsertType getInsertType() {
@@ -71,6 +72,17 @@ public class InsertQuery extends QueryBase {
         this.into = into;
     }
 
+    /**
+     * Number of rows in the VALUES clause of the multi row insert, each row repeats values of the columns.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
     public Map<Column, String> getColumns() {
         return columns;
     }
@@ -104,15 +116,21 @@ public class InsertQuery extends QueryBase {
                     query.append(", ");
                 }
             }
-            query.append(") VALUES (");
-            Iterator<String> values = columns.values().iterator();
-            while (values.hasNext()) {
-                query.append(values.next());
-                if (values.hasNext()) {
+            query.append(") VALUES ");
+            for (int row = 0; row < rows; row++) {
+                if (row > 0) {
                     query.append(", ");
                 }
+                query.append('(');
+                Iterator<String> values = columns.values().iterator();
+                while (values.hasNext()) {
+                    query.append(values.next());
+                    if (values.hasNext()) {
+                        query.append(", ");
+                    }
+                }
+                query.append(')');
             }
-            query.append(')');
         }
     }
 }
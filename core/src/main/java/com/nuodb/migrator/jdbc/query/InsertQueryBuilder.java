@@ -44,6 +44,7 @@ public class InsertQueryBuilder implements QueryBuilder<InsertQuery> {
 
     private Dialect dialect;
     private InsertType insertType;
+    private int rows = 1;
     private Table table;
     private boolean qualifyNames = QUALIFY_NAMES;
     private Collection<String> columns = Lists.newArrayList();
@@ -52,6 +53,7 @@ public class InsertQueryBuilder implements QueryBuilder<InsertQuery> {
     public InsertQuery build() {
         InsertQuery insertQuery = new InsertQuery();
         insertQuery.setInsertType(insertType);
+        insertQuery.setRows(rows);
         insertQuery.setQualifyNames(qualifyNames);
         insertQuery.setInto(table);
         Database database = table.getDatabase();
@@ -83,6 +85,11 @@ public class InsertQueryBuilder implements QueryBuilder<InsertQuery> {
         return this;
     }
 
+    public InsertQueryBuilder rows(int rows) {
+        this.rows = rows;
+        return this;
+    }
+
     public InsertQueryBuilder into(Table table) {
         this.table = table;
         return this;
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.query;
+
+import com.nuodb.migrator.utils.EnumAlias;
+
+/**
+ * Defines how rows are sent to the target table.
+ *
+ * @author Sergey Bushik
+ */
+public enum InsertStrategy {
+    /**
+     * Single row inserts executed in JDBC batches, drivers binding parameter arrays send a batch in one round trip.
+     */
+    BATCH,
+    /**
+     * Inserts carrying several rows in the VALUES clause, the number of rows per statement is configurable.
+     */
+    MULTI_ROW,
+    /**
+     * Native bulk load facility of the target, resolved by its dialect.
+     */
+    BULK;
+
+    private static final EnumAlias<InsertStrategy> INSERT_STRATEGIES = new EnumAlias<InsertStrategy>(
+            InsertStrategy.class) {
+        {
+            addAlias("multi.row", MULTI_ROW);
+        }
+    };
+
+    public static String toAlias(InsertStrategy insertStrategy) {
+        return INSERT_STRATEGIES.toAlias(insertStrategy);
+    }
+
+    public static InsertStrategy fromAlias(String alias) {
+        return INSERT_STRATEGIES.fromAlias(alias);
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+import org.slf4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.JdbcUtils.close;
+import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getCount;
+import static java.lang.String.format;
+import static java.lang.String.valueOf;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Splits table into ranges of a single column key, either primary key or unique index on a not null column. Split
+ * boundaries are every n-th key value, where n is a query limit count, which the database selects itself with
+ * {@code ROW_NUMBER()} window function if the dialect {@link Dialect#supportsRowNumber() supports it}, otherwise the
+ * boundaries are sampled with a single ordered scan of the key column. Each split is then selected with
+ * {@code WHERE key > ? AND key <= ? ORDER BY key}. Unlike
+ * {@link LimitQuerySplitter} the source database doesn't re-scan and discard preceding rows for every split. The
+ * first split is open at the lower bound and the last split is open at the upper bound, so the rows inserted after
+ * boundaries are sampled are still dumped.
+ *
+ * @author Sergey Bushik
+ */
+public class KeysetQuerySplitter extends QuerySplitterBase<PreparedStatement> {
+
+    private static final String BOUNDARIES = "split_keys";
+    private static final String BOUNDARY = "split_key";
+    private static final String ROW_NUMBER = "split_row";
+    private static final String ROW_COUNT = "split_rows";
+
+    protected final transient Logger logger = getLogger(getClass());
+
+    private final Dialect dialect;
+    private final Table table;
+    private final Collection<Column> columns;
+    private final String filter;
+    private final Column key;
+    private List<Object> boundaries;
+
+    protected KeysetQuerySplitter(Dialect dialect, Table table, Collection<Column> columns, String filter,
+                                  Column key, QueryLimit queryLimit) {
+        super(newQuery(table, columns, filter), queryLimit, null);
+        this.dialect = dialect;
+        this.table = table;
+        this.columns = columns;
+        this.filter = filter;
+        this.key = key;
+    }
+
+    @Override
+    protected boolean hasNextQuerySplit(Connection connection, int splitIndex) throws SQLException {
+        return splitIndex == 0 || splitIndex <= getBoundaries(connection).size();
+    }
+
+    @Override
+    protected QueryLimit createQueryLimit(Connection connection, int splitIndex) throws SQLException {
+        getBoundaries(connection);
+        return null;
+    }
+
+    /**
+     * Returns upper inclusive key values of the splits, there is one split more than boundaries as the last split
+     * has no upper bound.
+     *
+     * @param connection to sample boundaries with.
+     * @return list of split boundaries.
+     * @throws SQLException if sampling query fails.
+     */
+    protected List<Object> getBoundaries(Connection connection) throws SQLException {
+        if (boundaries == null) {
+            boundaries = sampleBoundaries(connection);
+        }
+        return boundaries;
+    }
+
+    protected List<Object> sampleBoundaries(Connection connection) throws SQLException {
+        List<Object> boundaries = newArrayList();
+        long count = getCount(getQueryLimit());
+        if (count <= 0) {
+            return boundaries;
+        }
+        if (dialect.supportsRowNumber()) {
+            selectBoundaries(connection, count, boundaries);
+        } else {
+            scanBoundaries(connection, count, boundaries);
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Table %s is split into %d ranges of %s key",
+                    table.getQualifiedName(null), boundaries.size() + 1, key.getName()));
+        }
+        return boundaries;
+    }
+
+    /**
+     * Selects every n-th key value numbering rows with the window function, so that only the boundaries are sent
+     * over the wire. The last numbered row is never a boundary, so that the last split is never empty.
+     *
+     * @param connection to select boundaries with.
+     * @param count      number of rows in a split.
+     * @param boundaries to add selected boundaries to.
+     * @throws SQLException if boundaries query fails.
+     */
+    protected void selectBoundaries(Connection connection, long count, List<Object> boundaries) throws SQLException {
+        SelectQuery query = createBoundariesQuery(count);
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Selecting split boundaries %s", query));
+        }
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = connection.createStatement();
+            resultSet = statement.executeQuery(query.toString());
+            while (resultSet.next()) {
+                boundaries.add(resultSet.getObject(1));
+            }
+        } finally {
+            close(resultSet);
+            close(statement);
+        }
+    }
+
+    protected SelectQuery createBoundariesQuery(long count) {
+        String keyName = getKeyName();
+        SelectQuery rows = createSelectQuery();
+        rows.column(keyName + " AS " + BOUNDARY);
+        rows.column("ROW_NUMBER() OVER (ORDER BY " + keyName + ") AS " + ROW_NUMBER);
+        rows.column("COUNT(*) OVER () AS " + ROW_COUNT);
+
+        SelectQuery query = new SelectQuery();
+        query.setDialect(dialect);
+        query.column(BOUNDARY);
+        query.from("(" + rows + ") " + BOUNDARIES);
+        query.where(dialect.getModulo(ROW_NUMBER, valueOf(count)) + " = 0");
+        query.where(ROW_NUMBER + " < " + ROW_COUNT);
+        query.orderBy(BOUNDARY);
+        return query;
+    }
+
+    /**
+     * Scans ordered key values taking every n-th of them, used when the database can't number rows itself.
+     *
+     * @param connection to scan key values with.
+     * @param count      number of rows in a split.
+     * @param boundaries to add sampled boundaries to.
+     * @throws SQLException if sampling query fails.
+     */
+    protected void scanBoundaries(Connection connection, long count, List<Object> boundaries) throws SQLException {
+        SelectQuery query = createSelectQuery();
+        query.column(key);
+        query.orderBy(getKeyName());
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Sampling split boundaries %s", query));
+        }
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = connection.createStatement();
+            dialect.setStreamResults(statement, true);
+            resultSet = statement.executeQuery(query.toString());
+            long row = 0;
+            Object boundary = null;
+            while (resultSet.next()) {
+                // boundary is accepted only when it's followed by a row, so that the last split is never empty
+                if (boundary != null) {
+                    boundaries.add(boundary);
+                    boundary = null;
+                }
+                if (++row % count == 0) {
+                    boundary = resultSet.getObject(1);
+                }
+            }
+        } finally {
+            close(resultSet);
+            close(statement);
+        }
+    }
+
+    protected SelectQuery createSelectQuery() {
+        SelectQuery query = new SelectQuery();
+        query.setDialect(dialect);
+        query.setQualifyNames(true);
+        query.from(table);
+        if (!isEmpty(filter)) {
+            query.where("(" + filter + ")");
+        }
+        return query;
+    }
+
+    protected SelectQuery createSplitQuery(int splitIndex) {
+        SelectQuery query = createSelectQuery();
+        if (columns != null && !columns.isEmpty()) {
+            for (Column column : columns) {
+                query.column(column);
+            }
+        } else {
+            for (Column column : table.getColumns()) {
+                query.column(column);
+            }
+        }
+        String keyName = getKeyName();
+        if (splitIndex > 0) {
+            query.where(keyName + " > ?");
+        }
+        if (splitIndex < boundaries.size()) {
+            query.where(keyName + " <= ?");
+        }
+        query.orderBy(keyName);
+        return query;
+    }
+
+    protected String getKeyName() {
+        return key.getName(dialect);
+    }
+
+    @Override
+    protected PreparedStatement createStatement(Connection connection, QueryLimit queryLimit,
+                                                int splitIndex) throws SQLException {
+        return prepareStatement(connection, queryLimit, splitIndex);
+    }
+
+    @Override
+    protected PreparedStatement prepareStatement(Connection connection, QueryLimit queryLimit,
+                                                 int splitIndex) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(createSplitQuery(splitIndex).toString());
+        int parameter = 1;
+        if (splitIndex > 0) {
+            statement.setObject(parameter++, boundaries.get(splitIndex - 1));
+        }
+        if (splitIndex < boundaries.size()) {
+            statement.setObject(parameter, boundaries.get(splitIndex));
+        }
+        return statement;
+    }
+
+    @Override
+    protected ResultSet executeStatement(PreparedStatement statement, QueryLimit queryLimit,
+                                         int splitIndex) throws SQLException {
+        return statement.executeQuery();
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public Column getKey() {
+        return key;
+    }
+}
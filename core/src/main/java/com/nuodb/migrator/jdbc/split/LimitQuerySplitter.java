@@ -30,28 +30,43 @@ package com.nuodb.migrator.jdbc.split;
 import com.nuodb.migrator.jdbc.query.ParametersBinder;
 import com.nuodb.migrator.jdbc.dialect.Dialect;
 import com.nuodb.migrator.jdbc.dialect.LimitHandler;
+import com.nuodb.migrator.jdbc.dialect.RowCountType;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.query.Query;
 
 import java.sql.*;
 
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
 import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getCount;
 import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getOffset;
+import static java.lang.Long.MAX_VALUE;
 import static java.lang.Math.min;
 
 /**
+ * Splits query into pages of the query limit size. With an approximate row count the number of pages is planned from
+ * the estimate and the last page is open-ended, so rows beyond the estimate are fetched by the last split, while an
+ * overestimated row count produces trailing splits which return no rows.
+ *
  * @author Sergey Bushik
  */
 public class LimitQuerySplitter extends QuerySplitterBase<Statement> {
 
     private final Dialect dialect;
     private final RowCountStrategy rowCountStrategy;
+    private final RowCountType rowCountType;
 
     protected LimitQuerySplitter(Dialect dialect, RowCountStrategy rowCountStrategy,
                                  Query query, QueryLimit queryLimit, ParametersBinder parametersBinder) {
+        this(dialect, rowCountStrategy, EXACT, query, queryLimit, parametersBinder);
+    }
+
+    protected LimitQuerySplitter(Dialect dialect, RowCountStrategy rowCountStrategy, RowCountType rowCountType,
+                                 Query query, QueryLimit queryLimit, ParametersBinder parametersBinder) {
         super(query, queryLimit, parametersBinder);
         this.dialect = dialect;
         this.rowCountStrategy = rowCountStrategy;
+        this.rowCountType = rowCountType;
     }
 
     @Override
@@ -64,8 +79,13 @@ public class LimitQuerySplitter extends QuerySplitterBase<Statement> {
     protected QueryLimit createQueryLimit(Connection connection, int splitIndex) throws SQLException {
         QueryLimit queryLimit = getQueryLimit();
         long offset = splitIndex * getCount(queryLimit) + getOffset(queryLimit);
-        // long limit = getLimit(queryLimit);
-        long limit = min(getCount(queryLimit), getRowCount(connection) - offset);
+        long rowCount = getRowCount(connection);
+        long limit;
+        if (rowCountType == APPROX) {
+            limit = offset + getCount(queryLimit) < rowCount ? getCount(queryLimit) : MAX_VALUE - offset;
+        } else {
+            limit = min(getCount(queryLimit), rowCount - offset);
+        }
         return new QueryLimit(limit, offset);
     }
 
@@ -113,4 +133,8 @@ public class LimitQuerySplitter extends QuerySplitterBase<Statement> {
     public RowCountStrategy getRowCountStrategy() {
         return rowCountStrategy;
     }
+
+    public RowCountType getRowCountType() {
+        return rowCountType;
+    }
 }
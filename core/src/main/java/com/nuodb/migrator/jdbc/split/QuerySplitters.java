@@ -28,13 +28,27 @@
 package com.nuodb.migrator.jdbc.split;
 
 import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.RowCountType;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Index;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.query.Query;
 
+import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.Collection;
 
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
 import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
+import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newCachingStrategy;
+import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newHandlerStrategy;
+import static java.sql.Types.*;
+import static org.apache.commons.lang3.ArrayUtils.contains;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 /**
  * Static factories for creating query splitters.
@@ -43,8 +57,31 @@ import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
  */
 public class QuerySplitters {
 
+    private static final int[] KEYSET_TYPES = {
+            BIT, TINYINT, SMALLINT, INTEGER, BIGINT, FLOAT, REAL, DOUBLE, NUMERIC, DECIMAL,
+            CHAR, VARCHAR, NCHAR, NVARCHAR, DATE, TIME, TIMESTAMP
+    };
+
+    private static final int[] RANGE_TYPES = {
+            TINYINT, SMALLINT, INTEGER, BIGINT, FLOAT, REAL, DOUBLE, NUMERIC, DECIMAL, DATE, TIMESTAMP
+    };
+
     public static boolean supportsLimitSplitter(Dialect dialect, Table table, String filter) {
-        return dialect.supportsLimitOffset() && dialect.supportsRowCount(table, null, filter, EXACT);
+        return supportsLimitSplitter(dialect, table, filter, EXACT);
+    }
+
+    public static boolean supportsLimitSplitter(Dialect dialect, Table table, String filter,
+                                                RowCountType rowCountType) {
+        return dialect.supportsLimitOffset() && dialect.supportsRowCount(table, null, filter, rowCountType);
+    }
+
+    /**
+     * Returns requested row count type if the dialect can estimate row count of the table, falls back to the exact
+     * row count otherwise.
+     */
+    public static RowCountType getSupportedRowCountType(Dialect dialect, Table table, String filter,
+                                                        RowCountType rowCountType) {
+        return rowCountType == APPROX && dialect.supportsRowCount(table, null, filter, APPROX) ? APPROX : EXACT;
     }
 
     public static QuerySplitter<Statement> newLimitSplitter(Dialect dialect, RowCountStrategy rowCountStrategy,
@@ -52,6 +89,99 @@ public class QuerySplitters {
         return new LimitQuerySplitter(dialect, rowCountStrategy, query, queryLimit, null);
     }
 
+    public static QuerySplitter<Statement> newLimitSplitter(Dialect dialect, RowCountStrategy rowCountStrategy,
+                                                            RowCountType rowCountType, Query query,
+                                                            QueryLimit queryLimit) {
+        return new LimitQuerySplitter(dialect, rowCountStrategy, rowCountType, query, queryLimit, null);
+    }
+
+    public static boolean supportsKeysetSplitter(Table table) {
+        return getKeysetColumn(table) != null;
+    }
+
+    /**
+     * Finds a single column key suitable for range splitting, primary key is preferred over unique indexes. Unique
+     * index column must be not null, otherwise rows with null keys won't fall into any of the ranges.
+     *
+     * @param table to find key column for.
+     * @return key column or null if table has no suitable key.
+     */
+    public static Column getKeysetColumn(Table table) {
+        PrimaryKey primaryKey = table.getPrimaryKey();
+        if (primaryKey != null && isKeysetColumns(primaryKey.getColumns())) {
+            return getOnlyElement(primaryKey.getColumns());
+        }
+        for (Index index : table.getIndexes()) {
+            if (index.isUnique() && isEmpty(index.getExpression()) && isEmpty(index.getFilterCondition()) &&
+                    isKeysetColumns(index.getColumns()) && !getOnlyElement(index.getColumns()).isNullable()) {
+                return getOnlyElement(index.getColumns());
+            }
+        }
+        return null;
+    }
+
+    private static boolean isKeysetColumns(Collection<Column> columns) {
+        return columns != null && columns.size() == 1 &&
+                contains(KEYSET_TYPES, getOnlyElement(columns).getTypeCode());
+    }
+
+    public static QuerySplitter<PreparedStatement> newKeysetSplitter(Dialect dialect, Table table,
+                                                                     Collection<Column> columns, String filter,
+                                                                     QueryLimit queryLimit) {
+        return new KeysetQuerySplitter(dialect, table, columns, filter, getKeysetColumn(table), queryLimit);
+    }
+
+    /**
+     * Range splitter requires numeric or date key, values of which can be interpolated between histogram bounds.
+     *
+     * @param table to check.
+     * @return true if table can be partitioned into key ranges.
+     */
+    public static boolean supportsRangeSplitter(Table table) {
+        Column key = getKeysetColumn(table);
+        return key != null && contains(RANGE_TYPES, key.getTypeCode());
+    }
+
+    public static QuerySplitter<PreparedStatement> newRangeSplitter(Dialect dialect, Table table,
+                                                                    Collection<Column> columns, String filter,
+                                                                    int partitions) {
+        return new RangeQuerySplitter(dialect, table, columns, filter, getKeysetColumn(table), partitions);
+    }
+
+    /**
+     * Chooses splitter of the table query. Range splitter partitions the table into a key range per thread if query
+     * partitioning is requested, otherwise keyset or limit splitter pages the query by the query limit. Query is not
+     * split at all if none of them is supported by the table.
+     *
+     * @param dialect        of the source database.
+     * @param table          to select rows from.
+     * @param columns        to select.
+     * @param filter         to apply to the rows, may be null.
+     * @param queryLimit     number of rows in a single split, null to disable paging.
+     * @param rowCountType   row count type requested for the limit splitter.
+     * @param queryPartition whether the table is partitioned into key ranges.
+     * @param threads        number of threads the splits are fetched with.
+     * @return query splitter.
+     */
+    public static QuerySplitter newQuerySplitter(Dialect dialect, Table table, Collection<Column> columns,
+                                                 String filter, QueryLimit queryLimit, RowCountType rowCountType,
+                                                 boolean queryPartition, int threads) {
+        QuerySplitter querySplitter;
+        rowCountType = getSupportedRowCountType(dialect, table, filter, rowCountType);
+        if (queryPartition && threads > 1 && supportsRangeSplitter(table)) {
+            querySplitter = newRangeSplitter(dialect, table, columns, filter, threads);
+        } else if (queryLimit != null && supportsKeysetSplitter(table)) {
+            querySplitter = newKeysetSplitter(dialect, table, columns, filter, queryLimit);
+        } else if (queryLimit != null && supportsLimitSplitter(dialect, table, filter, rowCountType)) {
+            querySplitter = newLimitSplitter(dialect, newCachingStrategy(newHandlerStrategy(
+                    dialect.createRowCountHandler(table, null, filter, rowCountType))), rowCountType,
+                    newQuery(table, columns, filter), queryLimit);
+        } else {
+            querySplitter = newNoLimitSplitter(newQuery(table, columns, filter));
+        }
+        return querySplitter;
+    }
+
     public static QuerySplitter<Statement> newNoLimitSplitter(Query query) {
         return new NoLimitQuerySplitter(query, null);
     }
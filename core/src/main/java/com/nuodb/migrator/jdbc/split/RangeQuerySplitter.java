@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.HistogramHandler;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.dialect.HistogramUtils.interpolate;
+import static java.lang.String.format;
+
+/**
+ * Partitions table into a given number of balanced key ranges, usually equal to the number of dump threads, so that
+ * a single huge table is dumped by all the threads. Range boundaries are planned from column histogram provided by
+ * the dialect {@link HistogramHandler}: equi-depth histogram buckets are divided evenly between the partitions, values
+ * inside a bucket are interpolated linearly for numeric and date keys. If only column minimum and maximum are known
+ * the key is assumed to be uniformly distributed between them.
+ *
+ * @author Sergey Bushik
+ */
+public class RangeQuerySplitter extends KeysetQuerySplitter {
+
+    private final int partitions;
+    private final HistogramHandler histogramHandler;
+
+    protected RangeQuerySplitter(Dialect dialect, Table table, Collection<Column> columns, String filter,
+                                 Column key, int partitions) {
+        super(dialect, table, columns, filter, key, null);
+        this.partitions = partitions;
+        this.histogramHandler = dialect.createHistogramHandler(table, key, filter);
+    }
+
+    @Override
+    protected List<Object> sampleBoundaries(Connection connection) throws SQLException {
+        List<Object> histogram = normalize(histogramHandler.getHistogram(connection));
+        List<Object> boundaries = newArrayList();
+        int buckets = histogram.size() - 1;
+        if (buckets > 0) {
+            for (int partition = 1; partition < partitions; partition++) {
+                double position = (double) partition * buckets / partitions;
+                int bucket = (int) position;
+                Object boundary = bucket < buckets ? interpolate(
+                        histogram.get(bucket), histogram.get(bucket + 1), position - bucket) : histogram.get(buckets);
+                if (boundaries.isEmpty() || compare(boundaries.get(boundaries.size() - 1), boundary) < 0) {
+                    boundaries.add(boundary);
+                }
+            }
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Table %s is partitioned into %d ranges of %s key with boundaries %s",
+                    getTable().getQualifiedName(null), boundaries.size() + 1, getKey().getName(), boundaries));
+        }
+        return boundaries;
+    }
+
+    protected List<Object> normalize(List<Object> histogram) {
+        List<Object> values = newArrayList();
+        for (Object value : histogram) {
+            values.add(value instanceof Number && !(value instanceof BigDecimal) ?
+                    new BigDecimal(value.toString()) : value);
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected int compare(Object value1, Object value2) {
+        return ((Comparable) value1).compareTo(value2);
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public HistogramHandler getHistogramHandler() {
+        return histogramHandler;
+    }
+}
@@ -42,6 +42,10 @@ public class SimpleJdbcValueGetter<T> implements JdbcValueGetter<T> {
 
     private final JdbcTypeRegistry jdbcTypeRegistry;
     private final JdbcTypeValue<T> jdbcTypeValue;
+    /**
+     * Adapter resolved for the last requested value class, getter is called with the same value class for every row
+     */
+    private volatile Adapter adapter;
 
     public SimpleJdbcValueGetter(JdbcTypeRegistry jdbcTypeRegistry, JdbcTypeValue<T> jdbcTypeValue) {
         this.jdbcTypeRegistry = jdbcTypeRegistry;
@@ -58,10 +62,30 @@ public class SimpleJdbcValueGetter<T> implements JdbcValueGetter<T> {
     public <X> X getValue(ResultSet resultSet, Connection connection, int columnIndex, Field field,
                           Class<X> valueClass, Map<String, Object> options) throws SQLException {
         X value = (X) jdbcTypeValue.getValue(resultSet, columnIndex, field, options);
-        JdbcTypeAdapter<X> adapter = jdbcTypeRegistry.getJdbcTypeAdapter(valueClass, jdbcTypeValue.getValueClass());
-        if (adapter != null) {
-            value = adapter.unwrap(value, valueClass, connection);
+        JdbcTypeAdapter<X> jdbcTypeAdapter = getJdbcTypeAdapter(valueClass);
+        if (jdbcTypeAdapter != null) {
+            value = jdbcTypeAdapter.unwrap(value, valueClass, connection);
         }
         return value;
     }
+
+    protected JdbcTypeAdapter getJdbcTypeAdapter(Class valueClass) {
+        Adapter adapter = this.adapter;
+        if (adapter == null || adapter.valueClass != valueClass) {
+            this.adapter = adapter = new Adapter(valueClass,
+                    jdbcTypeRegistry.getJdbcTypeAdapter(valueClass, jdbcTypeValue.getValueClass()));
+        }
+        return adapter.jdbcTypeAdapter;
+    }
+
+    static class Adapter {
+
+        private final Class valueClass;
+        private final JdbcTypeAdapter jdbcTypeAdapter;
+
+        public Adapter(Class valueClass, JdbcTypeAdapter jdbcTypeAdapter) {
+            this.valueClass = valueClass;
+            this.jdbcTypeAdapter = jdbcTypeAdapter;
+        }
+    }
 }
\ No newline at end of file
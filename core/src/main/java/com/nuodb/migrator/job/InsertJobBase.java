@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.job;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.nuodb.migrator.MigratorException;
+import com.nuodb.migrator.jdbc.commit.AdaptiveBatchCommitStrategy;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.commit.CommitStrategyBase;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.InsertType;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.jdbc.session.SimpleWorkManager;
+import com.nuodb.migrator.jdbc.session.Work;
+import com.nuodb.migrator.jdbc.session.WorkManager;
+import com.nuodb.migrator.spec.ScriptGeneratorJobSpecBase;
+import com.nuodb.migrator.utils.BlockingThreadPoolExecutor;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static com.google.common.collect.Iterables.get;
+import static com.nuodb.migrator.jdbc.JdbcUtils.close;
+import static com.nuodb.migrator.utils.Collections.isEmpty;
+import static java.lang.Long.MAX_VALUE;
+import static java.lang.String.format;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Base for the jobs inserting rows to the target database, which run concurrent works on sessions of their own and
+ * share resolution of insert types, commit strategies and handling of work failures.
+ *
+ * @author Sergey Bushik
+ */
+public abstract class InsertJobBase<S extends ScriptGeneratorJobSpecBase> extends ScriptGeneratorJobBase<S> {
+
+    private static final String PIPELINE = "pipeline";
+
+    private ExecutorService pipelineExecutor;
+
+    protected InsertJobBase() {
+    }
+
+    protected InsertJobBase(S jobSpec) {
+        super(jobSpec);
+    }
+
+    protected void executeWork(ExecutorService executor, WorkManager workManager, Work work) {
+        executeWork(executor, workManager, work, null);
+    }
+
+    /**
+     * Executes the work on a new session opened from the work session factory.
+     *
+     * @param callback to run after the work is executed or failed, may be null.
+     */
+    protected void executeWork(ExecutorService executor, final WorkManager workManager, final Work work,
+                               final Runnable callback) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Session session = null;
+                try {
+                    session = getWorkSessionFactory().openSession();
+                    session.execute(work, workManager);
+                } catch (Exception exception) {
+                    workManager.failure(work, exception);
+                } finally {
+                    close(session);
+                    if (callback != null) {
+                        callback.run();
+                    }
+                }
+            }
+        });
+    }
+
+    protected void closeWorkManager(ExecutorService executor, WorkManager workManager, boolean awaitTermination) {
+        executor.shutdown();
+        try {
+            if (awaitTermination) {
+                executor.awaitTermination(MAX_VALUE, SECONDS);
+            }
+        } catch (InterruptedException exception) {
+            if (logger.isTraceEnabled()) {
+                logger.trace("Awaiting executor's termination was interrupted", exception);
+            }
+        }
+        Map<Work, Throwable> failures = workManager.getFailures();
+        if (!isEmpty(failures)) {
+            final Throwable failure = get(failures.values(), 0);
+            throw failure instanceof MigratorException ? (MigratorException) failure : createException(failure);
+        }
+    }
+
+    protected ExecutorService createExecutor() {
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Using blocking thread pool with %d thread(s)", getThreads()));
+        }
+        return new BlockingThreadPoolExecutor(getThreads(), 100L, MILLISECONDS);
+    }
+
+    /**
+     * Returns executor running producers of pipelined works, which read rows into a row buffer ahead of the thread
+     * binding them. A work keeps at most one producer running, so the pool is bounded by the number of threads and a
+     * producer never waits for a free thread.
+     */
+    public synchronized ExecutorService getPipelineExecutor() {
+        if (pipelineExecutor == null) {
+            pipelineExecutor = createPipelineExecutor();
+        }
+        return pipelineExecutor;
+    }
+
+    protected ExecutorService createPipelineExecutor() {
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Using thread pool with %d thread(s) for pipelining", getThreads()));
+        }
+        return newFixedThreadPool(getThreads(),
+                new ThreadFactoryBuilder().setNameFormat(PIPELINE + "-%d").setDaemon(true).build());
+    }
+
+    protected synchronized void closePipelineExecutor() {
+        if (pipelineExecutor != null) {
+            pipelineExecutor.shutdown();
+            pipelineExecutor = null;
+        }
+    }
+
+    @Override
+    public void release() throws Exception {
+        closePipelineExecutor();
+        super.release();
+    }
+
+    protected WorkManager createWorkManager() {
+        return new SimpleWorkManager();
+    }
+
+    /**
+     * Creates commit strategy for a concurrent work, the configured strategy is copied if it supports copying,
+     * otherwise it's shared by the works.
+     *
+     * @see CommitStrategyBase#copy()
+     */
+    public CommitStrategy createCommitStrategy() {
+        CommitStrategy commitStrategy = getCommitStrategy();
+        return commitStrategy instanceof CommitStrategyBase ? ((CommitStrategyBase) commitStrategy).copy() :
+                commitStrategy;
+    }
+
+    /**
+     * Reports batch sizes chosen for every table by the adaptive commit strategy, these are a good starting point for
+     * a fixed batch size on the next run against the same target.
+     */
+    protected void logBatchSizes() {
+        if (!(getCommitStrategy() instanceof AdaptiveBatchCommitStrategy) || !logger.isInfoEnabled()) {
+            return;
+        }
+        Map<String, Long> batchSizes = ((AdaptiveBatchCommitStrategy) getCommitStrategy()).getBatchSizes();
+        for (Map.Entry<String, Long> batchSize : batchSizes.entrySet()) {
+            logger.info(format("Batch size for %s settled at %d", batchSize.getKey(), batchSize.getValue()));
+        }
+    }
+
+    protected InsertType getInsertType(Table table) {
+        Database database = table.getDatabase();
+        Map<String, InsertType> tableInsertTypes = getTableInsertTypes();
+        InsertType insertType = getInsertType();
+        if (tableInsertTypes != null) {
+            for (Map.Entry<String, InsertType> entry : tableInsertTypes.entrySet()) {
+                final Collection<Table> tables = database.findTables(entry.getKey());
+                if (tables.contains(table)) {
+                    insertType = entry.getValue();
+                    break;
+                }
+            }
+        }
+        return insertType;
+    }
+
+    /**
+     * Session factory, sessions of which concurrent works are executed on.
+     */
+    protected abstract SessionFactory getWorkSessionFactory();
+
+    /**
+     * Wraps failure of a work, which is not a migrator exception already.
+     */
+    protected abstract MigratorException createException(Throwable failure);
+
+    protected abstract Map<String, InsertType> getTableInsertTypes();
+
+    protected abstract InsertType getInsertType();
+
+    protected abstract CommitStrategy getCommitStrategy();
+
+    protected abstract int getThreads();
+}
@@ -27,6 +27,8 @@
  */
 package com.nuodb.migrator.job;
 
+import com.nuodb.migrator.metrics.JobMetrics;
+
 /**
  * @author Sergey Bushik
  */
@@ -34,6 +36,11 @@ public interface Job {
 
     String getName();
 
+    /**
+     * Returns throughput and progress metrics collected while the job is executed.
+     */
+    JobMetrics getJobMetrics();
+
     void init(JobExecution jobExecution) throws Exception;
 
     void execute() throws Exception;
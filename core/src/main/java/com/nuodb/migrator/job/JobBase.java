@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.job;
 
+import com.nuodb.migrator.metrics.JobMetrics;
 import org.slf4j.Logger;
 
 import static org.slf4j.LoggerFactory.getLogger;
@@ -40,6 +41,7 @@ public abstract class JobBase implements Job {
     protected final transient Logger logger = getLogger(getClass());
 
     private JobExecution jobExecution;
+    private JobMetrics jobMetrics;
 
     @Override
     public void init(JobExecution jobExecution) throws Exception {
@@ -54,6 +56,14 @@ public abstract class JobBase implements Job {
         return getClass().getName();
     }
 
+    @Override
+    public synchronized JobMetrics getJobMetrics() {
+        if (jobMetrics == null) {
+            jobMetrics = new JobMetrics(getName());
+        }
+        return jobMetrics;
+    }
+
     public JobExecution getJobExecution() {
         return jobExecution;
     }
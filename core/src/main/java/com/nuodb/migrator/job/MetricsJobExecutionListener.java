@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.job;
+
+import com.nuodb.migrator.metrics.JobMetrics;
+import com.nuodb.migrator.metrics.MetricsReporter;
+
+import static com.nuodb.migrator.metrics.MetricsReporter.INTERVAL;
+import static java.lang.management.ManagementFactory.getPlatformMBeanServer;
+
+/**
+ * Publishes metrics of the running job as MBeans of the platform MBean server, logs them periodically and logs the
+ * summary once the job completes.
+ *
+ * @author Sergey Bushik
+ */
+public class MetricsJobExecutionListener implements JobExecutionListener {
+
+    private long interval = INTERVAL;
+    private MetricsReporter metricsReporter;
+
+    public MetricsJobExecutionListener() {
+    }
+
+    public MetricsJobExecutionListener(long interval) {
+        this.interval = interval;
+    }
+
+    @Override
+    public synchronized void onJobExecution(JobExecutionEvent event) {
+        JobExecution execution = event.getJobExecution();
+        JobMetrics jobMetrics = execution.getJob().getJobMetrics();
+        if (execution.getJobStatus().isRunning()) {
+            jobMetrics.register(getPlatformMBeanServer());
+            metricsReporter = createMetricsReporter(jobMetrics);
+            metricsReporter.start(interval);
+        } else if (metricsReporter != null) {
+            metricsReporter.stop();
+            metricsReporter.summary();
+            metricsReporter = null;
+            jobMetrics.unregister();
+        }
+    }
+
+    protected MetricsReporter createMetricsReporter(JobMetrics jobMetrics) {
+        return new MetricsReporter(jobMetrics);
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public void setInterval(long interval) {
+        this.interval = interval;
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.load;
+
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.TableRowSet;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.ForeignKey;
+import com.nuodb.migrator.jdbc.metadata.Table;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import static com.google.common.collect.Iterables.getFirst;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+
+/**
+ * Dependency graph of row sets built from the foreign keys of the dumped database. A row set depends on the row sets
+ * of the tables its table references, so that referenced rows are loaded before the referencing ones. Self references
+ * are ignored. The graph isn't thread safe and is driven by the thread scheduling the load.
+ *
+ * @author Sergey Bushik
+ */
+public class LoadGraph {
+
+    private final Map<RowSet, Collection<RowSet>> dependencies = newLinkedHashMap();
+    private final Multimap<RowSet, RowSet> dependents = LinkedHashMultimap.create();
+
+    public LoadGraph() {
+    }
+
+    /**
+     * Creates graph of the backup row sets in the order they were dumped.
+     *
+     * @param backup     to load.
+     * @param database   dumped database to take foreign keys from.
+     * @param foreignKeys whether foreign key dependencies should be added to the graph, otherwise row sets are
+     *                   independent from each other.
+     * @return dependency graph of the row sets.
+     */
+    public static LoadGraph newLoadGraph(Backup backup, Database database, boolean foreignKeys) {
+        LoadGraph loadGraph = new LoadGraph();
+        Map<Table, RowSet> tableRowSets = newHashMap();
+        for (RowSet rowSet : backup.getRowSets()) {
+            loadGraph.addRowSet(rowSet);
+            Table table = getTable(rowSet, database);
+            if (table != null) {
+                tableRowSets.put(table, rowSet);
+            }
+        }
+        if (foreignKeys) {
+            for (Map.Entry<Table, RowSet> tableRowSet : tableRowSets.entrySet()) {
+                for (ForeignKey foreignKey : tableRowSet.getKey().getForeignKeys()) {
+                    RowSet primaryRowSet = tableRowSets.get(foreignKey.getPrimaryTable());
+                    if (primaryRowSet != null) {
+                        loadGraph.addDependency(tableRowSet.getValue(), primaryRowSet);
+                    }
+                }
+            }
+        }
+        return loadGraph;
+    }
+
+    /**
+     * Finds dumped table of the row set.
+     *
+     * @return table or null if the row set is a query row set or its table isn't found.
+     */
+    public static Table getTable(RowSet rowSet, Database database) {
+        if (!(rowSet instanceof TableRowSet) || database == null) {
+            return null;
+        }
+        TableRowSet tableRowSet = (TableRowSet) rowSet;
+        return getFirst(database.getTables(tableRowSet.getCatalog(), tableRowSet.getSchema(),
+                tableRowSet.getTable()), null);
+    }
+
+    public void addRowSet(RowSet rowSet) {
+        if (!dependencies.containsKey(rowSet)) {
+            dependencies.put(rowSet, Lists.<RowSet>newArrayList());
+        }
+    }
+
+    /**
+     * Makes the row set wait for the dependency.
+     */
+    public void addDependency(RowSet rowSet, RowSet dependency) {
+        if (rowSet == dependency) {
+            return;
+        }
+        addRowSet(rowSet);
+        addRowSet(dependency);
+        Collection<RowSet> rowSetDependencies = dependencies.get(rowSet);
+        if (!rowSetDependencies.contains(dependency)) {
+            rowSetDependencies.add(dependency);
+            dependents.put(dependency, rowSet);
+        }
+    }
+
+    /**
+     * Removes row sets which have no pending dependencies from the graph.
+     *
+     * @return row sets ready to be loaded in the order they were added.
+     */
+    public Collection<RowSet> getReady() {
+        Collection<RowSet> ready = newArrayList();
+        for (Iterator<Map.Entry<RowSet, Collection<RowSet>>> iterator = dependencies.entrySet().iterator();
+             iterator.hasNext(); ) {
+            Map.Entry<RowSet, Collection<RowSet>> entry = iterator.next();
+            if (entry.getValue().isEmpty()) {
+                ready.add(entry.getKey());
+                iterator.remove();
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * Removes all row sets left in the graph regardless of their dependencies, which is used to break a cycle of
+     * foreign keys.
+     *
+     * @return remaining row sets.
+     */
+    public Collection<RowSet> getRemaining() {
+        Collection<RowSet> remaining = newArrayList(dependencies.keySet());
+        dependencies.clear();
+        return remaining;
+    }
+
+    /**
+     * Marks the row set as loaded, releasing row sets depending on it.
+     */
+    public void loaded(RowSet rowSet) {
+        for (RowSet dependent : dependents.removeAll(rowSet)) {
+            Collection<RowSet> rowSetDependencies = dependencies.get(dependent);
+            if (rowSetDependencies != null) {
+                rowSetDependencies.remove(rowSet);
+            }
+        }
+    }
+
+    public Collection<RowSet> getDependencies(RowSet rowSet) {
+        return dependencies.get(rowSet);
+    }
+
+    public boolean isEmpty() {
+        return dependencies.isEmpty();
+    }
+}
@@ -30,28 +30,41 @@ package com.nuodb.migrator.load;
 import com.google.common.base.Function;
 import com.nuodb.migrator.MigratorException;
 import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupJournal;
 import com.nuodb.migrator.backup.BackupManager;
 import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.ChunkLobs;
 import com.nuodb.migrator.backup.Column;
 import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.backup.XmlBackupManager;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.InputFormat;
+import com.nuodb.migrator.backup.format.value.RowBuffer;
+import com.nuodb.migrator.backup.format.value.RowCodec;
+import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
 import com.nuodb.migrator.backup.format.value.ValueHandleList;
 import com.nuodb.migrator.backup.format.value.ValueHandleListBuilder;
 import com.nuodb.migrator.jdbc.JdbcUtils;
 import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.commit.CommitStrategyBase;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
 import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.ForeignKey;
+import com.nuodb.migrator.jdbc.metadata.Index;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.metadata.generator.ConnectionScriptExporter;
+import com.nuodb.migrator.jdbc.metadata.generator.HasSchemasScriptGenerator;
 import com.nuodb.migrator.jdbc.metadata.generator.ScriptExporter;
+import com.nuodb.migrator.jdbc.metadata.generator.ScriptGenerator;
 import com.nuodb.migrator.jdbc.metadata.generator.ScriptGeneratorManager;
 import com.nuodb.migrator.jdbc.metadata.inspector.InspectionScope;
 import com.nuodb.migrator.jdbc.metadata.inspector.TableInspectionScope;
 import com.nuodb.migrator.jdbc.model.Field;
 import com.nuodb.migrator.jdbc.query.InsertQueryBuilder;
+import com.nuodb.migrator.jdbc.query.InsertStrategy;
 import com.nuodb.migrator.jdbc.query.InsertType;
 import com.nuodb.migrator.jdbc.query.Query;
 import com.nuodb.migrator.jdbc.query.StatementCallback;
@@ -59,41 +72,95 @@ import com.nuodb.migrator.jdbc.query.StatementFactory;
 import com.nuodb.migrator.jdbc.query.StatementTemplate;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
-import com.nuodb.migrator.job.ScriptGeneratorJobBase;
+import com.nuodb.migrator.jdbc.session.WorkManager;
+import com.nuodb.migrator.job.InsertJobBase;
+import com.nuodb.migrator.metrics.MetricsRecorder;
 import com.nuodb.migrator.spec.ConnectionSpec;
 import com.nuodb.migrator.spec.LoadJobSpec;
 import com.nuodb.migrator.spec.MigrationMode;
 import com.nuodb.migrator.spec.ResourceSpec;
+import org.apache.commons.io.input.CountingInputStream;
 
+import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static com.google.common.collect.Iterables.get;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static com.nuodb.migrator.backup.BackupDirs.setDirs;
+import static com.nuodb.migrator.backup.format.FormatAttributes.ATTRIBUTE_MAPPED;
+import static com.nuodb.migrator.backup.format.value.RowBuffer.END;
 import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static com.nuodb.migrator.load.LoadGraph.newLoadGraph;
 import static com.nuodb.migrator.jdbc.JdbcUtils.close;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.*;
+import static com.nuodb.migrator.jdbc.query.InsertStrategy.BATCH;
+import static com.nuodb.migrator.jdbc.query.InsertStrategy.BULK;
+import static com.nuodb.migrator.jdbc.query.InsertStrategy.MULTI_ROW;
 import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
 import static com.nuodb.migrator.jdbc.session.SessionObservers.newSessionTimeZoneSetter;
 import static com.nuodb.migrator.spec.MigrationMode.DATA;
 import static com.nuodb.migrator.spec.MigrationMode.SCHEMA;
 import static com.nuodb.migrator.utils.Collections.contains;
 import static com.nuodb.migrator.utils.Collections.isEmpty;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Math.min;
 import static java.lang.String.format;
+import static java.lang.System.arraycopy;
+import static java.lang.System.nanoTime;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * @author Sergey Bushik
  */
 @SuppressWarnings("ConstantConditions")
-public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
+public class LoadJob extends InsertJobBase<LoadJobSpec> {
+
+    /**
+     * Data is loaded on the single target session in one transaction unless more threads are requested
+     */
+    public static final int THREADS = 1;
+
+    /**
+     * Pipelining is disabled by default, rows are decoded and loaded on the same thread
+     */
+    public static final int PIPELINE_DEPTH = 0;
+
+    /**
+     * Number of rows in a single statement of the multi row insert strategy
+     */
+    public static final int INSERT_ROWS = 100;
+
+    /**
+     * Journal steps recorded once schema scripts before and after the data load are executed
+     */
+    protected static final String SCHEMA_STEP = "schema";
+    protected static final String INDEXES_STEP = "indexes";
+    protected static final String FOREIGN_KEYS_STEP = "foreign-keys";
 
     private RowSetMapper rowSetMapper = new SimpleRowSetMapper();
 
     private BackupManager backupManager;
+    private BackupJournal backupJournal;
+    private SessionFactory targetSessionFactory;
     private ValueFormatRegistry valueFormatRegistry;
 
     public LoadJob() {
@@ -109,8 +176,10 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
 
         setBackupManager(createBackupManager());
 
+        SessionFactory targetSessionFactory;
+        setTargetSessionFactory(targetSessionFactory = createTargetSessionFactory());
         Session targetSession;
-        setTargetSession(targetSession = createTargetSessionFactory().openSession());
+        setTargetSession(targetSession = targetSessionFactory.openSession());
 
         Collection<MigrationMode> migrationModes = getMigrationModes();
         FormatFactory formatFactory = null;
@@ -130,41 +199,475 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         setSourceSpec(database.getConnectionSpec());
         setSourceSession(createSourceSessionFactory(database).openSession());
 
+        BackupJournal backupJournal;
+        setBackupJournal(backupJournal = openJournal());
+        try {
+            execute(backup, database);
+        } finally {
+            backupJournal.close();
+        }
+        // everything is loaded, the journal is no longer needed to resume
+        backupJournal.delete();
+    }
+
+    /**
+     * Opens checkpoint journal if the load is resumed or the journal is requested, otherwise the load keeps its
+     * progress in memory and writes nothing, so that concurrent loads of the same or a read only backup are possible.
+     */
+    protected BackupJournal openJournal() {
+        BackupJournal backupJournal;
+        if (isResume() || getJournal() != null) {
+            backupJournal = getBackupManager().openJournal(getJournal(), isResume());
+        } else {
+            backupJournal = new BackupJournal(null);
+            backupJournal.open(false);
+        }
+        return backupJournal;
+    }
+
+    protected void execute(Backup backup, Database database) throws Exception {
+        BackupJournal backupJournal = getBackupJournal();
         Collection<MetaDataType> indexes = newArrayList(PRIMARY_KEY, FOREIGN_KEY, INDEX);
         Collection<MigrationMode> migrationModes = getMigrationModes();
         // import scripts excluding indexes
-        if (contains(migrationModes, SCHEMA)) {
+        if (contains(migrationModes, SCHEMA) && !backupJournal.isStepDone(SCHEMA_STEP)) {
             ScriptGeneratorManager scriptGeneratorManager = createScriptGeneratorManager();
             Collection<MetaDataType> objectTypes = newArrayList(getObjectTypes());
             objectTypes.removeAll(indexes);
             scriptGeneratorManager.setObjectTypes(objectTypes);
             exportScripts(scriptGeneratorManager.getScripts(database));
+            backupJournal.writeStep(SCHEMA_STEP);
         }
+        boolean createIndexes = contains(migrationModes, SCHEMA) && !backupJournal.isStepDone(INDEXES_STEP);
         // import data
         if (contains(migrationModes, DATA)) {
-            Connection connection = getTargetSession().getConnection();
+            addExpectedRows(backup);
             Database target = inspect();
-            try {
-                for (RowSet rowSet : backup.getRowSets()) {
-                    load(rowSet, target);
+            // foreign keys are created after the data if the schema is loaded, otherwise they may already exist
+            LoadGraph loadGraph = newLoadGraph(backup, database, !contains(migrationModes, SCHEMA));
+            if (getThreads() > 1) {
+                load(backup, target, loadGraph, createIndexes ? createIndexesScriptGeneratorManager() : null);
+            } else {
+                Connection connection = getTargetSession().getConnection();
+                CommitStrategy commitStrategy = createCommitStrategy();
+                LoadProgress loadProgress = createLoadProgress(commitStrategy);
+                try {
+                    while (!loadGraph.isEmpty()) {
+                        Collection<RowSet> rowSets = loadGraph.getReady();
+                        if (rowSets.isEmpty()) {
+                            rowSets = getRemaining(loadGraph);
+                        }
+                        for (RowSet rowSet : rowSets) {
+                            load(rowSet, target, commitStrategy, loadProgress);
+                            loadGraph.loaded(rowSet);
+                        }
+                    }
+                    long time = nanoTime();
+                    connection.commit();
+                    loadProgress.commit(nanoTime() - time);
+                } catch (MigratorException exception) {
+                    connection.rollback();
+                    throw exception;
+                } catch (Exception exception) {
+                    connection.rollback();
+                    throw new LoadException(exception);
                 }
-                connection.commit();
-            } catch (MigratorException exception) {
-                connection.rollback();
-                throw exception;
-            } catch (Exception exception) {
-                connection.rollback();
-                throw new LoadException(exception);
             }
+            logBatchSizes();
         }
-        // import remaining scripts for indexes
-        if (contains(migrationModes, SCHEMA)) {
-            ScriptGeneratorManager scriptGeneratorManager = createScriptGeneratorManager();
-            Collection<MetaDataType> objectTypes = newArrayList(getObjectTypes());
-            objectTypes.retainAll(indexes);
-            scriptGeneratorManager.setObjectTypes(objectTypes);
-            exportScripts(scriptGeneratorManager.getScripts(database));
+        // import primary keys and indexes of the tables which weren't indexed right after their data, then foreign
+        // keys, which may reference any table
+        if (createIndexes) {
+            ScriptGeneratorManager indexesScriptGeneratorManager = createIndexesScriptGeneratorManager();
+            ScriptGeneratorManager foreignKeysScriptGeneratorManager = getObjectTypes().contains(FOREIGN_KEY) ?
+                    createForeignKeysScriptGeneratorManager() : null;
+            if (getThreads() > 1) {
+                createIndexes(database, indexesScriptGeneratorManager, foreignKeysScriptGeneratorManager);
+            } else {
+                Collection<String> scripts = newArrayList();
+                String useSchema = null;
+                for (Table table : database.getTables()) {
+                    if (isIndexTable(table, indexesScriptGeneratorManager) &&
+                            !backupJournal.isStepDone(getIndexesStep(table))) {
+                        useSchema = addTableScripts(scripts, useSchema, table,
+                                getIndexScripts(table, indexesScriptGeneratorManager), indexesScriptGeneratorManager);
+                    }
+                }
+                if (foreignKeysScriptGeneratorManager != null) {
+                    for (Table table : database.getTables()) {
+                        if (isIndexTable(table, foreignKeysScriptGeneratorManager) &&
+                                !backupJournal.isStepDone(getForeignKeysStep(table))) {
+                            useSchema = addTableScripts(scripts, useSchema, table,
+                                    getForeignKeyScripts(table, foreignKeysScriptGeneratorManager),
+                                    foreignKeysScriptGeneratorManager);
+                        }
+                    }
+                }
+                exportScripts(scripts);
+            }
+            backupJournal.writeStep(INDEXES_STEP);
+        }
+    }
+
+    /**
+     * Creates script generator manager producing primary keys and indexes of the tables.
+     */
+    protected ScriptGeneratorManager createIndexesScriptGeneratorManager() throws SQLException {
+        ScriptGeneratorManager scriptGeneratorManager = createScriptGeneratorManager();
+        Collection<MetaDataType> objectTypes = newArrayList(getObjectTypes());
+        objectTypes.retainAll(newArrayList(PRIMARY_KEY, INDEX));
+        scriptGeneratorManager.setObjectTypes(objectTypes);
+        return scriptGeneratorManager;
+    }
+
+    /**
+     * Creates script generator manager producing foreign keys of the tables.
+     */
+    protected ScriptGeneratorManager createForeignKeysScriptGeneratorManager() throws SQLException {
+        ScriptGeneratorManager scriptGeneratorManager = createScriptGeneratorManager();
+        scriptGeneratorManager.setObjectTypes(newArrayList(FOREIGN_KEY));
+        return scriptGeneratorManager;
+    }
+
+    /**
+     * Generates primary key and indexes scripts of the dumped table.
+     */
+    protected Collection<String> getIndexScripts(Table table, ScriptGeneratorManager scriptGeneratorManager) {
+        Collection<MetaDataType> objectTypes = scriptGeneratorManager.getObjectTypes();
+        Collection<String> scripts = newLinkedHashSet();
+        PrimaryKey primaryKey = table.getPrimaryKey();
+        if (objectTypes.contains(PRIMARY_KEY) && primaryKey != null) {
+            scripts.addAll(scriptGeneratorManager.getCreateScripts(primaryKey));
+        }
+        if (objectTypes.contains(INDEX)) {
+            for (Index index : table.getIndexes()) {
+                if (!index.isPrimary()) {
+                    scripts.addAll(scriptGeneratorManager.getCreateScripts(index));
+                }
+            }
+        }
+        return scripts;
+    }
+
+    /**
+     * Generates scripts of the foreign keys of the dumped table, which reference tables of the loaded types.
+     */
+    protected Collection<String> getForeignKeyScripts(Table table, ScriptGeneratorManager scriptGeneratorManager) {
+        Collection<String> scripts = newLinkedHashSet();
+        for (ForeignKey foreignKey : table.getForeignKeys()) {
+            if (isIndexTable(foreignKey.getPrimaryTable(), scriptGeneratorManager)) {
+                scripts.addAll(scriptGeneratorManager.getCreateScripts(foreignKey));
+            }
+        }
+        return scripts;
+    }
+
+    /**
+     * Returns scripts of the table preceded by the statement switching to its schema, as every work executes its
+     * scripts on a target session of its own.
+     *
+     * @return scripts switching to the schema of the table or empty scripts if the table has none.
+     */
+    protected Collection<String> getTableScripts(Table table, Collection<String> tableScripts,
+                                                 ScriptGeneratorManager scriptGeneratorManager) {
+        Collection<String> scripts = newArrayList();
+        addTableScripts(scripts, null, table, tableScripts, scriptGeneratorManager);
+        return scripts;
+    }
+
+    /**
+     * Adds scripts of the table preceded by the statement switching to its schema, unless the preceding scripts
+     * already switched to it. Primary keys and indexes are created with unqualified names, so the schema is switched
+     * to and mapped to the target schema or catalog the same way as for the schema scripts.
+     *
+     * @param scripts      to add scripts of the table to.
+     * @param useSchema    statement switching to the schema of the preceding scripts or null.
+     * @param table        the scripts are generated for.
+     * @param tableScripts scripts of the table.
+     * @return statement switching to the schema of the added scripts.
+     */
+    protected String addTableScripts(Collection<String> scripts, String useSchema, Table table,
+                                     Collection<String> tableScripts, ScriptGeneratorManager scriptGeneratorManager) {
+        if (!tableScripts.isEmpty()) {
+            String tableUseSchema = getUseSchema(table, scriptGeneratorManager);
+            if (!tableUseSchema.equals(useSchema)) {
+                scripts.add(useSchema = tableUseSchema);
+            }
+            scripts.addAll(tableScripts);
+        }
+        return useSchema;
+    }
+
+    protected String getUseSchema(Table table, ScriptGeneratorManager scriptGeneratorManager) {
+        return getHasSchemasScriptGenerator(table, scriptGeneratorManager).getUseSchema(table, scriptGeneratorManager);
+    }
+
+    /**
+     * Tells whether primary key, indexes and foreign keys of the table are created, the table is filtered the same way
+     * as when scripts of the whole database are generated, by the source catalog and schema and by the table types.
+     */
+    protected boolean isIndexTable(Table table, ScriptGeneratorManager scriptGeneratorManager) {
+        return getHasSchemasScriptGenerator(table, scriptGeneratorManager).isGenerated(table, scriptGeneratorManager);
+    }
+
+    protected HasSchemasScriptGenerator getHasSchemasScriptGenerator(Table table,
+                                                                     ScriptGeneratorManager scriptGeneratorManager) {
+        ScriptGenerator scriptGenerator = scriptGeneratorManager.getScriptGenerator(table.getDatabase());
+        return scriptGenerator instanceof HasSchemasScriptGenerator ?
+                (HasSchemasScriptGenerator) scriptGenerator : new HasSchemasScriptGenerator();
+    }
+
+    /**
+     * Returns journal step recorded once primary key and indexes of the table are created.
+     */
+    public String getIndexesStep(Table table) {
+        return INDEXES_STEP + ":" + table.getQualifiedName(null);
+    }
+
+    /**
+     * Returns journal step recorded once foreign keys of the table are created.
+     */
+    public String getForeignKeysStep(Table table) {
+        return FOREIGN_KEYS_STEP + ":" + table.getQualifiedName(null);
+    }
+
+    /**
+     * Releases row sets which foreign keys form a cycle, these row sets are loaded in the dump order.
+     */
+    protected Collection<RowSet> getRemaining(LoadGraph loadGraph) {
+        Collection<RowSet> rowSets = loadGraph.getRemaining();
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Foreign keys of %d row set(s) form a cycle, loading them in the dump order",
+                    rowSets.size()));
+        }
+        return rowSets;
+    }
+
+    /**
+     * Loads row sets concurrently in the order of the load graph. Every chunk of every row set released by the graph
+     * is submitted as a separate work to the executor and is loaded on a target session opened for this work, so
+     * independent row sets and independent chunks of the same row set are loaded in parallel. Each work commits its
+     * own transaction. Once all chunks of a row set are loaded, row sets depending on it are released and primary
+     * key and indexes of its table are created by a separate work, while the rest of the row sets are being loaded.
+     *
+     * @param backup                 to load row sets from.
+     * @param database               inspected target database.
+     * @param loadGraph              dependencies between row sets.
+     * @param scriptGeneratorManager generates primary keys and indexes of the loaded tables or null if indexes
+     *                               shouldn't be created.
+     */
+    protected void load(Backup backup, Database database, LoadGraph loadGraph,
+                        ScriptGeneratorManager scriptGeneratorManager) {
+        ExecutorService executor = createExecutor();
+        WorkManager workManager = createWorkManager();
+        BlockingQueue<RowSet> loaded = new LinkedBlockingQueue<RowSet>();
+        boolean awaitTermination = true;
+        try {
+            int loading = 0;
+            while (workManager.getFailures().isEmpty() && (!loadGraph.isEmpty() || loading > 0)) {
+                Collection<RowSet> rowSets = loadGraph.getReady();
+                if (rowSets.isEmpty() && loading == 0) {
+                    rowSets = getRemaining(loadGraph);
+                }
+                for (RowSet rowSet : rowSets) {
+                    // stop submitting row sets as soon as a work fails, the outer loop ends on the failure
+                    if (!workManager.getFailures().isEmpty()) {
+                        break;
+                    }
+                    load(executor, workManager, rowSet, database, loaded);
+                    loading++;
+                }
+                RowSet rowSet = loaded.poll(100L, MILLISECONDS);
+                if (rowSet != null) {
+                    loading--;
+                    loadGraph.loaded(rowSet);
+                    if (scriptGeneratorManager != null && workManager.getFailures().isEmpty()) {
+                        createIndexes(executor, workManager, LoadGraph.getTable(rowSet, backup.getDatabase()),
+                                scriptGeneratorManager);
+                    }
+                }
+            }
+        } catch (Throwable failure) {
+            awaitTermination = false;
+            throw failure instanceof MigratorException ? (MigratorException) failure : new LoadException(failure);
+        } finally {
+            closeWorkManager(executor, workManager, awaitTermination);
+        }
+    }
+
+    /**
+     * Submits pending chunks of the row set, the row set is put to the loaded queue once all of them are executed.
+     */
+    protected void load(ExecutorService executor, WorkManager workManager, final RowSet rowSet, Database database,
+                        final BlockingQueue<RowSet> loaded) {
+        Table table = null;
+        Collection<Chunk> chunks = newArrayList();
+        if (isEmpty(rowSet.getChunks())) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(format("Row set %s is empty, skipping it", rowSet.getName()));
+            }
+        } else if ((table = getRowSetMapper().map(rowSet, database)) != null) {
+            for (Chunk chunk : rowSet.getChunks()) {
+                if (!getBackupJournal().isChunkDone(rowSet.getName(), chunk.getName())) {
+                    chunks.add(chunk);
+                }
+            }
+        }
+        if (chunks.isEmpty()) {
+            loaded.add(rowSet);
+            return;
+        }
+        Query query = createQuery(table, rowSet.getColumns());
+        final AtomicInteger pending = new AtomicInteger(chunks.size());
+        Runnable callback = new Runnable() {
+            @Override
+            public void run() {
+                if (pending.decrementAndGet() == 0) {
+                    loaded.add(rowSet);
+                }
+            }
+        };
+        for (Chunk chunk : chunks) {
+            if (!workManager.getFailures().isEmpty()) {
+                break;
+            }
+            executeWork(executor, workManager, new LoadRowSetWork(this, rowSet, table, query, singleton(chunk)),
+                    callback);
+        }
+    }
+
+    /**
+     * Creates primary keys, indexes and foreign keys concurrently on separate target sessions. Primary key and indexes
+     * of every table are created by a work of their own, foreign keys of a table are created by another work started
+     * once the table and all the tables it references are indexed, so that referenced primary keys already exist.
+     *
+     * @param database                          dumped database.
+     * @param indexesScriptGeneratorManager     generates primary keys and indexes.
+     * @param foreignKeysScriptGeneratorManager generates foreign keys or null if foreign keys aren't created.
+     */
+    protected void createIndexes(Database database, ScriptGeneratorManager indexesScriptGeneratorManager,
+                                 ScriptGeneratorManager foreignKeysScriptGeneratorManager) {
+        ExecutorService executor = createExecutor();
+        WorkManager workManager = createWorkManager();
+        BlockingQueue<Table> indexed = new LinkedBlockingQueue<Table>();
+        boolean awaitTermination = true;
+        try {
+            Collection<Table> tables = newArrayList();
+            Map<Table, Collection<Table>> foreignKeys = newLinkedHashMap();
+            for (Table table : database.getTables()) {
+                if (!isIndexTable(table, indexesScriptGeneratorManager)) {
+                    continue;
+                }
+                tables.add(table);
+                if (foreignKeysScriptGeneratorManager != null &&
+                        !getBackupJournal().isStepDone(getForeignKeysStep(table))) {
+                    Collection<Table> primaryTables = newHashSet(table);
+                    for (ForeignKey foreignKey : table.getForeignKeys()) {
+                        if (isIndexTable(foreignKey.getPrimaryTable(), foreignKeysScriptGeneratorManager)) {
+                            primaryTables.add(foreignKey.getPrimaryTable());
+                        }
+                    }
+                    foreignKeys.put(table, primaryTables);
+                }
+            }
+            for (Table table : tables) {
+                if (!workManager.getFailures().isEmpty()) {
+                    break;
+                }
+                createIndexes(executor, workManager, table, indexesScriptGeneratorManager, indexed);
+            }
+            int indexing = tables.size();
+            while (workManager.getFailures().isEmpty() && indexing > 0) {
+                Table table = indexed.poll(100L, MILLISECONDS);
+                if (table == null) {
+                    continue;
+                }
+                indexing--;
+                for (Iterator<Map.Entry<Table, Collection<Table>>> iterator = foreignKeys.entrySet().iterator();
+                     iterator.hasNext(); ) {
+                    Map.Entry<Table, Collection<Table>> entry = iterator.next();
+                    entry.getValue().remove(table);
+                    if (entry.getValue().isEmpty()) {
+                        createForeignKeys(executor, workManager, entry.getKey(), foreignKeysScriptGeneratorManager);
+                        iterator.remove();
+                    }
+                }
+            }
+        } catch (Throwable failure) {
+            awaitTermination = false;
+            throw failure instanceof MigratorException ? (MigratorException) failure : new LoadException(failure);
+        } finally {
+            closeWorkManager(executor, workManager, awaitTermination);
+        }
+    }
+
+    protected void createIndexes(ExecutorService executor, WorkManager workManager, Table table,
+                                 ScriptGeneratorManager scriptGeneratorManager) {
+        createIndexes(executor, workManager, table, scriptGeneratorManager, null);
+    }
+
+    /**
+     * Submits primary key and indexes of the table, the table is put to the indexed queue once they are created.
+     *
+     * @param indexed queue of the indexed tables, may be null.
+     */
+    protected void createIndexes(ExecutorService executor, WorkManager workManager, final Table table,
+                                 ScriptGeneratorManager scriptGeneratorManager, final BlockingQueue<Table> indexed) {
+        Collection<String> scripts = null;
+        if (table != null && isIndexTable(table, scriptGeneratorManager) &&
+                !getBackupJournal().isStepDone(getIndexesStep(table))) {
+            scripts = getIndexScripts(table, scriptGeneratorManager);
+            if (scripts.isEmpty()) {
+                getBackupJournal().writeStep(getIndexesStep(table));
+            }
+        }
+        if (scripts == null || scripts.isEmpty()) {
+            if (indexed != null) {
+                indexed.add(table);
+            }
+            return;
+        }
+        executeWork(executor, workManager, new LoadScriptsWork(this, table,
+                getTableScripts(table, scripts, scriptGeneratorManager), getIndexesStep(table)),
+                indexed != null ? new Runnable() {
+                    @Override
+                    public void run() {
+                        indexed.add(table);
+                    }
+                } : null);
+    }
+
+    protected void createForeignKeys(ExecutorService executor, WorkManager workManager, Table table,
+                                     ScriptGeneratorManager scriptGeneratorManager) {
+        Collection<String> scripts = getForeignKeyScripts(table, scriptGeneratorManager);
+        if (scripts.isEmpty()) {
+            getBackupJournal().writeStep(getForeignKeysStep(table));
+        } else {
+            executeWork(executor, workManager, new LoadScriptsWork(this, table,
+                    getTableScripts(table, scripts, scriptGeneratorManager), getForeignKeysStep(table)));
+        }
+    }
+
+    /**
+     * Sets row counts of the dumped row sets as the number of rows expected to be loaded, which progress and the
+     * remaining time of the load are estimated with.
+     */
+    protected void addExpectedRows(Backup backup) {
+        for (RowSet rowSet : backup.getRowSets()) {
+            getJobMetrics().addExpectedRows(rowSet.getName(), rowSet.getRowCount());
+        }
+    }
+
+    /**
+     * Creates load progress notified about the commits of the strategy. Strategies which don't extend the
+     * {@link CommitStrategyBase} never notify it, so their rows are recorded as committed with the load transaction.
+     */
+    protected LoadProgress createLoadProgress(CommitStrategy commitStrategy) {
+        LoadProgress loadProgress = new LoadProgress(getBackupJournal(), new MetricsRecorder(getJobMetrics()));
+        if (commitStrategy instanceof CommitStrategyBase) {
+            ((CommitStrategyBase) commitStrategy).setCommitListener(loadProgress);
         }
+        return loadProgress;
     }
 
     protected void exportScripts(Collection<String> scripts) throws Exception {
@@ -178,7 +681,9 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
     }
 
     protected BackupManager createBackupManager() {
-        return new XmlBackupManager(getPath());
+        BackupManager backupManager = new XmlBackupManager(getPath());
+        setDirs(backupManager, getFormatAttributes());
+        return backupManager;
     }
 
     protected SessionFactory createSourceSessionFactory(Database database) {
@@ -198,6 +703,7 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
 
     @Override
     public void release() throws Exception {
+        closePipelineExecutor();
         close(getTargetSession());
     }
 
@@ -207,7 +713,8 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
                 DATABASE, CATALOG, MetaDataType.SCHEMA, TABLE, COLUMN).getObject(DATABASE);
     }
 
-    protected void load(final RowSet rowSet, Database database) throws SQLException {
+    protected void load(final RowSet rowSet, Database database, final CommitStrategy commitStrategy,
+                        final LoadProgress loadProgress) throws SQLException {
         if (!isEmpty(rowSet.getChunks())) {
             final Connection connection = getTargetSession().getConnection();
             final Table table = getRowSetMapper().map(rowSet, database);
@@ -225,7 +732,8 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
                             @Override
                             public void executeStatement(PreparedStatement statement)
                                     throws SQLException {
-                                load(rowSet, table, statement, query);
+                                load(getTargetSession(), rowSet, table, rowSet.getChunks(), statement, query,
+                                        commitStrategy, loadProgress);
                             }
                         }
                 );
@@ -237,28 +745,99 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         }
     }
 
-    protected void load(RowSet rowSet, Table table, PreparedStatement statement, Query query) throws SQLException {
-        String format = rowSet.getBackup().getFormat();
-        InputFormat inputFormat = getFormatFactory().createInputFormat(format, getFormatAttributes());
-        ValueHandleList valueHandleList = createValueHandleList(rowSet, table, statement);
-        CommitStrategy commitStrategy = getJobSpec().getCommitStrategy();
-        for (Chunk chunk : rowSet.getChunks()) {
-            inputFormat.setRowSet(rowSet);
-            inputFormat.setValueHandleList(valueHandleList);
-            inputFormat.setInputStream(getBackupManager().openInput(chunk.getName()));
-            inputFormat.init();
-            if (logger.isTraceEnabled()) {
-                logger.trace(format("Loading %d rows from %s chunk to %s table",
-                        chunk.getRowCount(), chunk.getName(), table.getQualifiedName(null)));
+    protected void load(Session session, RowSet rowSet, Table table, Collection<Chunk> chunks,
+                        PreparedStatement statement, Query query, CommitStrategy commitStrategy,
+                        LoadProgress loadProgress) throws SQLException {
+        Collection<Chunk> pendingChunks = newArrayList();
+        for (Chunk chunk : chunks) {
+            if (getBackupJournal().isChunkDone(rowSet.getName(), chunk.getName())) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug(format("Chunk %s is loaded by the previous run, skipping it", chunk.getName()));
+                }
+            } else {
+                pendingChunks.add(chunk);
+            }
+        }
+        if (pendingChunks.isEmpty()) {
+            return;
+        }
+        ValueHandleList valueHandleList = createValueHandleList(session, rowSet, table, statement);
+        RowInserter rowInserter = createRowInserter(session, rowSet, table, valueHandleList, statement, query,
+                commitStrategy, loadProgress);
+        try {
+            int pipelineDepth = getPipelineDepth();
+            if (pipelineDepth > 0) {
+                loadPipelined(rowSet, table, pendingChunks, valueHandleList, rowInserter, loadProgress,
+                        pipelineDepth);
+            } else {
+                loadSequential(rowSet, table, pendingChunks, valueHandleList, rowInserter, loadProgress);
+            }
+        } finally {
+            rowInserter.close();
+        }
+    }
+
+    /**
+     * Creates inserter of the rows according to the insert strategy of the table, a multi row inserter prepares its
+     * own statement with the configured number of rows on the session and falls back to the single row statement
+     * for the rows left at the end of every chunk.
+     */
+    protected RowInserter createRowInserter(Session session, RowSet rowSet, Table table,
+                                            ValueHandleList valueHandleList, PreparedStatement statement,
+                                            Query query, CommitStrategy commitStrategy,
+                                            LoadProgress loadProgress) throws SQLException {
+        RowInserter rowInserter = new RowInserter(statement, query, new RowCodec(valueHandleList), commitStrategy,
+                loadProgress);
+        InsertStrategy insertStrategy = getInsertStrategy(session.getDialect(), table);
+        int insertRows = !isEmpty(rowSet.getColumns()) ?
+                getInsertRows(session.getDialect(), table, rowSet.getColumns().size()) : getInsertRows();
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Table %s is loaded with %s insert strategy", table.getQualifiedName(null),
+                    InsertStrategy.toAlias(insertStrategy)));
+        }
+        if (insertStrategy == MULTI_ROW && insertRows > 1 && !isEmpty(rowSet.getColumns())) {
+            Query multiRowQuery = createQuery(table, rowSet.getColumns(), insertRows);
+            PreparedStatement multiRowStatement = session.getConnection().prepareStatement(multiRowQuery.toString());
+            try {
+                ValueHandleList multiRowValueHandleList = createValueHandleList(session, rowSet, table,
+                        multiRowStatement, insertRows);
+                rowInserter = new MultiRowInserter(rowInserter, multiRowStatement, multiRowQuery,
+                        new RowCodec(multiRowValueHandleList), insertRows);
+            } catch (SQLException exception) {
+                close(multiRowStatement);
+                throw exception;
+            } catch (RuntimeException exception) {
+                close(multiRowStatement);
+                throw exception;
             }
-            inputFormat.readStart();
-            long row = 0;
+        }
+        return rowInserter;
+    }
+
+    /**
+     * Reads, binds and executes rows of each chunk one by one on the current thread.
+     */
+    protected void loadSequential(RowSet rowSet, Table table, Collection<Chunk> chunks,
+                                  ValueHandleList valueHandleList, RowInserter rowInserter,
+                                  LoadProgress loadProgress) {
+        InputFormat inputFormat = createInputFormat(rowSet);
+        MetricsRecorder metricsRecorder = loadProgress.getMetricsRecorder();
+        for (Chunk chunk : chunks) {
+            CountingInputStream input = openInputFormat(inputFormat, rowSet, table, chunk, valueHandleList);
+            ChunkLobs chunkLobs = createChunkLobs(rowSet, chunk);
+            long row = skipRows(inputFormat, chunkLobs, rowSet, chunk);
+            loadProgress.start(rowSet, chunk, row);
             try {
-                while (inputFormat.read()) {
-                    commitStrategy.onExecute(statement, query);
+                Value[] values;
+                long time = nanoTime();
+                while ((values = readValues(inputFormat, chunkLobs)) != null) {
+                    metricsRecorder.encodeTime(nanoTime() - time);
+                    rowInserter.insert(values);
                     row++;
+                    time = nanoTime();
                 }
-                commitStrategy.finish(statement, query);
+                metricsRecorder.bytes(input.getByteCount());
+                rowInserter.end();
             } catch (Exception exception) {
                 throw new LoadException(format("Error loading row %d from %s chunk to %s table",
                               row + 1, chunk.getName(), table.getQualifiedName(null)), exception);
@@ -271,25 +850,252 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         }
     }
 
-    protected ValueHandleList createValueHandleList(final RowSet rowSet, final Table table,
+    /**
+     * Decodes chunks on a reader submitted to the pipeline executor into a bounded row buffer, while the current
+     * thread, which owns the target connection, binds buffered rows and executes them with the commit strategy. The
+     * reader marks the end of every chunk in the buffer, so the commit strategy is finished per chunk as in the
+     * sequential load.
+     *
+     * @param pipelineDepth number of rows the reader can decode ahead of the binder
+     */
+    protected void loadPipelined(final RowSet rowSet, final Table table, final Collection<Chunk> chunks,
+                                 final ValueHandleList valueHandleList, RowInserter rowInserter,
+                                 LoadProgress loadProgress, int pipelineDepth) {
+        final RowBuffer rowBuffer = new RowBuffer(pipelineDepth, valueHandleList.size());
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Future<?> reader = getPipelineExecutor().submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    read(rowSet, table, chunks, valueHandleList, rowBuffer);
+                } catch (Throwable throwable) {
+                    failure.set(throwable);
+                } finally {
+                    rowBuffer.close();
+                }
+            }
+        });
+
+        Iterator<Chunk> iterator = chunks.iterator();
+        Chunk chunk = null;
+        long row = 0;
+        try {
+            Value[] values;
+            while ((values = rowBuffer.take()) != null) {
+                if (chunk == null) {
+                    chunk = iterator.next();
+                    row = getChunkOffset(rowSet, chunk);
+                    loadProgress.start(rowSet, chunk, row);
+                }
+                if (values == END) {
+                    rowBuffer.release();
+                    rowInserter.end();
+                    if (logger.isTraceEnabled()) {
+                        logger.trace(format("Chunk %s loaded", chunk.getName()));
+                    }
+                    chunk = null;
+                } else {
+                    rowInserter.insert(values);
+                    rowBuffer.release();
+                    row++;
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new LoadException(format("Loading of %s table was interrupted", table.getQualifiedName(null)),
+                    exception);
+        } catch (Exception exception) {
+            throw new LoadException(format("Error loading row %d from %s chunk to %s table",
+                    row + 1, chunk.getName(), table.getQualifiedName(null)), exception);
+        } finally {
+            rowBuffer.abort();
+            try {
+                reader.get();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException exception) {
+                failure.compareAndSet(null, exception.getCause());
+            }
+        }
+        Throwable throwable = failure.get();
+        if (throwable != null) {
+            throw throwable instanceof MigratorException ? (MigratorException) throwable : new LoadException(throwable);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Table %s pipeline depth %d, reader stalls %d, binder stalls %d",
+                    table.getQualifiedName(null), rowBuffer.getDepth(), rowBuffer.getProducerStalls(),
+                    rowBuffer.getConsumerStalls()));
+        }
+    }
+
+    /**
+     * Decodes rows of the chunks into the row buffer and publishes the end marker after each chunk, stops early if
+     * the binder aborts the buffer. Decoding time and bytes read are recorded on behalf of the reader thread.
+     */
+    protected void read(RowSet rowSet, Table table, Collection<Chunk> chunks, ValueHandleList valueHandleList,
+                        RowBuffer rowBuffer) throws InterruptedException {
+        InputFormat inputFormat = createInputFormat(rowSet);
+        MetricsRecorder metricsRecorder = new MetricsRecorder(getJobMetrics(), rowSet.getName());
+        try {
+            for (Chunk chunk : chunks) {
+                CountingInputStream input = openInputFormat(inputFormat, rowSet, table, chunk, valueHandleList);
+                ChunkLobs chunkLobs = createChunkLobs(rowSet, chunk);
+                long row = skipRows(inputFormat, chunkLobs, rowSet, chunk);
+                try {
+                    Value[] values;
+                    long time = nanoTime();
+                    while ((values = readValues(inputFormat, chunkLobs)) != null) {
+                        metricsRecorder.encodeTime(nanoTime() - time);
+                        Value[] buffer = rowBuffer.claim();
+                        if (buffer == null) {
+                            return;
+                        }
+                        arraycopy(values, 0, buffer, 0, buffer.length);
+                        rowBuffer.publish();
+                        row++;
+                        time = nanoTime();
+                    }
+                    inputFormat.readEnd();
+                    metricsRecorder.bytes(input.getByteCount());
+                } catch (InterruptedException exception) {
+                    throw exception;
+                } catch (Exception exception) {
+                    throw new LoadException(format("Error reading row %d from %s chunk to %s table",
+                            row + 1, chunk.getName(), table.getQualifiedName(null)), exception);
+                } finally {
+                    inputFormat.close();
+                }
+                if (!rowBuffer.publishEnd()) {
+                    return;
+                }
+            }
+        } finally {
+            metricsRecorder.flush();
+        }
+    }
+
+    protected InputFormat createInputFormat(RowSet rowSet) {
+        return getFormatFactory().createInputFormat(rowSet.getBackup().getFormat(), getFormatAttributes());
+    }
+
+    /**
+     * Opens the input format on the chunk.
+     *
+     * @return stream counting bytes read from the chunk
+     */
+    protected CountingInputStream openInputFormat(InputFormat inputFormat, RowSet rowSet, Table table, Chunk chunk,
+                                                  ValueHandleList valueHandleList) {
+        CountingInputStream input = new CountingInputStream(openInput(chunk));
+        inputFormat.setRowSet(rowSet);
+        inputFormat.setValueHandleList(valueHandleList);
+        inputFormat.setCodec(chunk.getCodec());
+        inputFormat.setInputStream(input);
+        inputFormat.init();
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Loading %d rows from %s chunk to %s table",
+                    chunk.getRowCount(), chunk.getName(), table.getQualifiedName(null)));
+        }
+        inputFormat.readStart();
+        return input;
+    }
+
+    /**
+     * Opens the chunk file, memory mapped if the mapped input attribute is set.
+     */
+    protected InputStream openInput(Chunk chunk) {
+        BackupManager backupManager = getBackupManager();
+        return isMapped() ? backupManager.openMappedInput(chunk.getDir(), chunk.getName()) :
+                backupManager.openInput(chunk.getDir(), chunk.getName());
+    }
+
+    protected boolean isMapped() {
+        Map<String, Object> attributes = getFormatAttributes();
+        Object mapped = attributes != null ? attributes.get(ATTRIBUTE_MAPPED) : null;
+        return mapped != null && parseBoolean(String.valueOf(mapped));
+    }
+
+    /**
+     * Creates resolver of large object values stored in the side file of the chunk.
+     *
+     * @return resolver or null if the row set has no large object columns
+     */
+    protected ChunkLobs createChunkLobs(RowSet rowSet, Chunk chunk) {
+        return ChunkLobs.create(getBackupManager(), rowSet, chunk);
+    }
+
+    /**
+     * Reads next row of the chunk, large object values are streamed from the side file when bound.
+     *
+     * @return row values or null if the chunk is exhausted
+     */
+    protected Value[] readValues(InputFormat inputFormat, ChunkLobs chunkLobs) {
+        Value[] values = inputFormat.readValues();
+        return chunkLobs != null ? chunkLobs.resolve(values) : values;
+    }
+
+    /**
+     * Skips rows of the chunk committed by a previous run.
+     *
+     * @return number of skipped rows.
+     */
+    protected long skipRows(InputFormat inputFormat, ChunkLobs chunkLobs, RowSet rowSet, Chunk chunk) {
+        long offset = getChunkOffset(rowSet, chunk);
+        long row = 0;
+        while (row < offset && readValues(inputFormat, chunkLobs) != null) {
+            row++;
+        }
+        if (row > 0 && logger.isDebugEnabled()) {
+            logger.debug(format("Skipped %d rows of %s chunk loaded by the previous run", row, chunk.getName()));
+        }
+        return row;
+    }
+
+    protected long getChunkOffset(RowSet rowSet, Chunk chunk) {
+        return getBackupJournal().getChunkOffset(rowSet.getName(), chunk.getName());
+    }
+
+    protected ValueHandleList createValueHandleList(RowSet rowSet, Table table,
                                                     PreparedStatement statement) throws SQLException {
-        ValueHandleListBuilder builder = newBuilder(getTargetSession().getConnection(), statement);
-        builder.withDialect(getTargetSession().getDialect());
-        builder.withFields(newArrayList(transform(rowSet.getColumns(),
+        return createValueHandleList(getTargetSession(), rowSet, table, statement);
+    }
+
+    protected ValueHandleList createValueHandleList(Session session, RowSet rowSet, Table table,
+                                                    PreparedStatement statement) throws SQLException {
+        return createValueHandleList(session, rowSet, table, statement, 1);
+    }
+
+    /**
+     * Creates value handles for the statement binding the given number of rows, fields of the row set are repeated
+     * for each row, so that values of the row go to the parameters following values of the previous row.
+     */
+    protected ValueHandleList createValueHandleList(Session session, final RowSet rowSet, final Table table,
+                                                    PreparedStatement statement, int rows) throws SQLException {
+        ValueHandleListBuilder builder = newBuilder(session.getConnection(), statement);
+        builder.withDialect(session.getDialect());
+        List<Field> row = newArrayList(transform(rowSet.getColumns(),
                 new Function<Column, Field>() {
                     @Override
                     public Field apply(Column column) {
                         return table.getColumn(column.getName());
                     }
-                })));
+                }));
+        List<Field> fields = newArrayList();
+        for (int index = 0; index < rows; index++) {
+            fields.addAll(row);
+        }
+        builder.withFields(fields);
         builder.withTimeZone(getTimeZone());
         builder.withValueFormatRegistry(getValueFormatRegistry());
         return builder.build();
     }
 
     protected Query createQuery(Table table, Collection<Column> columns) {
+        return createQuery(table, columns, 1);
+    }
+
+    protected Query createQuery(Table table, Collection<Column> columns, int rows) {
         InsertQueryBuilder builder = new InsertQueryBuilder();
-        builder.insertType(getInsertType(table)).into(table);
+        builder.insertType(getInsertType(table)).rows(rows).into(table);
         builder.columns(newArrayList(transform(columns, new Function<Column, String>() {
             @Override
             public String apply(Column column) {
@@ -299,20 +1105,33 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         return builder.build();
     }
 
-    protected InsertType getInsertType(Table table) {
+    /**
+     * Resolves insert strategy of the table, the bulk strategy is resolved by the dialect of the target and the multi
+     * row strategy falls back to the batch strategy if the target doesn't support multi row inserts.
+     */
+    protected InsertStrategy getInsertStrategy(Dialect dialect, Table table) {
         Database database = table.getDatabase();
-        Map<String, InsertType> tableInsertTypes = getTableInsertTypes();
-        InsertType insertType = getInsertType();
-        if (tableInsertTypes != null) {
-            for (Map.Entry<String, InsertType> entry : tableInsertTypes.entrySet()) {
+        Map<String, InsertStrategy> tableInsertStrategies = getTableInsertStrategies();
+        InsertStrategy insertStrategy = getInsertStrategy();
+        if (tableInsertStrategies != null) {
+            for (Map.Entry<String, InsertStrategy> entry : tableInsertStrategies.entrySet()) {
                 final Collection<Table> tables = database.findTables(entry.getKey());
                 if (tables.contains(table)) {
-                    insertType = entry.getValue();
+                    insertStrategy = entry.getValue();
                     break;
                 }
             }
         }
-        return insertType;
+        if (insertStrategy == null) {
+            insertStrategy = BATCH;
+        }
+        if (insertStrategy == BULK) {
+            insertStrategy = dialect.getBulkInsertStrategy();
+        }
+        if (insertStrategy == MULTI_ROW && !dialect.supportsMultiRowInsert()) {
+            insertStrategy = BATCH;
+        }
+        return insertStrategy;
     }
 
     public BackupManager getBackupManager() {
@@ -323,6 +1142,22 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         this.backupManager = backupManager;
     }
 
+    public BackupJournal getBackupJournal() {
+        return backupJournal;
+    }
+
+    public void setBackupJournal(BackupJournal backupJournal) {
+        this.backupJournal = backupJournal;
+    }
+
+    public SessionFactory getTargetSessionFactory() {
+        return targetSessionFactory;
+    }
+
+    public void setTargetSessionFactory(SessionFactory targetSessionFactory) {
+        this.targetSessionFactory = targetSessionFactory;
+    }
+
     public ValueFormatRegistry getValueFormatRegistry() {
         return valueFormatRegistry;
     }
@@ -347,10 +1182,21 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         return getInputSpec().getPath();
     }
 
+    @Override
+    protected SessionFactory getWorkSessionFactory() {
+        return getTargetSessionFactory();
+    }
+
+    @Override
+    protected MigratorException createException(Throwable failure) {
+        return new LoadException(failure);
+    }
+
     protected Collection<MigrationMode> getMigrationModes() {
         return getJobSpec().getMigrationModes();
     }
 
+    @Override
     protected Map<String, InsertType> getTableInsertTypes() {
         return getJobSpec().getTableInsertTypes();
     }
@@ -359,10 +1205,70 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         return getJobSpec().getInputSpec();
     }
 
+    @Override
+    protected CommitStrategy getCommitStrategy() {
+        return getJobSpec().getCommitStrategy();
+    }
+
+    @Override
+    protected int getThreads() {
+        Integer threads = getJobSpec().getThreads();
+        return threads != null ? threads : THREADS;
+    }
+
+    protected int getPipelineDepth() {
+        Integer pipelineDepth = getJobSpec().getPipelineDepth();
+        return pipelineDepth != null ? pipelineDepth : PIPELINE_DEPTH;
+    }
+
+    protected boolean isResume() {
+        return getJobSpec().isResume();
+    }
+
+    protected String getJournal() {
+        return getJobSpec().getJournal();
+    }
+
+    @Override
     protected InsertType getInsertType() {
         return getJobSpec().getInsertType();
     }
 
+    protected InsertStrategy getInsertStrategy() {
+        return getJobSpec().getInsertStrategy();
+    }
+
+    protected int getInsertRows() {
+        Integer insertRows = getJobSpec().getInsertRows();
+        return insertRows != null ? insertRows : INSERT_ROWS;
+    }
+
+    /**
+     * Clamps configured number of rows in a multi row insert to the limits of the target, so that neither the number
+     * of rows in the VALUES clause nor the number of bound parameters exceeds them.
+     *
+     * @param dialect of the target.
+     * @param table   to insert rows to.
+     * @param columns number of inserted columns, at least one.
+     * @return number of rows in a multi row insert.
+     */
+    protected int getInsertRows(Dialect dialect, Table table, int columns) {
+        int insertRows = getInsertRows();
+        int maxInsertRows = min(dialect.getMaxInsertRows(), dialect.getMaxParameters() / columns);
+        if (insertRows > maxInsertRows) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(format("Table %s is inserted %d rows at once, which is the limit of the target",
+                        table.getQualifiedName(null), maxInsertRows));
+            }
+            insertRows = maxInsertRows;
+        }
+        return insertRows;
+    }
+
+    protected Map<String, InsertStrategy> getTableInsertStrategies() {
+        return getJobSpec().getTableInsertStrategies();
+    }
+
     protected TimeZone getTimeZone() {
         return getJobSpec().getTimeZone();
     }
@@ -370,4 +1276,4 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
     protected ConnectionSpec getTargetSpec() {
         return getJobSpec().getTargetSpec();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.load;
+
+import com.nuodb.migrator.backup.BackupJournal;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.jdbc.commit.CommitListener;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.metrics.MetricsRecorder;
+
+import java.sql.PreparedStatement;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newLinkedHashMap;
+
+/**
+ * Tracks rows of chunks executed on a single target connection and records them to the backup journal when they get
+ * committed, either by the commit strategy or by the transaction commit of the load, so that a resumed load skips
+ * committed chunks and continues partially committed chunks from the committed row offset. Loaded rows, chunks,
+ * batch execution and commit times are recorded to the metrics of the job.
+ *
+ * @author Sergey Bushik
+ */
+public class LoadProgress implements CommitListener {
+
+    private final BackupJournal backupJournal;
+    private final MetricsRecorder metricsRecorder;
+    private final Map<Chunk, RowSet> chunks = newLinkedHashMap();
+    private RowSet rowSet;
+    private Chunk chunk;
+    private long rows;
+    private long committedRows;
+
+    public LoadProgress(BackupJournal backupJournal, MetricsRecorder metricsRecorder) {
+        this.backupJournal = backupJournal;
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    /**
+     * Starts tracking of the chunk, which rows up to the offset were committed by a previous run.
+     */
+    public void start(RowSet rowSet, Chunk chunk, long offset) {
+        this.rowSet = rowSet;
+        this.chunk = chunk;
+        this.metricsRecorder.setTable(rowSet.getName());
+        this.rows = offset;
+        this.committedRows = offset;
+    }
+
+    /**
+     * Called for every row before it's passed to the commit strategy.
+     */
+    public void row() {
+        rows++;
+        metricsRecorder.row();
+    }
+
+    /**
+     * Called after all rows of the current chunk were passed to the commit strategy.
+     */
+    public void end() {
+        if (chunk != null) {
+            chunks.put(chunk, rowSet);
+            metricsRecorder.chunk();
+        }
+        metricsRecorder.flush();
+        rowSet = null;
+        chunk = null;
+    }
+
+    @Override
+    public void onExecuteBatch(PreparedStatement statement, Query query, long nanos) {
+        metricsRecorder.executeBatchTime(nanos);
+    }
+
+    @Override
+    public void onCommit(PreparedStatement statement, Query query, long nanos) {
+        commit(nanos);
+    }
+
+    /**
+     * Records everything executed so far as committed.
+     *
+     * @param nanos time spent committing the transaction.
+     */
+    public void commit(long nanos) {
+        metricsRecorder.commitTime(nanos);
+        metricsRecorder.flush();
+        for (Map.Entry<Chunk, RowSet> entry : chunks.entrySet()) {
+            backupJournal.writeChunkDone(entry.getValue().getName(), entry.getKey().getName());
+        }
+        chunks.clear();
+        if (chunk != null && rows > committedRows) {
+            backupJournal.writeChunkOffset(rowSet.getName(), chunk.getName(), rows);
+            committedRows = rows;
+        }
+    }
+
+    public MetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.load;
+
+import com.nuodb.migrator.MigratorException;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.jdbc.JdbcUtils;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.session.WorkBase;
+import com.nuodb.migrator.utils.ObjectUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+
+import static java.lang.System.nanoTime;
+import static java.util.Arrays.asList;
+
+/**
+ * Loads a group of chunks of a row set on the connection of the session it's executed in, each work uses its own
+ * commit strategy and commits its own transaction, so that works can be run concurrently.
+ *
+ * @author Sergey Bushik
+ */
+public class LoadRowSetWork extends WorkBase {
+
+    private final LoadJob loadJob;
+    private final RowSet rowSet;
+    private final Table table;
+    private final Query query;
+    private final Collection<Chunk> chunks;
+
+    private PreparedStatement statement;
+    private CommitStrategy commitStrategy;
+    private LoadProgress loadProgress;
+
+    public LoadRowSetWork(LoadJob loadJob, RowSet rowSet, Table table, Query query, Collection<Chunk> chunks) {
+        this.loadJob = loadJob;
+        this.rowSet = rowSet;
+        this.table = table;
+        this.query = query;
+        this.chunks = chunks;
+    }
+
+    @Override
+    protected void init() throws Exception {
+        statement = getSession().getConnection().prepareStatement(query.toString());
+        commitStrategy = loadJob.createCommitStrategy();
+        loadProgress = loadJob.createLoadProgress(commitStrategy);
+    }
+
+    @Override
+    public void execute() throws Exception {
+        Connection connection = getSession().getConnection();
+        try {
+            loadJob.load(getSession(), rowSet, table, chunks, statement, query, commitStrategy, loadProgress);
+            long time = nanoTime();
+            connection.commit();
+            loadProgress.commit(nanoTime() - time);
+        } catch (MigratorException exception) {
+            connection.rollback();
+            throw exception;
+        } catch (Exception exception) {
+            connection.rollback();
+            throw new LoadException(exception);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        JdbcUtils.close(statement);
+    }
+
+    public RowSet getRowSet() {
+        return rowSet;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+
+    public Collection<Chunk> getChunks() {
+        return chunks;
+    }
+
+    @Override
+    public String toString() {
+        return ObjectUtils.toString(this, asList("query", "chunks"));
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.load;
+
+import com.nuodb.migrator.jdbc.JdbcUtils;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.metadata.generator.ConnectionScriptExporter;
+import com.nuodb.migrator.jdbc.metadata.generator.ScriptExporter;
+import com.nuodb.migrator.jdbc.session.WorkBase;
+import com.nuodb.migrator.utils.ObjectUtils;
+
+import java.sql.Connection;
+import java.util.Collection;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Executes scripts of a table, such as its primary key and indexes or its foreign keys, on a separate target session
+ * and records the table step to the backup journal.
+ *
+ * @author Sergey Bushik
+ */
+public class LoadScriptsWork extends WorkBase {
+
+    private final LoadJob loadJob;
+    private final Table table;
+    private final Collection<String> scripts;
+    private final String step;
+
+    public LoadScriptsWork(LoadJob loadJob, Table table, Collection<String> scripts, String step) {
+        this.loadJob = loadJob;
+        this.table = table;
+        this.scripts = scripts;
+        this.step = step;
+    }
+
+    @Override
+    public void execute() throws Exception {
+        Connection connection = getSession().getConnection();
+        ScriptExporter scriptExporter = new ConnectionScriptExporter(connection, false);
+        try {
+            scriptExporter.open();
+            scriptExporter.exportScripts(scripts);
+        } finally {
+            JdbcUtils.close(scriptExporter);
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+        loadJob.getBackupJournal().writeStep(step);
+    }
+
+    @Override
+    public void close() throws Exception {
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public Collection<String> getScripts() {
+        return scripts;
+    }
+
+    public String getStep() {
+        return step;
+    }
+
+    @Override
+    public String toString() {
+        return ObjectUtils.toString(this, asList("table", "scripts", "step"));
+    }
+}
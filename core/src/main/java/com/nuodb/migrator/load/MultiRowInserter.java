@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.load;
+
+import com.nuodb.migrator.backup.format.value.RowCodec;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.jdbc.JdbcUtils;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.query.Query;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static java.lang.System.arraycopy;
+
+/**
+ * Collects rows of the chunk and binds them to the insert statement carrying the given number of rows in its VALUES
+ * clause, which is passed to the commit strategy once all of its rows are collected. Rows remaining at the end of the
+ * chunk are inserted with the single row statement after the multi row statements are finished, so the commit
+ * strategy never mixes both statements in a batch.
+ *
+ * @author Sergey Bushik
+ */
+public class MultiRowInserter extends RowInserter {
+
+    private final PreparedStatement multiRowStatement;
+    private final Query multiRowQuery;
+    private final RowCodec multiRowCodec;
+    private final int columns;
+    private final int rows;
+    private final Value[] multiRow;
+    private final Value[] row;
+    private int count;
+
+    public MultiRowInserter(RowInserter rowInserter, PreparedStatement multiRowStatement, Query multiRowQuery,
+                            RowCodec multiRowCodec, int rows) {
+        super(rowInserter.getStatement(), rowInserter.getQuery(), rowInserter.getRowCodec(),
+                rowInserter.getCommitStrategy(), rowInserter.getLoadProgress());
+        this.multiRowStatement = multiRowStatement;
+        this.multiRowQuery = multiRowQuery;
+        this.multiRowCodec = multiRowCodec;
+        this.columns = multiRowCodec.getWidth() / rows;
+        this.rows = rows;
+        this.multiRow = new Value[columns * rows];
+        this.row = new Value[columns];
+    }
+
+    @Override
+    public void insert(Value[] values) throws SQLException {
+        arraycopy(values, 0, multiRow, count * columns, columns);
+        if (++count == rows) {
+            multiRowCodec.setValues(multiRow);
+            LoadProgress loadProgress = getLoadProgress();
+            for (int index = 0; index < count; index++) {
+                loadProgress.row();
+            }
+            getCommitStrategy().onExecute(multiRowStatement, multiRowQuery, count);
+            count = 0;
+        }
+    }
+
+    @Override
+    public void end() throws SQLException {
+        CommitStrategy commitStrategy = getCommitStrategy();
+        if (count > 0) {
+            commitStrategy.finish(multiRowStatement, multiRowQuery);
+            for (int index = 0; index < count; index++) {
+                arraycopy(multiRow, index * columns, row, 0, columns);
+                super.insert(row);
+            }
+            count = 0;
+            super.end();
+        } else {
+            getLoadProgress().end();
+            commitStrategy.finish(multiRowStatement, multiRowQuery);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        JdbcUtils.close(multiRowStatement);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.load;
+
+import com.nuodb.migrator.backup.format.value.RowCodec;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.query.Query;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Binds rows of the chunks to the single row insert statement and passes the statement to the commit strategy for
+ * every row. Rows are reported to the load progress right before their statement is passed to the commit strategy,
+ * so committed row offsets never count rows which are not executed yet.
+ *
+ * @author Sergey Bushik
+ */
+public class RowInserter {
+
+    private final PreparedStatement statement;
+    private final Query query;
+    private final RowCodec rowCodec;
+    private final CommitStrategy commitStrategy;
+    private final LoadProgress loadProgress;
+
+    public RowInserter(PreparedStatement statement, Query query, RowCodec rowCodec, CommitStrategy commitStrategy,
+                       LoadProgress loadProgress) {
+        this.statement = statement;
+        this.query = query;
+        this.rowCodec = rowCodec;
+        this.commitStrategy = commitStrategy;
+        this.loadProgress = loadProgress;
+    }
+
+    public void insert(Value[] values) throws SQLException {
+        rowCodec.setValues(values);
+        loadProgress.row();
+        commitStrategy.onExecute(statement, query);
+    }
+
+    /**
+     * Called after all rows of the current chunk were inserted.
+     */
+    public void end() throws SQLException {
+        loadProgress.end();
+        commitStrategy.finish(statement, query);
+    }
+
+    public void close() throws SQLException {
+    }
+
+    public PreparedStatement getStatement() {
+        return statement;
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+
+    public RowCodec getRowCodec() {
+        return rowCodec;
+    }
+
+    public CommitStrategy getCommitStrategy() {
+        return commitStrategy;
+    }
+
+    public LoadProgress getLoadProgress() {
+        return loadProgress;
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.metrics;
+
+import org.slf4j.Logger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.Collection;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static java.lang.String.format;
+import static java.lang.Thread.currentThread;
+import static javax.management.ObjectName.quote;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Metrics of a job broken down per table and per worker thread. Once registered with an MBean server every metrics,
+ * including the ones created afterwards, is published as an MBean named
+ * {@code com.nuodb.migrator:type=Metrics,job=<job>,scope=<job|table|thread>,name=<name>}.
+ *
+ * @author Sergey Bushik
+ */
+public class JobMetrics {
+
+    public static final String DOMAIN = "com.nuodb.migrator";
+
+    public static final String SCOPE_JOB = "job";
+    public static final String SCOPE_TABLE = "table";
+    public static final String SCOPE_THREAD = "thread";
+
+    private final transient Logger logger = getLogger(getClass());
+
+    private final String name;
+    private final Metrics total;
+    private final ConcurrentMap<String, Metrics> tables = newConcurrentMap();
+    private final ConcurrentMap<String, Metrics> threads = newConcurrentMap();
+    private MBeanServer mbeanServer;
+
+    public JobMetrics(String name) {
+        this.name = name;
+        this.total = new Metrics(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Metrics getTotal() {
+        return total;
+    }
+
+    public Metrics getTable(String table) {
+        return getMetrics(tables, SCOPE_TABLE, table);
+    }
+
+    /**
+     * Returns metrics of the current thread.
+     */
+    public Metrics getThread() {
+        return getMetrics(threads, SCOPE_THREAD, currentThread().getName());
+    }
+
+    /**
+     * Sets the estimated number of rows of the table and adds it to the estimate of the job.
+     */
+    public void addExpectedRows(String table, long expectedRows) {
+        if (expectedRows > 0) {
+            getTable(table).addExpectedRows(expectedRows);
+            total.addExpectedRows(expectedRows);
+        }
+    }
+
+    /**
+     * Returns metrics of the tables ordered by table name.
+     */
+    public Collection<Metrics> getTables() {
+        return newArrayList(new TreeMap<String, Metrics>(tables).values());
+    }
+
+    /**
+     * Returns metrics of the worker threads ordered by thread name.
+     */
+    public Collection<Metrics> getThreads() {
+        return newArrayList(new TreeMap<String, Metrics>(threads).values());
+    }
+
+    protected Metrics getMetrics(ConcurrentMap<String, Metrics> metricsMap, String scope, String name) {
+        Metrics metrics = metricsMap.get(name);
+        if (metrics == null) {
+            Metrics current = metricsMap.putIfAbsent(name, metrics = new Metrics(name));
+            if (current != null) {
+                metrics = current;
+            } else {
+                synchronized (this) {
+                    if (mbeanServer != null) {
+                        registerMBean(scope, metrics);
+                    }
+                }
+            }
+        }
+        return metrics;
+    }
+
+    public synchronized void register(MBeanServer mbeanServer) {
+        this.mbeanServer = mbeanServer;
+        registerMBean(SCOPE_JOB, total);
+        for (Metrics metrics : tables.values()) {
+            registerMBean(SCOPE_TABLE, metrics);
+        }
+        for (Metrics metrics : threads.values()) {
+            registerMBean(SCOPE_THREAD, metrics);
+        }
+    }
+
+    public synchronized void unregister() {
+        if (mbeanServer == null) {
+            return;
+        }
+        unregisterMBean(SCOPE_JOB, total);
+        for (Metrics metrics : tables.values()) {
+            unregisterMBean(SCOPE_TABLE, metrics);
+        }
+        for (Metrics metrics : threads.values()) {
+            unregisterMBean(SCOPE_THREAD, metrics);
+        }
+        mbeanServer = null;
+    }
+
+    protected void registerMBean(String scope, Metrics metrics) {
+        try {
+            ObjectName objectName = getObjectName(scope, metrics);
+            if (!mbeanServer.isRegistered(objectName)) {
+                mbeanServer.registerMBean(metrics, objectName);
+            }
+        } catch (Exception exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Can't register %s %s metrics MBean", scope, metrics.getName()), exception);
+            }
+        }
+    }
+
+    protected void unregisterMBean(String scope, Metrics metrics) {
+        try {
+            ObjectName objectName = getObjectName(scope, metrics);
+            if (mbeanServer.isRegistered(objectName)) {
+                mbeanServer.unregisterMBean(objectName);
+            }
+        } catch (Exception exception) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(format("Can't unregister %s %s metrics MBean", scope, metrics.getName()), exception);
+            }
+        }
+    }
+
+    protected ObjectName getObjectName(String scope, Metrics metrics) throws Exception {
+        return new ObjectName(format("%s:type=Metrics,job=%s,scope=%s,name=%s",
+                DOMAIN, quote(getName()), scope, quote(metrics.getName())));
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Thread safe throughput and progress counters. Counters are updated in bulk by {@link MetricsRecorder} rather than
+ * per row, times are accumulated in nanoseconds.
+ *
+ * @author Sergey Bushik
+ */
+public class Metrics implements MetricsMXBean {
+
+    private final String name;
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong expectedRows = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong fetchTime = new AtomicLong();
+    private final AtomicLong encodeTime = new AtomicLong();
+    private final AtomicLong executeBatchTime = new AtomicLong();
+    private final AtomicLong commitTime = new AtomicLong();
+    private final AtomicLong startTime = new AtomicLong();
+
+    public Metrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds deltas to the counters, the first call starts the clock the rates are measured with.
+     */
+    public void add(long rows, long bytes, long chunks, long fetchTime, long encodeTime, long executeBatchTime,
+                    long commitTime) {
+        startTime.compareAndSet(0, currentTimeMillis());
+        add(this.rows, rows);
+        add(this.bytes, bytes);
+        add(this.chunks, chunks);
+        add(this.fetchTime, fetchTime);
+        add(this.encodeTime, encodeTime);
+        add(this.executeBatchTime, executeBatchTime);
+        add(this.commitTime, commitTime);
+    }
+
+    private static void add(AtomicLong counter, long delta) {
+        if (delta != 0) {
+            counter.addAndGet(delta);
+        }
+    }
+
+    public void addExpectedRows(long expectedRows) {
+        this.expectedRows.addAndGet(expectedRows);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getRows() {
+        return rows.get();
+    }
+
+    @Override
+    public long getExpectedRows() {
+        return expectedRows.get();
+    }
+
+    public void setExpectedRows(long expectedRows) {
+        this.expectedRows.set(expectedRows);
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    @Override
+    public long getChunks() {
+        return chunks.get();
+    }
+
+    @Override
+    public long getFetchTime() {
+        return NANOSECONDS.toMillis(fetchTime.get());
+    }
+
+    @Override
+    public long getEncodeTime() {
+        return NANOSECONDS.toMillis(encodeTime.get());
+    }
+
+    @Override
+    public long getExecuteBatchTime() {
+        return NANOSECONDS.toMillis(executeBatchTime.get());
+    }
+
+    @Override
+    public long getCommitTime() {
+        return NANOSECONDS.toMillis(commitTime.get());
+    }
+
+    @Override
+    public long getElapsedTime() {
+        long startTime = this.startTime.get();
+        return startTime != 0 ? currentTimeMillis() - startTime : 0;
+    }
+
+    @Override
+    public double getRowsPerSecond() {
+        return getRate(getRows());
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return getRate(getBytes());
+    }
+
+    protected double getRate(long count) {
+        long elapsedTime = getElapsedTime();
+        return elapsedTime > 0 ? count * 1000D / elapsedTime : 0;
+    }
+
+    @Override
+    public double getProgress() {
+        long expectedRows = getExpectedRows();
+        return expectedRows > 0 ? Math.min(getRows() * 100D / expectedRows, 100D) : -1;
+    }
+
+    @Override
+    public long getRemainingTime() {
+        long expectedRows = getExpectedRows();
+        double rowsPerSecond = getRowsPerSecond();
+        if (expectedRows <= 0 || rowsPerSecond <= 0) {
+            return -1;
+        }
+        return (long) (Math.max(expectedRows - getRows(), 0) * 1000D / rowsPerSecond);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.metrics;
+
+/**
+ * Management interface of the throughput and progress counters of a job, a table or a worker thread. Times are
+ * reported in milliseconds.
+ *
+ * @author Sergey Bushik
+ */
+public interface MetricsMXBean {
+
+    String getName();
+
+    long getRows();
+
+    /**
+     * Returns estimated number of rows to process or 0 if the estimate is unknown.
+     */
+    long getExpectedRows();
+
+    long getBytes();
+
+    long getChunks();
+
+    long getFetchTime();
+
+    long getEncodeTime();
+
+    long getExecuteBatchTime();
+
+    long getCommitTime();
+
+    /**
+     * Returns time elapsed since the first recorded activity.
+     */
+    long getElapsedTime();
+
+    double getRowsPerSecond();
+
+    double getBytesPerSecond();
+
+    /**
+     * Returns percentage of the expected rows processed so far or -1 if the expected number of rows is unknown.
+     */
+    double getProgress();
+
+    /**
+     * Returns estimated time to process the remaining rows at the current rate or -1 if it can't be estimated.
+     */
+    long getRemainingTime();
+}
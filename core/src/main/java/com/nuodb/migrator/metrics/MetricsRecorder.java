@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.metrics;
+
+/**
+ * Accumulates counters of a single work locally and flushes them to the job, table and current thread metrics in
+ * bulk, so that recording of every row doesn't contend on the shared counters. A recorder is confined to a single
+ * thread, works running stages on several threads use a recorder per thread.
+ *
+ * @author Sergey Bushik
+ */
+public class MetricsRecorder {
+
+    /**
+     * Number of rows after which counters are flushed
+     */
+    public static final int FLUSH_ROWS = 1000;
+
+    private final JobMetrics jobMetrics;
+    private Metrics table;
+    private long rows;
+    private long bytes;
+    private long chunks;
+    private long fetchTime;
+    private long encodeTime;
+    private long executeBatchTime;
+    private long commitTime;
+
+    public MetricsRecorder(JobMetrics jobMetrics) {
+        this.jobMetrics = jobMetrics;
+    }
+
+    public MetricsRecorder(JobMetrics jobMetrics, String table) {
+        this(jobMetrics);
+        setTable(table);
+    }
+
+    /**
+     * Flushes counters recorded so far and switches recording to another table.
+     *
+     * @param table name of the table or null.
+     */
+    public void setTable(String table) {
+        flush();
+        this.table = table != null ? jobMetrics.getTable(table) : null;
+    }
+
+    public void row() {
+        if (++rows >= FLUSH_ROWS) {
+            flush();
+        }
+    }
+
+    public void bytes(long bytes) {
+        this.bytes += bytes;
+    }
+
+    public void chunk() {
+        chunks++;
+    }
+
+    public void fetchTime(long nanos) {
+        fetchTime += nanos;
+    }
+
+    public void encodeTime(long nanos) {
+        encodeTime += nanos;
+    }
+
+    public void executeBatchTime(long nanos) {
+        executeBatchTime += nanos;
+    }
+
+    public void commitTime(long nanos) {
+        commitTime += nanos;
+    }
+
+    public void flush() {
+        if (rows == 0 && bytes == 0 && chunks == 0 && fetchTime == 0 && encodeTime == 0 &&
+                executeBatchTime == 0 && commitTime == 0) {
+            return;
+        }
+        jobMetrics.getTotal().add(rows, bytes, chunks, fetchTime, encodeTime, executeBatchTime, commitTime);
+        if (table != null) {
+            table.add(rows, bytes, chunks, fetchTime, encodeTime, executeBatchTime, commitTime);
+        }
+        jobMetrics.getThread().add(rows, bytes, chunks, fetchTime, encodeTime, executeBatchTime, commitTime);
+        rows = 0;
+        bytes = 0;
+        chunks = 0;
+        fetchTime = 0;
+        encodeTime = 0;
+        executeBatchTime = 0;
+        commitTime = 0;
+    }
+
+    public JobMetrics getJobMetrics() {
+        return jobMetrics;
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.metrics;
+
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.byteCountToDisplaySize;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Periodically logs throughput and progress of the job and of the tables processed since the previous report, and
+ * logs the final summary including time breakdown per table and per thread.
+ *
+ * @author Sergey Bushik
+ */
+public class MetricsReporter implements Runnable {
+
+    /**
+     * Reporting interval in milliseconds
+     */
+    public static final long INTERVAL = 10000;
+
+    private static final String THREAD_NAME = "metrics-reporter";
+
+    private final transient Logger logger = getLogger(getClass());
+
+    private final JobMetrics jobMetrics;
+    private final Map<String, Long> tableRows = newHashMap();
+    private ScheduledExecutorService executor;
+
+    public MetricsReporter(JobMetrics jobMetrics) {
+        this.jobMetrics = jobMetrics;
+    }
+
+    public synchronized void start(long interval) {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleWithFixedDelay(this, interval, interval, MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public synchronized void run() {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        Metrics total = jobMetrics.getTotal();
+        if (total.getRows() == 0) {
+            return;
+        }
+        logger.info(format("Job %s progress: %s", jobMetrics.getName(), formatProgress(total)));
+        for (Metrics table : jobMetrics.getTables()) {
+            Long rows = tableRows.put(table.getName(), table.getRows());
+            if (rows == null || rows != table.getRows()) {
+                logger.info(format("Table %s progress: %s", table.getName(), formatProgress(table)));
+            }
+        }
+    }
+
+    /**
+     * Logs the final summary of the job.
+     */
+    public void summary() {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        Metrics total = jobMetrics.getTotal();
+        if (total.getRows() == 0 && total.getChunks() == 0) {
+            return;
+        }
+        logger.info(format("Job %s summary: %s, %s", jobMetrics.getName(), formatProgress(total),
+                formatTimes(total)));
+        for (Metrics table : jobMetrics.getTables()) {
+            logger.info(format("Table %s summary: %s, %s", table.getName(), formatProgress(table),
+                    formatTimes(table)));
+        }
+        if (logger.isDebugEnabled()) {
+            for (Metrics thread : jobMetrics.getThreads()) {
+                logger.debug(format("Thread %s summary: %s, %s", thread.getName(), formatProgress(thread),
+                        formatTimes(thread)));
+            }
+        }
+    }
+
+    protected String formatProgress(Metrics metrics) {
+        StringBuilder progress = new StringBuilder();
+        progress.append(format("%d row(s)", metrics.getRows()));
+        if (metrics.getExpectedRows() > 0) {
+            progress.append(format(" of %d (%.1f%%)", metrics.getExpectedRows(), metrics.getProgress()));
+        }
+        progress.append(format(", %.0f row(s)/s, %s, %s/s, %d chunk(s)", metrics.getRowsPerSecond(),
+                byteCountToDisplaySize(metrics.getBytes()),
+                byteCountToDisplaySize((long) metrics.getBytesPerSecond()), metrics.getChunks()));
+        long remainingTime = metrics.getRemainingTime();
+        if (remainingTime >= 0 && metrics.getRows() < metrics.getExpectedRows()) {
+            progress.append(format(", %s remaining", formatTime(remainingTime)));
+        }
+        return progress.toString();
+    }
+
+    protected String formatTimes(Metrics metrics) {
+        return format("elapsed %s, fetch %s, encode %s, execute batch %s, commit %s",
+                formatTime(metrics.getElapsedTime()), formatTime(metrics.getFetchTime()),
+                formatTime(metrics.getEncodeTime()), formatTime(metrics.getExecuteBatchTime()),
+                formatTime(metrics.getCommitTime()));
+    }
+
+    protected String formatTime(long time) {
+        long millis = time % 1000;
+        time = time / 1000;
+        long seconds = time % 60;
+        time = time / 60;
+        long minutes = time % 60;
+        long hours = time / 60;
+        return format("%02d:%02d:%02d.%03d", hours, minutes, seconds, millis);
+    }
+}
@@ -0,0 +1,425 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.google.common.base.Function;
+import com.nuodb.migrator.MigratorException;
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.TableRowSet;
+import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
+import com.nuodb.migrator.jdbc.JdbcUtils;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.dialect.RowCountType;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.metadata.generator.ConnectionScriptExporter;
+import com.nuodb.migrator.jdbc.metadata.generator.ScriptExporter;
+import com.nuodb.migrator.jdbc.metadata.generator.ScriptGeneratorManager;
+import com.nuodb.migrator.jdbc.metadata.inspector.InspectionScope;
+import com.nuodb.migrator.jdbc.metadata.inspector.TableInspectionScope;
+import com.nuodb.migrator.jdbc.query.InsertQueryBuilder;
+import com.nuodb.migrator.jdbc.query.InsertType;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.jdbc.session.WorkManager;
+import com.nuodb.migrator.jdbc.split.QuerySplitter;
+import com.nuodb.migrator.job.InsertJobBase;
+import com.nuodb.migrator.load.RowSetMapper;
+import com.nuodb.migrator.load.SimpleRowSetMapper;
+import com.nuodb.migrator.spec.ConnectionSpec;
+import com.nuodb.migrator.spec.MigrateJobSpec;
+import com.nuodb.migrator.spec.MigrationMode;
+import com.nuodb.migrator.spec.TableSpec;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.transform;
+import static com.nuodb.migrator.jdbc.JdbcUtils.close;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.*;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
+import static com.nuodb.migrator.jdbc.session.SessionObservers.newSessionTimeZoneSetter;
+import static com.nuodb.migrator.jdbc.session.SessionObservers.newTransactionIsolationSetter;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.*;
+import static com.nuodb.migrator.spec.MigrationMode.DATA;
+import static com.nuodb.migrator.spec.MigrationMode.SCHEMA;
+import static com.nuodb.migrator.utils.Collections.contains;
+import static com.nuodb.migrator.utils.Collections.isEmpty;
+import static java.lang.Runtime.getRuntime;
+import static java.lang.String.format;
+import static java.sql.Connection.*;
+import static org.apache.commons.lang3.ArrayUtils.indexOf;
+
+/**
+ * Migrates schema and data from the source database directly to the target database. Unlike a dump followed by a
+ * load, rows are never written to backup files: every query split of every table is streamed by a separate work,
+ * which fetches rows from its own source session and binds them to an insert statement on its own target session,
+ * with a bounded row buffer between the fetcher and the binder.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings({"unchecked", "ToArrayCallWithZeroLengthArrayArgument"})
+public class MigrateJob extends InsertJobBase<MigrateJobSpec> {
+
+    /**
+     * Splits are migrated by a number of worker threads equal to the number of available processors
+     */
+    public static final int THREADS = getRuntime().availableProcessors();
+
+    /**
+     * Number of rows the fetcher of each split can run ahead of the binder
+     */
+    public static final int PIPELINE_DEPTH = 1000;
+
+    /**
+     * Object types which are created on the target after the data is migrated
+     */
+    private static final Collection<MetaDataType> INDEXES = newArrayList(PRIMARY_KEY, FOREIGN_KEY, INDEX);
+
+    private RowSetMapper rowSetMapper = new SimpleRowSetMapper();
+
+    private SessionFactory sourceSessionFactory;
+    private SessionFactory targetSessionFactory;
+    private ValueFormatRegistry sourceValueFormatRegistry;
+    private ValueFormatRegistry targetValueFormatRegistry;
+
+    public MigrateJob() {
+    }
+
+    public MigrateJob(MigrateJobSpec jobSpec) {
+        super(jobSpec);
+    }
+
+    @Override
+    protected void init() throws Exception {
+        super.init();
+
+        SessionFactory sourceSessionFactory;
+        setSourceSessionFactory(sourceSessionFactory = createSourceSessionFactory());
+        Session sourceSession;
+        setSourceSession(sourceSession = sourceSessionFactory.openSession());
+
+        SessionFactory targetSessionFactory;
+        setTargetSessionFactory(targetSessionFactory = createTargetSessionFactory());
+        Session targetSession;
+        setTargetSession(targetSession = targetSessionFactory.openSession());
+
+        ValueFormatRegistry sourceValueFormatRegistry = null;
+        ValueFormatRegistry targetValueFormatRegistry = null;
+        if (contains(getMigrationModes(), DATA)) {
+            sourceValueFormatRegistry = createValueFormatRegistryResolver().resolve(sourceSession.getConnection());
+            targetValueFormatRegistry = createValueFormatRegistryResolver().resolve(targetSession.getConnection());
+        }
+        setSourceValueFormatRegistry(sourceValueFormatRegistry);
+        setTargetValueFormatRegistry(targetValueFormatRegistry);
+    }
+
+    protected SessionFactory createSourceSessionFactory() {
+        SessionFactory sessionFactory = newSessionFactory(
+                createConnectionProviderFactory().
+                        createConnectionProvider(getSourceSpec()), createDialectResolver());
+        if (getSourceSpec().getTransactionIsolation() == null) {
+            sessionFactory.addSessionObserver(newTransactionIsolationSetter(new int[]{
+                    TRANSACTION_SERIALIZABLE, TRANSACTION_REPEATABLE_READ, TRANSACTION_READ_COMMITTED
+            }));
+        }
+        sessionFactory.addSessionObserver(newSessionTimeZoneSetter(getTimeZone()));
+        return sessionFactory;
+    }
+
+    protected SessionFactory createTargetSessionFactory() {
+        SessionFactory sessionFactory = newSessionFactory(createConnectionProviderFactory().
+                createConnectionProvider(getTargetSpec()), createDialectResolver());
+        sessionFactory.addSessionObserver(newSessionTimeZoneSetter(getTimeZone()));
+        return sessionFactory;
+    }
+
+    @Override
+    public void execute() throws Exception {
+        Database source = inspectSource();
+        Collection<MigrationMode> migrationModes = getMigrationModes();
+        // import scripts excluding indexes
+        if (contains(migrationModes, SCHEMA)) {
+            ScriptGeneratorManager scriptGeneratorManager = createScriptGeneratorManager();
+            Collection<MetaDataType> objectTypes = newArrayList(getObjectTypes());
+            objectTypes.removeAll(INDEXES);
+            scriptGeneratorManager.setObjectTypes(objectTypes);
+            exportScripts(scriptGeneratorManager.getScripts(source));
+        }
+        // stream data
+        if (contains(migrationModes, DATA)) {
+            migrate(source, inspectTarget());
+            logBatchSizes();
+        }
+        // import remaining scripts for indexes
+        if (contains(migrationModes, SCHEMA)) {
+            ScriptGeneratorManager scriptGeneratorManager = createScriptGeneratorManager();
+            Collection<MetaDataType> objectTypes = newArrayList(getObjectTypes());
+            objectTypes.retainAll(INDEXES);
+            scriptGeneratorManager.setObjectTypes(objectTypes);
+            exportScripts(scriptGeneratorManager.getScripts(source));
+        }
+    }
+
+    /**
+     * Submits a work for every query split of every source table mapped to a target table, the works are run
+     * concurrently by the executor.
+     *
+     * @param source inspected source database.
+     * @param target inspected target database.
+     */
+    protected void migrate(Database source, Database target) {
+        ExecutorService executor = createExecutor();
+        WorkManager workManager = createWorkManager();
+        boolean awaitTermination = true;
+        try {
+            Backup backup = new Backup();
+            backup.setDatabase(source);
+            Connection connection = getSourceSession().getConnection();
+            Collection<TableSpec> tableSpecs = getTableSpecs();
+            if (isEmpty(tableSpecs)) {
+                String[] tableTypes = getTableTypes();
+                for (Table table : source.getTables()) {
+                    if (isEmpty(tableTypes) || indexOf(tableTypes, table.getType()) != -1) {
+                        migrate(connection, executor, workManager, backup, table, table.getColumns(), null, target);
+                    } else {
+                        if (logger.isTraceEnabled()) {
+                            logger.trace(format("Table %s %s is not in the allowed types, table skipped",
+                                    table.getQualifiedName(null), table.getType()));
+                        }
+                    }
+                }
+            } else {
+                for (TableSpec tableSpec : tableSpecs) {
+                    Table table = source.findTable(tableSpec.getTable());
+                    Collection<Column> columns;
+                    if (isEmpty(tableSpec.getColumns())) {
+                        columns = table.getColumns();
+                    } else {
+                        columns = newArrayList();
+                        for (String column : tableSpec.getColumns()) {
+                            columns.add(table.getColumn(column));
+                        }
+                    }
+                    migrate(connection, executor, workManager, backup, table, columns, tableSpec.getFilter(),
+                            target);
+                }
+            }
+        } catch (Throwable failure) {
+            awaitTermination = false;
+            throw failure instanceof MigratorException ? (MigratorException) failure : new MigrateException(failure);
+        } finally {
+            closeWorkManager(executor, workManager, awaitTermination);
+        }
+    }
+
+    protected void migrate(Connection connection, ExecutorService executor, WorkManager workManager, Backup backup,
+                           Table sourceTable, Collection<Column> sourceColumns, String filter,
+                           Database target) throws Exception {
+        TableRowSet rowSet = new TableRowSet(sourceTable);
+        backup.addRowSet(rowSet);
+        Table targetTable = getRowSetMapper().map(rowSet, target);
+        if (targetTable == null) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Table %s is not found in the target database, table skipped",
+                        sourceTable.getQualifiedName(null)));
+            }
+            return;
+        }
+        Collection<Column> targetColumns = newArrayList();
+        for (Column column : sourceColumns) {
+            targetColumns.add(targetTable.getColumn(column.getName()));
+        }
+        Query query = createQuery(targetTable, targetColumns);
+        QuerySplitter querySplitter = createQuerySplitter(sourceTable, sourceColumns, filter);
+        while (workManager.getFailures().isEmpty() && querySplitter.hasNextQuerySplit(connection)) {
+            executeWork(executor, workManager, new MigrateSplitWork(this, workManager,
+                    sourceTable, sourceColumns, targetTable, targetColumns, query,
+                    querySplitter.getNextQuerySplit(connection)));
+        }
+    }
+
+    protected QuerySplitter createQuerySplitter(Table table, Collection<Column> columns, String filter) {
+        return newQuerySplitter(getSourceSession().getDialect(), table, columns, filter, getQueryLimit(),
+                getRowCountType(), isQueryPartition(), getThreads());
+    }
+
+    protected Query createQuery(Table table, Collection<Column> columns) {
+        InsertQueryBuilder builder = new InsertQueryBuilder();
+        builder.insertType(getInsertType(table)).into(table);
+        builder.columns(newArrayList(transform(newArrayList(columns), new Function<Column, String>() {
+            @Override
+            public String apply(Column column) {
+                return column.getName();
+            }
+        })));
+        return builder.build();
+    }
+
+    protected void exportScripts(Collection<String> scripts) throws Exception {
+        ScriptExporter scriptExporter = createScriptExporter();
+        try {
+            scriptExporter.open();
+            scriptExporter.exportScripts(scripts);
+        } finally {
+            JdbcUtils.close(scriptExporter);
+        }
+    }
+
+    protected ScriptExporter createScriptExporter() {
+        return new ConnectionScriptExporter(getTargetSession().getConnection(), false);
+    }
+
+    protected Database inspectSource() throws SQLException {
+        InspectionScope inspectionScope = new TableInspectionScope(
+                getSourceSpec().getCatalog(), getSourceSpec().getSchema(), getTableTypes());
+        return createInspectionManager().inspect(getSourceSession().getConnection(), inspectionScope,
+                getObjectTypes().toArray(new MetaDataType[0])).getObject(DATABASE);
+    }
+
+    protected Database inspectTarget() throws SQLException {
+        InspectionScope inspectionScope = new TableInspectionScope(null, null, getTableTypes());
+        return createInspectionManager().inspect(getTargetSession().getConnection(), inspectionScope,
+                DATABASE, CATALOG, MetaDataType.SCHEMA, TABLE, COLUMN).getObject(DATABASE);
+    }
+
+    public RowSetMapper getRowSetMapper() {
+        return rowSetMapper;
+    }
+
+    public void setRowSetMapper(RowSetMapper rowSetMapper) {
+        this.rowSetMapper = rowSetMapper;
+    }
+
+    public SessionFactory getSourceSessionFactory() {
+        return sourceSessionFactory;
+    }
+
+    public void setSourceSessionFactory(SessionFactory sourceSessionFactory) {
+        this.sourceSessionFactory = sourceSessionFactory;
+    }
+
+    public SessionFactory getTargetSessionFactory() {
+        return targetSessionFactory;
+    }
+
+    public void setTargetSessionFactory(SessionFactory targetSessionFactory) {
+        this.targetSessionFactory = targetSessionFactory;
+    }
+
+    public ValueFormatRegistry getSourceValueFormatRegistry() {
+        return sourceValueFormatRegistry;
+    }
+
+    public void setSourceValueFormatRegistry(ValueFormatRegistry sourceValueFormatRegistry) {
+        this.sourceValueFormatRegistry = sourceValueFormatRegistry;
+    }
+
+    public ValueFormatRegistry getTargetValueFormatRegistry() {
+        return targetValueFormatRegistry;
+    }
+
+    public void setTargetValueFormatRegistry(ValueFormatRegistry targetValueFormatRegistry) {
+        this.targetValueFormatRegistry = targetValueFormatRegistry;
+    }
+
+    @Override
+    public ConnectionSpec getSourceSpec() {
+        return getJobSpec().getSourceSpec();
+    }
+
+    @Override
+    public void setSourceSpec(ConnectionSpec sourceSpec) {
+        getJobSpec().setSourceSpec(sourceSpec);
+    }
+
+    @Override
+    protected SessionFactory getWorkSessionFactory() {
+        return getSourceSessionFactory();
+    }
+
+    @Override
+    protected MigratorException createException(Throwable failure) {
+        return new MigrateException(failure);
+    }
+
+    protected Collection<MigrationMode> getMigrationModes() {
+        return getJobSpec().getMigrationModes();
+    }
+
+    @Override
+    protected Map<String, InsertType> getTableInsertTypes() {
+        return getJobSpec().getTableInsertTypes();
+    }
+
+    @Override
+    protected CommitStrategy getCommitStrategy() {
+        return getJobSpec().getCommitStrategy();
+    }
+
+    @Override
+    protected int getThreads() {
+        Integer threads = getJobSpec().getThreads();
+        return threads != null ? threads : THREADS;
+    }
+
+    protected int getPipelineDepth() {
+        Integer pipelineDepth = getJobSpec().getPipelineDepth();
+        return pipelineDepth != null ? pipelineDepth : PIPELINE_DEPTH;
+    }
+
+    protected QueryLimit getQueryLimit() {
+        return getJobSpec().getQueryLimit();
+    }
+
+    protected boolean isQueryPartition() {
+        return getJobSpec().isQueryPartition();
+    }
+
+    protected RowCountType getRowCountType() {
+        return getJobSpec().getRowCountType();
+    }
+
+    @Override
+    protected InsertType getInsertType() {
+        return getJobSpec().getInsertType();
+    }
+
+    protected TimeZone getTimeZone() {
+        return getJobSpec().getTimeZone();
+    }
+}
@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.MigratorException;
+import com.nuodb.migrator.backup.format.value.LobValue;
+import com.nuodb.migrator.backup.format.value.RowBuffer;
+import com.nuodb.migrator.backup.format.value.RowCodec;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import com.nuodb.migrator.jdbc.JdbcUtils;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.StatementCallback;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.WorkBase;
+import com.nuodb.migrator.jdbc.session.WorkManager;
+import com.nuodb.migrator.jdbc.split.QuerySplit;
+import com.nuodb.migrator.utils.ObjectUtils;
+import org.slf4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Streams rows of a single query split from the source session it's executed in to a target session opened for this
+ * work. Values fetched from the source result set are bound to the target prepared statement as is, without encoding
+ * them to an output format and decoding back. Each work uses its own commit strategy and commits its own
+ * transaction, so that works can be run concurrently.
+ *
+ * @author Sergey Bushik
+ */
+public class MigrateSplitWork extends WorkBase {
+
+    private final transient Logger logger = getLogger(getClass());
+
+    private final MigrateJob migrateJob;
+    private final WorkManager workManager;
+    private final Table sourceTable;
+    private final Collection<Column> sourceColumns;
+    private final Table targetTable;
+    private final Collection<Column> targetColumns;
+    private final Query query;
+    private final QuerySplit querySplit;
+
+    private ResultSet resultSet;
+    private ValueHandleList sourceValueHandleList;
+    private RowCodec sourceRowCodec;
+    private Session targetSession;
+    private PreparedStatement statement;
+    private ValueHandleList targetValueHandleList;
+    private RowCodec targetRowCodec;
+    private CommitStrategy commitStrategy;
+    private long rows;
+
+    public MigrateSplitWork(MigrateJob migrateJob, WorkManager workManager,
+                            Table sourceTable, Collection<Column> sourceColumns,
+                            Table targetTable, Collection<Column> targetColumns,
+                            Query query, QuerySplit querySplit) {
+        this.migrateJob = migrateJob;
+        this.workManager = workManager;
+        this.sourceTable = sourceTable;
+        this.sourceColumns = sourceColumns;
+        this.targetTable = targetTable;
+        this.targetColumns = targetColumns;
+        this.query = query;
+        this.querySplit = querySplit;
+    }
+
+    @Override
+    protected void init() throws Exception {
+        Session sourceSession = getSession();
+        final Dialect dialect = sourceSession.getDialect();
+        resultSet = querySplit.getResultSet(sourceSession.getConnection(), new StatementCallback() {
+            @Override
+            public void executeStatement(Statement statement) throws SQLException {
+                dialect.setStreamResults(statement, true);
+            }
+        });
+        sourceValueHandleList = newBuilder(sourceSession.getConnection(), resultSet).
+                withDialect(dialect).
+                withFields(sourceColumns).
+                withTimeZone(migrateJob.getTimeZone()).
+                withValueFormatRegistry(migrateJob.getSourceValueFormatRegistry()).build();
+        sourceRowCodec = new RowCodec(sourceValueHandleList);
+
+        targetSession = migrateJob.getTargetSessionFactory().openSession();
+        statement = targetSession.getConnection().prepareStatement(query.toString());
+        targetValueHandleList = newBuilder(targetSession.getConnection(), statement).
+                withDialect(targetSession.getDialect()).
+                withFields(targetColumns).
+                withTimeZone(migrateJob.getTimeZone()).
+                withValueFormatRegistry(migrateJob.getTargetValueFormatRegistry()).build();
+        targetRowCodec = new RowCodec(targetValueHandleList);
+
+        commitStrategy = migrateJob.createCommitStrategy();
+    }
+
+    @Override
+    public void execute() throws Exception {
+        Connection connection = targetSession.getConnection();
+        try {
+            int pipelineDepth = migrateJob.getPipelineDepth();
+            if (pipelineDepth > 0) {
+                executePipelined(pipelineDepth);
+            } else {
+                executeSequential();
+            }
+            commitStrategy.finish(statement, query);
+            connection.commit();
+        } catch (MigratorException exception) {
+            connection.rollback();
+            throw exception;
+        } catch (Exception exception) {
+            connection.rollback();
+            throw new MigrateException(format("Error migrating row %d of split %d from %s table to %s table",
+                    rows + 1, querySplit.getSplitIndex() + 1, sourceTable.getQualifiedName(null),
+                    targetTable.getQualifiedName(null)), exception);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Split %d of %s table migrated, %d rows",
+                    querySplit.getSplitIndex() + 1, sourceTable.getQualifiedName(null), rows));
+        }
+    }
+
+    /**
+     * Fetches, binds and executes rows one by one on the current thread.
+     */
+    protected void executeSequential() throws Exception {
+        Value[] values = new Value[sourceValueHandleList.size()];
+        while (canMigrate() && resultSet.next()) {
+            getValues(values);
+            bind(values);
+            commitStrategy.onExecute(statement, query);
+            rows++;
+        }
+    }
+
+    /**
+     * Fetches rows from the source on the pipeline executor of the job into a bounded row buffer, while the current
+     * thread, which owns the target connection, binds buffered rows and executes them with the commit strategy.
+     *
+     * @param pipelineDepth number of rows the fetcher can run ahead of the binder
+     */
+    protected void executePipelined(int pipelineDepth) throws Exception {
+        final RowBuffer rowBuffer = new RowBuffer(pipelineDepth, sourceValueHandleList.size());
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Future<?> fetcher = migrateJob.getPipelineExecutor().submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    fetch(rowBuffer);
+                } catch (Throwable throwable) {
+                    failure.set(throwable);
+                } finally {
+                    rowBuffer.close();
+                }
+            }
+        });
+        try {
+            Value[] values;
+            while ((values = rowBuffer.take()) != null) {
+                bind(values);
+                rowBuffer.release();
+                commitStrategy.onExecute(statement, query);
+                rows++;
+            }
+        } finally {
+            rowBuffer.abort();
+            fetcher.get();
+            rowBuffer.discard();
+        }
+        Throwable throwable = failure.get();
+        if (throwable instanceof Exception) {
+            throw (Exception) throwable;
+        } else if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Split %d of %s table pipeline depth %d, fetcher stalls %d, binder stalls %d",
+                    querySplit.getSplitIndex() + 1, sourceTable.getQualifiedName(null), rowBuffer.getDepth(),
+                    rowBuffer.getProducerStalls(), rowBuffer.getConsumerStalls()));
+        }
+    }
+
+    /**
+     * Reads rows from the source result set into the row buffer until the result set is exhausted, another work
+     * fails or the binder aborts the buffer.
+     *
+     * @param rowBuffer buffer to fill
+     */
+    protected void fetch(RowBuffer rowBuffer) throws Exception {
+        while (canMigrate() && resultSet.next()) {
+            Value[] values = rowBuffer.claim();
+            if (values == null) {
+                break;
+            }
+            getValues(values);
+            rowBuffer.publish();
+        }
+    }
+
+    /**
+     * Reads values of the current source row, temporary files of the large objects spilled before a failure are
+     * removed.
+     */
+    protected void getValues(Value[] values) {
+        try {
+            sourceRowCodec.getValues(values);
+        } catch (RuntimeException exception) {
+            LobValue.release(values);
+            throw exception;
+        }
+    }
+
+    /**
+     * Binds row to the insert statement, large objects spilled by the source value formats are streamed to the
+     * target and their temporary files are removed.
+     */
+    protected void bind(Value[] values) {
+        try {
+            targetRowCodec.setValues(values);
+        } finally {
+            LobValue.release(values);
+        }
+    }
+
+    /**
+     * Stops streaming of this split as soon as any other work of the migration has failed.
+     */
+    protected boolean canMigrate() {
+        return workManager.getFailures().isEmpty();
+    }
+
+    @Override
+    public void close() throws Exception {
+        JdbcUtils.close(resultSet);
+        JdbcUtils.close(statement);
+        JdbcUtils.close(targetSession);
+    }
+
+    public Table getSourceTable() {
+        return sourceTable;
+    }
+
+    public Table getTargetTable() {
+        return targetTable;
+    }
+
+    public Query getQuery() {
+        return query;
+    }
+
+    public QuerySplit getQuerySplit() {
+        return querySplit;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public String toString() {
+        return ObjectUtils.toString(this, asList("query", "querySplit"));
+    }
+}
@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.spec;
 
+import com.nuodb.migrator.jdbc.dialect.RowCountType;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 
@@ -35,6 +36,7 @@ import java.util.TimeZone;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
 import static com.nuodb.migrator.spec.MigrationMode.DATA;
 import static com.nuodb.migrator.spec.MigrationMode.SCHEMA;
 
@@ -51,6 +53,10 @@ public class DumpJobSpec extends JobSpecBase {
     private MetaDataSpec metaDataSpec = new MetaDataSpec();
     private Collection<QuerySpec> querySpecs = newArrayList();
     private QueryLimit queryLimit;
+    private boolean queryPartition;
+    private RowCountType rowCountType = EXACT;
+    private Integer pipelineDepth;
+    private boolean resume;
 
     public Collection<MigrationMode> getMigrationModes() {
         return migrationModes;
@@ -140,6 +146,38 @@ public class DumpJobSpec extends JobSpecBase {
         this.queryLimit = queryLimit;
     }
 
+    public boolean isQueryPartition() {
+        return queryPartition;
+    }
+
+    public void setQueryPartition(boolean queryPartition) {
+        this.queryPartition = queryPartition;
+    }
+
+    public RowCountType getRowCountType() {
+        return rowCountType;
+    }
+
+    public void setRowCountType(RowCountType rowCountType) {
+        this.rowCountType = rowCountType;
+    }
+
+    public Integer getPipelineDepth() {
+        return pipelineDepth;
+    }
+
+    public void setPipelineDepth(Integer pipelineDepth) {
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -148,10 +186,15 @@ public class DumpJobSpec extends JobSpecBase {
 
         DumpJobSpec that = (DumpJobSpec) o;
 
+        if (queryPartition != that.queryPartition) return false;
+        if (rowCountType != that.rowCountType) return false;
+        if (resume != that.resume) return false;
         if (metaDataSpec != null ? !metaDataSpec.equals(that.metaDataSpec) : that.metaDataSpec != null) return false;
         if (migrationModes != null ? !migrationModes.equals(that.migrationModes) : that.migrationModes != null)
             return false;
         if (outputSpec != null ? !outputSpec.equals(that.outputSpec) : that.outputSpec != null) return false;
+        if (pipelineDepth != null ? !pipelineDepth.equals(that.pipelineDepth) : that.pipelineDepth != null)
+            return false;
         if (queryLimit != null ? !queryLimit.equals(that.queryLimit) : that.queryLimit != null) return false;
         if (querySpecs != null ? !querySpecs.equals(that.querySpecs) : that.querySpecs != null) return false;
         if (sourceSpec != null ? !sourceSpec.equals(that.sourceSpec) : that.sourceSpec != null) return false;
@@ -172,6 +215,10 @@ public class DumpJobSpec extends JobSpecBase {
         result = 31 * result + (metaDataSpec != null ? metaDataSpec.hashCode() : 0);
         result = 31 * result + (querySpecs != null ? querySpecs.hashCode() : 0);
         result = 31 * result + (queryLimit != null ? queryLimit.hashCode() : 0);
+        result = 31 * result + (queryPartition ? 1 : 0);
+        result = 31 * result + (rowCountType != null ? rowCountType.hashCode() : 0);
+        result = 31 * result + (pipelineDepth != null ? pipelineDepth.hashCode() : 0);
+        result = 31 * result + (resume ? 1 : 0);
         return result;
     }
 }
@@ -28,6 +28,7 @@
 package com.nuodb.migrator.spec;
 
 import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.query.InsertStrategy;
 import com.nuodb.migrator.jdbc.query.InsertType;
 
 import java.util.Collection;
@@ -47,10 +48,17 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
     private ConnectionSpec targetSpec;
     private Collection<MigrationMode> migrationModes = newHashSet(DATA, SCHEMA);
     private TimeZone timeZone;
+    private Integer threads;
+    private Integer pipelineDepth;
+    private boolean resume;
+    private String journal;
     private ResourceSpec inputSpec;
     private InsertType insertType;
     private CommitStrategy commitStrategy;
     private Map<String, InsertType> tableInsertTypes = newHashMap();
+    private InsertStrategy insertStrategy;
+    private Integer insertRows;
+    private Map<String, InsertStrategy> tableInsertStrategies = newHashMap();
 
     public Collection<MigrationMode> getMigrationModes() {
         return migrationModes;
@@ -76,6 +84,41 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
         this.timeZone = timeZone;
     }
 
+    public Integer getThreads() {
+        return threads;
+    }
+
+    public void setThreads(Integer threads) {
+        this.threads = threads;
+    }
+
+    public Integer getPipelineDepth() {
+        return pipelineDepth;
+    }
+
+    public void setPipelineDepth(Integer pipelineDepth) {
+        this.pipelineDepth = pipelineDepth;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    /**
+     * Path to the checkpoint journal, if neither the journal nor resume is set the load isn't checkpointed.
+     */
+    public String getJournal() {
+        return journal;
+    }
+
+    public void setJournal(String journal) {
+        this.journal = journal;
+    }
+
     public InsertType getInsertType() {
         return insertType;
     }
@@ -108,6 +151,30 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
         this.tableInsertTypes = newHashMap(tableInsertTypes);
     }
 
+    public InsertStrategy getInsertStrategy() {
+        return insertStrategy;
+    }
+
+    public void setInsertStrategy(InsertStrategy insertStrategy) {
+        this.insertStrategy = insertStrategy;
+    }
+
+    public Integer getInsertRows() {
+        return insertRows;
+    }
+
+    public void setInsertRows(Integer insertRows) {
+        this.insertRows = insertRows;
+    }
+
+    public Map<String, InsertStrategy> getTableInsertStrategies() {
+        return tableInsertStrategies;
+    }
+
+    public void setTableInsertStrategies(Map<String, InsertStrategy> tableInsertStrategies) {
+        this.tableInsertStrategies = newHashMap(tableInsertStrategies);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -120,12 +187,21 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
             return false;
         if (inputSpec != null ? !inputSpec.equals(that.inputSpec) : that.inputSpec != null) return false;
         if (insertType != that.insertType) return false;
+        if (resume != that.resume) return false;
+        if (journal != null ? !journal.equals(that.journal) : that.journal != null) return false;
         if (migrationModes != null ? !migrationModes.equals(that.migrationModes) : that.migrationModes != null)
             return false;
         if (tableInsertTypes != null ? !tableInsertTypes.equals(that.tableInsertTypes) : that.tableInsertTypes != null)
             return false;
         if (targetSpec != null ? !targetSpec.equals(that.targetSpec) : that.targetSpec != null) return false;
         if (timeZone != null ? !timeZone.equals(that.timeZone) : that.timeZone != null) return false;
+        if (threads != null ? !threads.equals(that.threads) : that.threads != null) return false;
+        if (pipelineDepth != null ? !pipelineDepth.equals(that.pipelineDepth) : that.pipelineDepth != null)
+            return false;
+        if (insertStrategy != that.insertStrategy) return false;
+        if (insertRows != null ? !insertRows.equals(that.insertRows) : that.insertRows != null) return false;
+        if (tableInsertStrategies != null ? !tableInsertStrategies.equals(that.tableInsertStrategies) :
+                that.tableInsertStrategies != null) return false;
 
         return true;
     }
@@ -136,10 +212,17 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
         result = 31 * result + (targetSpec != null ? targetSpec.hashCode() : 0);
         result = 31 * result + (migrationModes != null ? migrationModes.hashCode() : 0);
         result = 31 * result + (timeZone != null ? timeZone.hashCode() : 0);
+        result = 31 * result + (threads != null ? threads.hashCode() : 0);
+        result = 31 * result + (pipelineDepth != null ? pipelineDepth.hashCode() : 0);
+        result = 31 * result + (resume ? 1 : 0);
+        result = 31 * result + (journal != null ? journal.hashCode() : 0);
         result = 31 * result + (inputSpec != null ? inputSpec.hashCode() : 0);
         result = 31 * result + (insertType != null ? insertType.hashCode() : 0);
         result = 31 * result + (commitStrategy != null ? commitStrategy.hashCode() : 0);
         result = 31 * result + (tableInsertTypes != null ? tableInsertTypes.hashCode() : 0);
+        result = 31 * result + (insertStrategy != null ? insertStrategy.hashCode() : 0);
+        result = 31 * result + (insertRows != null ? insertRows.hashCode() : 0);
+        result = 31 * result + (tableInsertStrategies != null ? tableInsertStrategies.hashCode() : 0);
         return result;
     }
 }
@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+/**
+ * Hand written parsers and formatters of JDBC escape formats of dates (yyyy-[m]m-[d]d), times (hh:mm:ss) and timestamps
+ * (yyyy-[m]m-[d]d hh:mm:ss[.f...]). Parsers scan the string in place and return null when the string has a different
+ * shape instead of throwing, so that the caller can try the next shape at no cost. Formatters produce exactly the
+ * output of {@link Date#toString()}, {@link Time#toString()} and {@link Timestamp#toString()}. All methods are
+ * stateless and thread-safe, values are converted in the default time zone as {@code valueOf} methods do.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("deprecation")
+public class JdbcDateTimeUtils {
+
+    private static final int NANOS_DIGITS = 9;
+
+    private JdbcDateTimeUtils() {
+    }
+
+    /**
+     * Parses date in yyyy-[m]m-[d]d format
+     *
+     * @param value to parse
+     * @return date or null if the value is not a date
+     */
+    public static Date parseDate(String value) {
+        int date = scanDate(value, 0, value.length());
+        return date >= 0 ? new Date(getYear(date) - 1900, getMonth(date) - 1, getDay(date)) : null;
+    }
+
+    /**
+     * Parses time in hh:mm:ss format
+     *
+     * @param value to parse
+     * @return time or null if the value is not a time
+     */
+    public static Time parseTime(String value) {
+        int time = scanTime(value, 0, value.length());
+        return time >= 0 ? new Time(getHours(time), getMinutes(time), getSeconds(time)) : null;
+    }
+
+    /**
+     * Parses timestamp in yyyy-[m]m-[d]d hh:mm:ss[.f...] format, leading and trailing whitespaces are ignored
+     *
+     * @param value to parse
+     * @return timestamp or null if the value is not a timestamp
+     */
+    public static Timestamp parseTimestamp(String value) {
+        value = value.trim();
+        int length = value.length();
+        int space = value.indexOf(' ');
+        if (space < 0) {
+            return null;
+        }
+        int date = scanDate(value, 0, space);
+        if (date < 0) {
+            return null;
+        }
+        int period = value.indexOf('.', space + 1);
+        int time = scanTime(value, space + 1, period < 0 ? length : period);
+        if (time < 0) {
+            return null;
+        }
+        int nanos = 0;
+        if (period >= 0) {
+            int digits = length - period - 1;
+            nanos = scanNumber(value, period + 1, length, NANOS_DIGITS);
+            if (nanos < 0) {
+                return null;
+            }
+            for (; digits < NANOS_DIGITS; digits++) {
+                nanos *= 10;
+            }
+        }
+        return new Timestamp(getYear(date) - 1900, getMonth(date) - 1, getDay(date),
+                getHours(time), getMinutes(time), getSeconds(time), nanos);
+    }
+
+    /**
+     * Parses year in yyyy format
+     *
+     * @param value to parse
+     * @return first day of the year or null if the value is not a year
+     */
+    public static Date parseYear(String value) {
+        int year = scanNumber(value, 0, value.length(), 4);
+        return year >= 0 ? new Date(year - 1900, 0, 1) : null;
+    }
+
+    public static String formatDate(Date date) {
+        int year = date.getYear() + 1900;
+        if (year < 0 || year > 9999) {
+            return date.toString();
+        }
+        char[] buffer = new char[10];
+        formatDate(buffer, year, date.getMonth() + 1, date.getDate());
+        return new String(buffer);
+    }
+
+    public static String formatTime(Time time) {
+        char[] buffer = new char[8];
+        formatTime(buffer, 0, time.getHours(), time.getMinutes(), time.getSeconds());
+        return new String(buffer);
+    }
+
+    public static String formatTimestamp(Timestamp timestamp) {
+        int year = timestamp.getYear() + 1900;
+        if (year < 0 || year > 9999) {
+            return timestamp.toString();
+        }
+        char[] buffer = new char[20 + NANOS_DIGITS];
+        formatDate(buffer, year, timestamp.getMonth() + 1, timestamp.getDate());
+        buffer[10] = ' ';
+        formatTime(buffer, 11, timestamp.getHours(), timestamp.getMinutes(), timestamp.getSeconds());
+        buffer[19] = '.';
+        int nanos = timestamp.getNanos();
+        int length;
+        if (nanos == 0) {
+            buffer[20] = '0';
+            length = 21;
+        } else {
+            formatNumber(buffer, 20, nanos, NANOS_DIGITS);
+            length = buffer.length;
+            while (buffer[length - 1] == '0') {
+                length--;
+            }
+        }
+        return new String(buffer, 0, length);
+    }
+
+    public static String formatYear(java.util.Date date) {
+        int year = date.getYear() + 1900;
+        if (year < 0 || year > 9999) {
+            return Integer.toString(year);
+        }
+        char[] buffer = new char[4];
+        formatNumber(buffer, 0, year, 4);
+        return new String(buffer);
+    }
+
+    /**
+     * @return year * 10000 + month * 100 + day or -1 if the range is not a date
+     */
+    private static int scanDate(String value, int from, int to) {
+        int firstDash = from + 4;
+        if (to <= firstDash || value.charAt(firstDash) != '-') {
+            return -1;
+        }
+        int secondDash = value.indexOf('-', firstDash + 1);
+        if (secondDash < 0 || secondDash >= to) {
+            return -1;
+        }
+        int year = scanNumber(value, from, firstDash, 4);
+        int month = scanNumber(value, firstDash + 1, secondDash, 2);
+        int day = scanNumber(value, secondDash + 1, to, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return -1;
+        }
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * @return hours * 10000 + minutes * 100 + seconds or -1 if the range is not a time
+     */
+    private static int scanTime(String value, int from, int to) {
+        int firstColon = value.indexOf(':', from);
+        if (firstColon < 0 || firstColon >= to) {
+            return -1;
+        }
+        int secondColon = value.indexOf(':', firstColon + 1);
+        if (secondColon < 0 || secondColon >= to) {
+            return -1;
+        }
+        int hours = scanNumber(value, from, firstColon, 2);
+        int minutes = scanNumber(value, firstColon + 1, secondColon, 2);
+        int seconds = scanNumber(value, secondColon + 1, to, 2);
+        if (hours < 0 || minutes < 0 || seconds < 0) {
+            return -1;
+        }
+        return hours * 10000 + minutes * 100 + seconds;
+    }
+
+    /**
+     * @return non negative number of 1 to max digits or -1 if the range contains anything else
+     */
+    private static int scanNumber(String value, int from, int to, int digits) {
+        if (to <= from || to - from > digits) {
+            return -1;
+        }
+        int number = 0;
+        for (int index = from; index < to; index++) {
+            char digit = value.charAt(index);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            number = number * 10 + (digit - '0');
+        }
+        return number;
+    }
+
+    private static void formatDate(char[] buffer, int year, int month, int day) {
+        formatNumber(buffer, 0, year, 4);
+        buffer[4] = '-';
+        formatNumber(buffer, 5, month, 2);
+        buffer[7] = '-';
+        formatNumber(buffer, 8, day, 2);
+    }
+
+    private static void formatTime(char[] buffer, int offset, int hours, int minutes, int seconds) {
+        formatNumber(buffer, offset, hours, 2);
+        buffer[offset + 2] = ':';
+        formatNumber(buffer, offset + 3, minutes, 2);
+        buffer[offset + 5] = ':';
+        formatNumber(buffer, offset + 6, seconds, 2);
+    }
+
+    private static void formatNumber(char[] buffer, int offset, int number, int digits) {
+        for (int index = offset + digits - 1; index >= offset; index--) {
+            buffer[index] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+    }
+
+    private static int getYear(int date) {
+        return date / 10000;
+    }
+
+    private static int getMonth(int date) {
+        return date / 100 % 100;
+    }
+
+    private static int getDay(int date) {
+        return date % 100;
+    }
+
+    private static int getHours(int time) {
+        return time / 10000;
+    }
+
+    private static int getMinutes(int time) {
+        return time / 100 % 100;
+    }
+
+    private static int getSeconds(int time) {
+        return time % 100;
+    }
+}
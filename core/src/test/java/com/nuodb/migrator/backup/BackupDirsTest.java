@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.BackupDirs.setDirs;
+import static com.nuodb.migrator.backup.ChunkPlacement.FREE_SPACE;
+import static com.nuodb.migrator.backup.format.FormatAttributes.ATTRIBUTE_DIRS;
+import static com.nuodb.migrator.backup.format.FormatAttributes.ATTRIBUTE_DIRS_PLACEMENT;
+import static java.util.Arrays.asList;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.apache.commons.io.FileUtils.getFile;
+import static org.apache.commons.io.FileUtils.getTempDirectory;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class BackupDirsTest {
+
+    private File dir;
+    private BackupManager backupManager;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dir = getFile(getTempDirectory(), "backup-dirs-" + System.nanoTime());
+        backupManager = new XmlBackupManager(dir.getPath());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        deleteQuietly(dir);
+    }
+
+    @Test
+    public void testRoundRobin() {
+        assertNull(backupManager.nextDir());
+        Map<String, Object> attributes = newHashMap();
+        attributes.put(ATTRIBUTE_DIRS, "/mnt/nvme1, /mnt/nvme2,");
+        setDirs(backupManager, attributes);
+        assertEquals(backupManager.getDirs(), asList("/mnt/nvme1", "/mnt/nvme2"));
+        assertEquals(backupManager.nextDir(), "/mnt/nvme1");
+        assertEquals(backupManager.nextDir(), "/mnt/nvme2");
+        assertEquals(backupManager.nextDir(), "/mnt/nvme1");
+    }
+
+    @Test
+    public void testPlacement() {
+        Map<String, Object> attributes = newHashMap();
+        attributes.put(ATTRIBUTE_DIRS_PLACEMENT, "free.space");
+        setDirs(backupManager, attributes);
+        assertEquals(backupManager.getChunkPlacement(), FREE_SPACE);
+    }
+
+    @Test
+    public void testFreeSpace() {
+        final Map<String, Long> spaces = newHashMap();
+        spaces.put("/mnt/nvme1", 3000L);
+        spaces.put("/mnt/nvme2", 1000L);
+        backupManager = new XmlBackupManager(dir.getPath()) {
+            @Override
+            protected long getUsableSpace(String dir) {
+                return spaces.get(dir);
+            }
+        };
+        backupManager.setDirs(asList("/mnt/nvme1", "/mnt/nvme2"));
+        backupManager.setChunkPlacement(FREE_SPACE);
+        List<String> dirs = newArrayList();
+        for (int i = 0; i < 8; i++) {
+            dirs.add(backupManager.nextDir());
+        }
+        assertEquals(dirs, asList("/mnt/nvme1", "/mnt/nvme1", "/mnt/nvme2", "/mnt/nvme1",
+                "/mnt/nvme1", "/mnt/nvme1", "/mnt/nvme2", "/mnt/nvme1"));
+    }
+
+    @Test
+    public void testFreeSpaceUnknown() {
+        backupManager.setDirs(asList(getFile(dir, "nvme1").getPath(), getFile(dir, "nvme2").getPath()));
+        backupManager.setChunkPlacement(FREE_SPACE);
+        assertEquals(backupManager.nextDir(), getFile(dir, "nvme1").getPath());
+        assertEquals(backupManager.nextDir(), getFile(dir, "nvme2").getPath());
+    }
+
+    @Test(expectedExceptions = BackupException.class)
+    public void testUnsupportedPlacement() {
+        BackupDirs.getChunkPlacement("random");
+    }
+
+    @Test
+    public void testOpenInput() throws Exception {
+        String chunkDir = getFile(dir, "nvme2").getPath();
+        OutputStream output = backupManager.openOutput(chunkDir, "users.csv");
+        output.write(1);
+        closeQuietly(output);
+        assertTrue(getFile(chunkDir, "users.csv").exists());
+
+        backupManager.setDirs(asList(getFile(dir, "nvme1").getPath(), chunkDir));
+        InputStream input = backupManager.openInput(getFile(dir, "moved").getPath(), "users.csv");
+        try {
+            assertEquals(input.read(), 1);
+        } finally {
+            closeQuietly(input);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.Collection;
+
+import static com.google.common.collect.Iterables.get;
+import static java.io.File.createTempFile;
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class BackupJournalTest {
+
+    private File file;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        file = createTempFile("backup", ".journal");
+        file.deleteOnExit();
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        Chunk chunk = new Chunk();
+        chunk.setName("schema.users.2.csv.gz");
+        chunk.setRowCount(1000);
+        chunk.setCodec("gzip");
+        chunk.setDir("/mnt/nvme1/backup");
+
+        BackupJournal backupJournal = new BackupJournal(file);
+        backupJournal.open(false);
+        backupJournal.writeSplit("schema.users", 1, asList(new Column("id", "string"), new Column("na\tme", "binary")),
+                asList(chunk));
+        backupJournal.writeChunkOffset("schema.users", "schema.users.csv", 500);
+        backupJournal.writeChunkOffset("schema.users", "schema.users.csv", 1500);
+        backupJournal.writeChunkDone("schema.roles", "schema.roles.csv");
+        backupJournal.writeStep("schema");
+        backupJournal.close();
+
+        backupJournal = new BackupJournal(file);
+        backupJournal.open(true);
+        assertTrue(backupJournal.isSplitDone("schema.users", 1));
+        assertFalse(backupJournal.isSplitDone("schema.users", 0));
+        Collection<Column> columns = backupJournal.getSplitColumns("schema.users", 1);
+        assertEquals(columns.size(), 2);
+        Column column = get(columns, 1);
+        assertEquals(column.getName(), "na\tme");
+        assertEquals(column.getValueType(), "binary");
+        Collection<Chunk> chunks = backupJournal.getSplitChunks("schema.users", 1);
+        assertEquals(chunks, asList(chunk));
+        assertEquals(backupJournal.getChunkOffset("schema.users", "schema.users.csv"), 1500L);
+        assertEquals(backupJournal.getChunkOffset("schema.users", "schema.users.2.csv"), 0L);
+        assertTrue(backupJournal.isChunkDone("schema.roles", "schema.roles.csv"));
+        assertTrue(backupJournal.isStepDone("schema"));
+        assertFalse(backupJournal.isStepDone("indexes"));
+        backupJournal.close();
+
+        backupJournal = new BackupJournal(file);
+        backupJournal.open(false);
+        assertFalse(backupJournal.isSplitDone("schema.users", 1));
+        backupJournal.close();
+    }
+
+    @Test
+    public void testIncompleteSplit() throws Exception {
+        FileWriter writer = new FileWriter(file);
+        writer.write("split.column\tschema.users\t0\tid\tstring\n");
+        writer.write("split.chunk\tschema.users\t0\tschema.users.csv\t10\t\n");
+        writer.write("split\tschema.us");
+        writer.close();
+
+        BackupJournal backupJournal = new BackupJournal(file);
+        backupJournal.open(true);
+        assertFalse(backupJournal.isSplitDone("schema.users", 0));
+        backupJournal.close();
+    }
+
+    /**
+     * Journal without a file tracks the current run in memory and never writes to the disk.
+     */
+    @Test
+    public void testNoFile() {
+        BackupJournal backupJournal = new BackupJournal(null);
+        backupJournal.open(false);
+        backupJournal.writeChunkDone("schema.roles", "schema.roles.csv");
+        backupJournal.writeStep("schema");
+        assertTrue(backupJournal.isChunkDone("schema.roles", "schema.roles.csv"));
+        assertTrue(backupJournal.isStepDone("schema"));
+        backupJournal.delete();
+    }
+}
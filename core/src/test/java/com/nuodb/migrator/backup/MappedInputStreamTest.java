@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static java.io.File.createTempFile;
+import static org.apache.commons.io.FileUtils.writeByteArrayToFile;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class MappedInputStreamTest {
+
+    private File file;
+    private byte[] bytes;
+    private MappedInputStream input;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        file = createTempFile("chunk", ".bin");
+        file.deleteOnExit();
+        bytes = new byte[1000];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        writeByteArrayToFile(file, bytes);
+        input = new MappedInputStream(new RandomAccessFile(file, "r").getChannel(), 64);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        input.close();
+    }
+
+    @Test
+    public void testReadAcrossRegions() throws Exception {
+        byte[] read = new byte[bytes.length];
+        new DataInputStream(input).readFully(read);
+        assertEquals(read, bytes);
+        assertEquals(input.read(), -1);
+        assertEquals(input.read(read, 0, 1), -1);
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        assertEquals(input.read(), 0);
+        assertEquals(input.skip(100), 100L);
+        assertEquals(input.read(), 101);
+        assertEquals(input.getPosition(), 102L);
+        input.mark(0);
+        assertEquals(input.skip(2000), 898L);
+        assertEquals(input.read(), -1);
+        input.reset();
+        assertEquals(input.read(), 102);
+        assertEquals(input.available(), 897);
+    }
+}
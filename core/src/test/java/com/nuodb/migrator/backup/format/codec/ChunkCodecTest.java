@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.codec;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import static java.util.Arrays.fill;
+import static org.apache.commons.io.IOUtils.toByteArray;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ChunkCodecTest {
+
+    @DataProvider(name = "codecs")
+    public Object[][] createCodecData() {
+        byte[] text = createText(300000);
+        byte[] random = new byte[100000];
+        new Random(1).nextBytes(random);
+        return new Object[][]{
+                {new LzChunkCodec(), new byte[0]},
+                {new LzChunkCodec(), new byte[]{1, 2, 3}},
+                {new LzChunkCodec(), text},
+                {new LzChunkCodec(), random},
+                {new GzipChunkCodec(), text},
+                {new GzipChunkCodec(), random}
+        };
+    }
+
+    @Test(dataProvider = "codecs")
+    public void testCodec(ChunkCodec chunkCodec, byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStream output = chunkCodec.wrapOutputStream(bytes);
+        output.write(data, 0, data.length / 2);
+        for (int i = data.length / 2; i < data.length; i++) {
+            output.write(data[i]);
+        }
+        output.close();
+
+        InputStream input = chunkCodec.wrapInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(toByteArray(input), data);
+        input.close();
+    }
+
+    @Test
+    public void testCompress() throws IOException {
+        byte[] text = createText(300000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStream output = new LzChunkCodec().wrapOutputStream(bytes);
+        output.write(text);
+        output.close();
+        assertTrue(bytes.size() < text.length / 2);
+    }
+
+    @DataProvider(name = "corrupted")
+    public Object[][] createCorruptedData() {
+        int[] longMatch = new int[262];
+        longMatch[0] = 0x1F;
+        longMatch[1] = 'a';
+        longMatch[2] = 1;
+        fill(longMatch, 4, 261, 255);
+        return new Object[][]{
+                {createBlock(Integer.MIN_VALUE, 0)},
+                {createBlock(8, 9)},
+                {createBlock(100, 1, 0xF0)},
+                {createBlock(100, 3, 0x30, 'a', 'b')},
+                {createBlock(8, 3, 0x10, 'a', 5)},
+                {createBlock(8, 4, 0x10, 'a', 5, 0)},
+                {createBlock(8, 4, 0x10, 'a', 0, 0)},
+                {createBlock(8, 5, 0x1F, 'a', 1, 0, 255)},
+                {createBlock(LzOutputStream.BLOCK_SIZE, longMatch.length, longMatch)}
+        };
+    }
+
+    /**
+     * Corrupted blocks fail with {@link IOException} rather than with an index out of bounds.
+     */
+    @Test(dataProvider = "corrupted", expectedExceptions = IOException.class)
+    public void testCorrupted(byte[] block) throws IOException {
+        toByteArray(new LzChunkCodec().wrapInputStream(new ByteArrayInputStream(block)));
+    }
+
+    private static byte[] createBlock(int raw, int stored, int... compressed) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int value : new int[]{raw, stored}) {
+            bytes.write(value >>> 24);
+            bytes.write(value >>> 16);
+            bytes.write(value >>> 8);
+            bytes.write(value);
+        }
+        for (int value : compressed) {
+            bytes.write(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] createText(int length) {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(1);
+        while (text.length() < length) {
+            text.append(random.nextInt(1000)).append(",user").append(random.nextInt(100)).append(",2013-07-0").
+                    append(random.nextInt(9) + 1).append(" 12:00:00\n");
+        }
+        return text.substring(0, length).getBytes();
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.QueryRowSet;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.PrimitiveValue;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import com.nuodb.migrator.backup.format.value.ValueType;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.FormatAttributes.ATTRIBUTE_MAX_SIZE;
+import static com.nuodb.migrator.backup.format.columnar.ColumnarAttributes.ATTRIBUTE_ROW_GROUP_SIZE;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
+import static org.apache.commons.lang3.StringUtils.repeat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.*;
+
+/**
+ * Round trips values through {@link ColumnarOutputFormat} and {@link ColumnarInputFormat}.
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnarFormatTest {
+
+    private static final long MAX_SIZE = 1000;
+
+    @DataProvider(name = "roundTrip")
+    public Object[][] createRoundTripData() {
+        return new Object[][]{
+                {STRING, newArrayList(string("value"), string(""), STRING_NULL, string("\u00e9\u4e2d"))},
+                {BINARY, newArrayList(binary(new byte[]{0, 1, -1}), binary(new byte[0]), BINARY_NULL)},
+                {STRING, newArrayList(bool(true), bool(false), STRING_NULL)},
+                {STRING, newArrayList(int64(0), int64(-1), int64(Long.MAX_VALUE), int64(Long.MIN_VALUE))},
+                {STRING, newArrayList(float32(1.5f), float32(-0.0f), float32(Float.NaN))},
+                {STRING, newArrayList(float64(Math.PI), float64(Double.MAX_VALUE), float64(Double.NEGATIVE_INFINITY))},
+                {STRING, newArrayList(decimal(new BigDecimal("123.4500")), decimal(new BigDecimal("-1E+30")),
+                        decimal(BigDecimal.ZERO))},
+                {STRING, newArrayList(date(0), date(-86400000L), time(45296000L), STRING_NULL)},
+                {STRING, newArrayList(timestamp(1500000000L, 123456789), timestamp(-1, 5),
+                        timestamp(Long.MAX_VALUE / 1000000000L, 7), timestamp(-62135596800L * 2, 999999999))}
+        };
+    }
+
+    @Test(dataProvider = "roundTrip")
+    public void testRoundTrip(ValueType valueType, List<Value> values) {
+        ColumnarOutputFormat outputFormat = new ColumnarOutputFormat();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Map<String, Object> attributes = newHashMap();
+        attributes.put(ATTRIBUTE_ROW_GROUP_SIZE, "2");
+        outputFormat.setAttributes(attributes);
+        outputFormat.setOutputStream(outputStream);
+        outputFormat.setValueHandleList(createValueHandleList(valueType));
+        outputFormat.init();
+        outputFormat.writeStart();
+        for (Value value : values) {
+            outputFormat.writeValues(new Value[]{value});
+        }
+        outputFormat.writeEnd();
+        outputFormat.close();
+
+        List<Value[]> rows = read(outputStream.toByteArray(), valueType);
+        assertEquals(rows.size(), values.size());
+        for (int index = 0; index < values.size(); index++) {
+            assertValue(rows.get(index)[0], values.get(index), valueType);
+        }
+    }
+
+    /**
+     * Chunk is closed by {@link ColumnarOutputFormat#canWrite()} before the buffered row group is written over the max
+     * size, so that every chunk exceeds the max size by at most one row and the row group framing.
+     */
+    @Test
+    public void testMaxSize() {
+        String name = repeat("x", 50);
+        List<byte[]> chunks = newArrayList();
+        int written = 0;
+        while (written < 100) {
+            ColumnarOutputFormat outputFormat = new ColumnarOutputFormat();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            Map<String, Object> attributes = newHashMap();
+            attributes.put(ATTRIBUTE_MAX_SIZE, String.valueOf(MAX_SIZE));
+            attributes.put(ATTRIBUTE_ROW_GROUP_SIZE, "64");
+            outputFormat.setAttributes(attributes);
+            outputFormat.setBuffering(false);
+            outputFormat.setOutputStream(outputStream);
+            outputFormat.setValueHandleList(createValueHandleList(STRING, STRING));
+            outputFormat.init();
+            outputFormat.writeStart();
+            while (written < 100 && outputFormat.canWrite()) {
+                outputFormat.writeValues(new Value[]{int64(written++), string(name)});
+            }
+            outputFormat.writeEnd();
+            outputFormat.close();
+            chunks.add(outputStream.toByteArray());
+        }
+        assertTrue(chunks.size() > 1);
+
+        long id = 0;
+        for (byte[] chunk : chunks) {
+            assertTrue(chunk.length < MAX_SIZE + 100, "Chunk of " + chunk.length + " bytes overshoots max size");
+            for (Value[] row : read(chunk, STRING, STRING)) {
+                assertEquals(row[0], int64(id++));
+                assertEquals(row[1].asString(), name);
+            }
+        }
+        assertEquals(id, 100);
+    }
+
+    private static List<Value[]> read(byte[] chunk, ValueType... valueTypes) {
+        ColumnarInputFormat inputFormat = new ColumnarInputFormat();
+        inputFormat.setInputStream(new ByteArrayInputStream(chunk));
+        inputFormat.setRowSet(createRowSet(valueTypes));
+        inputFormat.init();
+        inputFormat.readStart();
+        List<Value[]> rows = newArrayList();
+        Value[] values;
+        while ((values = inputFormat.readValues()) != null) {
+            rows.add(values.clone());
+        }
+        inputFormat.readEnd();
+        inputFormat.close();
+        return rows;
+    }
+
+    private static void assertValue(Value actual, Value expected, ValueType valueType) {
+        assertEquals(actual.isNull(), expected.isNull());
+        if (expected instanceof PrimitiveValue) {
+            assertEquals(actual, expected);
+        } else if (valueType == BINARY) {
+            assertEquals(actual.asBytes(), expected.asBytes());
+        } else {
+            assertEquals(actual.asString(), expected.asString());
+        }
+        assertEquals(actual.getValueType(), expected.getValueType());
+    }
+
+    private static RowSet createRowSet(ValueType... valueTypes) {
+        RowSet rowSet = new QueryRowSet();
+        for (int index = 0; index < valueTypes.length; index++) {
+            rowSet.addColumn("c" + index, ValueType.toAlias(valueTypes[index]));
+        }
+        return rowSet;
+    }
+
+    private static ValueHandleList createValueHandleList(ValueType... valueTypes) {
+        List<ValueHandle> list = newArrayList();
+        for (ValueType valueType : valueTypes) {
+            ValueHandle valueHandle = mock(ValueHandle.class);
+            when(valueHandle.getValueType()).thenReturn(valueType);
+            list.add(valueHandle);
+        }
+        ValueHandleList valueHandleList = mock(ValueHandleList.class);
+        when(valueHandleList.size()).thenReturn(list.size());
+        when(valueHandleList.iterator()).thenReturn(list.iterator());
+        for (int index = 0; index < list.size(); index++) {
+            when(valueHandleList.get(index)).thenReturn(list.get(index));
+        }
+        return valueHandleList;
+    }
+}
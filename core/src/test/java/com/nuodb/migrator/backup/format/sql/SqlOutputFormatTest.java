@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.sql;
+
+import com.nuodb.migrator.backup.format.OutputFormatException;
+import com.nuodb.migrator.backup.format.value.LobValue;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.sql.SqlAttributes.ATTRIBUTE_INSERT_ROWS;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static java.sql.Types.CLOB;
+import static java.sql.Types.INTEGER;
+import static java.sql.Types.VARCHAR;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class SqlOutputFormatTest {
+
+    @DataProvider(name = "writeValues")
+    public Object[][] createWriteValuesData() {
+        return new Object[][]{
+                {null,
+                        "INSERT INTO \"users\" (\"id\", \"name\") VALUES (1, 'Joe');\n" +
+                        "INSERT INTO \"users\" (\"id\", \"name\") VALUES (2, 'O''Brien');\n" +
+                        "INSERT INTO \"users\" (\"id\", \"name\") VALUES (3, NULL);\n"},
+                {"2",
+                        "INSERT INTO \"users\" (\"id\", \"name\") VALUES (1, 'Joe'),\n(2, 'O''Brien');\n" +
+                        "INSERT INTO \"users\" (\"id\", \"name\") VALUES (3, NULL);\n"}
+        };
+    }
+
+    @Test(dataProvider = "writeValues")
+    public void testWriteValues(String insertRows, String script) {
+        Table table = createTable(null, "schema", "users");
+        StringWriter writer = new StringWriter();
+        SqlOutputFormat outputFormat = new SqlOutputFormat();
+        outputFormat.setDialect(new NuoDBDialect());
+        outputFormat.setLineSeparator("\n");
+        outputFormat.setWriter(writer);
+        Map<String, Object> attributes = newHashMap();
+        attributes.put(ATTRIBUTE_INSERT_ROWS, insertRows);
+        outputFormat.setAttributes(attributes);
+        outputFormat.setValueHandleList(createValueHandleList(
+                createValueHandle(table.addColumn("id"), INTEGER),
+                createValueHandle(table.addColumn("name"), VARCHAR)));
+
+        outputFormat.init();
+        outputFormat.writeStart();
+        outputFormat.writeValues(new Value[]{string("1"), string("Joe")});
+        outputFormat.writeValues(new Value[]{string("2"), string("O'Brien")});
+        outputFormat.writeValues(new Value[]{string("3"), string(null)});
+        outputFormat.writeEnd();
+        outputFormat.close();
+
+        assertEquals(writer.toString(), script);
+    }
+
+    @Test
+    public void testWriteLobValue() throws Exception {
+        Table table = createTable(null, "schema", "users");
+        StringWriter writer = new StringWriter();
+        SqlOutputFormat outputFormat = new SqlOutputFormat();
+        outputFormat.setDialect(new NuoDBDialect());
+        outputFormat.setLineSeparator("\n");
+        outputFormat.setWriter(writer);
+        outputFormat.setValueHandleList(createValueHandleList(
+                createValueHandle(table.addColumn("id"), INTEGER),
+                createValueHandle(table.addColumn("about"), CLOB)));
+        LobValue value = (LobValue) LobValue.spill(new StringReader("O'Brien"), 1);
+
+        outputFormat.init();
+        outputFormat.writeStart();
+        outputFormat.writeValues(new Value[]{string("1"), value});
+        outputFormat.writeEnd();
+        outputFormat.close();
+        value.release();
+
+        assertEquals(writer.toString(), "INSERT INTO \"users\" (\"id\", \"about\") VALUES (1, 'O''Brien');\n");
+    }
+
+    /**
+     * Chunk codec compresses bytes and can't be applied to a writer.
+     */
+    @Test(expectedExceptions = OutputFormatException.class)
+    public void testCodecRequiresOutputStream() {
+        SqlOutputFormat outputFormat = new SqlOutputFormat();
+        outputFormat.setDialect(new NuoDBDialect());
+        outputFormat.setCodec("lz");
+        outputFormat.setWriter(new StringWriter());
+        outputFormat.init();
+    }
+
+    private static ValueHandle createValueHandle(Column column, int typeCode) {
+        ValueHandle valueHandle = mock(ValueHandle.class);
+        when(valueHandle.asField()).thenReturn(column);
+        when(valueHandle.getTypeCode()).thenReturn(typeCode);
+        return valueHandle;
+    }
+
+    private static ValueHandleList createValueHandleList(ValueHandle... valueHandles) {
+        List<ValueHandle> list = newArrayList(valueHandles);
+        ValueHandleList valueHandleList = mock(ValueHandleList.class);
+        when(valueHandleList.size()).thenReturn(list.size());
+        when(valueHandleList.iterator()).thenReturn(list.iterator());
+        for (int index = 0; index < list.size(); index++) {
+            when(valueHandleList.get(index)).thenReturn(list.get(index));
+        }
+        return valueHandleList;
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.jdbc.model.Field;
+import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.int64;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static java.sql.Types.BINARY;
+import static java.sql.Types.LONGVARBINARY;
+import static java.sql.Types.SMALLINT;
+import static java.sql.Types.TINYINT;
+import static java.sql.Types.VARBINARY;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class JdbcValueFormatTest {
+
+    private JdbcValueFormat valueFormat;
+    private Field field;
+    private JdbcValueAccess<Object> access;
+    private Map<String, Object> options;
+
+    @BeforeMethod
+    public void setUp() {
+        valueFormat = new JdbcValueFormat();
+        field = mock(Field.class);
+        access = mock(JdbcValueAccess.class);
+        when(access.getField()).thenReturn(field);
+        options = newHashMap();
+    }
+
+    @DataProvider(name = "binary")
+    public Object[][] createBinaryData() {
+        return new Object[][]{{BINARY}, {VARBINARY}, {LONGVARBINARY}};
+    }
+
+    @Test(dataProvider = "binary")
+    public void testSetBinary(int typeCode) throws Exception {
+        when(field.getTypeCode()).thenReturn(typeCode);
+        byte[] bytes = new byte[]{1, 2, 3};
+        valueFormat.setValue(binary(bytes), access, options);
+        verify(access).setValue(bytes, options);
+    }
+
+    /**
+     * Empty binary values are bound as nulls.
+     */
+    @Test(dataProvider = "binary")
+    public void testSetEmptyBinary(int typeCode) throws Exception {
+        when(field.getTypeCode()).thenReturn(typeCode);
+        valueFormat.setValue(binary(new byte[0]), access, options);
+        valueFormat.setValue(binary(null), access, options);
+        valueFormat.setValue(string(""), access, options);
+        verify(access, times(3)).setValue(null, options);
+    }
+
+    /**
+     * TINYINT takes unsigned byte values and is bound as a short, which is the value class of the TINYINT type.
+     */
+    @Test
+    public void testSetTinyInt() throws Exception {
+        when(field.getTypeCode()).thenReturn(TINYINT);
+        valueFormat.setValue(int64(200), access, options);
+        verify(access).setValue((short) 200, options);
+    }
+
+    /**
+     * Primitive value out of range of the column type is rejected instead of being truncated.
+     */
+    @Test(expectedExceptions = ValueFormatException.class)
+    public void testSetSmallIntOutOfRange() throws Exception {
+        when(field.getTypeCode()).thenReturn(SMALLINT);
+        valueFormat.setValue(int64(100000), access, options);
+    }
+}
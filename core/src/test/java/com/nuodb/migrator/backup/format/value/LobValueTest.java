@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
+import static com.nuodb.migrator.backup.format.value.LobValue.CHARSET;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LobValueTest {
+
+    @Test
+    public void testSpillBinaryBelowThreshold() throws Exception {
+        Value value = LobValue.spill(new ByteArrayInputStream(new byte[]{1, 2, 3}), 3);
+
+        assertFalse(value instanceof LobValue);
+        assertEquals(value.getValueType(), BINARY);
+        assertEquals(value.asBytes(), new byte[]{1, 2, 3});
+    }
+
+    @Test
+    public void testSpillBinaryAboveThreshold() throws Exception {
+        byte[] bytes = new byte[100000];
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = (byte) index;
+        }
+        Value value = LobValue.spill(new ByteArrayInputStream(bytes), 1024);
+
+        assertTrue(value instanceof LobValue);
+        LobValue lobValue = (LobValue) value;
+        assertEquals(lobValue.getValueType(), BINARY);
+        assertEquals(lobValue.getLength(), (long) bytes.length);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(lobValue.copyTo(output), (long) bytes.length);
+        assertEquals(output.toByteArray(), bytes);
+        lobValue.release();
+    }
+
+    @Test
+    public void testSpillStringAboveThreshold() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < 10000; index++) {
+            builder.append("\u00e9t\u00e9 ");
+        }
+        String string = builder.toString();
+        Value value = LobValue.spill(new StringReader(string), 100);
+
+        assertTrue(value instanceof LobValue);
+        assertEquals(value.getValueType(), STRING);
+        assertEquals(((LobValue) value).getLength(), (long) string.getBytes(CHARSET).length);
+        assertEquals(value.asString(), string);
+        ((LobValue) value).release();
+    }
+
+    @Test
+    public void testSpillStringBelowThreshold() throws Exception {
+        Value value = LobValue.spill(new StringReader("value"), 100);
+
+        assertFalse(value instanceof LobValue);
+        assertEquals(value.asString(), "value");
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        LobValue value = LobValue.stream(BINARY, new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+        assertEquals(value.getLength(), -1L);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(value.copyTo(output), 3L);
+        assertEquals(output.toByteArray(), new byte[]{1, 2, 3});
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testStreamReadTwice() throws Exception {
+        LobValue value = LobValue.stream(STRING, new ByteArrayInputStream("value".getBytes(CHARSET)));
+        value.copyTo(new ByteArrayOutputStream());
+        value.copyTo(new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void testEncodeTo() throws Exception {
+        byte[] bytes = new byte[20000];
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = (byte) index;
+        }
+        LobValue value = (LobValue) LobValue.spill(new ByteArrayInputStream(bytes), 1024);
+
+        StringWriter writer = new StringWriter();
+        value.encodeTo(writer);
+        assertEquals(writer.toString(), BASE64.encode(bytes));
+        value.release();
+    }
+
+    @Test
+    public void testCopyToWriter() throws Exception {
+        String string = "\u00e9t\u00e9 \u00e9t\u00e9";
+        LobValue value = (LobValue) LobValue.spill(new StringReader(string), 1);
+
+        StringWriter writer = new StringWriter();
+        assertEquals(value.copyTo(writer), (long) string.length());
+        assertEquals(writer.toString(), string);
+        value.release();
+    }
+
+    @Test
+    public void testBinaryAsString() throws Exception {
+        byte[] bytes = "\u00e9t\u00e9".getBytes(CHARSET);
+        Value value = LobValue.spill(new ByteArrayInputStream(bytes), 1);
+
+        assertEquals(value.asString(), "\u00e9t\u00e9");
+        ((LobValue) value).release();
+    }
+
+    @Test(expectedExceptions = FileNotFoundException.class)
+    public void testRelease() throws Exception {
+        LobValue value = (LobValue) LobValue.spill(new StringReader("value"), 1);
+        value.release();
+        value.getInputStream();
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import org.testng.annotations.Test;
+
+import java.io.FileNotFoundException;
+import java.io.StringReader;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+/**
+ * @author Sergey Bushik
+ */
+public class RowBufferTest {
+
+    @Test
+    public void testOrder() throws Exception {
+        final int rows = 10000;
+        final RowBuffer rowBuffer = new RowBuffer(4, 1);
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int row = 0; row < rows; row++) {
+                        Value[] values = rowBuffer.claim();
+                        values[0] = string(String.valueOf(row));
+                        rowBuffer.publish();
+                    }
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    rowBuffer.close();
+                }
+            }
+        });
+        producer.start();
+
+        List<String> values = newArrayList();
+        Value[] row;
+        while ((row = rowBuffer.take()) != null) {
+            values.add(row[0].asString());
+            rowBuffer.release();
+        }
+        producer.join();
+
+        assertEquals(values.size(), rows);
+        for (int index = 0; index < rows; index++) {
+            assertEquals(values.get(index), String.valueOf(index));
+        }
+    }
+
+    @Test
+    public void testEnd() throws Exception {
+        RowBuffer rowBuffer = new RowBuffer(2, 1);
+        rowBuffer.claim()[0] = string("row");
+        rowBuffer.publish();
+        rowBuffer.publishEnd();
+        rowBuffer.close();
+
+        assertEquals(rowBuffer.take()[0].asString(), "row");
+        rowBuffer.release();
+        assertSame(rowBuffer.take(), RowBuffer.END);
+        rowBuffer.release();
+        assertNull(rowBuffer.take());
+    }
+
+    @Test
+    public void testAbort() throws Exception {
+        RowBuffer rowBuffer = new RowBuffer(1, 1);
+        rowBuffer.claim();
+        rowBuffer.publish();
+        rowBuffer.abort();
+        assertNull(rowBuffer.claim());
+    }
+
+    @Test(expectedExceptions = FileNotFoundException.class)
+    public void testDiscard() throws Exception {
+        RowBuffer rowBuffer = new RowBuffer(2, 1);
+        LobValue value = (LobValue) LobValue.spill(new StringReader("value"), 1);
+        rowBuffer.claim()[0] = value;
+        rowBuffer.publish();
+        rowBuffer.publishEnd();
+        rowBuffer.close();
+        rowBuffer.discard();
+
+        assertNull(rowBuffer.take());
+        value.getInputStream();
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.SimpleValueHandle;
+import com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.SimpleValueHandleList;
+import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+
+import static java.sql.Types.DECIMAL;
+import static java.sql.Types.DOUBLE;
+import static java.sql.Types.INTEGER;
+import static java.sql.Types.VARBINARY;
+import static java.sql.Types.VARCHAR;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Reads rows from stub source columns and binds them to stub target columns through the row codec.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class RowCodecTest {
+
+    private static final int[] TYPE_CODES = {INTEGER, DECIMAL, DOUBLE, VARCHAR, VARBINARY};
+
+    private JdbcValueAccess<Object>[] sourceAccesses;
+    private JdbcValueAccess<Object>[] targetAccesses;
+    private ValueHandleList source;
+    private ValueHandleList target;
+
+    @BeforeMethod
+    public void setUp() {
+        sourceAccesses = new JdbcValueAccess[TYPE_CODES.length];
+        targetAccesses = new JdbcValueAccess[TYPE_CODES.length];
+        source = createValueHandleList(sourceAccesses);
+        target = createValueHandleList(targetAccesses);
+    }
+
+    protected static ValueHandleList createValueHandleList(JdbcValueAccess<Object>[] accesses) {
+        ValueFormat valueFormat = new JdbcValueFormat();
+        ValueHandleList valueHandleList = new SimpleValueHandleList();
+        for (int index = 0; index < TYPE_CODES.length; index++) {
+            ValueHandle valueHandle = new SimpleValueHandle();
+            valueHandle.setName("column" + (index + 1));
+            valueHandle.setTypeCode(TYPE_CODES[index]);
+            valueHandle.setValueFormat(valueFormat);
+            valueHandle.setValueType(valueFormat.getValueType(valueHandle));
+            JdbcValueAccess<Object> access = mock(JdbcValueAccess.class);
+            when(access.getField()).thenReturn(valueHandle);
+            valueHandle.setJdbcValueAccess(access);
+            valueHandleList.add(valueHandle);
+            accesses[index] = access;
+        }
+        return valueHandleList;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        BigDecimal decimal = new BigDecimal("10.50");
+        byte[] bytes = new byte[]{1, 2, 3};
+        when(sourceAccesses[0].getValue(null)).thenReturn(1);
+        when(sourceAccesses[1].getValue(null)).thenReturn(decimal);
+        when(sourceAccesses[2].getValue(null)).thenReturn(0.25d);
+        when(sourceAccesses[3].getValue(String.class, null)).thenReturn("users");
+        when(sourceAccesses[4].getValue(byte[].class, null)).thenReturn(bytes);
+
+        Value[] values = new RowCodec(source).getValues();
+        assertEquals(values.length, TYPE_CODES.length);
+        assertEquals(values[0].asString(), "1");
+        assertEquals(values[1].asString(), "10.50");
+        assertEquals(values[3].asString(), "users");
+        assertEquals(values[4].asBytes(), bytes);
+
+        new RowCodec(target).setValues(values);
+        verify(targetAccesses[0]).setValue(1, null);
+        verify(targetAccesses[1]).setValue(decimal, null);
+        verify(targetAccesses[2]).setValue(0.25d, null);
+        verify(targetAccesses[3]).setValue("users", null);
+        verify(targetAccesses[4]).setValue(bytes, null);
+    }
+
+    @Test
+    public void testNulls() throws Exception {
+        Value[] values = new RowCodec(source).getValues();
+        for (Value value : values) {
+            assertTrue(value.isNull());
+        }
+        new RowCodec(target).setValues(values);
+        for (JdbcValueAccess<Object> access : targetAccesses) {
+            verify(access).setValue(null, null);
+        }
+    }
+
+    /**
+     * Row buffer is owned by the codec and overwritten by every row, while rows read into the given array are kept.
+     */
+    @Test
+    public void testRowBuffer() throws Exception {
+        when(sourceAccesses[0].getValue(null)).thenReturn(1, 2, 3);
+        RowCodec rowCodec = new RowCodec(source);
+        Value[] row = rowCodec.getValues();
+        assertEquals(row[0].asString(), "1");
+        assertSame(rowCodec.getValues(), row);
+        assertEquals(row[0].asString(), "2");
+
+        Value[] values = new Value[rowCodec.getWidth()];
+        assertSame(rowCodec.getValues(values), values);
+        assertEquals(values[0].asString(), "3");
+        assertEquals(row[0].asString(), "2");
+    }
+
+    @Test
+    public void testGetRowCodec() {
+        RowCodec rowCodec = RowCodec.getRowCodec(null, source);
+        assertSame(rowCodec.getValueHandleList(), source);
+        assertSame(RowCodec.getRowCodec(rowCodec, source), rowCodec);
+        RowCodec targetRowCodec = RowCodec.getRowCodec(rowCodec, target);
+        assertNotSame(targetRowCodec, rowCodec);
+        assertSame(targetRowCodec.getValueHandleList(), target);
+    }
+}
@@ -38,6 +38,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.TimeZone;
 
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
 import static java.util.Arrays.asList;
 import static org.mockito.Mockito.spy;
 import static org.testng.Assert.assertEquals;
@@ -81,7 +82,11 @@ public class CliDumpJobTest {
                 "--table.users_roles.filter=role_id in (1,2,3,4,5)",
 
                 "--query=SELECT id, name, definition FROM definitions",
-                "--time.zone=GMT"
+                "--time.zone=GMT",
+                "--query.partition=true",
+                "--query.row.count=approx",
+                "--pipeline.depth=64",
+                "--resume"
         };
         parser.parse(arguments, cliDumpJob);
 
@@ -122,6 +127,10 @@ public class CliDumpJobTest {
         dumpSpec.setQuerySpecs(asList(new QuerySpec("SELECT id, name, definition FROM definitions")));
         dumpSpec.setTableTypes(new String[]{"TABLE", "SYSTEM TABLE"});
         dumpSpec.setTimeZone(TimeZone.getTimeZone("GMT"));
+        dumpSpec.setQueryPartition(true);
+        dumpSpec.setRowCountType(APPROX);
+        dumpSpec.setPipelineDepth(64);
+        dumpSpec.setResume(true);
         return dumpSpec;
     }
 }
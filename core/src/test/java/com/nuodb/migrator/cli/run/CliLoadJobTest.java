@@ -31,6 +31,7 @@ import com.google.common.collect.Maps;
 import com.nuodb.migrator.cli.parse.Parser;
 import com.nuodb.migrator.cli.parse.parser.ParserImpl;
 import com.nuodb.migrator.jdbc.commit.BatchCommitStrategy;
+import com.nuodb.migrator.jdbc.query.InsertStrategy;
 import com.nuodb.migrator.jdbc.query.InsertType;
 import com.nuodb.migrator.backup.format.csv.CsvAttributes;
 import com.nuodb.migrator.spec.DriverConnectionSpec;
@@ -76,7 +77,14 @@ public class CliLoadJobTest {
 
                 "--table.deployments.insert",
                 "--table.deployments_nodes.replace",
-                "--time.zone=GMT+2"
+                "--insert.strategy=multi.row",
+                "--insert.rows=50",
+                "--table.deployments.strategy=batch",
+                "--time.zone=GMT+2",
+                "--threads=4",
+                "--pipeline.depth=128",
+                "--resume",
+                "--journal=/tmp/load.journal"
         };
         parser.parse(arguments, cliLoadJob);
 
@@ -109,7 +117,16 @@ public class CliLoadJobTest {
         tableInsertTypes.put("deployments", InsertType.INSERT);
         tableInsertTypes.put("deployments_nodes", InsertType.REPLACE);
         loadJobSpec.setTableInsertTypes(tableInsertTypes);
+        loadJobSpec.setInsertStrategy(InsertStrategy.MULTI_ROW);
+        loadJobSpec.setInsertRows(50);
+        Map<String, InsertStrategy> tableInsertStrategies = Maps.newHashMap();
+        tableInsertStrategies.put("deployments", InsertStrategy.BATCH);
+        loadJobSpec.setTableInsertStrategies(tableInsertStrategies);
         loadJobSpec.setTimeZone(TimeZone.getTimeZone("GMT+2"));
+        loadJobSpec.setThreads(4);
+        loadJobSpec.setPipelineDepth(128);
+        loadJobSpec.setResume(true);
+        loadJobSpec.setJournal("/tmp/load.journal");
         loadJobSpec.setCommitStrategy(new BatchCommitStrategy());
         return loadJobSpec;
     }
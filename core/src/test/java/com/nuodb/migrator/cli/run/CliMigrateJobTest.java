@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.cli.run;
+
+import com.google.common.collect.Maps;
+import com.nuodb.migrator.cli.parse.Parser;
+import com.nuodb.migrator.cli.parse.parser.ParserImpl;
+import com.nuodb.migrator.jdbc.commit.BatchCommitStrategy;
+import com.nuodb.migrator.jdbc.query.InsertType;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.spec.DriverConnectionSpec;
+import com.nuodb.migrator.spec.MigrateJobSpec;
+import com.nuodb.migrator.spec.TableSpec;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.TimeZone;
+
+import static com.nuodb.migrator.jdbc.JdbcConstants.NUODB_DRIVER;
+import static java.util.Arrays.asList;
+import static org.mockito.Mockito.spy;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class CliMigrateJobTest {
+
+    private Parser parser;
+    private CliMigrateJob cliMigrateJob;
+
+    @BeforeMethod
+    public void setUp() {
+        parser = spy(new ParserImpl());
+        cliMigrateJob = spy(new CliMigrateJob());
+    }
+
+    @Test
+    public void testParse() {
+        String[] arguments = {
+                "--source.driver=com.mysql.jdbc.Driver",
+                "--source.url=jdbc:mysql://localhost:3306/test",
+                "--source.username=root",
+                "--source.catalog=test",
+
+                "--target.url=jdbc:com.nuodb://localhost/test?schema=hockey",
+                "--target.username=dba",
+                "--target.password=goalie",
+
+                "--table.users_roles.filter=role_id in (1,2,3,4,5)",
+                "--table.users_roles.replace",
+                "--time.zone=GMT+2",
+                "--threads=8",
+                "--query.limit=100000",
+                "--pipeline.depth=256"
+        };
+        parser.parse(arguments, cliMigrateJob);
+
+        assertEquals(cliMigrateJob.getJobSpec(), createMigrateSpec());
+    }
+
+    private MigrateJobSpec createMigrateSpec() {
+        MigrateJobSpec migrateJobSpec = new MigrateJobSpec();
+
+        DriverConnectionSpec sourceSpec = new DriverConnectionSpec();
+        sourceSpec.setDriver("com.mysql.jdbc.Driver");
+        sourceSpec.setUrl("jdbc:mysql://localhost:3306/test");
+        sourceSpec.setUsername("root");
+        sourceSpec.setCatalog("test");
+        migrateJobSpec.setSourceSpec(sourceSpec);
+
+        DriverConnectionSpec targetSpec = new DriverConnectionSpec();
+        targetSpec.setDriver(NUODB_DRIVER);
+        targetSpec.setUrl("jdbc:com.nuodb://localhost/test?schema=hockey");
+        targetSpec.setUsername("dba");
+        targetSpec.setPassword("goalie");
+        migrateJobSpec.setTargetSpec(targetSpec);
+
+        migrateJobSpec.setTableSpecs(asList(new TableSpec("users_roles", "role_id in (1,2,3,4,5)")));
+        migrateJobSpec.setInsertType(InsertType.INSERT);
+        Map<String, InsertType> tableInsertTypes = Maps.newHashMap();
+        tableInsertTypes.put("users_roles", InsertType.REPLACE);
+        migrateJobSpec.setTableInsertTypes(tableInsertTypes);
+        migrateJobSpec.setTimeZone(TimeZone.getTimeZone("GMT+2"));
+        migrateJobSpec.setThreads(8);
+        migrateJobSpec.setQueryLimit(new QueryLimit(100000L));
+        migrateJobSpec.setPipelineDepth(256);
+        migrateJobSpec.setCommitStrategy(new BatchCommitStrategy());
+        return migrateJobSpec;
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.dump;
+
+import com.nuodb.migrator.backup.QueryRowSet;
+import com.nuodb.migrator.backup.TableRowSet;
+import com.nuodb.migrator.jdbc.dialect.RowCountType;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.split.QuerySplitter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.newLimitSplitter;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.newNoLimitSplitter;
+import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newProvidedStrategy;
+import static java.util.Collections.synchronizedList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class DumpWriterTest {
+
+    private DumpWriter dumpWriter;
+
+    @BeforeMethod
+    public void setUp() {
+        dumpWriter = new DumpWriter();
+    }
+
+    @Test
+    public void testCreateDumpPlan() throws Exception {
+        DumpPlan dumpPlan = dumpWriter.createDumpPlan(createDumpQuery("users", 250), null);
+
+        assertEquals(dumpPlan.getQuerySplits().size(), 3);
+        assertEquals(dumpPlan.getWeight(), 300L);
+        assertEquals(dumpPlan.getQuerySplits().get(2).getQueryLimit(), new QueryLimit(50L, 200L));
+    }
+
+    @Test
+    public void testCreateDumpPlanNoLimit() throws Exception {
+        DumpPlan dumpPlan = dumpWriter.createDumpPlan(new DumpQuery(newNoLimitSplitter(
+                newQuery("SELECT * FROM users")), new QueryRowSet("SELECT * FROM users")), null);
+
+        assertEquals(dumpPlan.getQuerySplits().size(), 1);
+        assertEquals(dumpPlan.getWeight(), 0L);
+    }
+
+    @Test
+    public void testOrderDumpQueries() throws Exception {
+        final Map<String, Long> weights = newHashMap();
+        weights.put("users", 50L);
+        weights.put("orders", 250L);
+        weights.put("items", 150L);
+        weights.put("roles", 80L);
+        dumpWriter = new DumpWriter() {
+            @Override
+            protected long estimateWeight(DumpQuery dumpQuery) {
+                return weights.get(dumpQuery.getRowSet().getName());
+            }
+        };
+        List<DumpQuery> dumpQueries;
+        ExecutorService planExecutor = newFixedThreadPool(2);
+        try {
+            dumpQueries = dumpWriter.orderDumpQueries(newArrayList(createDumpQuery("users", 50),
+                    createDumpQuery("orders", 250), createDumpQuery("items", 150), createDumpQuery("roles", 80)),
+                    planExecutor);
+        } finally {
+            planExecutor.shutdownNow();
+        }
+        assertEquals(dumpQueries.get(0).getRowSet().getName(), "orders");
+        assertEquals(dumpQueries.get(1).getRowSet().getName(), "items");
+        assertEquals(dumpQueries.get(2).getRowSet().getName(), "roles");
+        assertEquals(dumpQueries.get(3).getRowSet().getName(), "users");
+    }
+
+    /**
+     * Planning of the largest table waits until the smallest table is planned, yet the largest table is dumped first.
+     */
+    @Test(timeOut = 10000)
+    public void testDumpInOrder() throws Exception {
+        final CountDownLatch planned = new CountDownLatch(1);
+        final List<String> events = synchronizedList(Lists.<String>newArrayList());
+        dumpWriter = new DumpWriter() {
+            @Override
+            protected long estimateWeight(DumpQuery dumpQuery) {
+                return "orders".equals(dumpQuery.getRowSet().getName()) ? 1000 : 10;
+            }
+
+            @Override
+            protected DumpPlan planDumpQuery(DumpQuery dumpQuery) throws Exception {
+                String name = dumpQuery.getRowSet().getName();
+                if ("orders".equals(name)) {
+                    planned.await();
+                }
+                events.add("planned " + name);
+                planned.countDown();
+                return createDumpPlan(dumpQuery, null);
+            }
+
+            @Override
+            protected void executeDumpPlan(DumpQueryManager dumpQueryManager, DumpPlan dumpPlan) {
+                events.add("dumped " + dumpPlan.getDumpQuery().getRowSet().getName());
+            }
+        };
+        ExecutorService planExecutor = newFixedThreadPool(2);
+        try {
+            dumpWriter.executeDumpPlans(null, newArrayList(createDumpQuery("users", 50),
+                    createDumpQuery("orders", 250)), planExecutor);
+        } finally {
+            planExecutor.shutdownNow();
+        }
+        assertEquals(events, newArrayList("planned users", "planned orders", "dumped orders", "dumped users"));
+    }
+
+    @Test
+    public void testCheckResume() {
+        Table table = createTable(null, "schema", "users");
+        dumpWriter.addDumpQuery(createDumpTable(table, EXACT));
+        dumpWriter.checkResume();
+    }
+
+    /**
+     * Number of splits counted with approximate row count may differ from the previous run.
+     */
+    @Test(expectedExceptions = DumpException.class)
+    public void testCheckResumeApprox() {
+        Table table = createTable(null, "schema", "users");
+        dumpWriter.addDumpQuery(createDumpTable(table, APPROX));
+        dumpWriter.checkResume();
+    }
+
+    private DumpTable createDumpTable(Table table, RowCountType rowCountType) {
+        QuerySplitter querySplitter = newLimitSplitter(null, newProvidedStrategy(250), rowCountType,
+                newQuery("SELECT * FROM " + table.getName()), new QueryLimit(100L));
+        return new DumpTable(table, table.getColumns(), null, querySplitter, new TableRowSet(table));
+    }
+
+    private DumpQuery createDumpQuery(String table, long rowCount) {
+        QuerySplitter querySplitter = newLimitSplitter(null, newProvidedStrategy(rowCount), EXACT,
+                newQuery("SELECT * FROM " + table), new QueryLimit(100L));
+        QueryRowSet rowSet = new QueryRowSet("SELECT * FROM " + table);
+        rowSet.setName(table);
+        return new DumpQuery(querySplitter, rowSet);
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.commit.AdaptiveBatchCommitStrategy.BatchSize;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.InsertQuery;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class AdaptiveBatchCommitStrategyTest {
+
+    private AdaptiveBatchCommitStrategy commitStrategy;
+
+    @BeforeMethod
+    public void setUp() {
+        commitStrategy = new AdaptiveBatchCommitStrategy();
+        Map<String, Object> attributes = newHashMap();
+        attributes.put("batch.size", "1000");
+        attributes.put("batch.size.min", "500");
+        attributes.put("batch.size.max", "4000");
+        attributes.put("batch.latency.max", "100");
+        commitStrategy.setAttributes(attributes);
+    }
+
+    @Test
+    public void testGrowWhileThroughputImproves() {
+        BatchSize batchSize = commitStrategy.new BatchSize(1000);
+        batchSize.update(1000, MILLISECONDS.toNanos(20));
+        assertEquals(batchSize.getSize(), 1500L);
+        batchSize.update(1500, MILLISECONDS.toNanos(20));
+        assertEquals(batchSize.getSize(), 2250L);
+        batchSize.update(2250, MILLISECONDS.toNanos(20));
+        assertEquals(batchSize.getSize(), 3375L);
+        batchSize.update(3375, MILLISECONDS.toNanos(20));
+        assertEquals(batchSize.getSize(), 4000L);
+    }
+
+    @Test
+    public void testReverseWhenThroughputDrops() {
+        BatchSize batchSize = commitStrategy.new BatchSize(1000);
+        batchSize.update(1000, MILLISECONDS.toNanos(10));
+        assertEquals(batchSize.getSize(), 1500L);
+        batchSize.update(1500, MILLISECONDS.toNanos(30));
+        assertEquals(batchSize.getSize(), 1000L);
+        batchSize.update(1000, MILLISECONDS.toNanos(20));
+        assertEquals(batchSize.getSize(), 1000L);
+    }
+
+    @Test
+    public void testShrinkWhenLatencyExceeded() {
+        BatchSize batchSize = commitStrategy.new BatchSize(1000);
+        batchSize.update(1000, MILLISECONDS.toNanos(150));
+        assertEquals(batchSize.getSize(), 666L);
+        batchSize.update(666, MILLISECONDS.toNanos(150));
+        assertEquals(batchSize.getSize(), 500L);
+    }
+
+    @Test
+    public void testCopySharesBatchSizes() {
+        AdaptiveBatchCommitStrategy copy = (AdaptiveBatchCommitStrategy) commitStrategy.copy();
+        assertEquals(copy, commitStrategy);
+        InsertQuery query = new InsertQuery();
+        query.setInto(new Table("t1"));
+        copy.getBatchSize(query).update(1000, MILLISECONDS.toNanos(20));
+        Map<String, Long> batchSizes = commitStrategy.getBatchSizes();
+        assertEquals(batchSizes.size(), 1);
+        assertEquals(batchSizes.get(query.getInto().getQualifiedName(null)), 1500L);
+    }
+
+    /**
+     * Batch of multi row statements is executed once it carries the batch size of rows, multi row statements are
+     * tuned separately from the single row statements of the same table.
+     */
+    @Test
+    public void testCountRows() throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.getConnection()).thenReturn(mock(Connection.class));
+        InsertQuery query = new InsertQuery();
+        query.setInto(new Table("t1"));
+        for (int index = 0; index < 9; index++) {
+            commitStrategy.onExecute(statement, query, 100);
+        }
+        verify(statement, never()).executeBatch();
+        commitStrategy.onExecute(statement, query, 100);
+        verify(statement).executeBatch();
+
+        commitStrategy.onExecute(statement, query);
+        commitStrategy.finish(statement, query);
+        Map<String, Long> batchSizes = commitStrategy.getBatchSizes();
+        assertEquals(batchSizes.size(), 2);
+        assertEquals(batchSizes.get("t1"), 1000L);
+        assertEquals(batchSizes.get("t1 (100 rows)"), 1500L);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.connection;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ConnectionWrapperTest {
+
+    private static final String QUERY = "INSERT INTO T (C1, C2) VALUES (?, ?)";
+
+    private Connection connection;
+    private PreparedStatement preparedStatement;
+    private Object[] parameters;
+    private ConnectionWrapper connectionWrapper;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connection = mock(Connection.class);
+        preparedStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(QUERY)).thenReturn(preparedStatement);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        parameters = new Object[2];
+        connectionWrapper = new ConnectionWrapper(connection) {
+            @Override
+            protected Statement wrapStatement(Statement statement) throws SQLException {
+                return new StatementWrapper(statement, this);
+            }
+
+            @Override
+            protected PreparedStatement wrapPreparedStatement(PreparedStatement statement,
+                                                              String sql) throws SQLException {
+                return new PreparedStatementWrapper(statement, this, sql) {
+                    @Override
+                    protected void setParameter(int parameterIndex, Object value) throws SQLException {
+                        parameters[parameterIndex - 1] = value;
+                    }
+                };
+            }
+        };
+    }
+
+    @Test
+    public void testStatement() throws Exception {
+        Statement statement = connectionWrapper.createStatement();
+        assertSame(statement.getConnection(), connectionWrapper);
+        assertSame(statement.unwrap(StatementWrapper.class), statement);
+    }
+
+    @Test
+    public void testPreparedStatement() throws Exception {
+        PreparedStatement statement = connectionWrapper.prepareStatement(QUERY);
+        statement.setInt(1, 1);
+        statement.setNull(2, 0);
+        statement.executeUpdate();
+
+        verify(preparedStatement).setInt(1, 1);
+        verify(preparedStatement).setNull(2, 0);
+        verify(preparedStatement).executeUpdate();
+        assertEquals(parameters, new Object[]{1, null});
+        assertSame(statement.getConnection(), connectionWrapper);
+    }
+}
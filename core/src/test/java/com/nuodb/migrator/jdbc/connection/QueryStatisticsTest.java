@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.connection;
+
+import org.testng.annotations.Test;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class QueryStatisticsTest {
+
+    @Test
+    public void testExecute() {
+        QueryStatistics statistics = new QueryStatistics("INSERT INTO T (C) VALUES (?)");
+        for (int execution = 0; execution < 99; execution++) {
+            statistics.execute(MICROSECONDS.toNanos(10), 100, 100);
+        }
+        statistics.execute(MICROSECONDS.toNanos(1000), 1, 1);
+
+        assertEquals(statistics.getExecutions(), 100);
+        assertEquals(statistics.getRows(), 9901);
+        assertEquals(statistics.getBinds(), 9901);
+        assertEquals(statistics.getMaxTime(), MICROSECONDS.toNanos(1000));
+        assertEquals(statistics.getPercentile(50), 15);
+        assertEquals(statistics.getPercentile(99), 15);
+        assertEquals(statistics.getPercentile(100), 1023);
+    }
+
+    @Test
+    public void testSample() {
+        QueryStatistics statistics = new QueryStatistics("SELECT 1");
+        assertTrue(statistics.sample(3));
+        assertFalse(statistics.sample(3));
+        assertFalse(statistics.sample(3));
+        assertTrue(statistics.sample(3));
+    }
+}
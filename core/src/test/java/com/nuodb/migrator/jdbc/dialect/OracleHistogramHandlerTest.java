@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.DatabaseInfo;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static java.sql.Types.DATE;
+import static java.sql.Types.NUMERIC;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class OracleHistogramHandlerTest {
+
+    private Column column;
+    private OracleHistogramHandler histogramHandler;
+
+    @BeforeMethod
+    public void setUp() {
+        Table table = createTable(null, "SCOTT", "ORDERS");
+        column = table.addColumn("ID");
+        column.setTypeCode(NUMERIC);
+        histogramHandler = new OracleHistogramHandler(new OracleDialect(new DatabaseInfo("Oracle")), table, column,
+                null);
+    }
+
+    /**
+     * End points of a height balanced histogram with numbers not following one another, 10% of rows are below 50.
+     */
+    @Test
+    public void testHeightBalanced() {
+        assertEquals(histogramHandler.getHistogram(newArrayList(0L, 10L, 100L), decimals("0", "50", "100")),
+                decimals("0", "72", "100"));
+    }
+
+    /**
+     * Frequency histogram end point numbers are cumulative row counts: 5 rows of 1, 5 rows of 2, 5 rows of 3 and 85
+     * rows of 4, which is not an equi-depth histogram of 1, 2, 3 and 4.
+     */
+    @Test
+    public void testFrequency() {
+        assertEquals(histogramHandler.getHistogram(newArrayList(5L, 10L, 15L, 100L), decimals("1", "2", "3", "4")),
+                decimals("1", "3", "3", "3", "4"));
+    }
+
+    @Test
+    public void testEquiDepth() {
+        assertEquals(histogramHandler.getHistogram(newArrayList(0L, 1L, 2L, 3L), decimals("10", "20", "40", "80")),
+                decimals("10", "20", "40", "80"));
+    }
+
+    @Test
+    public void testSingleValue() {
+        assertEquals(histogramHandler.getHistogram(newArrayList(100L), decimals("7")), decimals("7", "7"));
+        assertEquals(histogramHandler.getHistogram(newArrayList(0L), decimals("7")), newArrayList());
+    }
+
+    @Test
+    public void testEndpoints() throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        when(resultSet.getLong(1)).thenReturn(0L, 10L, 100L);
+        when(resultSet.getObject(2)).thenReturn(new BigDecimal("0"), new BigDecimal("50"), new BigDecimal("100"));
+        when(statement.executeQuery(contains("ALL_TAB_HISTOGRAMS"))).thenReturn(resultSet);
+
+        assertEquals(histogramHandler.getHistogram(connection), decimals("0", "72", "100"));
+    }
+
+    /**
+     * Date end points are julian days, so the column minimum and maximum are used.
+     */
+    @Test
+    public void testDateMinMax() throws Exception {
+        column.setTypeCode(DATE);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getObject(1)).thenReturn(java.sql.Date.valueOf("2014-01-01"));
+        when(resultSet.getObject(2)).thenReturn(java.sql.Date.valueOf("2014-12-31"));
+        when(statement.executeQuery(contains("MIN("))).thenReturn(resultSet);
+
+        assertEquals(histogramHandler.getHistogram(connection),
+                newArrayList((Object) java.sql.Date.valueOf("2014-01-01"), java.sql.Date.valueOf("2014-12-31")));
+        verify(statement, never()).executeQuery(contains("ALL_TAB_HISTOGRAMS"));
+    }
+
+    private static List<Object> decimals(String... values) {
+        List<Object> decimals = newArrayList();
+        for (String value : values) {
+            decimals.add(new BigDecimal(value));
+        }
+        return decimals;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.DatabaseInfo;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * @author Sergey Bushik
+ */
+public class OracleTableRowCountHandlerTest {
+
+    private Connection connection;
+    private Statement statement;
+    private ResultSet resultSet;
+    private OracleTableRowCountHandler rowCountHandler;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connection = mock(Connection.class);
+        statement = mock(Statement.class);
+        resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        Table table = createTable(null, "SCOTT", "ORDERS");
+        rowCountHandler = new OracleTableRowCountHandler(new OracleDialect(new DatabaseInfo("Oracle")), table, null,
+                null, APPROX);
+    }
+
+    @Test
+    public void testApproxRowCount() throws Exception {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(250L);
+        when(resultSet.wasNull()).thenReturn(false);
+
+        assertEquals(rowCountHandler.getRowCount(connection), 250L);
+        verify(statement, never()).execute(anyString());
+    }
+
+    /**
+     * Missing NUM_ROWS are estimated by the ANALYZE on a sample of the table.
+     */
+    @Test
+    public void testUpdateStatistics() throws Exception {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(0L, 250L);
+        when(resultSet.wasNull()).thenReturn(true, false);
+
+        assertEquals(rowCountHandler.getRowCount(connection), 250L);
+        verify(statement).execute(startsWith("ANALYZE TABLE"));
+    }
+
+    /**
+     * Statistics only row count neither runs the ANALYZE nor falls back to COUNT(*) if NUM_ROWS are missing.
+     */
+    @Test
+    public void testStatisticsOnly() throws Exception {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(0L);
+        when(resultSet.wasNull()).thenReturn(true);
+        rowCountHandler.setStatisticsOnly(true);
+
+        assertEquals(rowCountHandler.getRowCount(connection), 0L);
+        verify(statement, never()).execute(anyString());
+        verify(statement, never()).executeQuery(contains("COUNT("));
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.DatabaseInfo;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static java.sql.Types.INTEGER;
+import static java.sql.Types.TIMESTAMP;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Sergey Bushik
+ */
+public class PostgreSQLHistogramHandlerTest {
+
+    private Column column;
+    private PostgreSQLHistogramHandler histogramHandler;
+
+    @BeforeMethod
+    public void setUp() {
+        Table table = createTable(null, "public", "orders");
+        column = table.addColumn("id");
+        column.setTypeCode(INTEGER);
+        histogramHandler = new PostgreSQLHistogramHandler(new PostgreSQLDialect(new DatabaseInfo("PostgreSQL")),
+                table, column, null);
+    }
+
+    @Test
+    public void testParseArray() {
+        assertEquals(histogramHandler.parseArray("{1, 2 ,3}"), newArrayList("1", "2", "3"));
+        assertEquals(histogramHandler.parseArray("{\"a,b\",\"c\\\"d\",\"e\\\\f\"}"),
+                newArrayList("a,b", "c\"d", "e\\f"));
+        assertEquals(histogramHandler.parseArray("{NULL,\"NULL\",\"\"}"), newArrayList(null, "NULL", ""));
+        assertEquals(histogramHandler.parseArray("{}"), newArrayList());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testParseArrayUnterminated() {
+        histogramHandler.parseArray("{\"a,b}");
+    }
+
+    @Test
+    public void testParseHistogram() {
+        assertEquals(histogramHandler.parseHistogram("{1,NULL,50,100}"),
+                newArrayList(new BigDecimal("1"), new BigDecimal("50"), new BigDecimal("100")));
+        assertNull(histogramHandler.parseHistogram("{1,abc}"));
+        assertNull(histogramHandler.parseHistogram("1,2"));
+    }
+
+    @Test
+    public void testParseTimestampHistogram() {
+        column.setTypeCode(TIMESTAMP);
+        assertEquals(histogramHandler.parseHistogram("{\"2014-01-01 00:00:00\",\"2014-06-30 12:30:00.5\"}"),
+                newArrayList(Timestamp.valueOf("2014-01-01 00:00:00"), Timestamp.valueOf("2014-06-30 12:30:00.5")));
+        assertNull(histogramHandler.parseHistogram("{\"2014-01-01 00:00:00+02\",\"2014-06-30 12:30:00.5-05:30\"}"));
+    }
+
+    @Test
+    public void testParseDateHistogram() {
+        column.setTypeCode(java.sql.Types.DATE);
+        assertEquals(histogramHandler.parseHistogram("{2014-01-01,2014-12-31}"),
+                newArrayList(Date.valueOf("2014-01-01"), Date.valueOf("2014-12-31")));
+    }
+
+    /**
+     * Histogram is not collected, so column minimum and maximum are selected instead.
+     */
+    @Test
+    public void testMinMaxFallback() throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        ResultSet histogram = mock(ResultSet.class);
+        when(histogram.next()).thenReturn(false);
+        when(statement.executeQuery(contains("PG_STATS"))).thenReturn(histogram);
+        ResultSet minMax = mock(ResultSet.class);
+        when(minMax.next()).thenReturn(true, false);
+        when(minMax.getObject(1)).thenReturn(1);
+        when(minMax.getObject(2)).thenReturn(1000);
+        when(statement.executeQuery(contains("MIN("))).thenReturn(minMax);
+
+        assertEquals(histogramHandler.getHistogram(connection), newArrayList((Object) 1, 1000));
+    }
+}
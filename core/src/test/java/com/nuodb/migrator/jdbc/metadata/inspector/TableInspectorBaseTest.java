@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.google.common.base.Predicate;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Arrays.asList;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class TableInspectorBaseTest {
+
+    private NuoDBIndexInspector inspector;
+
+    @BeforeMethod
+    public void setUp() {
+        inspector = new NuoDBIndexInspector();
+        inspector.setBulkSize(2);
+    }
+
+    @Test
+    public void testCreateBulkInspectionScopes() throws Exception {
+        Collection<TableInspectionScope> inspectionScopes = newArrayList(
+                new TableInspectionScope(null, "s1", "t1"),
+                new TableInspectionScope(null, "s2", "t4"),
+                new TableInspectionScope(null, "s1", "t2"),
+                new TableInspectionScope(null, "s1", "t3"));
+        List<TableInspectionScope> bulkInspectionScopes = newArrayList(
+                inspector.createBulkInspectionScopes(null, inspectionScopes));
+        assertEquals(bulkInspectionScopes.size(), 3);
+        assertBulkInspectionScope(bulkInspectionScopes.get(0), "s1", "t1", "t2");
+        assertBulkInspectionScope(bulkInspectionScopes.get(1), "s1", "t3");
+        assertBulkInspectionScope(bulkInspectionScopes.get(2), "s2", "t4");
+    }
+
+    private static void assertBulkInspectionScope(TableInspectionScope inspectionScope, String schema,
+                                                  String... tables) {
+        assertTrue(inspectionScope instanceof TablesInspectionScope);
+        assertEquals(inspectionScope.getSchema(), schema);
+        assertEquals(((TablesInspectionScope) inspectionScope).getTables(), asList(tables));
+    }
+
+    @Test
+    public void testCreateBulkInspectionScopesNotSupported() throws Exception {
+        Collection<TableInspectionScope> inspectionScopes = newArrayList(
+                new TableInspectionScope(null, null, "t1"),
+                new TableInspectionScope(null, null, "t2"),
+                new TableInspectionScope(null, null, "t3"));
+        Collection<TableInspectionScope> bulkInspectionScopes = newArrayList(
+                inspector.createBulkInspectionScopes(null, inspectionScopes));
+        assertEquals(bulkInspectionScopes, inspectionScopes);
+    }
+
+    /**
+     * Inspectors which don't opt in to bulk inspection, such as check inspectors binding a single table name, keep
+     * inspecting table by table over the bulk threshold.
+     */
+    @Test
+    public void testInspectScopesNotBulk() throws Exception {
+        PostgreSQLCheckInspector checkInspector = spy(new PostgreSQLCheckInspector());
+        doNothing().when(checkInspector).inspectScope(any(InspectionContext.class), any(TableInspectionScope.class));
+        Collection<TableInspectionScope> inspectionScopes = newArrayList();
+        for (int table = 0; table < TableInspectorBase.BULK_THRESHOLD * 2; table++) {
+            inspectionScopes.add(new TableInspectionScope(null, "s1", "t" + table));
+        }
+        assertEquals(newArrayList(checkInspector.createBulkInspectionScopes(null, inspectionScopes)),
+                inspectionScopes);
+
+        checkInspector.inspectScopes(mock(InspectionContext.class), inspectionScopes);
+        verify(checkInspector, times(inspectionScopes.size())).inspectScope(
+                any(InspectionContext.class), any(TableInspectionScope.class));
+        verify(checkInspector, never()).inspectScope(any(InspectionContext.class), isA(TablesInspectionScope.class));
+        for (TableInspectionScope inspectionScope : inspectionScopes) {
+            verify(checkInspector).inspectScope(any(InspectionContext.class), eq(inspectionScope));
+        }
+    }
+
+    @Test
+    public void testCreateTableFilter() {
+        Collection<Object> parameters = newArrayList();
+        assertNull(TableInspectorBase.createTableFilter("T", new TableInspectionScope(null, "s1"), parameters));
+        assertEquals(TableInspectorBase.createTableFilter("T", new TableInspectionScope(null, "s1", "t1"),
+                parameters), "T=?");
+        assertEquals(TableInspectorBase.createTableFilter("T",
+                new TablesInspectionScope(null, "s1", asList("t2", "t3")), parameters), "T IN (?,?)");
+        assertEquals(parameters, newArrayList("t1", "t2", "t3"));
+    }
+
+    @Test
+    public void testCreateTableFilterPredicate() {
+        Predicate<String> filter = TableInspectorBase.createTableFilter(
+                new TablesInspectionScope(null, "s1", asList("t1", "t2")));
+        assertTrue(filter.apply("t1"));
+        assertTrue(filter.apply("t2"));
+        assertFalse(filter.apply("t3"));
+        assertFalse(filter.apply(null));
+        assertTrue(TableInspectorBase.createTableFilter(new TableInspectionScope(null, "s1", "t1")).apply("t3"));
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.MSSQLServer2005Dialect;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.dialect.PostgreSQLDialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.DatabaseInfo;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Sergey Bushik
+ */
+public class KeysetQuerySplitterTest {
+
+    private Table table;
+    private Column key;
+    private Connection connection;
+    private Statement statement;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        table = createTable(null, null, "users");
+        key = table.addColumn("id");
+        table.addColumn("name");
+        connection = mock(Connection.class);
+        statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+    }
+
+    /**
+     * Every n-th key is a boundary, the last key is not, so that the last split is never empty.
+     */
+    @Test
+    public void testScanBoundaries() throws Exception {
+        ResultSet resultSet = createResultSet(1L, 2L, 3L, 4L);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        KeysetQuerySplitter querySplitter = createQuerySplitter(new NuoDBDialect(), 2L);
+
+        assertEquals(querySplitter.getBoundaries(connection), newArrayList((Object) 2L));
+    }
+
+    @Test
+    public void testScanBoundariesTail() throws Exception {
+        ResultSet resultSet = createResultSet(1L, 2L, 3L, 4L, 5L);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        KeysetQuerySplitter querySplitter = createQuerySplitter(new NuoDBDialect(), 2L);
+
+        assertEquals(querySplitter.getBoundaries(connection), newArrayList((Object) 2L, 4L));
+    }
+
+    /**
+     * Database numbering rows selects boundaries itself, only boundaries are returned.
+     */
+    @Test
+    public void testSelectBoundaries() throws Exception {
+        Dialect dialect = new PostgreSQLDialect(new DatabaseInfo("PostgreSQL"));
+        ResultSet resultSet = createResultSet(100L, 200L);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        KeysetQuerySplitter querySplitter = createQuerySplitter(dialect, 100L);
+
+        assertEquals(querySplitter.getBoundaries(connection), newArrayList((Object) 100L, 200L));
+        String keyName = key.getName(dialect);
+        verify(statement).executeQuery("SELECT split_key FROM (SELECT " + keyName + " AS split_key, " +
+                "ROW_NUMBER() OVER (ORDER BY " + keyName + ") AS split_row, COUNT(*) OVER () AS split_rows FROM " +
+                table.getQualifiedName(dialect) + ") split_keys WHERE MOD(split_row, 100) = 0 AND " +
+                "split_row < split_rows ORDER BY split_key");
+    }
+
+    @Test
+    public void testBoundariesQueryModulo() {
+        KeysetQuerySplitter querySplitter = createQuerySplitter(
+                new MSSQLServer2005Dialect(new DatabaseInfo("Microsoft SQL Server")), 1000L);
+
+        assertEquals(querySplitter.createBoundariesQuery(1000L).getWhere(),
+                newArrayList("split_row % 1000 = 0", "split_row < split_rows"));
+    }
+
+    /**
+     * First split is open at the lower bound, last split is open at the upper bound, the splits in between bind
+     * both bounds to {@code key > ? AND key <= ?}.
+     */
+    @Test
+    public void testSplits() throws Exception {
+        Dialect dialect = new NuoDBDialect();
+        ResultSet resultSet = createResultSet(1L, 2L, 3L, 4L, 5L);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        KeysetQuerySplitter querySplitter = createQuerySplitter(dialect, 2L);
+
+        String keyName = key.getName(dialect);
+        String query = "SELECT " + keyName + ", " + table.getColumn("name").getName(dialect) + " FROM " +
+                table.getQualifiedName(dialect);
+        ArgumentCaptor<String> split = ArgumentCaptor.forClass(String.class);
+
+        querySplitter.getNextQuerySplit(connection).getResultSet();
+        verify(connection).prepareStatement(split.capture());
+        assertEquals(split.getValue(), query + " WHERE " + keyName + " <= ? ORDER BY " + keyName);
+        verify(preparedStatement).setObject(1, 2L);
+        verify(preparedStatement, never()).setObject(eq(2), any());
+
+        reset(preparedStatement);
+        querySplitter.getNextQuerySplit(connection).getResultSet();
+        verify(connection, times(2)).prepareStatement(split.capture());
+        assertEquals(split.getValue(), query + " WHERE " + keyName + " > ? AND " + keyName + " <= ? ORDER BY " +
+                keyName);
+        verify(preparedStatement).setObject(1, 2L);
+        verify(preparedStatement).setObject(2, 4L);
+
+        reset(preparedStatement);
+        querySplitter.getNextQuerySplit(connection).getResultSet();
+        verify(connection, times(3)).prepareStatement(split.capture());
+        assertEquals(split.getValue(), query + " WHERE " + keyName + " > ? ORDER BY " + keyName);
+        verify(preparedStatement).setObject(1, 4L);
+        verify(preparedStatement, never()).setObject(eq(2), any());
+
+        assertNull(querySplitter.getNextQuerySplit(connection));
+    }
+
+    @Test
+    public void testNoBoundaries() throws Exception {
+        ResultSet resultSet = createResultSet(1L);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        KeysetQuerySplitter querySplitter = createQuerySplitter(new NuoDBDialect(), 2L);
+
+        querySplitter.getNextQuerySplit(connection).getResultSet();
+        verify(preparedStatement, never()).setObject(anyInt(), any());
+        assertNull(querySplitter.getNextQuerySplit(connection));
+    }
+
+    private KeysetQuerySplitter createQuerySplitter(Dialect dialect, long count) {
+        return new KeysetQuerySplitter(dialect, table, null, null, key, new QueryLimit(count));
+    }
+
+    /**
+     * Creates result set of a single key column positioned before the first row.
+     *
+     * @param keys values of the key column.
+     * @return result set mock.
+     * @throws Exception never.
+     */
+    private static ResultSet createResultSet(final Object... keys) throws Exception {
+        final int[] row = {-1};
+        ResultSet resultSet = mock(ResultSet.class);
+        willAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return ++row[0] < keys.length;
+            }
+        }).given(resultSet).next();
+        willAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return row[0] >= 0 && row[0] < keys.length ? keys[row[0]] : null;
+            }
+        }).given(resultSet).getObject(1);
+        return resultSet;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import org.testng.annotations.Test;
+
+import java.sql.Statement;
+
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
+import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.newLimitSplitter;
+import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newProvidedStrategy;
+import static java.lang.Long.MAX_VALUE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LimitQuerySplitterTest {
+
+    @Test
+    public void testExactRowCount() throws Exception {
+        QuerySplitter<Statement> querySplitter = newLimitSplitter(null, newProvidedStrategy(250), EXACT,
+                newQuery("SELECT * FROM users"), new QueryLimit(100L));
+
+        assertEquals(querySplitter.getNextQuerySplit(null).getQueryLimit(), new QueryLimit(100L, 0L));
+        assertEquals(querySplitter.getNextQuerySplit(null).getQueryLimit(), new QueryLimit(100L, 100L));
+        assertEquals(querySplitter.getNextQuerySplit(null).getQueryLimit(), new QueryLimit(50L, 200L));
+        assertNull(querySplitter.getNextQuerySplit(null));
+    }
+
+    @Test
+    public void testApproxRowCount() throws Exception {
+        QuerySplitter<Statement> querySplitter = newLimitSplitter(null, newProvidedStrategy(250), APPROX,
+                newQuery("SELECT * FROM users"), new QueryLimit(100L));
+
+        assertEquals(querySplitter.getNextQuerySplit(null).getQueryLimit(), new QueryLimit(100L, 0L));
+        assertEquals(querySplitter.getNextQuerySplit(null).getQueryLimit(), new QueryLimit(100L, 100L));
+        assertEquals(querySplitter.getNextQuerySplit(null).getQueryLimit(), new QueryLimit(MAX_VALUE - 200L, 200L));
+        assertNull(querySplitter.getNextQuerySplit(null));
+    }
+
+    @Test
+    public void testApproxEmptyTable() throws Exception {
+        QuerySplitter<Statement> querySplitter = newLimitSplitter(null, newProvidedStrategy(0), APPROX,
+                newQuery("SELECT * FROM users"), new QueryLimit(100L));
+
+        assertEquals(querySplitter.getNextQuerySplit(null).getQueryLimit(), new QueryLimit(MAX_VALUE, 0L));
+        assertNull(querySplitter.getNextQuerySplit(null));
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.HistogramHandler;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class RangeQuerySplitterTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private Table table;
+    private Column key;
+    private Dialect dialect;
+    private HistogramHandler histogramHandler;
+    private Connection connection;
+
+    @BeforeMethod
+    public void setUp() {
+        table = createTable(null, null, "orders");
+        key = table.addColumn("id");
+        dialect = mock(Dialect.class);
+        histogramHandler = mock(HistogramHandler.class);
+        when(dialect.createHistogramHandler(table, key, null)).thenReturn(histogramHandler);
+        connection = mock(Connection.class);
+    }
+
+    @Test
+    public void testInterpolateInteger() throws Exception {
+        assertEquals(getBoundaries(3, 0L, 10L), decimals("3", "6"));
+    }
+
+    @Test
+    public void testInterpolateDecimal() throws Exception {
+        assertEquals(getBoundaries(4, new BigDecimal("0.00"), new BigDecimal("1.00")),
+                decimals("0.25", "0.50", "0.75"));
+    }
+
+    /**
+     * Equi-depth buckets are divided evenly between partitions, regardless of the width of the buckets.
+     */
+    @Test
+    public void testEquiDepth() throws Exception {
+        assertEquals(getBoundaries(2, 0L, 10L, 1000L), decimals("10"));
+        assertEquals(getBoundaries(4, 0L, 10L, 1000L), decimals("5", "10", "505"));
+    }
+
+    @Test
+    public void testInterpolateDate() throws Exception {
+        assertEquals(getBoundaries(2, new Date(0), new Date(4 * DAY)), newArrayList((Object) new Date(2 * DAY)));
+    }
+
+    @Test
+    public void testInterpolateTimestamp() throws Exception {
+        List<Object> boundaries = getBoundaries(2, new Timestamp(0), new Timestamp(1000));
+        assertEquals(boundaries, newArrayList((Object) new Timestamp(500)));
+        assertTrue(boundaries.get(0) instanceof Timestamp);
+    }
+
+    /**
+     * Partitions falling on the same value produce a single boundary.
+     */
+    @Test
+    public void testSameValues() throws Exception {
+        assertEquals(getBoundaries(3, 5L, 5L, 5L), decimals("5"));
+    }
+
+    /**
+     * No statistics and no rows, the table is selected as a single range.
+     */
+    @Test
+    public void testEmptyHistogram() throws Exception {
+        assertEquals(getBoundaries(4), newArrayList());
+    }
+
+    private List<Object> getBoundaries(int partitions, Object... histogram) throws Exception {
+        when(histogramHandler.getHistogram(connection)).thenReturn(newArrayList(histogram));
+        return new RangeQuerySplitter(dialect, table, null, null, key, partitions).getBoundaries(connection);
+    }
+
+    private static List<Object> decimals(String... values) {
+        List<Object> decimals = newArrayList();
+        for (String value : values) {
+            decimals.add(new BigDecimal(value));
+        }
+        return decimals;
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.type;
+
+import com.nuodb.migrator.jdbc.model.Field;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Verifies that type adapter of the requested value class is resolved once and is reused for every row until the
+ * value class changes.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class SimpleJdbcValueGetterTest {
+
+    private static final int COLUMN = 1;
+
+    private JdbcTypeRegistry jdbcTypeRegistry;
+    private JdbcTypeAdapter<Object> jdbcTypeAdapter;
+    private ResultSet resultSet;
+    private Connection connection;
+    private Field field;
+    private Timestamp timestamp;
+    private Calendar calendar;
+    private SimpleJdbcValueGetter<Object> jdbcValueGetter;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        resultSet = mock(ResultSet.class);
+        connection = mock(Connection.class);
+        field = mock(Field.class);
+        timestamp = new Timestamp(System.currentTimeMillis());
+        calendar = Calendar.getInstance();
+
+        JdbcTypeValue<Object> jdbcTypeValue = mock(JdbcTypeValue.class);
+        doReturn(Timestamp.class).when(jdbcTypeValue).getValueClass();
+        when(jdbcTypeValue.getValue(resultSet, COLUMN, field, null)).thenReturn(timestamp);
+
+        jdbcTypeAdapter = mock(JdbcTypeAdapter.class);
+        when(jdbcTypeAdapter.unwrap(timestamp, Calendar.class, connection)).thenReturn(calendar);
+        jdbcTypeRegistry = mock(JdbcTypeRegistry.class);
+        when(jdbcTypeRegistry.getJdbcTypeAdapter(Calendar.class, Timestamp.class)).thenReturn(jdbcTypeAdapter);
+
+        jdbcValueGetter = new SimpleJdbcValueGetter<Object>(jdbcTypeRegistry, jdbcTypeValue);
+    }
+
+    @Test
+    public void testAdapterCached() throws Exception {
+        for (int row = 0; row < 3; row++) {
+            assertSame(jdbcValueGetter.getValue(resultSet, connection, COLUMN, field, Calendar.class, null), calendar);
+        }
+        verify(jdbcTypeRegistry, times(1)).getJdbcTypeAdapter(Calendar.class, Timestamp.class);
+        verify(jdbcTypeAdapter, times(3)).unwrap(timestamp, Calendar.class, connection);
+    }
+
+    /**
+     * Absence of the adapter is cached as well, the value is returned as is.
+     */
+    @Test
+    public void testNoAdapterCached() throws Exception {
+        for (int row = 0; row < 3; row++) {
+            assertSame(jdbcValueGetter.getValue(resultSet, connection, COLUMN, field, Object.class, null), timestamp);
+        }
+        verify(jdbcTypeRegistry, times(1)).getJdbcTypeAdapter(Object.class, Timestamp.class);
+        verifyZeroInteractions(jdbcTypeAdapter);
+    }
+
+    @Test
+    public void testValueClassChanged() throws Exception {
+        assertSame(jdbcValueGetter.getValue(resultSet, connection, COLUMN, field, Calendar.class, null), calendar);
+        assertSame(jdbcValueGetter.getValue(resultSet, connection, COLUMN, field, Object.class, null), timestamp);
+        assertSame(jdbcValueGetter.getValue(resultSet, connection, COLUMN, field, Calendar.class, null), calendar);
+        verify(jdbcTypeRegistry, times(2)).getJdbcTypeAdapter(Calendar.class, Timestamp.class);
+        verify(jdbcTypeRegistry, times(1)).getJdbcTypeAdapter(Object.class, Timestamp.class);
+    }
+}
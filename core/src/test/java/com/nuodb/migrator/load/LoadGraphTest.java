@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.load;
+
+import com.nuodb.migrator.backup.RowSet;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LoadGraphTest {
+
+    private LoadGraph loadGraph;
+    private RowSet users;
+    private RowSet orders;
+    private RowSet items;
+
+    @BeforeMethod
+    public void setUp() {
+        loadGraph = new LoadGraph();
+        loadGraph.addRowSet(users = createRowSet("users"));
+        loadGraph.addRowSet(orders = createRowSet("orders"));
+        loadGraph.addRowSet(items = createRowSet("items"));
+    }
+
+    @Test
+    public void testReady() {
+        assertEquals(loadGraph.getReady(), newArrayList(users, orders, items));
+        assertTrue(loadGraph.isEmpty());
+    }
+
+    @Test
+    public void testDependencies() {
+        loadGraph.addDependency(items, orders);
+        loadGraph.addDependency(orders, users);
+
+        assertEquals(loadGraph.getReady(), newArrayList(users));
+        assertTrue(loadGraph.getReady().isEmpty());
+        loadGraph.loaded(users);
+        assertEquals(loadGraph.getReady(), newArrayList(orders));
+        loadGraph.loaded(orders);
+        assertEquals(loadGraph.getReady(), newArrayList(items));
+        assertTrue(loadGraph.isEmpty());
+    }
+
+    @Test
+    public void testSelfReference() {
+        loadGraph.addDependency(users, users);
+        assertTrue(loadGraph.getDependencies(users).isEmpty());
+        assertEquals(loadGraph.getReady(), newArrayList(users, orders, items));
+    }
+
+    @Test
+    public void testCycle() {
+        loadGraph.addDependency(users, orders);
+        loadGraph.addDependency(orders, users);
+
+        assertEquals(loadGraph.getReady(), newArrayList(items));
+        assertFalse(loadGraph.isEmpty());
+        assertTrue(loadGraph.getReady().isEmpty());
+        assertEquals(loadGraph.getRemaining(), newArrayList(users, orders));
+        assertTrue(loadGraph.isEmpty());
+    }
+
+    private static RowSet createRowSet(String name) {
+        RowSet rowSet = new RowSet();
+        rowSet.setName(name);
+        return rowSet;
+    }
+}
@@ -0,0 +1,419 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.load;
+
+import com.nuodb.migrator.backup.BackupJournal;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.TableRowSet;
+import com.nuodb.migrator.backup.format.InputFormat;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.google.common.collect.Maps;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.ForeignKey;
+import com.nuodb.migrator.jdbc.metadata.MetaData;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
+import com.nuodb.migrator.jdbc.metadata.Schema;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.metadata.generator.ScriptGeneratorManager;
+import com.nuodb.migrator.jdbc.session.SimpleWorkManager;
+import com.nuodb.migrator.jdbc.session.Work;
+import com.nuodb.migrator.jdbc.session.WorkManager;
+import com.nuodb.migrator.spec.LoadJobSpec;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static com.google.common.collect.Iterables.get;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.FOREIGN_KEY;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.INDEX;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.PRIMARY_KEY;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.synchronizedList;
+import static java.util.Collections.synchronizedMap;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.apache.commons.io.FileUtils.getFile;
+import static org.apache.commons.io.FileUtils.getTempDirectory;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verifies that primary keys, indexes and foreign keys are created concurrently in the order of the tables they
+ * reference and that steps recorded to the journal by the previous run are skipped.
+ *
+ * @author Sergey Bushik
+ */
+public class LoadJobTest {
+
+    private File file;
+    private BackupJournal backupJournal;
+    private LoadJob loadJob;
+    private Database database;
+    private Table users;
+    private Table orders;
+    private ScriptGeneratorManager indexesScriptGeneratorManager;
+    private ScriptGeneratorManager foreignKeysScriptGeneratorManager;
+    /**
+     * Started and done works in the order of their events
+     */
+    private List<String> events;
+    /**
+     * Step awaited by a work before it's done
+     */
+    private Map<String, String> awaits;
+    /**
+     * Steps which works fail and never report the table as indexed
+     */
+    private Collection<String> failures;
+    private Map<String, CountDownLatch> latches;
+    /**
+     * Scripts executed by the works for their steps
+     */
+    private Map<String, Collection<String>> scripts;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        file = getFile(getTempDirectory(), "load-job-" + System.nanoTime() + ".journal");
+        backupJournal = new BackupJournal(file);
+        backupJournal.open(false);
+
+        database = new Database();
+        Schema schema = database.addCatalog((String) null).addSchema("s1");
+        users = createTable(schema, "users");
+        orders = createTable(schema, "orders");
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setPrimaryTable(users);
+        foreignKey.setForeignTable(orders);
+        orders.addForeignKey(foreignKey);
+
+        indexesScriptGeneratorManager = createScriptGeneratorManager(PRIMARY_KEY, INDEX);
+        doReturn(singletonList("ALTER TABLE ADD PRIMARY KEY")).when(
+                indexesScriptGeneratorManager).getCreateScripts(any(MetaData.class));
+        foreignKeysScriptGeneratorManager = createScriptGeneratorManager(FOREIGN_KEY);
+        doReturn(singletonList("ALTER TABLE ADD FOREIGN KEY")).when(
+                foreignKeysScriptGeneratorManager).getCreateScripts(any(MetaData.class));
+
+        events = synchronizedList(new ArrayList<String>());
+        scripts = synchronizedMap(Maps.<String, Collection<String>>newHashMap());
+        awaits = newHashMap();
+        failures = newHashSet();
+        latches = newHashMap();
+        loadJob = new LoadJob(new LoadJobSpec()) {
+            @Override
+            protected ExecutorService createExecutor() {
+                return newCachedThreadPool();
+            }
+
+            @Override
+            protected void executeWork(ExecutorService executor, final WorkManager workManager, final Work work,
+                                       final Runnable callback) {
+                if (work instanceof LoadRowSetWork) {
+                    LoadRowSetWork loadRowSetWork = (LoadRowSetWork) work;
+                    String chunk = loadRowSetWork.getRowSet().getName() + ":" +
+                            get(loadRowSetWork.getChunks(), 0).getName();
+                    events.add("start " + chunk);
+                    if (failures.contains(chunk)) {
+                        workManager.failure(work, new SQLException("Can't load " + chunk));
+                    } else if (callback != null) {
+                        callback.run();
+                    }
+                    return;
+                }
+                final String step = ((LoadScriptsWork) work).getStep();
+                events.add("start " + step);
+                scripts.put(step, ((LoadScriptsWork) work).getScripts());
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            String await = awaits.get(step);
+                            if (await != null) {
+                                getLatch(await).await();
+                            }
+                        } catch (InterruptedException exception) {
+                            Thread.currentThread().interrupt();
+                        }
+                        if (failures.contains(step)) {
+                            workManager.failure(work, new SQLException("Can't execute " + step));
+                            return;
+                        }
+                        getBackupJournal().writeStep(step);
+                        events.add("done " + step);
+                        getLatch(step).countDown();
+                        if (callback != null) {
+                            callback.run();
+                        }
+                    }
+                });
+            }
+        };
+        loadJob.setBackupJournal(backupJournal);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        backupJournal.close();
+        deleteQuietly(file);
+    }
+
+    protected static Table createTable(Schema schema, String name) {
+        Table table = schema.addTable(name);
+        table.setPrimaryKey(new PrimaryKey());
+        return table;
+    }
+
+    protected static ScriptGeneratorManager createScriptGeneratorManager(MetaDataType... objectTypes) {
+        ScriptGeneratorManager scriptGeneratorManager = spy(new ScriptGeneratorManager());
+        scriptGeneratorManager.setObjectTypes(newArrayList(objectTypes));
+        scriptGeneratorManager.setTargetDialect(new NuoDBDialect());
+        return scriptGeneratorManager;
+    }
+
+    protected CountDownLatch getLatch(String step) {
+        synchronized (latches) {
+            CountDownLatch latch = latches.get(step);
+            if (latch == null) {
+                latches.put(step, latch = new CountDownLatch(1));
+            }
+            return latch;
+        }
+    }
+
+    @Test(timeOut = 10000L)
+    public void testForeignKeysAfterIndexes() {
+        // users are indexed the last, so foreign keys of orders referencing users have to wait for them
+        awaits.put(loadJob.getIndexesStep(users), loadJob.getIndexesStep(orders));
+        loadJob.createIndexes(database, indexesScriptGeneratorManager, foreignKeysScriptGeneratorManager);
+
+        String foreignKeys = "start " + loadJob.getForeignKeysStep(orders);
+        assertTrue(events.contains(foreignKeys));
+        assertTrue(events.indexOf(foreignKeys) > events.indexOf("done " + loadJob.getIndexesStep(users)));
+        assertTrue(events.indexOf(foreignKeys) > events.indexOf("done " + loadJob.getIndexesStep(orders)));
+        // users have no foreign keys, the step is recorded right away
+        assertFalse(events.contains("start " + loadJob.getForeignKeysStep(users)));
+        for (Table table : newArrayList(users, orders)) {
+            assertTrue(backupJournal.isStepDone(loadJob.getIndexesStep(table)));
+            assertTrue(backupJournal.isStepDone(loadJob.getForeignKeysStep(table)));
+        }
+    }
+
+    @Test(timeOut = 10000L)
+    public void testResume() {
+        backupJournal.writeStep(loadJob.getIndexesStep(users));
+        backupJournal.writeStep(loadJob.getForeignKeysStep(orders));
+        loadJob.createIndexes(database, indexesScriptGeneratorManager, foreignKeysScriptGeneratorManager);
+
+        assertEquals(events, newArrayList(
+                "start " + loadJob.getIndexesStep(orders), "done " + loadJob.getIndexesStep(orders)));
+        assertTrue(backupJournal.isStepDone(loadJob.getForeignKeysStep(users)));
+    }
+
+    @Test(timeOut = 10000L)
+    public void testFailure() {
+        // failed work never reports users as indexed, the failure has to stop awaiting them
+        failures.add(loadJob.getIndexesStep(users));
+        try {
+            loadJob.createIndexes(database, indexesScriptGeneratorManager, foreignKeysScriptGeneratorManager);
+            fail("Load exception expected");
+        } catch (LoadException exception) {
+            assertTrue(exception.getCause() instanceof SQLException);
+        }
+        assertFalse(events.contains("start " + loadJob.getForeignKeysStep(orders)));
+        assertFalse(backupJournal.isStepDone(loadJob.getIndexesStep(users)));
+    }
+
+    /**
+     * Every work runs on a session of its own, so its scripts switch to the target schema the single dumped schema is
+     * mapped to.
+     */
+    @Test(timeOut = 10000L)
+    public void testTargetSchema() {
+        indexesScriptGeneratorManager.setTargetSchema("target");
+        foreignKeysScriptGeneratorManager.setTargetSchema("target");
+        loadJob.createIndexes(database, indexesScriptGeneratorManager, foreignKeysScriptGeneratorManager);
+
+        String useSchema = new NuoDBDialect().getUseSchema("target", true);
+        assertEquals(scripts.get(loadJob.getIndexesStep(users)),
+                newArrayList(useSchema, "ALTER TABLE ADD PRIMARY KEY"));
+        assertEquals(scripts.get(loadJob.getIndexesStep(orders)),
+                newArrayList(useSchema, "ALTER TABLE ADD PRIMARY KEY"));
+        assertEquals(scripts.get(loadJob.getForeignKeysStep(orders)),
+                newArrayList(useSchema, "ALTER TABLE ADD FOREIGN KEY"));
+    }
+
+    /**
+     * Scripts of the tables of several schemas switch to every schema, which isn't mapped to the target schema.
+     */
+    @Test
+    public void testSchemas() {
+        indexesScriptGeneratorManager.setTargetSchema("target");
+        Table items = createTable(users.getSchema().getCatalog().addSchema("s2"), "items");
+
+        Collection<String> scripts = newArrayList();
+        String useSchema = null;
+        for (Table table : newArrayList(users, orders, items)) {
+            useSchema = loadJob.addTableScripts(scripts, useSchema, table,
+                    loadJob.getIndexScripts(table, indexesScriptGeneratorManager), indexesScriptGeneratorManager);
+        }
+        Dialect dialect = indexesScriptGeneratorManager.getTargetDialect();
+        assertEquals(scripts, newArrayList(
+                dialect.getUseSchema(indexesScriptGeneratorManager.getName(users.getSchema())),
+                "ALTER TABLE ADD PRIMARY KEY", "ALTER TABLE ADD PRIMARY KEY",
+                dialect.getUseSchema(indexesScriptGeneratorManager.getName(items.getSchema())),
+                "ALTER TABLE ADD PRIMARY KEY"));
+    }
+
+    /**
+     * Tables are filtered the same way as for the schema scripts, by the source schema and by the table types.
+     */
+    @Test(timeOut = 10000L)
+    public void testSourceSchema() {
+        Table items = createTable(users.getSchema().getCatalog().addSchema("s2"), "items");
+        Table view = createTable(users.getSchema(), "users_view");
+        view.setType("VIEW");
+        indexesScriptGeneratorManager.setSourceSchema("s1");
+        foreignKeysScriptGeneratorManager.setSourceSchema("s1");
+        loadJob.createIndexes(database, indexesScriptGeneratorManager, foreignKeysScriptGeneratorManager);
+
+        assertTrue(scripts.containsKey(loadJob.getIndexesStep(users)));
+        assertTrue(scripts.containsKey(loadJob.getIndexesStep(orders)));
+        assertFalse(scripts.containsKey(loadJob.getIndexesStep(items)));
+        assertFalse(scripts.containsKey(loadJob.getIndexesStep(view)));
+        assertFalse(backupJournal.isStepDone(loadJob.getIndexesStep(items)));
+    }
+
+    /**
+     * Chunks of the row set aren't submitted once a work fails.
+     */
+    @Test
+    public void testLoadFailure() {
+        failures.add("users:users-1.csv");
+        BlockingQueue<RowSet> loaded = load(createRowSet("users-1.csv", "users-2.csv"));
+
+        assertEquals(events, newArrayList("start users:users-1.csv"));
+        assertTrue(loaded.isEmpty());
+    }
+
+    /**
+     * Chunks committed by the previous run aren't loaded again.
+     */
+    @Test
+    public void testResumeChunks() {
+        backupJournal.writeChunkDone("users", "users-1.csv");
+        RowSet rowSet = createRowSet("users-1.csv", "users-2.csv");
+        BlockingQueue<RowSet> loaded = load(rowSet);
+
+        assertEquals(events, newArrayList("start users:users-2.csv"));
+        assertEquals(newArrayList(loaded), newArrayList(rowSet));
+
+        events.clear();
+        backupJournal.writeChunkDone("users", "users-2.csv");
+        loaded = load(rowSet);
+        assertTrue(events.isEmpty());
+        assertEquals(newArrayList(loaded), newArrayList(rowSet));
+    }
+
+    /**
+     * Rows of a partially committed chunk are skipped up to the committed offset.
+     */
+    @Test
+    public void testResumeOffset() {
+        RowSet rowSet = createRowSet("users-1.csv");
+        Chunk chunk = get(rowSet.getChunks(), 0);
+        backupJournal.writeChunkOffset("users", "users-1.csv", 2);
+        InputFormat inputFormat = mock(InputFormat.class);
+        when(inputFormat.readValues()).thenReturn(new Value[0]);
+
+        assertEquals(loadJob.skipRows(inputFormat, null, rowSet, chunk), 2L);
+        verify(inputFormat, times(2)).readValues();
+    }
+
+    protected RowSet createRowSet(String... chunks) {
+        RowSet rowSet = new TableRowSet(users);
+        rowSet.setName("users");
+        for (String name : chunks) {
+            Chunk chunk = new Chunk();
+            chunk.setName(name);
+            rowSet.addChunk(chunk);
+        }
+        return rowSet;
+    }
+
+    protected BlockingQueue<RowSet> load(RowSet rowSet) {
+        RowSetMapper rowSetMapper = mock(RowSetMapper.class);
+        when(rowSetMapper.map(rowSet, database)).thenReturn(users);
+        loadJob.setRowSetMapper(rowSetMapper);
+        BlockingQueue<RowSet> loaded = new LinkedBlockingQueue<RowSet>();
+        ExecutorService executor = newCachedThreadPool();
+        try {
+            loadJob.load(executor, new SimpleWorkManager(), rowSet, database, loaded);
+        } finally {
+            executor.shutdownNow();
+        }
+        return loaded;
+    }
+
+    @Test
+    public void testInsertRows() {
+        Dialect dialect = mock(Dialect.class);
+        when(dialect.getMaxInsertRows()).thenReturn(1000);
+        when(dialect.getMaxParameters()).thenReturn(2100);
+
+        assertEquals(loadJob.getInsertRows(dialect, users, 3), LoadJob.INSERT_ROWS);
+        loadJob.getJobSpec().setInsertRows(5000);
+        assertEquals(loadJob.getInsertRows(dialect, users, 1), 1000);
+        assertEquals(loadJob.getInsertRows(dialect, users, 3), 700);
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.load;
+
+import com.nuodb.migrator.backup.BackupJournal;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.metrics.JobMetrics;
+import com.nuodb.migrator.metrics.MetricsRecorder;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+
+import static java.io.File.createTempFile;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verifies that chunks and row offsets are recorded to the journal only once they are committed.
+ *
+ * @author Sergey Bushik
+ */
+public class LoadProgressTest {
+
+    private File file;
+    private BackupJournal backupJournal;
+    private JobMetrics jobMetrics;
+    private LoadProgress loadProgress;
+    private RowSet rowSet;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        file = createTempFile("load", ".journal");
+        file.deleteOnExit();
+        backupJournal = new BackupJournal(file);
+        backupJournal.open(false);
+        jobMetrics = new JobMetrics("load");
+        loadProgress = new LoadProgress(backupJournal, new MetricsRecorder(jobMetrics));
+        rowSet = new RowSet();
+        rowSet.setName("users");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        backupJournal.delete();
+    }
+
+    @Test
+    public void testCommitChunks() {
+        load(createChunk("users-1.csv"), 0, 10);
+        load(createChunk("users-2.csv"), 0, 5);
+        assertFalse(backupJournal.isChunkDone("users", "users-1.csv"));
+
+        loadProgress.commit(0);
+        assertTrue(backupJournal.isChunkDone("users", "users-1.csv"));
+        assertTrue(backupJournal.isChunkDone("users", "users-2.csv"));
+        assertEquals(jobMetrics.getTotal().getRows(), 15L);
+        assertEquals(jobMetrics.getTotal().getChunks(), 2L);
+    }
+
+    /**
+     * Rows of the chunk committed before its end are recorded as the chunk offset, the chunk isn't done yet.
+     */
+    @Test
+    public void testCommitOffset() {
+        Chunk chunk = createChunk("users-1.csv");
+        loadProgress.start(rowSet, chunk, 0);
+        rows(10);
+        loadProgress.onCommit(null, null, 0);
+        assertFalse(backupJournal.isChunkDone("users", "users-1.csv"));
+        assertEquals(backupJournal.getChunkOffset("users", "users-1.csv"), 10L);
+
+        rows(5);
+        loadProgress.end();
+        loadProgress.onCommit(null, null, 0);
+        assertTrue(backupJournal.isChunkDone("users", "users-1.csv"));
+    }
+
+    /**
+     * Resumed chunk continues from the offset committed by the previous run.
+     */
+    @Test
+    public void testResume() {
+        backupJournal.writeChunkOffset("users", "users-1.csv", 100);
+        Chunk chunk = createChunk("users-1.csv");
+        loadProgress.start(rowSet, chunk, backupJournal.getChunkOffset("users", "users-1.csv"));
+        loadProgress.commit(0);
+        assertEquals(backupJournal.getChunkOffset("users", "users-1.csv"), 100L);
+
+        rows(20);
+        loadProgress.commit(0);
+        assertEquals(backupJournal.getChunkOffset("users", "users-1.csv"), 120L);
+        assertEquals(jobMetrics.getTotal().getRows(), 20L);
+    }
+
+    /**
+     * Rows which weren't committed aren't recorded, so they are loaded again by the resumed load.
+     */
+    @Test
+    public void testNoCommit() {
+        load(createChunk("users-1.csv"), 0, 10);
+        backupJournal.close();
+
+        BackupJournal resumed = new BackupJournal(file);
+        resumed.open(true);
+        try {
+            assertFalse(resumed.isChunkDone("users", "users-1.csv"));
+            assertEquals(resumed.getChunkOffset("users", "users-1.csv"), 0L);
+        } finally {
+            resumed.close();
+        }
+    }
+
+    private Chunk createChunk(String name) {
+        Chunk chunk = new Chunk();
+        chunk.setName(name);
+        return chunk;
+    }
+
+    private void load(Chunk chunk, long offset, int rows) {
+        loadProgress.start(rowSet, chunk, offset);
+        rows(rows);
+        loadProgress.end();
+    }
+
+    private void rows(int rows) {
+        for (int row = 0; row < rows; row++) {
+            loadProgress.row();
+        }
+    }
+}
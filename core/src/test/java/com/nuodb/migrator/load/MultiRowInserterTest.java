@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.load;
+
+import com.nuodb.migrator.backup.format.value.RowCodec;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.query.Query;
+import org.mockito.InOrder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.PreparedStatement;
+
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Sergey Bushik
+ */
+public class MultiRowInserterTest {
+
+    private PreparedStatement statement;
+    private Query query;
+    private RowCodec rowCodec;
+    private PreparedStatement multiRowStatement;
+    private Query multiRowQuery;
+    private RowCodec multiRowCodec;
+    private CommitStrategy commitStrategy;
+    private LoadProgress loadProgress;
+    private MultiRowInserter multiRowInserter;
+
+    @BeforeMethod
+    public void setUp() {
+        statement = mock(PreparedStatement.class);
+        query = mock(Query.class);
+        rowCodec = mock(RowCodec.class);
+        multiRowStatement = mock(PreparedStatement.class);
+        multiRowQuery = mock(Query.class);
+        multiRowCodec = mock(RowCodec.class);
+        when(multiRowCodec.getWidth()).thenReturn(6);
+        commitStrategy = mock(CommitStrategy.class);
+        loadProgress = mock(LoadProgress.class);
+        multiRowInserter = new MultiRowInserter(
+                new RowInserter(statement, query, rowCodec, commitStrategy, loadProgress),
+                multiRowStatement, multiRowQuery, multiRowCodec, 3);
+    }
+
+    @Test
+    public void testInsert() throws Exception {
+        multiRowInserter.insert(row("1"));
+        multiRowInserter.insert(row("2"));
+        verifyZeroInteractions(commitStrategy, loadProgress);
+
+        multiRowInserter.insert(row("3"));
+        verify(multiRowCodec).setValues(
+                new Value[]{string("1"), string("1"), string("2"), string("2"), string("3"), string("3")});
+        verify(loadProgress, times(3)).row();
+        verify(commitStrategy).onExecute(multiRowStatement, multiRowQuery, 3);
+    }
+
+    /**
+     * Rows left at the end of the chunk are reported to the load progress only after the multi row statements are
+     * finished, as they are executed with the single row statement.
+     */
+    @Test
+    public void testEnd() throws Exception {
+        multiRowInserter.insert(row("1"));
+        multiRowInserter.end();
+
+        InOrder inOrder = inOrder(commitStrategy, rowCodec, loadProgress);
+        inOrder.verify(commitStrategy).finish(multiRowStatement, multiRowQuery);
+        inOrder.verify(rowCodec).setValues(any(Value[].class));
+        inOrder.verify(loadProgress).row();
+        inOrder.verify(commitStrategy).onExecute(statement, query);
+        inOrder.verify(loadProgress).end();
+        inOrder.verify(commitStrategy).finish(statement, query);
+        verify(multiRowCodec, never()).setValues(any(Value[].class));
+    }
+
+    private static Value[] row(String value) {
+        return new Value[]{string(value), string(value)};
+    }
+}
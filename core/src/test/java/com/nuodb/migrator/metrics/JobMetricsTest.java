@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.metrics;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import static com.nuodb.migrator.metrics.MetricsRecorder.FLUSH_ROWS;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class JobMetricsTest {
+
+    private JobMetrics jobMetrics;
+
+    @BeforeMethod
+    public void setUp() {
+        jobMetrics = new JobMetrics("dump");
+    }
+
+    @Test
+    public void testFlush() {
+        MetricsRecorder metricsRecorder = new MetricsRecorder(jobMetrics, "users");
+        metricsRecorder.row();
+        metricsRecorder.row();
+        metricsRecorder.bytes(100);
+        metricsRecorder.chunk();
+        metricsRecorder.fetchTime(MILLISECONDS.toNanos(5));
+        assertEquals(jobMetrics.getTotal().getRows(), 0L);
+
+        metricsRecorder.flush();
+        for (Metrics metrics : new Metrics[]{jobMetrics.getTotal(), jobMetrics.getTable("users"),
+                jobMetrics.getThread()}) {
+            assertEquals(metrics.getRows(), 2L);
+            assertEquals(metrics.getBytes(), 100L);
+            assertEquals(metrics.getChunks(), 1L);
+            assertEquals(metrics.getFetchTime(), 5L);
+        }
+        assertEquals(jobMetrics.getThread().getName(), currentThread().getName());
+    }
+
+    @Test
+    public void testFlushRows() {
+        MetricsRecorder metricsRecorder = new MetricsRecorder(jobMetrics, "users");
+        for (int row = 0; row < FLUSH_ROWS; row++) {
+            metricsRecorder.row();
+        }
+        assertEquals(jobMetrics.getTable("users").getRows(), (long) FLUSH_ROWS);
+    }
+
+    @Test
+    public void testSetTable() {
+        MetricsRecorder metricsRecorder = new MetricsRecorder(jobMetrics, "users");
+        metricsRecorder.row();
+        metricsRecorder.setTable("orders");
+        metricsRecorder.row();
+        metricsRecorder.row();
+        metricsRecorder.flush();
+
+        assertEquals(jobMetrics.getTable("users").getRows(), 1L);
+        assertEquals(jobMetrics.getTable("orders").getRows(), 2L);
+        assertEquals(jobMetrics.getTotal().getRows(), 3L);
+    }
+
+    @Test
+    public void testProgress() {
+        jobMetrics.addExpectedRows("users", 200);
+        jobMetrics.getTable("users").add(50, 0, 0, 0, 0, 0, 0);
+
+        Metrics metrics = jobMetrics.getTable("users");
+        assertEquals(metrics.getExpectedRows(), 200L);
+        assertEquals(metrics.getProgress(), 25D);
+        assertEquals(jobMetrics.getTotal().getExpectedRows(), 200L);
+        assertEquals(new Metrics("orders").getProgress(), -1D);
+        assertEquals(new Metrics("orders").getRemainingTime(), -1L);
+    }
+
+    @Test
+    public void testRegister() throws Exception {
+        MBeanServer mbeanServer = MBeanServerFactory.newMBeanServer();
+        jobMetrics.getTable("users").add(10, 0, 0, 0, 0, 0, 0);
+        jobMetrics.register(mbeanServer);
+        jobMetrics.getTable("orders");
+
+        ObjectName users = new ObjectName("com.nuodb.migrator:type=Metrics,job=\"dump\",scope=table,name=\"users\"");
+        ObjectName orders = new ObjectName("com.nuodb.migrator:type=Metrics,job=\"dump\",scope=table,name=\"orders\"");
+        assertTrue(mbeanServer.isRegistered(users));
+        assertTrue(mbeanServer.isRegistered(orders));
+        assertEquals(mbeanServer.getAttribute(users, "Rows"), 10L);
+
+        jobMetrics.unregister();
+        assertFalse(mbeanServer.isRegistered(users));
+        assertFalse(mbeanServer.isRegistered(orders));
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.MigratorException;
+import com.nuodb.migrator.backup.format.value.SimpleValueFormatRegistry;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.query.StatementCallback;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.jdbc.session.SimpleWorkManager;
+import com.nuodb.migrator.jdbc.session.Work;
+import com.nuodb.migrator.jdbc.session.WorkManager;
+import com.nuodb.migrator.jdbc.split.QuerySplit;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.sql.Types.VARCHAR;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+/**
+ * Streams rows of a split through the sequential and the pipelined paths with stub source result set and target
+ * statement.
+ *
+ * @author Sergey Bushik
+ */
+public class MigrateSplitWorkTest {
+
+    private static final String[] ROWS = {"1", "2", "3", "4", "5"};
+
+    private MigrateJob migrateJob;
+    private ExecutorService pipelineExecutor;
+    private WorkManager workManager;
+    private Session sourceSession;
+    private ResultSet resultSet;
+    private Connection connection;
+    private PreparedStatement statement;
+    private CommitStrategy commitStrategy;
+    private Query query;
+    private MigrateSplitWork migrateSplitWork;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        migrateJob = mock(MigrateJob.class);
+        workManager = new SimpleWorkManager();
+
+        sourceSession = mock(Session.class);
+        when(sourceSession.getDialect()).thenReturn(new NuoDBDialect());
+        when(sourceSession.getConnection()).thenReturn(mock(Connection.class));
+        resultSet = mock(ResultSet.class);
+        final AtomicInteger row = new AtomicInteger();
+        when(resultSet.next()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                return row.incrementAndGet() <= ROWS.length;
+            }
+        });
+        when(resultSet.getString(1)).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) {
+                return ROWS[row.get() - 1];
+            }
+        });
+        QuerySplit querySplit = mock(QuerySplit.class);
+        when(querySplit.getResultSet(any(Connection.class), any(StatementCallback.class))).thenReturn(resultSet);
+
+        Session targetSession = mock(Session.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(targetSession.getDialect()).thenReturn(new NuoDBDialect());
+        when(targetSession.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        SessionFactory targetSessionFactory = mock(SessionFactory.class);
+        when(targetSessionFactory.openSession()).thenReturn(targetSession);
+
+        commitStrategy = mock(CommitStrategy.class);
+        when(migrateJob.getTargetSessionFactory()).thenReturn(targetSessionFactory);
+        when(migrateJob.getSourceValueFormatRegistry()).thenReturn(new SimpleValueFormatRegistry());
+        when(migrateJob.getTargetValueFormatRegistry()).thenReturn(new SimpleValueFormatRegistry());
+        when(migrateJob.createCommitStrategy()).thenReturn(commitStrategy);
+        pipelineExecutor = newSingleThreadExecutor();
+        when(migrateJob.getPipelineExecutor()).thenReturn(pipelineExecutor);
+
+        Column column = new Column("name");
+        column.setTypeCode(VARCHAR);
+        column.setTypeName("VARCHAR");
+        Collection<Column> columns = singleton(column);
+        query = mock(Query.class);
+        migrateSplitWork = new MigrateSplitWork(migrateJob, workManager,
+                new Table("source"), columns, new Table("target"), columns, query, querySplit);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        pipelineExecutor.shutdownNow();
+    }
+
+    @DataProvider(name = "pipelineDepth")
+    public Object[][] createPipelineDepthData() {
+        return new Object[][]{{0}, {2}};
+    }
+
+    @Test(dataProvider = "pipelineDepth", timeOut = 10000)
+    public void testExecute(int pipelineDepth) throws Exception {
+        when(migrateJob.getPipelineDepth()).thenReturn(pipelineDepth);
+        execute();
+
+        InOrder inOrder = inOrder(statement, commitStrategy, connection);
+        for (String row : ROWS) {
+            inOrder.verify(statement).setString(1, row);
+            inOrder.verify(commitStrategy).onExecute(statement, query);
+        }
+        inOrder.verify(commitStrategy).finish(statement, query);
+        inOrder.verify(connection).commit();
+        verify(connection, never()).rollback();
+        assertEquals(migrateSplitWork.getRows(), ROWS.length);
+    }
+
+    @Test(dataProvider = "pipelineDepth", timeOut = 10000)
+    public void testExecuteFailure(int pipelineDepth) throws Exception {
+        when(migrateJob.getPipelineDepth()).thenReturn(pipelineDepth);
+        doThrow(new SQLException("Duplicate key")).when(statement).setString(1, "3");
+        try {
+            execute();
+            fail("Binding failure is expected to be reported");
+        } catch (MigratorException exception) {
+            // expected
+        }
+        verify(commitStrategy, times(2)).onExecute(statement, query);
+        verify(commitStrategy, never()).finish(statement, query);
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        assertEquals(migrateSplitWork.getRows(), 2);
+    }
+
+    /**
+     * Split stops streaming rows once another work of the migration has failed.
+     */
+    @Test(dataProvider = "pipelineDepth", timeOut = 10000)
+    public void testExecuteOtherFailure(int pipelineDepth) throws Exception {
+        when(migrateJob.getPipelineDepth()).thenReturn(pipelineDepth);
+        workManager.failure(mock(Work.class), new MigrateException("Other split failed"));
+        execute();
+
+        verify(statement, never()).setString(eq(1), anyString());
+        verify(commitStrategy, never()).onExecute(any(PreparedStatement.class), any(Query.class));
+        assertEquals(migrateSplitWork.getRows(), 0);
+    }
+
+    private void execute() throws Exception {
+        migrateSplitWork.init(sourceSession);
+        try {
+            migrateSplitWork.execute();
+        } finally {
+            migrateSplitWork.close();
+        }
+    }
+}
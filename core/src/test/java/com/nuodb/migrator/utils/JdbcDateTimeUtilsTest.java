@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2012, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+import static com.nuodb.migrator.utils.JdbcDateTimeUtils.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Sergey Bushik
+ */
+public class JdbcDateTimeUtilsTest {
+
+    @DataProvider(name = "parseTimestamp")
+    public Object[][] createParseTimestampData() {
+        return new Object[][]{
+                {"2013-01-31 23:59:59.0"},
+                {"2013-01-31 23:59:59.1"},
+                {"2013-1-1 01:02:03.000000009"},
+                {"0001-12-01 00:00:00.123456789"},
+                {" 2013-01-31 12:00:00 "}
+        };
+    }
+
+    @Test(dataProvider = "parseTimestamp")
+    public void testParseTimestamp(String value) {
+        Timestamp timestamp = parseTimestamp(value);
+        assertEquals(timestamp, Timestamp.valueOf(value));
+        assertEquals(formatTimestamp(timestamp), timestamp.toString());
+    }
+
+    @DataProvider(name = "parseDate")
+    public Object[][] createParseDateData() {
+        return new Object[][]{
+                {"2013-01-31"},
+                {"2013-1-1"},
+                {"1900-12-31"}
+        };
+    }
+
+    @Test(dataProvider = "parseDate")
+    public void testParseDate(String value) {
+        Date date = parseDate(value);
+        assertEquals(date, Date.valueOf(value));
+        assertEquals(formatDate(date), date.toString());
+    }
+
+    @Test
+    public void testParseTime() {
+        Time time = parseTime("23:05:09");
+        assertEquals(time, Time.valueOf("23:05:09"));
+        assertEquals(formatTime(time), "23:05:09");
+    }
+
+    @Test
+    public void testParseYear() {
+        Date year = parseYear("2013");
+        assertEquals(year, Date.valueOf("2013-01-01"));
+        assertEquals(formatYear(year), "2013");
+    }
+
+    @DataProvider(name = "parseMismatch")
+    public Object[][] createParseMismatchData() {
+        return new Object[][]{
+                {"2013"},
+                {"2013-01"},
+                {"2013-13-01"},
+                {"2013-01-32"},
+                {"13-01-01"},
+                {"2013-01-01T00:00:00"},
+                {"2013-01-01 00:00"},
+                {"2013-01-01 00:00:00."},
+                {"2013-01-01 00:00:00.1234567890"},
+                {"2013-01-01 0a:00:00"},
+                {"text"},
+                {""}
+        };
+    }
+
+    @Test(dataProvider = "parseMismatch")
+    public void testParseMismatch(String value) {
+        assertNull(parseTimestamp(value));
+        if (!value.startsWith("2013-01-01")) {
+            assertNull(parseDate(value));
+        }
+        assertNull(parseTime(value));
+    }
+}